@@ -0,0 +1,84 @@
+package run.halo.app.service.support;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import run.halo.app.cache.InMemoryCacheStore;
+import run.halo.app.model.properties.OtherProperties;
+import run.halo.app.model.properties.PostProperties;
+import run.halo.app.model.properties.PropertyEnum;
+
+/**
+ * Compares reading typed options from a json map in the cache store with reading them from an
+ * {@link OptionSnapshot}.
+ *
+ * <p>Run it with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OptionSnapshotBenchmark {
+
+    private static final String OPTIONS_KEY = "options";
+
+    private InMemoryCacheStore cacheStore;
+
+    private OptionSnapshot optionSnapshot;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> options = new HashMap<>();
+        PropertyEnum.getValuePropertyEnumMap().forEach((key, propertyEnum) -> {
+            if (StringUtils.isNotBlank(propertyEnum.defaultValue())) {
+                options.put(key, PropertyEnum.convertTo(propertyEnum.defaultValue(), propertyEnum));
+            }
+        });
+
+        cacheStore = new InMemoryCacheStore();
+        cacheStore.putAny(OPTIONS_KEY, options);
+
+        optionSnapshot = new OptionSnapshot(options);
+    }
+
+    @TearDown
+    public void tearDown() {
+        cacheStore.preDestroy();
+    }
+
+    @Benchmark
+    public int postPageSizeFromCacheStore() {
+        Map<?, ?> options = cacheStore.getAny(OPTIONS_KEY, Map.class).orElseThrow();
+        return PropertyEnum.convertTo(
+            options.get(PostProperties.INDEX_PAGE_SIZE.getValue()).toString(), Integer.class);
+    }
+
+    @Benchmark
+    public int postPageSizeFromSnapshot() {
+        return optionSnapshot.get(PostProperties.INDEX_PAGE_SIZE.getValue(), Integer.class)
+            .orElseThrow();
+    }
+
+    @Benchmark
+    public boolean absolutePathEnabledFromCacheStore() {
+        Map<?, ?> options = cacheStore.getAny(OPTIONS_KEY, Map.class).orElseThrow();
+        return PropertyEnum.convertTo(
+            options.get(OtherProperties.GLOBAL_ABSOLUTE_PATH_ENABLED.getValue()).toString(),
+            Boolean.class);
+    }
+
+    @Benchmark
+    public boolean absolutePathEnabledFromSnapshot() {
+        return optionSnapshot
+            .get(OtherProperties.GLOBAL_ABSOLUTE_PATH_ENABLED.getValue(), Boolean.class)
+            .orElseThrow();
+    }
+}
@@ -0,0 +1,65 @@
+package run.halo.app.utils;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Compares matching a request path against black patterns of request mapping with
+ * {@link AntPathMatcher} one by one and with a {@link CompiledPathMatcher}, for growing counts of
+ * root folders in static storage.
+ *
+ * <p>Run it with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CompiledPathMatcherBenchmark {
+
+    @Param({"0", "10", "100"})
+    private int staticFolderCount;
+
+    @Param({"/archives/hello-world", "/static-folder-0/a.png"})
+    private String path;
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    private Set<String> patterns;
+
+    private CompiledPathMatcher compiledPathMatcher;
+
+    @Setup
+    public void setUp() {
+        patterns = new LinkedHashSet<>(Set.of("/themes/**", "/js/**", "/images/**", "/fonts/**",
+            "/css/**", "/assets/**", "/color.less", "/swagger-ui.html", "/swagger-ui/**", "/csrf",
+            "/webjars/**", "/upload/**", "/admin/?*/**"));
+        for (int i = 0; i < staticFolderCount; i++) {
+            patterns.add("/static-folder-" + i + "/**");
+        }
+        compiledPathMatcher = CompiledPathMatcher.compile(patterns);
+    }
+
+    @Benchmark
+    public boolean antPathMatcher() {
+        for (String pattern : patterns) {
+            if (antPathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean compiledPathMatcher() {
+        return compiledPathMatcher.matches(path);
+    }
+}
@@ -0,0 +1,157 @@
+package run.halo.app.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.util.Assert;
+import run.halo.app.config.properties.HaloProperties;
+
+/**
+ * Bounded in-memory cache store backed by caffeine.
+ *
+ * <p>Entries are evicted by W-TinyLFU once the total weight, approximately the bytes occupied by
+ * keys and values, exceeds {@link HaloProperties#getCacheMaxWeight()}. Expired entries are
+ * removed by a hierarchical timer wheel instead of sweeping all keys periodically. Hit, miss and
+ * eviction counters are registered as {@code cache.*} metrics tagged with {@code cache=halo}.
+ */
+@Slf4j
+public class CaffeineCacheStore extends AbstractStringCacheStore {
+
+    /**
+     * Cache name used as metric tag.
+     */
+    public static final String CACHE_NAME = "halo";
+
+    /**
+     * Approximate weight of an entry excluding its key and value.
+     */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final Cache<String, CacheWrapper<String>> cache;
+
+    public CaffeineCacheStore(HaloProperties haloProperties, MeterRegistry meterRegistry) {
+        this.haloProperties = haloProperties;
+
+        long maxWeight = haloProperties.getCacheMaxWeight().toBytes();
+        Assert.isTrue(maxWeight > 0, "Max weight of cache must be greater than 0");
+
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxWeight)
+            .<String, CacheWrapper<String>>weigher(CaffeineCacheStore::weigh)
+            .expireAfter(new CacheWrapperExpiry())
+            .scheduler(Scheduler.systemScheduler())
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    @NonNull
+    Optional<CacheWrapper<String>> getInternal(@NonNull String key) {
+        Assert.hasText(key, "Cache key must not be blank");
+
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    @Override
+    void putInternal(@NonNull String key, @NonNull CacheWrapper<String> cacheWrapper) {
+        Assert.hasText(key, "Cache key must not be blank");
+        Assert.notNull(cacheWrapper, "Cache wrapper must not be null");
+
+        cache.put(key, cacheWrapper);
+
+        log.debug("Put [{}] cache: [{}]", key, cacheWrapper);
+    }
+
+    @Override
+    Boolean putInternalIfAbsent(@NonNull String key, @NonNull CacheWrapper<String> cacheWrapper) {
+        Assert.hasText(key, "Cache key must not be blank");
+        Assert.notNull(cacheWrapper, "Cache wrapper must not be null");
+
+        log.debug("Preparing to put key: [{}], value: [{}]", key, cacheWrapper);
+
+        // Only the entry of the key is locked while computing
+        CacheWrapper<String> current = cache.asMap().compute(key,
+            (k, previous) -> previous == null || isExpired(previous) ? cacheWrapper : previous);
+
+        if (current != cacheWrapper) {
+            log.warn("Failed to put the cache, because the key: [{}] has been present already",
+                key);
+            return false;
+        }
+
+        log.debug("Put successfully");
+        return true;
+    }
+
+    @Override
+    public void delete(@NonNull String key) {
+        Assert.hasText(key, "Cache key must not be blank");
+
+        cache.invalidate(key);
+        log.debug("Removed key: [{}]", key);
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        log.debug("Invalidating all caches");
+        cache.invalidateAll();
+        cache.cleanUp();
+    }
+
+    private static int weigh(@NonNull String key, @NonNull CacheWrapper<String> cacheWrapper) {
+        long chars = (long) key.length()
+            + (cacheWrapper.getData() == null ? 0 : cacheWrapper.getData().length());
+        // A char occupies two bytes at most
+        return (int) Math.min(chars * 2 + ENTRY_OVERHEAD, Integer.MAX_VALUE);
+    }
+
+    private static boolean isExpired(@NonNull CacheWrapper<String> cacheWrapper) {
+        return cacheWrapper.getExpireAt() != null
+            && cacheWrapper.getExpireAt().getTime() <= System.currentTimeMillis();
+    }
+
+    /**
+     * Expires entries at the time held by their cache wrappers.
+     */
+    private static class CacheWrapperExpiry implements Expiry<String, CacheWrapper<String>> {
+
+        @Override
+        public long expireAfterCreate(@NonNull String key,
+            @NonNull CacheWrapper<String> cacheWrapper, long currentTime) {
+            return remainingNanos(cacheWrapper);
+        }
+
+        @Override
+        public long expireAfterUpdate(@NonNull String key,
+            @NonNull CacheWrapper<String> cacheWrapper, long currentTime,
+            long currentDuration) {
+            return remainingNanos(cacheWrapper);
+        }
+
+        @Override
+        public long expireAfterRead(@NonNull String key,
+            @NonNull CacheWrapper<String> cacheWrapper, long currentTime,
+            long currentDuration) {
+            return currentDuration;
+        }
+
+        private long remainingNanos(@NonNull CacheWrapper<String> cacheWrapper) {
+            if (cacheWrapper.getExpireAt() == null) {
+                return Long.MAX_VALUE;
+            }
+            long remainingMillis =
+                cacheWrapper.getExpireAt().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+    }
+}
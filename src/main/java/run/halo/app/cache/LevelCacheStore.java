@@ -1,9 +1,10 @@
 package run.halo.app.cache;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.Map;
 import java.util.Optional;
@@ -19,14 +20,24 @@ import org.iq80.leveldb.Options;
 import org.iq80.leveldb.WriteBatch;
 import org.iq80.leveldb.impl.Iq80DBFactory;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 import run.halo.app.config.properties.HaloProperties;
-import run.halo.app.utils.JsonUtils;
 
 /**
  * level-db cache store
  * Create by Pencilso on 2020/1/9 7:20 下午
+ *
+ * <p>Every cache is stored as a value key and an expiry key:
+ * <ul>
+ *     <li>value key: {@code 0x00} + utf-8 key, whose value is the expire-at and create-at
+ *     timestamps as two big-endian longs followed by the utf-8 payload. An expire-at of 0 means
+ *     the cache never expires.</li>
+ *     <li>expiry key: {@code 0x01} + big-endian expire-at + utf-8 key, with empty value. Expiry
+ *     keys are sorted by expire-at, so the cleaner only scans the expired range.</li>
+ * </ul>
+ * Values written as json by previous versions are migrated once the store is opened.
  */
 @Slf4j
 public class LevelCacheStore extends AbstractStringCacheStore {
@@ -35,6 +46,24 @@ public class LevelCacheStore extends AbstractStringCacheStore {
      */
     private static final long PERIOD = 60 * 1000;
 
+    private static final byte VALUE_PREFIX = 0x00;
+
+    private static final byte EXPIRY_PREFIX = 0x01;
+
+    private static final byte META_PREFIX = 0x02;
+
+    /**
+     * Presents once the values have been migrated to the binary format.
+     */
+    private static final byte[] FORMAT_KEY = metaKey("format");
+
+    private static final byte[] FORMAT_VERSION = {1};
+
+    /**
+     * Length of expire-at and create-at header.
+     */
+    private static final int HEADER_LENGTH = Long.BYTES * 2;
+
     private static DB LEVEL_DB;
 
     private Timer timer;
@@ -56,6 +85,7 @@ public class LevelCacheStore extends AbstractStringCacheStore {
             options.createIfMissing(true);
             //open leveldb store folder
             LEVEL_DB = factory.open(folder, options);
+            migrateJsonValues();
             timer = new Timer();
             timer.scheduleAtFixedRate(new CacheExpiryCleaner(), 0, PERIOD);
         } catch (Exception ex) {
@@ -69,8 +99,13 @@ public class LevelCacheStore extends AbstractStringCacheStore {
     @PreDestroy
     public void preDestroy() {
         try {
-            LEVEL_DB.close();
-            timer.cancel();
+            if (timer != null) {
+                timer.cancel();
+            }
+            if (LEVEL_DB != null) {
+                LEVEL_DB.close();
+                LEVEL_DB = null;
+            }
         } catch (IOException e) {
             log.error("close leveldb error ", e);
         }
@@ -80,13 +115,24 @@ public class LevelCacheStore extends AbstractStringCacheStore {
     @NonNull
     Optional<CacheWrapper<String>> getInternal(@NonNull String key) {
         Assert.hasText(key, "Cache key must not be blank");
-        byte[] bytes = LEVEL_DB.get(stringToBytes(key));
-        if (bytes != null) {
-            String valueJson = bytesToString(bytes);
-            return StringUtils.isEmpty(valueJson) ? Optional.empty() :
-                jsonToCacheWrapper(valueJson);
+        byte[] bytes = LEVEL_DB.get(valueKey(key));
+        if (bytes == null || bytes.length < HEADER_LENGTH) {
+            return Optional.empty();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long expireAt = buffer.getLong();
+        long createAt = buffer.getLong();
+
+        CacheWrapper<String> cacheWrapper = new CacheWrapper<>();
+        cacheWrapper.setExpireAt(expireAt == 0 ? null : new Date(expireAt));
+        cacheWrapper.setCreateAt(new Date(createAt));
+        if (expireAt == 0 || expireAt > System.currentTimeMillis()) {
+            // Decode payload only if the cache is alive
+            cacheWrapper.setData(new String(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH,
+                StandardCharsets.UTF_8));
         }
-        return Optional.empty();
+        return Optional.of(cacheWrapper);
     }
 
     @Override
@@ -98,68 +144,199 @@ public class LevelCacheStore extends AbstractStringCacheStore {
     Boolean putInternalIfAbsent(@NonNull String key, @NonNull CacheWrapper<String> cacheWrapper) {
         Assert.hasText(key, "Cache key must not be blank");
         Assert.notNull(cacheWrapper, "Cache wrapper must not be null");
+
+        WriteBatch writeBatch = LEVEL_DB.createWriteBatch();
         try {
-            LEVEL_DB.put(
-                stringToBytes(key),
-                stringToBytes(JsonUtils.objectToJson(cacheWrapper))
-            );
-            return true;
-        } catch (JsonProcessingException e) {
-            log.warn("Put cache fail json2object key: [{}] value:[{}]", key, cacheWrapper);
+            put(writeBatch, key, cacheWrapper);
+            LEVEL_DB.write(writeBatch);
+        } finally {
+            closeQuietly(writeBatch);
         }
         log.debug("Cache key: [{}], original cache wrapper: [{}]", key, cacheWrapper);
-        return false;
+        return true;
     }
 
     @Override
     public void delete(@NonNull String key) {
-        LEVEL_DB.delete(stringToBytes(key));
+        WriteBatch writeBatch = LEVEL_DB.createWriteBatch();
+        try {
+            deleteExpiryKeyOf(writeBatch, key);
+            writeBatch.delete(valueKey(key));
+            LEVEL_DB.write(writeBatch);
+        } finally {
+            closeQuietly(writeBatch);
+        }
         log.debug("cache remove key: [{}]", key);
     }
 
+    /**
+     * Deletes expired caches by scanning expiry keys up to now.
+     */
+    void cleanExpired() {
+        long now = System.currentTimeMillis();
+        int count = 0;
 
-    private byte[] stringToBytes(String str) {
-        return str.getBytes(Charset.defaultCharset());
-    }
+        WriteBatch writeBatch = LEVEL_DB.createWriteBatch();
+        try (DBIterator iterator = LEVEL_DB.iterator()) {
+            for (iterator.seek(new byte[] {EXPIRY_PREFIX}); iterator.hasNext(); ) {
+                byte[] expiryKey = iterator.next().getKey();
+                if (expiryKey.length <= 1 + Long.BYTES || expiryKey[0] != EXPIRY_PREFIX) {
+                    break;
+                }
 
-    private String bytesToString(byte[] bytes) {
-        return new String(bytes, Charset.defaultCharset());
+                long expireAt = ByteBuffer.wrap(expiryKey, 1, Long.BYTES).getLong();
+                if (expireAt > now) {
+                    // The rest are not expired yet
+                    break;
+                }
+
+                writeBatch.delete(expiryKey);
+                byte[] valueKey = valueKeyOf(expiryKey);
+                // The value may have been overwritten with another expire-at
+                if (expireAtOf(LEVEL_DB.get(valueKey)) == expireAt) {
+                    writeBatch.delete(valueKey);
+                }
+                count++;
+            }
+            if (count > 0) {
+                LEVEL_DB.write(writeBatch);
+                log.debug("Deleted [{}] caches for expiration", count);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close leveldb iterator", e);
+        } finally {
+            closeQuietly(writeBatch);
+        }
     }
 
-    private class CacheExpiryCleaner extends TimerTask {
+    /**
+     * Migrates json values written by previous versions to the binary format.
+     */
+    private void migrateJsonValues() {
+        if (LEVEL_DB.get(FORMAT_KEY) != null) {
+            return;
+        }
 
-        @Override
-        public void run() {
-            //batch
-            WriteBatch writeBatch = LEVEL_DB.createWriteBatch();
-
-            DBIterator iterator = LEVEL_DB.iterator();
-            long currentTimeMillis = System.currentTimeMillis();
-            while (iterator.hasNext()) {
-                Map.Entry<byte[], byte[]> next = iterator.next();
-                if (next.getKey() == null || next.getValue() == null) {
+        int count = 0;
+        WriteBatch writeBatch = LEVEL_DB.createWriteBatch();
+        try (DBIterator iterator = LEVEL_DB.iterator()) {
+            for (iterator.seekToFirst(); iterator.hasNext(); ) {
+                Map.Entry<byte[], byte[]> entry = iterator.next();
+                byte[] oldKey = entry.getKey();
+                if (oldKey.length == 0 || (oldKey[0] & 0xFF) <= META_PREFIX) {
                     continue;
                 }
 
-                String valueJson = bytesToString(next.getValue());
-                Optional<CacheWrapper<String>> stringCacheWrapper =
+                writeBatch.delete(oldKey);
+
+                String valueJson = new String(entry.getValue(), Charset.defaultCharset());
+                Optional<CacheWrapper<String>> cacheWrapper =
                     StringUtils.isEmpty(valueJson) ? Optional.empty() :
                         jsonToCacheWrapper(valueJson);
-                if (stringCacheWrapper.isPresent()) {
-                    //get expireat time
-                    long expireAtTime = stringCacheWrapper.map(CacheWrapper::getExpireAt)
-                        .map(Date::getTime)
-                        .orElse(0L);
-                    //if expire
-                    if (expireAtTime != 0 && currentTimeMillis > expireAtTime) {
-                        writeBatch.delete(next.getKey());
-                        log.debug("deleted the cache: [{}] for expiration",
-                            bytesToString(next.getKey()));
-                    }
+                if (cacheWrapper.isPresent() && cacheWrapper.get().getData() != null
+                    && !isExpired(cacheWrapper.get())) {
+                    put(writeBatch, new String(oldKey, Charset.defaultCharset()),
+                        cacheWrapper.get());
+                    count++;
                 }
             }
+            writeBatch.put(FORMAT_KEY, FORMAT_VERSION);
             LEVEL_DB.write(writeBatch);
+            log.info("Migrated [{}] caches of leveldb to binary format", count);
+        } catch (IOException e) {
+            log.warn("Failed to close leveldb iterator", e);
+        } finally {
+            closeQuietly(writeBatch);
         }
     }
-}
 
+    private void put(@NonNull WriteBatch writeBatch, @NonNull String key,
+        @NonNull CacheWrapper<String> cacheWrapper) {
+        long expireAt = toMillis(cacheWrapper.getExpireAt());
+        long createAt = toMillis(cacheWrapper.getCreateAt());
+        byte[] payload = cacheWrapper.getData().getBytes(StandardCharsets.UTF_8);
+
+        byte[] value = ByteBuffer.allocate(HEADER_LENGTH + payload.length)
+            .putLong(expireAt)
+            .putLong(createAt)
+            .put(payload)
+            .array();
+
+        deleteExpiryKeyOf(writeBatch, key);
+        writeBatch.put(valueKey(key), value);
+        if (expireAt != 0) {
+            writeBatch.put(expiryKey(expireAt, key), new byte[0]);
+        }
+    }
+
+    private void deleteExpiryKeyOf(@NonNull WriteBatch writeBatch, @NonNull String key) {
+        long expireAt = expireAtOf(LEVEL_DB.get(valueKey(key)));
+        if (expireAt != 0) {
+            writeBatch.delete(expiryKey(expireAt, key));
+        }
+    }
+
+    private static long expireAtOf(@Nullable byte[] value) {
+        if (value == null || value.length < HEADER_LENGTH) {
+            return 0;
+        }
+        return ByteBuffer.wrap(value).getLong();
+    }
+
+    private static boolean isExpired(@NonNull CacheWrapper<String> cacheWrapper) {
+        return cacheWrapper.getExpireAt() != null
+            && cacheWrapper.getExpireAt().getTime() <= System.currentTimeMillis();
+    }
+
+    private static long toMillis(@Nullable Date date) {
+        return date == null ? 0 : date.getTime();
+    }
+
+    private static byte[] valueKey(@NonNull String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(1 + keyBytes.length)
+            .put(VALUE_PREFIX)
+            .put(keyBytes)
+            .array();
+    }
+
+    private static byte[] valueKeyOf(@NonNull byte[] expiryKey) {
+        byte[] valueKey = new byte[expiryKey.length - Long.BYTES];
+        valueKey[0] = VALUE_PREFIX;
+        System.arraycopy(expiryKey, 1 + Long.BYTES, valueKey, 1, valueKey.length - 1);
+        return valueKey;
+    }
+
+    private static byte[] expiryKey(long expireAt, @NonNull String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(1 + Long.BYTES + keyBytes.length)
+            .put(EXPIRY_PREFIX)
+            .putLong(expireAt)
+            .put(keyBytes)
+            .array();
+    }
+
+    private static byte[] metaKey(@NonNull String name) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(1 + nameBytes.length)
+            .put(META_PREFIX)
+            .put(nameBytes)
+            .array();
+    }
+
+    private static void closeQuietly(@NonNull WriteBatch writeBatch) {
+        try {
+            writeBatch.close();
+        } catch (IOException e) {
+            log.warn("Failed to close leveldb write batch", e);
+        }
+    }
+
+    private class CacheExpiryCleaner extends TimerTask {
+
+        @Override
+        public void run() {
+            cleanExpired();
+        }
+    }
+}
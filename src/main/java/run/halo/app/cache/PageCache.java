@@ -0,0 +1,243 @@
+package run.halo.app.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import run.halo.app.config.properties.HaloProperties;
+
+/**
+ * Cache of rendered pages for anonymous visitors.
+ *
+ * <p>Every page is tagged with what it depends on, such as {@code post:1} for a post page.
+ * Pages without any tag are listing pages and tagged with {@link #LIST_TAG}. Invalidating a tag
+ * drops every page tagged with it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "halo", name = "page-cache", havingValue = "true")
+public class PageCache {
+
+    /**
+     * Tag of listing pages.
+     */
+    public static final String LIST_TAG = "list";
+
+    public static final String POST_TAG_PREFIX = "post:";
+
+    public static final String SHEET_TAG_PREFIX = "sheet:";
+
+    /**
+     * Request attribute name of page tags.
+     */
+    private static final String TAGS_ATTRIBUTE = PageCache.class.getName() + ".TAGS";
+
+    /**
+     * Bodies smaller than this size are not worth compressing.
+     */
+    private static final int MIN_GZIP_SIZE = 1024;
+
+    private final Cache<String, CachedPage> pages;
+
+    /**
+     * Increased on every invalidation, so that pages rendered before it will not be cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public PageCache(HaloProperties haloProperties) {
+        this.pages = Caffeine.newBuilder()
+            .maximumWeight(haloProperties.getPageCacheMaxWeight().toBytes())
+            .weigher((String key, CachedPage page) -> key.length() * 2 + page.getWeight())
+            .expireAfterWrite(haloProperties.getPageCacheTtl())
+            .build();
+    }
+
+    /**
+     * Tags the page rendering in current request.
+     *
+     * @param tags tags
+     */
+    @SuppressWarnings("unchecked")
+    public static void tag(@NonNull String... tags) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+
+        Set<String> pageTags = (Set<String>) attributes
+            .getAttribute(TAGS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (pageTags == null) {
+            pageTags = new LinkedHashSet<>();
+            attributes.setAttribute(TAGS_ATTRIBUTE, pageTags, RequestAttributes.SCOPE_REQUEST);
+        }
+        Collections.addAll(pageTags, tags);
+    }
+
+    /**
+     * Gets tags of the page rendered in the request.
+     *
+     * @param request http servlet request
+     * @return tags of the page
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public static Set<String> getTags(@NonNull HttpServletRequest request) {
+        Set<String> tags = (Set<String>) request.getAttribute(TAGS_ATTRIBUTE);
+        return tags == null || tags.isEmpty() ? Collections.singleton(LIST_TAG) : tags;
+    }
+
+    /**
+     * Gets current generation, which should be taken before rendering the page.
+     *
+     * @return current generation
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Gets the cached page.
+     *
+     * @param key page key
+     * @return cached page or empty if absent
+     */
+    @NonNull
+    public Optional<CachedPage> get(@NonNull String key) {
+        return Optional.ofNullable(pages.getIfPresent(key));
+    }
+
+    /**
+     * Caches the page unless anything was invalidated since the generation.
+     *
+     * @param key page key
+     * @param page page to cache
+     * @param generation generation taken before rendering the page
+     * @return true if cached, false otherwise
+     */
+    public boolean put(@NonNull String key, @NonNull CachedPage page, long generation) {
+        Assert.notNull(key, "Page key must not be null");
+        Assert.notNull(page, "Cached page must not be null");
+
+        if (this.generation.get() != generation) {
+            return false;
+        }
+
+        pages.put(key, page);
+
+        if (this.generation.get() != generation) {
+            // Invalidated while putting
+            pages.asMap().remove(key, page);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drops every page tagged with any of the tags.
+     *
+     * @param tags tags
+     */
+    public void invalidate(@NonNull String... tags) {
+        invalidate(Arrays.asList(tags));
+    }
+
+    /**
+     * Drops every page tagged with any of the tags.
+     *
+     * @param tags tags
+     */
+    public void invalidate(@NonNull Collection<String> tags) {
+        Assert.notNull(tags, "Tags must not be null");
+
+        Set<String> tagSet = new HashSet<>(tags);
+        generation.incrementAndGet();
+        pages.asMap().values()
+            .removeIf(page -> page.getTags().stream().anyMatch(tagSet::contains));
+
+        log.debug("Invalidated cached pages tagged with: {}", tagSet);
+    }
+
+    /**
+     * Drops all cached pages.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        pages.invalidateAll();
+
+        log.debug("Invalidated all cached pages");
+    }
+
+    /**
+     * Rendered page.
+     */
+    @Getter
+    public static final class CachedPage {
+
+        private final String contentType;
+
+        private final byte[] body;
+
+        /**
+         * Gzip compressed body, null if not worth compressing.
+         */
+        @Nullable
+        private final byte[] gzipBody;
+
+        private final String etag;
+
+        private final Set<String> tags;
+
+        public CachedPage(@Nullable String contentType, @NonNull byte[] body,
+            @NonNull Set<String> tags) {
+            Assert.notNull(body, "Page body must not be null");
+            Assert.notNull(tags, "Page tags must not be null");
+
+            this.contentType = contentType;
+            this.body = body;
+            this.gzipBody = gzip(body);
+            this.etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            this.tags = Collections.unmodifiableSet(new HashSet<>(tags));
+        }
+
+        private int getWeight() {
+            return body.length + (gzipBody == null ? 0 : gzipBody.length) + 256;
+        }
+
+        @Nullable
+        private static byte[] gzip(@NonNull byte[] body) {
+            if (body.length < MIN_GZIP_SIZE) {
+                return null;
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+                gzipOut.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            byte[] compressed = out.toByteArray();
+            return compressed.length < body.length ? compressed : null;
+        }
+    }
+}
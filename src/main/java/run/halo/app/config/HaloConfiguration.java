@@ -1,6 +1,7 @@
 package run.halo.app.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
@@ -18,6 +19,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 import run.halo.app.cache.AbstractStringCacheStore;
+import run.halo.app.cache.CaffeineCacheStore;
 import run.halo.app.cache.InMemoryCacheStore;
 import run.halo.app.cache.LevelCacheStore;
 import run.halo.app.config.attributeconverter.AttributeConverterAutoGenerateConfiguration;
@@ -64,12 +66,15 @@ public class HaloConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    AbstractStringCacheStore stringCacheStore() {
+    AbstractStringCacheStore stringCacheStore(MeterRegistry meterRegistry) {
         AbstractStringCacheStore stringCacheStore;
         switch (haloProperties.getCache()) {
             case "level":
                 stringCacheStore = new LevelCacheStore(this.haloProperties);
                 break;
+            case "caffeine":
+                stringCacheStore = new CaffeineCacheStore(this.haloProperties, meterRegistry);
+                break;
             case "memory":
             default:
                 //memory or default
@@ -51,6 +51,7 @@ import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandl
 import org.springframework.web.servlet.view.freemarker.FreeMarkerViewResolver;
 import run.halo.app.config.properties.HaloProperties;
 import run.halo.app.core.PageJacksonSerializer;
+import run.halo.app.core.freemarker.ThemeTemplateCache;
 import run.halo.app.core.freemarker.inheritance.ThemeExtendsDirective;
 import run.halo.app.factory.StringToEnumConverterFactory;
 import run.halo.app.model.support.HaloConst;
@@ -72,15 +73,18 @@ public class HaloMvcConfiguration implements WebMvcConfigurer {
     private final PageableHandlerMethodArgumentResolver pageableResolver;
     private final SortHandlerMethodArgumentResolver sortResolver;
     private final HaloProperties haloProperties;
+    private final ThemeTemplateCache themeTemplateCache;
     @Value("${springfox.documentation.swagger-ui.base-url:}")
     private String swaggerBaseUrl;
 
     public HaloMvcConfiguration(PageableHandlerMethodArgumentResolver pageableResolver,
         SortHandlerMethodArgumentResolver sortResolver,
-        HaloProperties haloProperties) {
+        HaloProperties haloProperties,
+        ThemeTemplateCache themeTemplateCache) {
         this.pageableResolver = pageableResolver;
         this.sortResolver = sortResolver;
         this.haloProperties = haloProperties;
+        this.themeTemplateCache = themeTemplateCache;
     }
 
     // @Bean
@@ -220,12 +224,12 @@ public class HaloMvcConfiguration implements WebMvcConfigurer {
     public void configureViewResolvers(ViewResolverRegistry registry) {
         FreeMarkerViewResolver resolver = new FreeMarkerViewResolver();
         resolver.setAllowRequestOverride(false);
-        resolver.setCache(false);
         resolver.setExposeRequestAttributes(false);
         resolver.setExposeSessionAttributes(false);
         resolver.setExposeSpringMacroHelpers(true);
         resolver.setSuffix(HaloConst.SUFFIX_FTL);
         resolver.setContentType("text/html; charset=UTF-8");
+        themeTemplateCache.registerViewResolver(resolver);
         registry.viewResolver(resolver);
     }
 
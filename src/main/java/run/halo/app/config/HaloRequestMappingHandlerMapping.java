@@ -6,18 +6,18 @@ import static run.halo.app.utils.HaloUtils.ensureBoth;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.stream.Stream;
 import javax.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationListener;
-import org.springframework.util.AntPathMatcher;
-import org.springframework.util.PathMatcher;
+import org.springframework.lang.NonNull;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import run.halo.app.config.properties.HaloProperties;
 import run.halo.app.event.StaticStorageChangedEvent;
+import run.halo.app.utils.CompiledPathMatcher;
 
 /**
  * @author ryanwang
@@ -27,37 +27,37 @@ import run.halo.app.event.StaticStorageChangedEvent;
 public class HaloRequestMappingHandlerMapping extends RequestMappingHandlerMapping
     implements ApplicationListener<StaticStorageChangedEvent> {
 
-    private final Set<String> blackPatterns = new HashSet<>(16);
-
-    private final PathMatcher pathMatcher;
-
     private final HaloProperties haloProperties;
 
+    /**
+     * Matcher of black patterns, which is replaced as a whole once static storage changed.
+     */
+    private volatile CompiledPathMatcher blackPatternMatcher;
+
     public HaloRequestMappingHandlerMapping(HaloProperties haloProperties) {
         this.haloProperties = haloProperties;
-        this.initBlackPatterns();
-        pathMatcher = new AntPathMatcher();
+        this.blackPatternMatcher = CompiledPathMatcher.compile(buildBlackPatterns());
     }
 
     @Override
     protected HandlerMethod lookupHandlerMethod(String lookupPath, HttpServletRequest request)
         throws Exception {
         log.debug("Looking path: [{}]", lookupPath);
-        for (String blackPattern : blackPatterns) {
-            if (this.pathMatcher.match(blackPattern, lookupPath)) {
-                log.debug("Skipped path [{}] with pattern: [{}]", lookupPath, blackPattern);
-                return null;
-            }
+        if (blackPatternMatcher.matches(lookupPath)) {
+            log.debug("Skipped path [{}] with black patterns", lookupPath);
+            return null;
         }
         return super.lookupHandlerMethod(lookupPath, request);
     }
 
-    private void initBlackPatterns() {
+    @NonNull
+    private Set<String> buildBlackPatterns() {
         String uploadUrlPattern =
             ensureBoth(haloProperties.getUploadUrlPrefix(), URL_SEPARATOR) + "**";
         String adminPathPattern =
             ensureBoth(haloProperties.getAdminPath(), URL_SEPARATOR) + "?*/**";
 
+        Set<String> blackPatterns = new LinkedHashSet<>(16);
         blackPatterns.add("/themes/**");
         blackPatterns.add("/js/**");
         blackPatterns.add("/images/**");
@@ -71,29 +71,28 @@ public class HaloRequestMappingHandlerMapping extends RequestMappingHandlerMappi
         blackPatterns.add("/webjars/**");
         blackPatterns.add(uploadUrlPattern);
         blackPatterns.add(adminPathPattern);
+        return blackPatterns;
     }
 
     @Override
     public void onApplicationEvent(StaticStorageChangedEvent event) {
         Path staticPath = event.getStaticPath();
         try (Stream<Path> rootPathStream = Files.list(staticPath)) {
-            synchronized (this) {
-                blackPatterns.clear();
-                initBlackPatterns();
-                rootPathStream.forEach(rootPath -> {
-                        if (Files.isDirectory(rootPath)) {
-                            String directoryPattern = "/" + rootPath.getFileName().toString()
-                                + "/**";
-                            blackPatterns.add(directoryPattern);
-                            log.debug("Exclude for folder path pattern: [{}]", directoryPattern);
-                        } else {
-                            String pathPattern = "/" + rootPath.getFileName().toString();
-                            blackPatterns.add(pathPattern);
-                            log.debug("Exclude for file path pattern: [{}]", pathPattern);
-                        }
+            Set<String> blackPatterns = buildBlackPatterns();
+            rootPathStream.forEach(rootPath -> {
+                    if (Files.isDirectory(rootPath)) {
+                        String directoryPattern = "/" + rootPath.getFileName().toString()
+                            + "/**";
+                        blackPatterns.add(directoryPattern);
+                        log.debug("Exclude for folder path pattern: [{}]", directoryPattern);
+                    } else {
+                        String pathPattern = "/" + rootPath.getFileName().toString();
+                        blackPatterns.add(pathPattern);
+                        log.debug("Exclude for file path pattern: [{}]", pathPattern);
                     }
-                );
-            }
+                }
+            );
+            blackPatternMatcher = CompiledPathMatcher.compile(blackPatterns);
         } catch (IOException e) {
             log.error("Failed to refresh static directory mapping", e);
         }
@@ -6,8 +6,10 @@ import static run.halo.app.model.support.HaloConst.USER_HOME;
 import static run.halo.app.utils.HaloUtils.ensureSuffix;
 
 import java.time.Duration;
+import java.util.List;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 import run.halo.app.model.enums.Mode;
 
 
@@ -74,6 +76,57 @@ public class HaloProperties {
      * cache store impl
      * memory
      * level
+     * caffeine
      */
     private String cache = "memory";
+
+    /**
+     * Max weight of caffeine cache store, approximately the memory occupied by keys and values.
+     */
+    private DataSize cacheMaxWeight = DataSize.ofMegabytes(64);
+
+    /**
+     * Enable rendered page cache for anonymous visitors.
+     */
+    private boolean pageCache = false;
+
+    /**
+     * Time to live of cached pages.
+     */
+    private Duration pageCacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * Max weight of page cache, approximately the memory occupied by cached pages.
+     */
+    private DataSize pageCacheMaxWeight = DataSize.ofMegabytes(32);
+
+    /**
+     * Cache templates and views of themes until themes are updated, disable it to reload
+     * templates once changed, e.g. when developing themes.
+     */
+    private boolean templateCache = true;
+
+    /**
+     * Max widths and heights of thumbnails generated for uploaded images, the first one is
+     * used as the thumbnail of attachments.
+     */
+    private List<Integer> thumbnailSizes = List.of(256);
+
+    /**
+     * Number of threads generating thumbnails.
+     */
+    private int thumbnailThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Max number of images waiting for thumbnails, uploads generate thumbnails by themselves
+     * once the queue is full.
+     */
+    private int thumbnailQueueCapacity = 100;
+
+    /**
+     * post search impl
+     * lucene
+     * database
+     */
+    private String search = "lucene";
 }
@@ -81,8 +81,16 @@ public class BackupController {
     @PostMapping("work-dir")
     @ApiOperation("Backups work directory")
     @DisableOnCondition
-    public BackupDTO backupHalo() {
-        return backupService.backupWorkDirectory();
+    public BackupDTO backupHalo(
+        @RequestParam(value = "incremental", defaultValue = "false") boolean incremental) {
+        return backupService.backupWorkDirectory(incremental);
+    }
+
+    @PostMapping("work-dir/restore")
+    @ApiOperation("Restores a work directory backup into a full backup")
+    @DisableOnCondition
+    public BackupDTO restoreBackup(@RequestParam("filename") String filename) {
+        return backupService.restoreWorkDirBackup(filename);
     }
 
     @GetMapping("work-dir")
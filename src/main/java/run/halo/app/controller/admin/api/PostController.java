@@ -36,6 +36,7 @@ import run.halo.app.model.params.PostParam;
 import run.halo.app.model.params.PostQuery;
 import run.halo.app.model.vo.PostDetailVO;
 import run.halo.app.service.OptionService;
+import run.halo.app.service.PostSearchService;
 import run.halo.app.service.PostService;
 
 /**
@@ -52,14 +53,18 @@ public class PostController {
 
     private final PostService postService;
 
+    private final PostSearchService postSearchService;
+
     private final AbstractStringCacheStore cacheStore;
 
     private final OptionService optionService;
 
     public PostController(PostService postService,
+        PostSearchService postSearchService,
         AbstractStringCacheStore cacheStore,
         OptionService optionService) {
         this.postService = postService;
+        this.postSearchService = postSearchService;
         this.cacheStore = cacheStore;
         this.optionService = optionService;
     }
@@ -166,6 +171,18 @@ public class PostController {
         return new BasePostDetailDTO().convertFrom(post);
     }
 
+    @PutMapping("contents/render")
+    @ApiOperation("Re-renders format content of all posts")
+    public long renderAllContent() {
+        return postService.renderAllContent();
+    }
+
+    @PutMapping("search/index")
+    @ApiOperation("Rebuilds search index of all posts")
+    public void rebuildSearchIndex() {
+        postSearchService.rebuildIndex();
+    }
+
     @DeleteMapping("{postId:\\d+}")
     @ApiOperation("Deletes a photo permanently")
     public void deletePermanently(@PathVariable("postId") Integer postId) {
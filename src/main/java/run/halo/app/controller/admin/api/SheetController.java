@@ -132,6 +132,12 @@ public class SheetController {
         return new BasePostDetailDTO().convertFrom(sheet);
     }
 
+    @PutMapping("contents/render")
+    @ApiOperation("Re-renders format content of all sheets")
+    public long renderAllContent() {
+        return sheetService.renderAllContent();
+    }
+
     @DeleteMapping("{sheetId:\\d+}")
     @ApiOperation("Deletes a sheet")
     public SheetDetailVO deleteBy(@PathVariable("sheetId") Integer sheetId) {
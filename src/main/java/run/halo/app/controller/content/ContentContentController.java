@@ -3,9 +3,9 @@ package run.halo.app.controller.content;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 import javax.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -30,14 +30,14 @@ import run.halo.app.model.dto.post.BasePostMinimalDTO;
 import run.halo.app.model.entity.Post;
 import run.halo.app.model.entity.Sheet;
 import run.halo.app.model.enums.EncryptTypeEnum;
-import run.halo.app.model.enums.PostPermalinkType;
 import run.halo.app.model.enums.PostStatus;
-import run.halo.app.model.enums.SheetPermalinkType;
 import run.halo.app.service.AuthenticationService;
 import run.halo.app.service.CategoryService;
 import run.halo.app.service.OptionService;
 import run.halo.app.service.PostService;
 import run.halo.app.service.SheetService;
+import run.halo.app.service.support.PermalinkRouter;
+import run.halo.app.service.support.PermalinkRouter.Prefix;
 
 /**
  * @author ryanwang
@@ -72,6 +72,8 @@ public class ContentContentController {
 
     private final CategoryService categoryService;
 
+    private final PermalinkRouter permalinkRouter;
+
     public ContentContentController(PostModel postModel,
         SheetModel sheetModel,
         CategoryModel categoryModel,
@@ -83,7 +85,8 @@ public class ContentContentController {
         PostService postService,
         SheetService sheetService,
         AuthenticationService authenticationService,
-        CategoryService categoryService) {
+        CategoryService categoryService,
+        PermalinkRouter permalinkRouter) {
         this.postModel = postModel;
         this.sheetModel = sheetModel;
         this.categoryModel = categoryModel;
@@ -96,32 +99,36 @@ public class ContentContentController {
         this.sheetService = sheetService;
         this.authenticationService = authenticationService;
         this.categoryService = categoryService;
+        this.permalinkRouter = permalinkRouter;
     }
 
     @GetMapping("{prefix}")
     public String content(@PathVariable("prefix") String prefix,
         @RequestParam(value = "token", required = false) String token,
         Model model) {
-        if (optionService.getArchivesPrefix().equals(prefix)) {
+        Prefix matchedPrefix = permalinkRouter.matchPrefix(prefix);
+        if (Prefix.ARCHIVES.equals(matchedPrefix)) {
             return postModel.archives(1, model);
         }
-        if (optionService.getCategoriesPrefix().equals(prefix)) {
+        if (Prefix.CATEGORIES.equals(matchedPrefix)) {
             return categoryModel.list(model);
         }
-        if (optionService.getTagsPrefix().equals(prefix)) {
+        if (Prefix.TAGS.equals(matchedPrefix)) {
             return tagModel.list(model);
         }
-        if (optionService.getJournalsPrefix().equals(prefix)) {
+        if (Prefix.JOURNALS.equals(matchedPrefix)) {
             return journalModel.list(1, model);
         }
-        if (optionService.getPhotosPrefix().equals(prefix)) {
+        if (Prefix.PHOTOS.equals(matchedPrefix)) {
             return photoModel.list(1, model);
         }
-        if (optionService.getLinksPrefix().equals(prefix)) {
+        if (Prefix.LINKS.equals(matchedPrefix)) {
             return linkModel.list(model);
         }
-        if (optionService.getSheetPermalinkType().equals(SheetPermalinkType.ROOT)) {
-            Sheet sheet = sheetService.getBySlug(prefix);
+
+        Optional<Integer> sheetId = permalinkRouter.findSheetId(prefix);
+        if (sheetId.isPresent()) {
+            Sheet sheet = sheetService.getById(sheetId.get());
             return sheetModel.content(sheet, token, model);
         }
 
@@ -133,15 +140,16 @@ public class ContentContentController {
         @PathVariable(value = "page") Integer page,
         HttpServletRequest request,
         Model model) {
-        if (optionService.getArchivesPrefix().equals(prefix)) {
+        Prefix matchedPrefix = permalinkRouter.matchPrefix(prefix);
+        if (Prefix.ARCHIVES.equals(matchedPrefix)) {
             return postModel.archives(page, model);
         }
 
-        if (optionService.getJournalsPrefix().equals(prefix)) {
+        if (Prefix.JOURNALS.equals(matchedPrefix)) {
             return journalModel.list(page, model);
         }
 
-        if (optionService.getPhotosPrefix().equals(prefix)) {
+        if (Prefix.PHOTOS.equals(matchedPrefix)) {
             return photoModel.list(page, model);
         }
 
@@ -153,36 +161,24 @@ public class ContentContentController {
         @PathVariable("slug") String slug,
         @RequestParam(value = "token", required = false) String token,
         Model model) {
-        PostPermalinkType postPermalinkType = optionService.getPostPermalinkType();
-        if (optionService.getArchivesPrefix().equals(prefix)) {
-            if (postPermalinkType.equals(PostPermalinkType.DEFAULT)) {
-                Post post = postService.getBySlug(slug);
-                return postModel.content(post, token, model);
-            }
-            if (postPermalinkType.equals(PostPermalinkType.ID_SLUG)
-                && StringUtils.isNumeric(slug)) {
-                Post post = postService.getById(Integer.parseInt(slug));
-                return postModel.content(post, token, model);
-            }
+        Optional<Integer> postId = permalinkRouter.findPostId(prefix, slug);
+        if (postId.isPresent()) {
+            Post post = postService.getById(postId.get());
+            return postModel.content(post, token, model);
         }
 
-        if (optionService.getCategoriesPrefix().equals(prefix)) {
+        Prefix matchedPrefix = permalinkRouter.matchPrefix(prefix);
+        if (Prefix.CATEGORIES.equals(matchedPrefix)) {
             return categoryModel.listPost(model, slug, 1);
         }
 
-        if (optionService.getTagsPrefix().equals(prefix)) {
+        if (Prefix.TAGS.equals(matchedPrefix)) {
             return tagModel.listPost(model, slug, 1);
         }
 
-        if (postPermalinkType.equals(PostPermalinkType.YEAR) && prefix.length() == 4
-            && StringUtils.isNumeric(prefix)) {
-            Post post = postService.getBy(Integer.parseInt(prefix), slug);
-            return postModel.content(post, token, model);
-        }
-
-        if (optionService.getSheetPermalinkType().equals(SheetPermalinkType.SECONDARY)
-            && optionService.getSheetPrefix().equals(prefix)) {
-            Sheet sheet = sheetService.getBySlug(slug);
+        Optional<Integer> sheetId = permalinkRouter.findSheetId(prefix, slug);
+        if (sheetId.isPresent()) {
+            Sheet sheet = sheetService.getById(sheetId.get());
             return sheetModel.content(sheet, token, model);
         }
 
@@ -194,11 +190,12 @@ public class ContentContentController {
         @PathVariable("slug") String slug,
         @PathVariable("page") Integer page,
         Model model) {
-        if (optionService.getCategoriesPrefix().equals(prefix)) {
+        Prefix matchedPrefix = permalinkRouter.matchPrefix(prefix);
+        if (Prefix.CATEGORIES.equals(matchedPrefix)) {
             return categoryModel.listPost(model, slug, page);
         }
 
-        if (optionService.getTagsPrefix().equals(prefix)) {
+        if (Prefix.TAGS.equals(matchedPrefix)) {
             return tagModel.listPost(model, slug, page);
         }
 
@@ -211,9 +208,9 @@ public class ContentContentController {
         @PathVariable("slug") String slug,
         @RequestParam(value = "token", required = false) String token,
         Model model) {
-        PostPermalinkType postPermalinkType = optionService.getPostPermalinkType();
-        if (postPermalinkType.equals(PostPermalinkType.DATE)) {
-            Post post = postService.getBy(year, month, slug);
+        Optional<Integer> postId = permalinkRouter.findPostId(year, month, slug);
+        if (postId.isPresent()) {
+            Post post = postService.getById(postId.get());
             return postModel.content(post, token, model);
         }
 
@@ -227,9 +224,9 @@ public class ContentContentController {
         @PathVariable("slug") String slug,
         @RequestParam(value = "token", required = false) String token,
         Model model) {
-        PostPermalinkType postPermalinkType = optionService.getPostPermalinkType();
-        if (postPermalinkType.equals(PostPermalinkType.DAY)) {
-            Post post = postService.getBy(year, month, day, slug);
+        Optional<Integer> postId = permalinkRouter.findPostId(year, month, day, slug);
+        if (postId.isPresent()) {
+            Post post = postService.getById(postId.get());
             return postModel.content(post, token, model);
         }
 
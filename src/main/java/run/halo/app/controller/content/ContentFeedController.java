@@ -1,42 +1,31 @@
 package run.halo.app.controller.content;
 
-import static org.springframework.data.domain.Sort.Direction.DESC;
-
 import freemarker.template.Template;
 import freemarker.template.TemplateException;
 import java.io.IOException;
-import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
-import java.util.List;
-import java.util.Locale;
-import java.util.OptionalLong;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.RegExUtils;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.web.PageableDefault;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
-import org.springframework.util.Assert;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.view.freemarker.FreeMarkerConfigurer;
-import run.halo.app.model.dto.CategoryDTO;
-import run.halo.app.model.entity.Category;
-import run.halo.app.model.entity.Post;
-import run.halo.app.model.enums.PostStatus;
-import run.halo.app.model.vo.PostDetailVO;
 import run.halo.app.service.CategoryService;
-import run.halo.app.service.OptionService;
-import run.halo.app.service.PostCategoryService;
-import run.halo.app.service.PostService;
+import run.halo.app.service.FeedService;
 
 /**
  * @author ryanwang
@@ -48,162 +37,118 @@ public class ContentFeedController {
 
     private static final String UTF_8_SUFFIX = ";charset=UTF-8";
 
-    private static final String XML_INVALID_CHAR = "[\\x00-\\x1F\\x7F]";
-
     private static final String XML_MEDIA_TYPE = MediaType.APPLICATION_XML_VALUE + UTF_8_SUFFIX;
 
-    private static final String LAST_MODIFIED_HEADER = "Last-Modified";
-
-    private final PostService postService;
+    private final FeedService feedService;
 
     private final CategoryService categoryService;
 
-    private final PostCategoryService postCategoryService;
-
-    private final OptionService optionService;
-
     private final FreeMarkerConfigurer freeMarker;
 
-    public ContentFeedController(PostService postService,
+    public ContentFeedController(FeedService feedService,
         CategoryService categoryService,
-        PostCategoryService postCategoryService,
-        OptionService optionService,
         FreeMarkerConfigurer freeMarker) {
-        this.postService = postService;
+        this.feedService = feedService;
         this.categoryService = categoryService;
-        this.postCategoryService = postCategoryService;
-        this.optionService = optionService;
         this.freeMarker = freeMarker;
     }
 
     /**
      * Get post rss.
      *
-     * @param model model
+     * @param request http servlet request
+     * @param response http servlet response
      * @return rss xml content
-     * @throws IOException       throw IOException
-     * @throws TemplateException throw TemplateException
      */
     @GetMapping(value = {"feed", "feed.xml", "rss", "rss.xml"}, produces = XML_MEDIA_TYPE)
-    @ResponseBody
-    public String feed(Model model, HttpServletResponse response)
-        throws IOException, TemplateException {
-        List<PostDetailVO> posts = buildPosts(buildPostPageable(optionService.getRssPageSize()));
-        model.addAttribute("posts", posts);
-        Timestamp lastModified = this.getLastModifiedTime(posts);
-        this.lastModified2ResponseHeader(response, lastModified);
-        model.addAttribute("lastModified", lastModified);
-        Template template = freeMarker.getConfiguration().getTemplate("common/web/rss.ftl");
-        return FreeMarkerTemplateUtils.processTemplateIntoString(template, model);
+    public ResponseEntity<Resource> feed(HttpServletRequest request,
+        HttpServletResponse response) {
+        return serve(feedService.getRssFeed(null), request, response);
     }
 
     /**
      * Get category post rss.
      *
-     * @param model model
      * @param slug slug
+     * @param request http servlet request
+     * @param response http servlet response
      * @return rss xml content
-     * @throws IOException       throw IOException
-     * @throws TemplateException throw TemplateException
      */
     @GetMapping(value = {"feed/categories/{slug}",
         "feed/categories/{slug}.xml"}, produces = XML_MEDIA_TYPE)
-    @ResponseBody
-    public String feed(Model model, @PathVariable(name = "slug") String slug,
-        HttpServletResponse response)
-        throws IOException, TemplateException {
-        Category category = categoryService.getBySlugOfNonNull(slug);
-        CategoryDTO categoryDTO = categoryService.convertTo(category);
-        List<PostDetailVO> posts =
-            buildCategoryPosts(buildPostPageable(optionService.getRssPageSize()), categoryDTO);
-        model.addAttribute("category", categoryDTO);
-        model.addAttribute("posts", posts);
-        Timestamp lastModified = this.getLastModifiedTime(posts);
-        this.lastModified2ResponseHeader(response, lastModified);
-        model.addAttribute("lastModified", lastModified);
-        Template template = freeMarker.getConfiguration().getTemplate("common/web/rss.ftl");
-        return FreeMarkerTemplateUtils.processTemplateIntoString(template, model);
+    public ResponseEntity<Resource> feed(@PathVariable(name = "slug") String slug,
+        HttpServletRequest request, HttpServletResponse response) {
+        return serve(feedService.getRssFeed(categoryService.getBySlugOfNonNull(slug)),
+            request, response);
     }
 
     /**
      * Get atom.xml
      *
-     * @param model model
+     * @param request http servlet request
+     * @param response http servlet response
      * @return atom xml content
-     * @throws IOException       IOException
-     * @throws TemplateException TemplateException
      */
     @GetMapping(value = {"atom", "atom.xml"}, produces = XML_MEDIA_TYPE)
-    @ResponseBody
-    public String atom(Model model, HttpServletResponse response)
-        throws IOException, TemplateException {
-        List<PostDetailVO> posts = buildPosts(buildPostPageable(optionService.getRssPageSize()));
-        model.addAttribute("posts", posts);
-        Timestamp lastModified = this.getLastModifiedTime(posts);
-        this.lastModified2ResponseHeader(response, lastModified);
-        model.addAttribute("lastModified", lastModified);
-        Template template = freeMarker.getConfiguration().getTemplate("common/web/atom.ftl");
-        return FreeMarkerTemplateUtils.processTemplateIntoString(template, model);
+    public ResponseEntity<Resource> atom(HttpServletRequest request,
+        HttpServletResponse response) {
+        return serve(feedService.getAtomFeed(null), request, response);
     }
 
     /**
      * Get category posts atom.xml
      *
-     * @param model model
      * @param slug slug
+     * @param request http servlet request
+     * @param response http servlet response
      * @return atom xml content
-     * @throws IOException       throw IOException
-     * @throws TemplateException throw TemplateException
      */
     @GetMapping(value = {"atom/categories/{slug}",
         "atom/categories/{slug}.xml"}, produces = XML_MEDIA_TYPE)
-    @ResponseBody
-    public String atom(Model model, @PathVariable(name = "slug") String slug,
-        HttpServletResponse response)
-        throws IOException, TemplateException {
-        Category category = categoryService.getBySlugOfNonNull(slug);
-        CategoryDTO categoryDTO = categoryService.convertTo(category);
-        List<PostDetailVO> posts =
-            buildCategoryPosts(buildPostPageable(optionService.getRssPageSize()), categoryDTO);
-        model.addAttribute("category", categoryDTO);
-        model.addAttribute("posts", posts);
-        Timestamp lastModified = this.getLastModifiedTime(posts);
-        this.lastModified2ResponseHeader(response, lastModified);
-        model.addAttribute("lastModified", lastModified);
-        Template template = freeMarker.getConfiguration().getTemplate("common/web/atom.ftl");
-        return FreeMarkerTemplateUtils.processTemplateIntoString(template, model);
+    public ResponseEntity<Resource> atom(@PathVariable(name = "slug") String slug,
+        HttpServletRequest request, HttpServletResponse response) {
+        return serve(feedService.getAtomFeed(categoryService.getBySlugOfNonNull(slug)),
+            request, response);
     }
 
     /**
-     * Get sitemap.xml.
+     * Get sitemap.xml, which is a sitemap index if there are too many urls.
      *
-     * @param model model
+     * @param request http servlet request
+     * @param response http servlet response
      * @return sitemap xml content.
-     * @throws IOException       IOException
-     * @throws TemplateException TemplateException
      */
     @GetMapping(value = {"sitemap", "sitemap.xml"}, produces = XML_MEDIA_TYPE)
-    @ResponseBody
-    public String sitemapXml(Model model,
-        @PageableDefault(size = Integer.MAX_VALUE, sort = "createTime", direction = DESC)
-            Pageable pageable) throws IOException, TemplateException {
-        model.addAttribute("posts", buildPosts(pageable));
-        Template template = freeMarker.getConfiguration().getTemplate("common/web/sitemap_xml.ftl");
-        return FreeMarkerTemplateUtils.processTemplateIntoString(template, model);
+    public ResponseEntity<Resource> sitemapXml(HttpServletRequest request,
+        HttpServletResponse response) {
+        return serve(feedService.getSitemapXml(), request, response);
+    }
+
+    /**
+     * Get a sitemap listed by the sitemap index.
+     *
+     * @param index index of the sitemap
+     * @param request http servlet request
+     * @param response http servlet response
+     * @return sitemap xml content.
+     */
+    @GetMapping(value = "sitemap-{index:\\d+}.xml", produces = XML_MEDIA_TYPE)
+    public ResponseEntity<Resource> sitemapXml(@PathVariable("index") Integer index,
+        HttpServletRequest request, HttpServletResponse response) {
+        return serve(feedService.getSitemapXml(index), request, response);
     }
 
     /**
      * Get sitemap.html.
      *
-     * @param model model
-     * @return template path: common/web/sitemap_html
+     * @param request http servlet request
+     * @param response http servlet response
+     * @return sitemap html content
      */
-    @GetMapping(value = "sitemap.html")
-    public String sitemapHtml(Model model,
-        @PageableDefault(size = Integer.MAX_VALUE, sort = "createTime", direction = DESC)
-            Pageable pageable) {
-        model.addAttribute("posts", buildPosts(pageable));
-        return "common/web/sitemap_html";
+    @GetMapping(value = "sitemap.html", produces = MediaType.TEXT_HTML_VALUE + UTF_8_SUFFIX)
+    public ResponseEntity<Resource> sitemapHtml(HttpServletRequest request,
+        HttpServletResponse response) {
+        return serve(feedService.getSitemapHtml(), request, response);
     }
 
     /**
@@ -222,72 +167,40 @@ public class ContentFeedController {
     }
 
     /**
-     * Builds page info for post.
+     * Serves the pre-generated document, or its gzip variant if accepted.
      *
-     * @param size page size
-     * @return page info
+     * @param document document path
+     * @param request http servlet request
+     * @param response http servlet response
+     * @return document content or null if not modified
      */
-    @NonNull
-    private Pageable buildPostPageable(int size) {
-        return PageRequest.of(0, size, Sort.by(DESC, "createTime"));
-    }
-
-    /**
-     * Build posts.
-     *
-     * @param pageable pageable
-     * @return list of post detail vo
-     */
-    private List<PostDetailVO> buildPosts(@NonNull Pageable pageable) {
-        Assert.notNull(pageable, "Pageable must not be null");
-
-        Page<Post> postPage = postService.pageBy(PostStatus.PUBLISHED, pageable);
-        Page<PostDetailVO> posts = postService.convertToDetailVo(postPage);
-        posts.getContent().forEach(postDetailVO -> {
-            postDetailVO.setFormatContent(
-                RegExUtils.replaceAll(postDetailVO.getFormatContent(), XML_INVALID_CHAR, ""));
-            postDetailVO
-                .setSummary(RegExUtils.replaceAll(postDetailVO.getSummary(), XML_INVALID_CHAR, ""));
-        });
-        return posts.getContent();
-    }
+    private ResponseEntity<Resource> serve(@NonNull Path document,
+        @NonNull HttpServletRequest request, @NonNull HttpServletResponse response) {
+        long lastModified;
+        long size;
+        try {
+            lastModified = Files.getLastModifiedTime(document).toMillis();
+            size = Files.size(document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
 
-    /**
-     * Build category posts.
-     *
-     * @param pageable pageable must not be null.
-     * @param category category
-     * @return list of post detail vo.
-     */
-    private List<PostDetailVO> buildCategoryPosts(@NonNull Pageable pageable,
-        @NonNull CategoryDTO category) {
-        Assert.notNull(pageable, "Pageable must not be null");
-        Assert.notNull(category, "Category slug must not be null");
+        String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return null;
+        }
 
-        Page<Post> postPage =
-            postCategoryService.pagePostBy(category.getId(), PostStatus.PUBLISHED, pageable);
-        Page<PostDetailVO> posts = postService.convertToDetailVo(postPage);
-        posts.getContent().forEach(postDetailVO -> {
-            postDetailVO.setFormatContent(
-                RegExUtils.replaceAll(postDetailVO.getFormatContent(), XML_INVALID_CHAR, ""));
-            postDetailVO
-                .setSummary(RegExUtils.replaceAll(postDetailVO.getSummary(), XML_INVALID_CHAR, ""));
-        });
-        return posts.getContent();
-    }
+        Path gzipDocument = document.resolveSibling(document.getFileName()
+            + FeedService.GZIP_SUFFIX);
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = StringUtils.containsIgnoreCase(acceptEncoding, "gzip")
+            && Files.exists(gzipDocument);
 
-    private Timestamp getLastModifiedTime(List<PostDetailVO> posts) {
-        OptionalLong lastModifiedTimestamp =
-            posts.stream().mapToLong(post -> post.getEditTime().getTime()).max();
-        if (lastModifiedTimestamp.isEmpty()) {
-            return new Timestamp(System.currentTimeMillis());
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
         }
-        return new Timestamp(lastModifiedTimestamp.getAsLong());
-    }
-
-    private void lastModified2ResponseHeader(HttpServletResponse response, Timestamp time) {
-        SimpleDateFormat dateFormat =
-            new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.ENGLISH);
-        response.setHeader(LAST_MODIFIED_HEADER, dateFormat.format(time));
+        return builder.body(new FileSystemResource(gzip ? gzipDocument : document));
     }
 }
@@ -17,6 +17,7 @@ import org.springframework.web.util.HtmlUtils;
 import run.halo.app.model.entity.Post;
 import run.halo.app.model.vo.PostListVO;
 import run.halo.app.service.OptionService;
+import run.halo.app.service.PostSearchService;
 import run.halo.app.service.PostService;
 import run.halo.app.service.ThemeService;
 
@@ -32,13 +33,16 @@ public class ContentSearchController {
 
     private final PostService postService;
 
+    private final PostSearchService postSearchService;
+
     private final OptionService optionService;
 
     private final ThemeService themeService;
 
-    public ContentSearchController(PostService postService, OptionService optionService,
-        ThemeService themeService) {
+    public ContentSearchController(PostService postService, PostSearchService postSearchService,
+        OptionService optionService, ThemeService themeService) {
         this.postService = postService;
+        this.postSearchService = postSearchService;
         this.optionService = optionService;
         this.themeService = themeService;
     }
@@ -69,7 +73,7 @@ public class ContentSearchController {
         @PathVariable(value = "page") Integer page,
         @SortDefault(sort = "createTime", direction = DESC) Sort sort) {
         final Pageable pageable = PageRequest.of(page - 1, optionService.getPostPageSize(), sort);
-        final Page<Post> postPage = postService.pageBy(keyword, pageable);
+        final Page<Post> postPage = postSearchService.search(keyword, pageable);
 
         final Page<PostListVO> posts = postService.convertToListVo(postPage);
 
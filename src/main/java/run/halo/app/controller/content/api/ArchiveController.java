@@ -1,11 +1,16 @@
 package run.halo.app.controller.content.api;
 
 import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import run.halo.app.model.vo.ArchiveMonthVO;
 import run.halo.app.model.vo.ArchiveYearVO;
+import run.halo.app.model.vo.PostListVO;
 import run.halo.app.service.PostService;
 
 /**
@@ -25,12 +30,27 @@ public class ArchiveController {
     }
 
     @GetMapping("years")
-    public List<ArchiveYearVO> listYearArchives() {
-        return postService.listYearArchives();
+    public List<ArchiveYearVO> listYearArchives(
+        @RequestParam(value = "size", required = false) Integer size) {
+        return postService.listYearArchives(size);
     }
 
     @GetMapping("months")
-    public List<ArchiveMonthVO> listMonthArchives() {
-        return postService.listMonthArchives();
+    public List<ArchiveMonthVO> listMonthArchives(
+        @RequestParam(value = "size", required = false) Integer size) {
+        return postService.listMonthArchives(size);
+    }
+
+    @GetMapping("years/{year:\\d+}/posts")
+    public Page<PostListVO> pageYearArchivePosts(@PathVariable("year") Integer year,
+        Pageable pageable) {
+        return postService.pageArchivePostsBy(year, null, pageable);
+    }
+
+    @GetMapping("months/{year:\\d+}/{month:\\d+}/posts")
+    public Page<PostListVO> pageMonthArchivePosts(@PathVariable("year") Integer year,
+        @PathVariable("month") Integer month,
+        Pageable pageable) {
+        return postService.pageArchivePostsBy(year, month, pageable);
     }
 }
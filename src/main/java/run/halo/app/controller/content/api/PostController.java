@@ -37,6 +37,7 @@ import run.halo.app.model.vo.PostDetailVO;
 import run.halo.app.model.vo.PostListVO;
 import run.halo.app.service.OptionService;
 import run.halo.app.service.PostCommentService;
+import run.halo.app.service.PostSearchService;
 import run.halo.app.service.PostService;
 
 /**
@@ -52,14 +53,18 @@ public class PostController {
 
     private final PostService postService;
 
+    private final PostSearchService postSearchService;
+
     private final PostCommentService postCommentService;
 
     private final OptionService optionService;
 
     public PostController(PostService postService,
+        PostSearchService postSearchService,
         PostCommentService postCommentService,
         OptionService optionService) {
         this.postService = postService;
+        this.postSearchService = postSearchService;
         this.postCommentService = postCommentService;
         this.optionService = optionService;
     }
@@ -85,7 +90,7 @@ public class PostController {
         postQuery.setKeyword(keyword);
         postQuery.setCategoryId(categoryId);
         postQuery.setStatus(PostStatus.PUBLISHED);
-        Page<Post> postPage = postService.pageBy(postQuery, pageable);
+        Page<Post> postPage = postService.pageWithoutContentBy(postQuery, pageable);
         return postService.convertToListVo(postPage, true);
     }
 
@@ -93,7 +98,7 @@ public class PostController {
     @ApiOperation("Lists posts by keyword")
     public Page<BasePostSimpleDTO> pageBy(@RequestParam(value = "keyword") String keyword,
         @PageableDefault(sort = "createTime", direction = DESC) Pageable pageable) {
-        Page<Post> postPage = postService.pageBy(keyword, pageable);
+        Page<Post> postPage = postSearchService.search(keyword, pageable);
         return postService.convertToSimple(postPage);
     }
 
@@ -151,7 +156,8 @@ public class PostController {
         Post post = postService.getById(postId);
         Post prevPost =
             postService.getPrevPost(post).orElseThrow(() -> new NotFoundException("查询不到该文章的信息"));
-        return postService.convertToDetailVo(prevPost);
+        // Neighbor posts are loaded without content, so load the whole post for the detail
+        return postService.convertToDetailVo(postService.getById(prevPost.getId()));
     }
 
     @GetMapping("{postId:\\d+}/next")
@@ -160,7 +166,8 @@ public class PostController {
         Post post = postService.getById(postId);
         Post nextPost =
             postService.getNextPost(post).orElseThrow(() -> new NotFoundException("查询不到该文章的信息"));
-        return postService.convertToDetailVo(nextPost);
+        // Neighbor posts are loaded without content, so load the whole post for the detail
+        return postService.convertToDetailVo(postService.getById(nextPost.getId()));
     }
 
     @GetMapping("{postId:\\d+}/comments/top_view")
@@ -4,7 +4,6 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 import static run.halo.app.model.support.HaloConst.POST_PASSWORD_TEMPLATE;
 import static run.halo.app.model.support.HaloConst.SUFFIX_FTL;
 
-import com.google.common.collect.Sets;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -17,11 +16,11 @@ import run.halo.app.model.entity.Category;
 import run.halo.app.model.entity.Post;
 import run.halo.app.model.enums.EncryptTypeEnum;
 import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.params.PostQuery;
 import run.halo.app.model.vo.PostListVO;
 import run.halo.app.service.AuthenticationService;
 import run.halo.app.service.CategoryService;
 import run.halo.app.service.OptionService;
-import run.halo.app.service.PostCategoryService;
 import run.halo.app.service.PostService;
 import run.halo.app.service.ThemeService;
 
@@ -38,8 +37,6 @@ public class CategoryModel {
 
     private final ThemeService themeService;
 
-    private final PostCategoryService postCategoryService;
-
     private final PostService postService;
 
     private final OptionService optionService;
@@ -48,13 +45,11 @@ public class CategoryModel {
 
     public CategoryModel(CategoryService categoryService,
         ThemeService themeService,
-        PostCategoryService postCategoryService,
         PostService postService,
         OptionService optionService,
         AuthenticationService authenticationService) {
         this.categoryService = categoryService;
         this.themeService = themeService;
-        this.postCategoryService = postCategoryService;
         this.postService = postService;
         this.optionService = optionService;
         this.authenticationService = authenticationService;
@@ -100,9 +95,10 @@ public class CategoryModel {
         final Pageable pageable = PageRequest.of(page - 1,
             optionService.getArchivesPageSize(),
             Sort.by(DESC, "topPriority", "createTime"));
-        Page<Post> postPage =
-            postCategoryService.pagePostBy(category.getId(), Sets
-                .immutableEnumSet(PostStatus.PUBLISHED), pageable);
+        PostQuery postQuery = new PostQuery();
+        postQuery.setStatus(PostStatus.PUBLISHED);
+        postQuery.setCategoryId(category.getId());
+        Page<Post> postPage = postService.pageWithoutContentBy(postQuery, pageable);
         Page<PostListVO> posts = postService.convertToListVo(postPage);
 
         // Generate meta description.
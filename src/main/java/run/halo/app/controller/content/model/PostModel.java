@@ -10,10 +10,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 import org.springframework.ui.Model;
 import run.halo.app.cache.AbstractStringCacheStore;
+import run.halo.app.cache.PageCache;
 import run.halo.app.exception.ForbiddenException;
 import run.halo.app.exception.NotFoundException;
 import run.halo.app.model.entity.Category;
@@ -21,8 +21,8 @@ import run.halo.app.model.entity.Post;
 import run.halo.app.model.entity.PostMeta;
 import run.halo.app.model.entity.Tag;
 import run.halo.app.model.enums.EncryptTypeEnum;
-import run.halo.app.model.enums.PostEditorType;
 import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.params.PostQuery;
 import run.halo.app.model.vo.ArchiveYearVO;
 import run.halo.app.model.vo.PostListVO;
 import run.halo.app.service.AuthenticationService;
@@ -34,7 +34,6 @@ import run.halo.app.service.PostService;
 import run.halo.app.service.PostTagService;
 import run.halo.app.service.TagService;
 import run.halo.app.service.ThemeService;
-import run.halo.app.utils.MarkdownUtils;
 
 /**
  * Post Model
@@ -117,20 +116,16 @@ public class PostModel {
             return "common/template/" + POST_PASSWORD_TEMPLATE;
         }
 
-        post = postService.getById(post.getId());
-
-        if (post.getEditorType().equals(PostEditorType.MARKDOWN)) {
-            post.setFormatContent(MarkdownUtils.renderHtml(post.getOriginalContent()));
-        } else {
-            post.setFormatContent(post.getOriginalContent());
-        }
+        post = postService.renderContentIfNecessary(postService.getById(post.getId()));
 
         postService.publishVisitEvent(post.getId());
+        PageCache.tag(PageCache.POST_TAG_PREFIX + post.getId());
 
+        // Neighbors only need to be linked, so their tags, categories and metas are not loaded
         postService.getPrevPost(post).ifPresent(
-            prevPost -> model.addAttribute("prevPost", postService.convertToDetailVo(prevPost)));
+            prevPost -> model.addAttribute("prevPost", postService.convertToSimple(prevPost)));
         postService.getNextPost(post).ifPresent(
-            nextPost -> model.addAttribute("nextPost", postService.convertToDetailVo(nextPost)));
+            nextPost -> model.addAttribute("nextPost", postService.convertToSimple(nextPost)));
 
         List<Category> categories = postCategoryService.listCategoriesBy(post.getId(), false);
         List<Tag> tags = postTagService.listTagsBy(post.getId());
@@ -171,7 +166,9 @@ public class PostModel {
         Pageable pageable = PageRequest
             .of(page >= 1 ? page - 1 : page, pageSize, postService.getPostDefaultSort());
 
-        Page<Post> postPage = postService.pageBy(PostStatus.PUBLISHED, pageable);
+        PostQuery postQuery = new PostQuery();
+        postQuery.setStatus(PostStatus.PUBLISHED);
+        Page<Post> postPage = postService.pageWithoutContentBy(postQuery, pageable);
         Page<PostListVO> posts = postService.convertToListVo(postPage);
 
         model.addAttribute("is_index", true);
@@ -183,14 +180,11 @@ public class PostModel {
 
     public String archives(Integer page, Model model) {
         int pageSize = optionService.getArchivesPageSize();
-        Pageable pageable = PageRequest
-            .of(page >= 1 ? page - 1 : page, pageSize, Sort.by(Sort.Direction.DESC, "createTime"));
-
-        Page<Post> postPage = postService.pageBy(PostStatus.PUBLISHED, pageable);
+        Pageable pageable = PageRequest.of(page >= 1 ? page - 1 : page, pageSize);
 
-        Page<PostListVO> posts = postService.convertToListVo(postPage);
+        Page<PostListVO> posts = postService.pageArchivePostsBy(null, null, pageable);
 
-        List<ArchiveYearVO> archives = postService.convertToYearArchives(postPage.getContent());
+        List<ArchiveYearVO> archives = postService.groupToYearArchives(posts.getContent());
 
         model.addAttribute("is_archives", true);
         model.addAttribute("posts", posts);
@@ -5,10 +5,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.ui.Model;
 import run.halo.app.cache.AbstractStringCacheStore;
+import run.halo.app.cache.PageCache;
 import run.halo.app.exception.ForbiddenException;
 import run.halo.app.model.entity.Sheet;
 import run.halo.app.model.entity.SheetMeta;
-import run.halo.app.model.enums.PostEditorType;
 import run.halo.app.model.enums.PostStatus;
 import run.halo.app.model.support.HaloConst;
 import run.halo.app.model.vo.SheetDetailVO;
@@ -16,7 +16,6 @@ import run.halo.app.service.OptionService;
 import run.halo.app.service.SheetMetaService;
 import run.halo.app.service.SheetService;
 import run.halo.app.service.ThemeService;
-import run.halo.app.utils.MarkdownUtils;
 
 /**
  * Sheet model.
@@ -68,15 +67,13 @@ public class SheetModel {
             if (!cachedToken.equals(token)) {
                 throw new ForbiddenException("您没有该页面的访问权限");
             }
-            // render markdown to html when preview sheet
-            if (sheet.getEditorType().equals(PostEditorType.MARKDOWN)) {
-                sheet.setFormatContent(MarkdownUtils.renderHtml(sheet.getOriginalContent()));
-            } else {
-                sheet.setFormatContent(sheet.getOriginalContent());
-            }
         }
 
+        // render markdown to html if the persisted html is stale
+        sheet = sheetService.renderContentIfNecessary(sheet);
+
         sheetService.publishVisitEvent(sheet.getId());
+        PageCache.tag(PageCache.SHEET_TAG_PREFIX + sheet.getId());
 
         SheetDetailVO sheetDetailVO = sheetService.convertToDetailVo(sheet);
 
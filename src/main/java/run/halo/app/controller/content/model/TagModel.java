@@ -12,10 +12,10 @@ import run.halo.app.model.dto.TagDTO;
 import run.halo.app.model.entity.Post;
 import run.halo.app.model.entity.Tag;
 import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.params.PostQuery;
 import run.halo.app.model.vo.PostListVO;
 import run.halo.app.service.OptionService;
 import run.halo.app.service.PostService;
-import run.halo.app.service.PostTagService;
 import run.halo.app.service.TagService;
 import run.halo.app.service.ThemeService;
 
@@ -32,17 +32,14 @@ public class TagModel {
 
     private final PostService postService;
 
-    private final PostTagService postTagService;
-
     private final OptionService optionService;
 
     private final ThemeService themeService;
 
-    public TagModel(TagService tagService, PostService postService, PostTagService postTagService,
+    public TagModel(TagService tagService, PostService postService,
         OptionService optionService, ThemeService themeService) {
         this.tagService = tagService;
         this.postService = postService;
-        this.postTagService = postTagService;
         this.optionService = optionService;
         this.themeService = themeService;
     }
@@ -61,8 +58,10 @@ public class TagModel {
 
         final Pageable pageable = PageRequest
             .of(page - 1, optionService.getArchivesPageSize(), Sort.by(DESC, "createTime"));
-        Page<Post> postPage =
-            postTagService.pagePostsBy(tag.getId(), PostStatus.PUBLISHED, pageable);
+        PostQuery postQuery = new PostQuery();
+        postQuery.setStatus(PostStatus.PUBLISHED);
+        postQuery.setTagId(tag.getId());
+        Page<Post> postPage = postService.pageWithoutContentBy(postQuery, pageable);
         Page<PostListVO> posts = postService.convertToListVo(postPage);
 
         model.addAttribute("is_tag", true);
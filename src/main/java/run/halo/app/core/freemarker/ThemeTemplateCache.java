@@ -0,0 +1,219 @@
+package run.halo.app.core.freemarker;
+
+import freemarker.template.Configuration;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.view.AbstractCachingViewResolver;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.event.theme.ThemeActivatedEvent;
+import run.halo.app.event.theme.ThemeUpdatedEvent;
+import run.halo.app.handler.theme.config.support.ThemeProperty;
+import run.halo.app.model.support.HaloConst;
+
+/**
+ * Caches parsed templates, resolved views and existence of files of themes.
+ *
+ * <p>Once enabled, templates are never checked for modification. All caches are cleared on
+ * theme activated or updated events instead. Disable {@code halo.template-cache} to reload
+ * templates once changed, e.g. when developing themes.
+ */
+@Slf4j
+@Component
+public class ThemeTemplateCache {
+
+    private static final String THEMES_TEMPLATE_PREFIX = "themes/";
+
+    /**
+     * Delay of checking modification of templates while the cache is disabled.
+     */
+    private static final long HOT_RELOAD_UPDATE_DELAY = 0;
+
+    private final Configuration configuration;
+
+    private final boolean enabled;
+
+    private volatile AbstractCachingViewResolver viewResolver;
+
+    private volatile ThemeFileIndex fileIndex;
+
+    /**
+     * Increased on clearing, so that an index built before clearing is discarded.
+     */
+    private volatile long generation;
+
+    public ThemeTemplateCache(Configuration configuration, HaloProperties haloProperties) {
+        this.configuration = configuration;
+        this.enabled = haloProperties.isTemplateCache();
+
+        configuration.setTemplateUpdateDelayMilliseconds(
+            enabled ? Long.MAX_VALUE : HOT_RELOAD_UPDATE_DELAY);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registers the view resolver of themes, whose cache will be cleared together.
+     *
+     * @param viewResolver view resolver must not be null
+     */
+    public void registerViewResolver(@NonNull AbstractCachingViewResolver viewResolver) {
+        Assert.notNull(viewResolver, "View resolver must not be null");
+
+        viewResolver.setCache(enabled);
+        this.viewResolver = viewResolver;
+    }
+
+    /**
+     * Checks whether the file exists in the theme.
+     *
+     * @param theme theme must not be null
+     * @param relativePath path relative to the theme folder
+     * @return true if the file exists, false otherwise
+     */
+    public boolean fileExists(@NonNull ThemeProperty theme, @NonNull String relativePath) {
+        Assert.notNull(theme, "Theme must not be null");
+        Assert.hasText(relativePath, "Relative path must not be blank");
+
+        Path themePath = Paths.get(theme.getThemePath());
+        if (!enabled) {
+            return Files.exists(themePath.resolve(relativePath));
+        }
+
+        ThemeFileIndex index = fileIndex;
+        if (index == null || !index.isOf(theme)) {
+            long indexingGeneration = generation;
+            index = new ThemeFileIndex(theme.getId(), themePath);
+            synchronized (this) {
+                if (generation == indexingGeneration) {
+                    fileIndex = index;
+                }
+            }
+        }
+        return index.contains(relativePath);
+    }
+
+    /**
+     * Parses all templates of the theme ahead, so that the first visitor doesn't wait for
+     * parsing.
+     *
+     * @param theme theme must not be null
+     */
+    public void precompile(@NonNull ThemeProperty theme) {
+        Assert.notNull(theme, "Theme must not be null");
+
+        if (!enabled) {
+            return;
+        }
+
+        Path themePath = Paths.get(theme.getThemePath());
+        try (Stream<Path> paths = Files.walk(themePath)) {
+            long count = paths
+                .filter(path -> path.getFileName().toString().endsWith(HaloConst.SUFFIX_FTL))
+                .filter(Files::isRegularFile)
+                .filter(path -> precompile(theme, themePath.relativize(path)))
+                .count();
+            log.info("Precompiled [{}] templates of theme: [{}]", count, theme.getId());
+        } catch (IOException e) {
+            log.warn("Failed to list templates of theme: [{}]", theme.getId(), e);
+        }
+    }
+
+    private boolean precompile(@NonNull ThemeProperty theme, @NonNull Path relativePath) {
+        String templateName = THEMES_TEMPLATE_PREFIX + theme.getFolderName() + "/"
+            + toUnixPath(relativePath);
+        try {
+            configuration.getTemplate(templateName);
+            return true;
+        } catch (IOException e) {
+            // Parse errors will be reported once rendered
+            log.warn("Failed to precompile template: [{}], {}", templateName, e.getMessage());
+            return false;
+        }
+    }
+
+    @EventListener(ThemeActivatedEvent.class)
+    public void onThemeActivated() {
+        clear();
+    }
+
+    @EventListener(ThemeUpdatedEvent.class)
+    public void onThemeUpdated() {
+        clear();
+    }
+
+    /**
+     * Clears all cached templates, views and file indexes.
+     */
+    public void clear() {
+        synchronized (this) {
+            generation++;
+            fileIndex = null;
+        }
+        configuration.clearTemplateCache();
+
+        AbstractCachingViewResolver resolver = viewResolver;
+        if (resolver != null) {
+            resolver.clearCache();
+        }
+        log.debug("Cleared theme template cache");
+    }
+
+    @NonNull
+    private static String toUnixPath(@NonNull Path path) {
+        return path.toString().replace('\\', '/');
+    }
+
+    /**
+     * Relative paths of all files in a theme.
+     */
+    private static class ThemeFileIndex {
+
+        private final String themeId;
+
+        private final Path themePath;
+
+        private final Set<String> relativePaths;
+
+        private ThemeFileIndex(@Nullable String themeId, @NonNull Path themePath) {
+            this.themeId = themeId;
+            this.themePath = themePath;
+
+            Set<String> paths;
+            try (Stream<Path> pathStream = Files.walk(themePath)) {
+                paths = pathStream
+                    .filter(path -> !path.equals(themePath))
+                    .map(path -> toUnixPath(themePath.relativize(path)))
+                    .collect(Collectors.toUnmodifiableSet());
+            } catch (IOException e) {
+                log.warn("Failed to index files of theme: [{}]", themePath, e);
+                paths = Collections.emptySet();
+            }
+            this.relativePaths = paths;
+        }
+
+        private boolean isOf(@NonNull ThemeProperty theme) {
+            return themePath.equals(Paths.get(theme.getThemePath()))
+                && Objects.equals(themeId, theme.getId());
+        }
+
+        private boolean contains(@NonNull String relativePath) {
+            Path normalizedPath = Paths.get(relativePath).normalize();
+            return relativePaths.contains(toUnixPath(normalizedPath));
+        }
+    }
+}
@@ -4,17 +4,14 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 
 import freemarker.core.Environment;
 import freemarker.template.Configuration;
-import freemarker.template.DefaultObjectWrapperBuilder;
 import freemarker.template.TemplateDirectiveBody;
 import freemarker.template.TemplateDirectiveModel;
 import freemarker.template.TemplateException;
 import freemarker.template.TemplateModel;
 import java.io.IOException;
-import java.util.List;
 import java.util.Map;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
-import run.halo.app.model.entity.Category;
 import run.halo.app.model.support.HaloConst;
 import run.halo.app.service.CategoryService;
 import run.halo.app.service.PostCategoryService;
@@ -32,39 +29,42 @@ public class CategoryTagDirective implements TemplateDirectiveModel {
 
     private final PostCategoryService postCategoryService;
 
+    private final TagDirectiveSupport tagDirectiveSupport;
+
     public CategoryTagDirective(Configuration configuration,
         CategoryService categoryService,
-        PostCategoryService postCategoryService) {
+        PostCategoryService postCategoryService,
+        TagDirectiveSupport tagDirectiveSupport) {
         this.categoryService = categoryService;
         this.postCategoryService = postCategoryService;
+        this.tagDirectiveSupport = tagDirectiveSupport;
         configuration.setSharedVariable("categoryTag", this);
     }
 
     @Override
     public void execute(Environment env, Map params, TemplateModel[] loopVars,
         TemplateDirectiveBody body) throws TemplateException, IOException {
-        final DefaultObjectWrapperBuilder builder =
-            new DefaultObjectWrapperBuilder(Configuration.VERSION_2_3_25);
-
         if (params.containsKey(HaloConst.METHOD_KEY)) {
             String method = params.get(HaloConst.METHOD_KEY).toString();
             switch (method) {
                 case "list":
-                    env.setVariable("categories", builder.build().wrap(postCategoryService
-                        .listCategoryWithPostCountDto(Sort.by(DESC, "createTime"), false)));
+                    env.setVariable("categories", tagDirectiveSupport.memoize("categoryTag",
+                        params, () -> postCategoryService
+                            .listCategoryWithPostCountDto(Sort.by(DESC, "createTime"), false)));
                     break;
                 case "tree":
-                    env.setVariable("categories", builder.build()
-                        .wrap(categoryService.listAsTree(Sort.by(DESC, "createTime"))));
+                    env.setVariable("categories", tagDirectiveSupport.memoize("categoryTag",
+                        params, () -> categoryService.listAsTree(Sort.by(DESC, "createTime"))));
                     break;
                 case "listByPostId":
                     Integer postId = Integer.parseInt(params.get("postId").toString());
-                    List<Category> categories = postCategoryService.listCategoriesBy(postId);
-                    env.setVariable("categories",
-                        builder.build().wrap(categoryService.convertTo(categories)));
+                    env.setVariable("categories", tagDirectiveSupport.memoize("categoryTag",
+                        params, () -> categoryService
+                            .convertTo(postCategoryService.listCategoriesBy(postId))));
                     break;
                 case "count":
-                    env.setVariable("count", builder.build().wrap(categoryService.count()));
+                    env.setVariable("count", tagDirectiveSupport.memoize("categoryTag", params,
+                        categoryService::count));
                     break;
                 default:
                     break;
@@ -2,7 +2,6 @@ package run.halo.app.core.freemarker.tag;
 
 import freemarker.core.Environment;
 import freemarker.template.Configuration;
-import freemarker.template.DefaultObjectWrapperBuilder;
 import freemarker.template.TemplateDirectiveBody;
 import freemarker.template.TemplateDirectiveModel;
 import freemarker.template.TemplateException;
@@ -27,29 +26,33 @@ public class CommentTagDirective implements TemplateDirectiveModel {
 
     private final PostCommentService postCommentService;
 
-    public CommentTagDirective(Configuration configuration, PostCommentService postCommentService) {
+    private final TagDirectiveSupport tagDirectiveSupport;
+
+    public CommentTagDirective(Configuration configuration, PostCommentService postCommentService,
+        TagDirectiveSupport tagDirectiveSupport) {
         this.postCommentService = postCommentService;
+        this.tagDirectiveSupport = tagDirectiveSupport;
         configuration.setSharedVariable("commentTag", this);
     }
 
     @Override
     public void execute(Environment env, Map params, TemplateModel[] loopVars,
         TemplateDirectiveBody body) throws TemplateException, IOException {
-        final DefaultObjectWrapperBuilder builder =
-            new DefaultObjectWrapperBuilder(Configuration.VERSION_2_3_25);
-
         if (params.containsKey(HaloConst.METHOD_KEY)) {
             String method = params.get(HaloConst.METHOD_KEY).toString();
             switch (method) {
                 case "latest":
                     int top = Integer.parseInt(params.get("top").toString());
-                    Page<PostComment> postComments =
-                        postCommentService.pageLatest(top, CommentStatus.PUBLISHED);
-                    env.setVariable("comments",
-                        builder.build().wrap(postCommentService.convertToWithPostVo(postComments)));
+                    env.setVariable("comments", tagDirectiveSupport.memoize("commentTag", params,
+                        () -> {
+                            Page<PostComment> postComments =
+                                postCommentService.pageLatest(top, CommentStatus.PUBLISHED);
+                            return postCommentService.convertToWithPostVo(postComments);
+                        }));
                     break;
                 case "count":
-                    env.setVariable("count", builder.build().wrap(postCommentService.count()));
+                    env.setVariable("count", tagDirectiveSupport.memoize("commentTag", params,
+                        postCommentService::count));
                     break;
                 default:
                     break;
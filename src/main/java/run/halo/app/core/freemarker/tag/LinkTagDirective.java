@@ -4,7 +4,6 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 
 import freemarker.core.Environment;
 import freemarker.template.Configuration;
-import freemarker.template.DefaultObjectWrapperBuilder;
 import freemarker.template.TemplateDirectiveBody;
 import freemarker.template.TemplateDirectiveModel;
 import freemarker.template.TemplateException;
@@ -27,36 +26,41 @@ public class LinkTagDirective implements TemplateDirectiveModel {
 
     private final LinkService linkService;
 
-    public LinkTagDirective(Configuration configuration, LinkService linkService) {
+    private final TagDirectiveSupport tagDirectiveSupport;
+
+    public LinkTagDirective(Configuration configuration, LinkService linkService,
+        TagDirectiveSupport tagDirectiveSupport) {
         this.linkService = linkService;
+        this.tagDirectiveSupport = tagDirectiveSupport;
         configuration.setSharedVariable("linkTag", this);
     }
 
     @Override
     public void execute(Environment env, Map params, TemplateModel[] loopVars,
         TemplateDirectiveBody body) throws TemplateException, IOException {
-        final DefaultObjectWrapperBuilder builder =
-            new DefaultObjectWrapperBuilder(Configuration.VERSION_2_3_25);
-
         if (params.containsKey(HaloConst.METHOD_KEY)) {
             String method = params.get(HaloConst.METHOD_KEY).toString();
             switch (method) {
                 case "list":
-                    env.setVariable("links", builder.build().wrap(linkService.listAll()));
+                    env.setVariable("links",
+                        tagDirectiveSupport.memoize("linkTag", params, linkService::listAll));
                     break;
                 case "listByRandom":
-                    env.setVariable("links", builder.build().wrap(linkService.listAllByRandom()));
+                    // Not memoized, every invocation gets its own random order
+                    env.setVariable("links",
+                        tagDirectiveSupport.wrap(linkService.listAllByRandom()));
                     break;
                 case "listTeams":
-                    env.setVariable("teams",
-                        builder.build().wrap(linkService.listTeamVos(Sort.by(DESC, "createTime"))));
+                    env.setVariable("teams", tagDirectiveSupport.memoize("linkTag", params,
+                        () -> linkService.listTeamVos(Sort.by(DESC, "createTime"))));
                     break;
                 case "listTeamsByRandom":
-                    env.setVariable("teams", builder.build()
+                    env.setVariable("teams", tagDirectiveSupport
                         .wrap(linkService.listTeamVosByRandom(Sort.by(DESC, "createTime"))));
                     break;
                 case "count":
-                    env.setVariable("count", builder.build().wrap(linkService.count()));
+                    env.setVariable("count",
+                        tagDirectiveSupport.memoize("linkTag", params, linkService::count));
                     break;
                 default:
                     break;
@@ -4,7 +4,6 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 
 import freemarker.core.Environment;
 import freemarker.template.Configuration;
-import freemarker.template.DefaultObjectWrapperBuilder;
 import freemarker.template.TemplateDirectiveBody;
 import freemarker.template.TemplateDirectiveModel;
 import freemarker.template.TemplateException;
@@ -33,19 +32,19 @@ public class MenuTagDirective implements TemplateDirectiveModel {
 
     private final OptionService optionService;
 
+    private final TagDirectiveSupport tagDirectiveSupport;
+
     public MenuTagDirective(Configuration configuration, MenuService menuService,
-        OptionService optionService) {
+        OptionService optionService, TagDirectiveSupport tagDirectiveSupport) {
         this.menuService = menuService;
         this.optionService = optionService;
+        this.tagDirectiveSupport = tagDirectiveSupport;
         configuration.setSharedVariable("menuTag", this);
     }
 
     @Override
     public void execute(Environment env, Map params, TemplateModel[] loopVars,
         TemplateDirectiveBody body) throws TemplateException, IOException {
-        final DefaultObjectWrapperBuilder builder =
-            new DefaultObjectWrapperBuilder(Configuration.VERSION_2_3_25);
-
         if (params.containsKey(HaloConst.METHOD_KEY)) {
             String method = params.get(HaloConst.METHOD_KEY).toString();
             switch (method) {
@@ -53,32 +52,34 @@ public class MenuTagDirective implements TemplateDirectiveModel {
                     String listTeam = optionService
                         .getByPropertyOrDefault(PrimaryProperties.DEFAULT_MENU_TEAM, String.class,
                             "");
-                    env.setVariable("menus", builder.build()
-                        .wrap(menuService.listByTeam(listTeam, Sort.by(DESC, "priority"))));
+                    env.setVariable("menus", tagDirectiveSupport.memoize("menuTag", params,
+                        () -> menuService.listByTeam(listTeam, Sort.by(DESC, "priority"))));
                     break;
                 case "tree":
                     String treeTeam = optionService
                         .getByPropertyOrDefault(PrimaryProperties.DEFAULT_MENU_TEAM, String.class,
                             "");
-                    env.setVariable("menus", builder.build()
-                        .wrap(menuService.listByTeamAsTree(treeTeam, Sort.by(DESC, "priority"))));
+                    env.setVariable("menus", tagDirectiveSupport.memoize("menuTag", params,
+                        () -> menuService.listByTeamAsTree(treeTeam, Sort.by(DESC, "priority"))));
                     break;
                 case "listTeams":
-                    env.setVariable("teams",
-                        builder.build().wrap(menuService.listTeamVos(Sort.by(DESC, "priority"))));
+                    env.setVariable("teams", tagDirectiveSupport.memoize("menuTag", params,
+                        () -> menuService.listTeamVos(Sort.by(DESC, "priority"))));
                     break;
                 case "listByTeam":
                     String team = params.get("team").toString();
-                    env.setVariable("menus", builder.build()
-                        .wrap(menuService.listByTeam(team, Sort.by(DESC, "priority"))));
+                    env.setVariable("menus", tagDirectiveSupport.memoize("menuTag", params,
+                        () -> menuService.listByTeam(team, Sort.by(DESC, "priority"))));
                     break;
                 case "treeByTeam":
                     String treeTeamParam = params.get("team").toString();
-                    env.setVariable("menus", builder.build().wrap(
-                        menuService.listByTeamAsTree(treeTeamParam, Sort.by(DESC, "priority"))));
+                    env.setVariable("menus", tagDirectiveSupport.memoize("menuTag", params,
+                        () -> menuService
+                            .listByTeamAsTree(treeTeamParam, Sort.by(DESC, "priority"))));
                     break;
                 case "count":
-                    env.setVariable("count", builder.build().wrap(menuService.count()));
+                    env.setVariable("count",
+                        tagDirectiveSupport.memoize("menuTag", params, menuService::count));
                     break;
                 default:
                     break;
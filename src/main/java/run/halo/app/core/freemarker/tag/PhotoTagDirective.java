@@ -4,7 +4,6 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 
 import freemarker.core.Environment;
 import freemarker.template.Configuration;
-import freemarker.template.DefaultObjectWrapperBuilder;
 import freemarker.template.TemplateDirectiveBody;
 import freemarker.template.TemplateDirectiveModel;
 import freemarker.template.TemplateException;
@@ -27,34 +26,37 @@ public class PhotoTagDirective implements TemplateDirectiveModel {
 
     private final PhotoService photoService;
 
-    public PhotoTagDirective(Configuration configuration, PhotoService photoService) {
+    private final TagDirectiveSupport tagDirectiveSupport;
+
+    public PhotoTagDirective(Configuration configuration, PhotoService photoService,
+        TagDirectiveSupport tagDirectiveSupport) {
         this.photoService = photoService;
+        this.tagDirectiveSupport = tagDirectiveSupport;
         configuration.setSharedVariable("photoTag", this);
     }
 
     @Override
     public void execute(Environment env, Map params, TemplateModel[] loopVars,
         TemplateDirectiveBody body) throws TemplateException, IOException {
-        final DefaultObjectWrapperBuilder builder =
-            new DefaultObjectWrapperBuilder(Configuration.VERSION_2_3_25);
-
         if (params.containsKey(HaloConst.METHOD_KEY)) {
             String method = params.get(HaloConst.METHOD_KEY).toString();
             switch (method) {
                 case "list":
-                    env.setVariable("photos", builder.build().wrap(photoService.listAll()));
+                    env.setVariable("photos",
+                        tagDirectiveSupport.memoize("photoTag", params, photoService::listAll));
                     break;
                 case "listTeams":
-                    env.setVariable("teams", builder.build()
-                        .wrap(photoService.listTeamVos(Sort.by(DESC, "createTime"))));
+                    env.setVariable("teams", tagDirectiveSupport.memoize("photoTag", params,
+                        () -> photoService.listTeamVos(Sort.by(DESC, "createTime"))));
                     break;
                 case "listByTeam":
                     String team = params.get("team").toString();
-                    env.setVariable("photos", builder.build()
-                        .wrap(photoService.listByTeam(team, Sort.by(DESC, "createTime"))));
+                    env.setVariable("photos", tagDirectiveSupport.memoize("photoTag", params,
+                        () -> photoService.listByTeam(team, Sort.by(DESC, "createTime"))));
                     break;
                 case "count":
-                    env.setVariable("count", builder.build().wrap(photoService.count()));
+                    env.setVariable("count",
+                        tagDirectiveSupport.memoize("photoTag", params, photoService::count));
                     break;
                 default:
                     break;
@@ -3,21 +3,24 @@ package run.halo.app.core.freemarker.tag;
 import com.google.common.collect.Sets;
 import freemarker.core.Environment;
 import freemarker.template.Configuration;
-import freemarker.template.DefaultObjectWrapperBuilder;
 import freemarker.template.TemplateDirectiveBody;
 import freemarker.template.TemplateDirectiveModel;
 import freemarker.template.TemplateException;
 import freemarker.template.TemplateModel;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 import run.halo.app.model.entity.Post;
 import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.params.PostQuery;
 import run.halo.app.model.support.HaloConst;
-import run.halo.app.service.PostCategoryService;
+import run.halo.app.service.CategoryService;
 import run.halo.app.service.PostService;
-import run.halo.app.service.PostTagService;
+import run.halo.app.service.TagService;
 
 /**
  * Freemarker custom tag of post.
@@ -30,74 +33,91 @@ public class PostTagDirective implements TemplateDirectiveModel {
 
     private final PostService postService;
 
-    private final PostTagService postTagService;
+    private final CategoryService categoryService;
 
-    private final PostCategoryService postCategoryService;
+    private final TagService tagService;
+
+    private final TagDirectiveSupport tagDirectiveSupport;
 
     public PostTagDirective(Configuration configuration,
         PostService postService,
-        PostTagService postTagService,
-        PostCategoryService postCategoryService) {
+        CategoryService categoryService,
+        TagService tagService,
+        TagDirectiveSupport tagDirectiveSupport) {
         this.postService = postService;
-        this.postTagService = postTagService;
-        this.postCategoryService = postCategoryService;
+        this.categoryService = categoryService;
+        this.tagService = tagService;
+        this.tagDirectiveSupport = tagDirectiveSupport;
         configuration.setSharedVariable("postTag", this);
     }
 
     @Override
     public void execute(Environment env, Map params, TemplateModel[] loopVars,
         TemplateDirectiveBody body) throws TemplateException, IOException {
-        final DefaultObjectWrapperBuilder builder =
-            new DefaultObjectWrapperBuilder(Configuration.VERSION_2_3_25);
         if (params.containsKey(HaloConst.METHOD_KEY)) {
             String method = params.get(HaloConst.METHOD_KEY).toString();
             switch (method) {
                 case "latest":
                     int top = Integer.parseInt(params.get("top").toString());
-                    env.setVariable("posts", builder.build()
-                        .wrap(postService.convertToListVo(postService.listLatest(top))));
+                    env.setVariable("posts", tagDirectiveSupport.memoize("postTag", params,
+                        () -> postService.convertToListVo(postService.pageWithoutContentBy(
+                            buildPostQuery(null, null, PostStatus.PUBLISHED),
+                            PageRequest.of(0, top, Sort.by(Sort.Direction.DESC, "createTime")))
+                            .getContent())));
                     break;
                 case "count":
-                    env.setVariable("count",
-                        builder.build().wrap(postService.countByStatus(PostStatus.PUBLISHED)));
+                    env.setVariable("count", tagDirectiveSupport.memoize("postTag", params,
+                        () -> postService.countByStatus(PostStatus.PUBLISHED)));
                     break;
                 case "archiveYear":
-                    env.setVariable("archives",
-                        builder.build().wrap(postService.listYearArchives()));
+                    env.setVariable("archives", tagDirectiveSupport.memoize("postTag", params,
+                        () -> postService.listYearArchives(getInteger(params, "size"))));
                     break;
                 case "archiveMonth":
-                    env.setVariable("archives",
-                        builder.build().wrap(postService.listMonthArchives()));
+                    env.setVariable("archives", tagDirectiveSupport.memoize("postTag", params,
+                        () -> postService.listMonthArchives(getInteger(params, "size"))));
                     break;
                 case "archive":
                     String type = params.get("type").toString();
-                    env.setVariable("archives", builder.build().wrap(
-                        "year".equals(type) ? postService.listYearArchives() :
-                            postService.listMonthArchives()));
+                    Integer postSize = getInteger(params, "size");
+                    env.setVariable("archives", tagDirectiveSupport.memoize("postTag", params,
+                        () -> "year".equals(type) ? postService.listYearArchives(postSize) :
+                            postService.listMonthArchives(postSize)));
+                    break;
+                case "archivePosts":
+                    Integer page = getInteger(params, "page");
+                    Integer size = getInteger(params, "size");
+                    env.setVariable("posts", tagDirectiveSupport.memoize("postTag", params,
+                        () -> postService.pageArchivePostsBy(
+                            getInteger(params, "year"), getInteger(params, "month"),
+                            PageRequest.of(page == null ? 0 : page, size == null ? 10 : size))));
                     break;
                 case "listByCategoryId":
                     Integer categoryId = Integer.parseInt(params.get("categoryId").toString());
-                    env.setVariable("posts", builder.build().wrap(postService.convertToListVo(
-                        postCategoryService.listPostBy(categoryId,
-                            Sets.immutableEnumSet(PostStatus.PUBLISHED, PostStatus.INTIMATE)))));
+                    env.setVariable("posts", tagDirectiveSupport.memoize("postTag", params,
+                        () -> postService.convertToListVo(
+                            listPosts(buildPostQuery(categoryId, null, PostStatus.PUBLISHED,
+                                PostStatus.INTIMATE)))));
                     break;
                 case "listByCategorySlug":
                     String categorySlug = params.get("categorySlug").toString();
-                    List<Post> posts =
-                        postCategoryService.listPostBy(categorySlug,
-                            Sets.immutableEnumSet(PostStatus.PUBLISHED, PostStatus.INTIMATE));
-                    env.setVariable("posts",
-                        builder.build().wrap(postService.convertToListVo(posts)));
+                    env.setVariable("posts", tagDirectiveSupport.memoize("postTag", params,
+                        () -> postService.convertToListVo(listPosts(buildPostQuery(
+                            categoryService.getBySlugOfNonNull(categorySlug).getId(), null,
+                            PostStatus.PUBLISHED, PostStatus.INTIMATE)))));
                     break;
                 case "listByTagId":
                     Integer tagId = Integer.parseInt(params.get("tagId").toString());
-                    env.setVariable("posts", builder.build().wrap(postService
-                        .convertToListVo(postTagService.listPostsBy(tagId, PostStatus.PUBLISHED))));
+                    env.setVariable("posts", tagDirectiveSupport.memoize("postTag", params,
+                        () -> postService.convertToListVo(
+                            listPosts(buildPostQuery(null, tagId, PostStatus.PUBLISHED)))));
                     break;
                 case "listByTagSlug":
                     String tagSlug = params.get("tagSlug").toString();
-                    env.setVariable("posts", builder.build().wrap(postService.convertToListVo(
-                        postTagService.listPostsBy(tagSlug, PostStatus.PUBLISHED))));
+                    env.setVariable("posts", tagDirectiveSupport.memoize("postTag", params,
+                        () -> postService.convertToListVo(listPosts(buildPostQuery(null,
+                            tagService.getBySlugOfNonNull(tagSlug).getId(),
+                            PostStatus.PUBLISHED)))));
                     break;
                 default:
                     break;
@@ -106,4 +126,20 @@ public class PostTagDirective implements TemplateDirectiveModel {
         body.render(env.getOut());
     }
 
+    private Integer getInteger(Map params, String name) {
+        Object value = params.get(name);
+        return value == null ? null : Integer.parseInt(value.toString());
+    }
+
+    private List<Post> listPosts(PostQuery postQuery) {
+        return postService.listWithoutContentBy(postQuery, Sort.unsorted());
+    }
+
+    private PostQuery buildPostQuery(Integer categoryId, Integer tagId, PostStatus... statuses) {
+        PostQuery postQuery = new PostQuery();
+        postQuery.setCategoryId(categoryId);
+        postQuery.setTagId(tagId);
+        postQuery.setStatuses(Sets.immutableEnumSet(Arrays.asList(statuses)));
+        return postQuery;
+    }
 }
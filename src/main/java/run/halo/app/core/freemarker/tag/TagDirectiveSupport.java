@@ -0,0 +1,136 @@
+package run.halo.app.core.freemarker.tag;
+
+import freemarker.template.Configuration;
+import freemarker.template.DefaultObjectWrapperBuilder;
+import freemarker.template.ObjectWrapper;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import run.halo.app.model.support.HaloConst;
+import run.halo.app.utils.ServletUtils;
+
+/**
+ * Wraps and memoizes results of custom tag directives.
+ *
+ * <p>Results loaded while rendering a GET or HEAD request are kept in the request, so that a
+ * directive invoked with the same params by several parts of a page, such as header, sidebar and
+ * footer, queries only once. Every invocation is timed per directive and method, tagged with
+ * whether the result was memoized.
+ */
+@Component
+public class TagDirectiveSupport {
+
+    private static final String MEMO_ATTRIBUTE = TagDirectiveSupport.class.getName() + ".memo";
+
+    private static final String TIMER_NAME = "halo.template.directive";
+
+    /**
+     * Object wrapper shared by all directives, which caches introspection of wrapped classes.
+     */
+    private final ObjectWrapper objectWrapper =
+        new DefaultObjectWrapperBuilder(Configuration.VERSION_2_3_25).build();
+
+    private final MeterRegistry meterRegistry;
+
+    public TagDirectiveSupport(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Wraps the object with the shared object wrapper.
+     *
+     * @param object object to wrap
+     * @return template model of the object
+     * @throws TemplateModelException throws when failed to wrap the object
+     */
+    @NonNull
+    public TemplateModel wrap(@Nullable Object object) throws TemplateModelException {
+        return objectWrapper.wrap(object);
+    }
+
+    /**
+     * Loads the result of the directive invocation, or gets it from the memo of the current
+     * request if the directive has been invoked with the same params, and wraps it.
+     *
+     * @param directive directive name must not be blank
+     * @param params directive params must not be null
+     * @param loader loader of the result must not be null
+     * @return template model of the result
+     * @throws TemplateModelException throws when failed to wrap the result
+     */
+    @NonNull
+    public TemplateModel memoize(@NonNull String directive, @NonNull Map<?, ?> params,
+        @NonNull Supplier<?> loader) throws TemplateModelException {
+        Assert.hasText(directive, "Directive name must not be blank");
+        Assert.notNull(params, "Directive params must not be null");
+        Assert.notNull(loader, "Result loader must not be null");
+
+        long start = System.nanoTime();
+        Map<String, Object> memo = getMemo();
+        String key = buildKey(directive, params);
+
+        boolean hit = memo != null && memo.containsKey(key);
+        Object result;
+        if (hit) {
+            result = memo.get(key);
+        } else {
+            result = loader.get();
+            if (memo != null) {
+                memo.put(key, result);
+            }
+        }
+
+        Timer.builder(TIMER_NAME)
+            .description("Invocations of custom tag directives in templates")
+            .tag("directive", directive)
+            .tag("method", String.valueOf(params.get(HaloConst.METHOD_KEY)))
+            .tag("memo", hit ? "hit" : "miss")
+            .register(meterRegistry)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        return wrap(result);
+    }
+
+    @NonNull
+    private String buildKey(@NonNull String directive, @NonNull Map<?, ?> params) {
+        // Sort params by name, so that the order of params in templates does not matter
+        Map<String, String> sortedParams = new TreeMap<>();
+        params.forEach((name, value) -> sortedParams
+            .put(String.valueOf(name), String.valueOf(value)));
+        return directive + sortedParams;
+    }
+
+    /**
+     * Gets memo of the current request, null if not in a read-only request.
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private static Map<String, Object> getMemo() {
+        HttpServletRequest request = ServletUtils.getCurrentRequest()
+            .filter(currentRequest -> HttpMethod.GET.matches(currentRequest.getMethod())
+                || HttpMethod.HEAD.matches(currentRequest.getMethod()))
+            .orElse(null);
+        if (request == null) {
+            return null;
+        }
+
+        Map<String, Object> memo = (Map<String, Object>) request.getAttribute(MEMO_ATTRIBUTE);
+        if (memo == null) {
+            memo = new HashMap<>();
+            request.setAttribute(MEMO_ATTRIBUTE, memo);
+        }
+        return memo;
+    }
+}
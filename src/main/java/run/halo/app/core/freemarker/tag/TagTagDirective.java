@@ -4,17 +4,14 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 
 import freemarker.core.Environment;
 import freemarker.template.Configuration;
-import freemarker.template.DefaultObjectWrapperBuilder;
 import freemarker.template.TemplateDirectiveBody;
 import freemarker.template.TemplateDirectiveModel;
 import freemarker.template.TemplateException;
 import freemarker.template.TemplateModel;
 import java.io.IOException;
-import java.util.List;
 import java.util.Map;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
-import run.halo.app.model.entity.Tag;
 import run.halo.app.model.support.HaloConst;
 import run.halo.app.service.PostTagService;
 import run.halo.app.service.TagService;
@@ -32,34 +29,36 @@ public class TagTagDirective implements TemplateDirectiveModel {
 
     private final PostTagService postTagService;
 
+    private final TagDirectiveSupport tagDirectiveSupport;
+
     public TagTagDirective(Configuration configuration,
         TagService tagService,
-        PostTagService postTagService) {
+        PostTagService postTagService,
+        TagDirectiveSupport tagDirectiveSupport) {
         this.tagService = tagService;
         this.postTagService = postTagService;
+        this.tagDirectiveSupport = tagDirectiveSupport;
         configuration.setSharedVariable("tagTag", this);
     }
 
     @Override
     public void execute(Environment env, Map params, TemplateModel[] loopVars,
         TemplateDirectiveBody body) throws TemplateException, IOException {
-        final DefaultObjectWrapperBuilder builder =
-            new DefaultObjectWrapperBuilder(Configuration.VERSION_2_3_25);
-
         if (params.containsKey(HaloConst.METHOD_KEY)) {
             String method = params.get(HaloConst.METHOD_KEY).toString();
             switch (method) {
                 case "list":
-                    env.setVariable("tags", builder.build()
-                        .wrap(postTagService.listTagWithCountDtos(Sort.by(DESC, "createTime"))));
+                    env.setVariable("tags", tagDirectiveSupport.memoize("tagTag", params,
+                        () -> postTagService.listTagWithCountDtos(Sort.by(DESC, "createTime"))));
                     break;
                 case "listByPostId":
                     Integer postId = Integer.parseInt(params.get("postId").toString());
-                    List<Tag> tags = postTagService.listTagsBy(postId);
-                    env.setVariable("tags", builder.build().wrap(tagService.convertTo(tags)));
+                    env.setVariable("tags", tagDirectiveSupport.memoize("tagTag", params,
+                        () -> tagService.convertTo(postTagService.listTagsBy(postId))));
                     break;
                 case "count":
-                    env.setVariable("count", builder.build().wrap(tagService.count()));
+                    env.setVariable("count",
+                        tagDirectiveSupport.memoize("tagTag", params, tagService::count));
                     break;
                 default:
                     break;
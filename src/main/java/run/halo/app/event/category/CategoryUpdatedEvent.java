@@ -0,0 +1,18 @@
+package run.halo.app.event.category;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Category updated event, published once categories are created, updated or removed.
+ */
+public class CategoryUpdatedEvent extends ApplicationEvent {
+
+    /**
+     * Create a new ApplicationEvent.
+     *
+     * @param source the object on which the event initially occurred (never {@code null})
+     */
+    public CategoryUpdatedEvent(Object source) {
+        super(source);
+    }
+}
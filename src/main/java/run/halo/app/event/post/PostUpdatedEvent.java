@@ -0,0 +1,32 @@
+package run.halo.app.event.post;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.util.Assert;
+
+/**
+ * Post updated event. It will be published once a post is created, updated, deleted or its
+ * status is changed, listeners should reload the post by its id if needed.
+ */
+public class PostUpdatedEvent extends ApplicationEvent {
+
+    private final Integer postId;
+
+    /**
+     * Create a new ApplicationEvent.
+     *
+     * @param source the object on which the event initially occurred (never {@code null})
+     * @param postId post id must not be null
+     */
+    public PostUpdatedEvent(Object source, @NonNull Integer postId) {
+        super(source);
+
+        Assert.notNull(postId, "Post id must not be null");
+        this.postId = postId;
+    }
+
+    @NonNull
+    public Integer getPostId() {
+        return postId;
+    }
+}
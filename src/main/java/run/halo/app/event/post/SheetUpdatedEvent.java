@@ -0,0 +1,32 @@
+package run.halo.app.event.post;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.util.Assert;
+
+/**
+ * Sheet updated event. It will be published once a sheet is created, updated or deleted,
+ * listeners should reload the sheet by its id if needed.
+ */
+public class SheetUpdatedEvent extends ApplicationEvent {
+
+    private final Integer sheetId;
+
+    /**
+     * Create a new ApplicationEvent.
+     *
+     * @param source the object on which the event initially occurred (never {@code null})
+     * @param sheetId sheet id must not be null
+     */
+    public SheetUpdatedEvent(Object source, @NonNull Integer sheetId) {
+        super(source);
+
+        Assert.notNull(sheetId, "Sheet id must not be null");
+        this.sheetId = sheetId;
+    }
+
+    @NonNull
+    public Integer getSheetId() {
+        return sheetId;
+    }
+}
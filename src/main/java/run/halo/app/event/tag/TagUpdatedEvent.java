@@ -0,0 +1,18 @@
+package run.halo.app.event.tag;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Tag updated event, published once tags are created, updated or removed.
+ */
+public class TagUpdatedEvent extends ApplicationEvent {
+
+    /**
+     * Create a new ApplicationEvent.
+     *
+     * @param source the object on which the event initially occurred (never {@code null})
+     */
+    public TagUpdatedEvent(Object source) {
+        super(source);
+    }
+}
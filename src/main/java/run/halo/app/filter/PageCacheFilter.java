@@ -0,0 +1,223 @@
+package run.halo.app.filter;
+
+import static run.halo.app.model.support.HaloConst.ADMIN_TOKEN_HEADER_NAME;
+import static run.halo.app.model.support.HaloConst.ADMIN_TOKEN_QUERY_NAME;
+import static run.halo.app.utils.HaloUtils.ensureBoth;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+import run.halo.app.cache.PageCache;
+import run.halo.app.cache.PageCache.CachedPage;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.service.PostService;
+import run.halo.app.service.SheetService;
+import run.halo.app.service.ThemeService;
+import run.halo.app.service.support.SessionPermissionStore;
+import run.halo.app.utils.CompiledPathMatcher;
+
+/**
+ * Filter serving rendered pages from {@link PageCache} for anonymous visitors.
+ *
+ * <p>Only GET and HEAD requests without any token and without any access permission of
+ * encrypted contents are served from the cache. Every successful write request of admin api
+ * drops all cached pages.
+ */
+@Component
+@Order(0)
+@ConditionalOnProperty(prefix = "halo", name = "page-cache", havingValue = "true")
+public class PageCacheFilter extends OncePerRequestFilter {
+
+    private static final String TOKEN_PARAMETER = "token";
+
+    private static final String ADMIN_API_PATTERN = "/api/admin/**";
+
+    private final PageCache pageCache;
+
+    private final ThemeService themeService;
+
+    private final PostService postService;
+
+    private final SheetService sheetService;
+
+    private final SessionPermissionStore sessionPermissionStore;
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    private final CompiledPathMatcher excludeUrlMatcher;
+
+    public PageCacheFilter(PageCache pageCache,
+        ThemeService themeService,
+        PostService postService,
+        SheetService sheetService,
+        SessionPermissionStore sessionPermissionStore,
+        HaloProperties haloProperties) {
+        this.pageCache = pageCache;
+        this.themeService = themeService;
+        this.postService = postService;
+        this.sheetService = sheetService;
+        this.sessionPermissionStore = sessionPermissionStore;
+        this.excludeUrlMatcher = CompiledPathMatcher.compile(List.of(
+            ensureBoth(haloProperties.getAdminPath(), "/") + "**",
+            ensureBoth(haloProperties.getUploadUrlPrefix(), "/") + "**",
+            "/api/**",
+            "/themes/**",
+            "/install",
+            "/version",
+            "/js/**",
+            "/css/**",
+            "/webjars/**"
+        ));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+        FilterChain filterChain) throws ServletException, IOException {
+        if (!isCacheable(request)) {
+            filterChain.doFilter(request, response);
+
+            if (isAdminWrite(request) && response.getStatus() < 400) {
+                pageCache.invalidateAll();
+            }
+            return;
+        }
+
+        String key = buildKey(request);
+        CachedPage cachedPage = pageCache.get(key).orElse(null);
+        if (cachedPage != null) {
+            writePage(cachedPage, request, response);
+            return;
+        }
+
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long generation = pageCache.generation();
+        ContentCachingResponseWrapper responseWrapper =
+            new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+
+            String contentType = responseWrapper.getContentType();
+            if (responseWrapper.getStatus() == HttpStatus.OK.value()
+                && StringUtils.startsWith(contentType, MediaType.TEXT_HTML_VALUE)) {
+                CachedPage page = new CachedPage(contentType,
+                    responseWrapper.getContentAsByteArray(), PageCache.getTags(request));
+                if (pageCache.put(key, page, generation)) {
+                    responseWrapper.setHeader(HttpHeaders.ETAG, page.getEtag());
+                }
+            }
+        } finally {
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private boolean isCacheable(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return false;
+        }
+
+        if (excludeUrlMatcher.matches(urlPathHelper.getRequestUri(request))) {
+            return false;
+        }
+
+        if (request.getParameter(TOKEN_PARAMETER) != null
+            || request.getParameter(ADMIN_TOKEN_QUERY_NAME) != null
+            || request.getHeader(ADMIN_TOKEN_HEADER_NAME) != null) {
+            return false;
+        }
+
+        // Visitors who have unlocked encrypted contents see different pages
+        HttpSession session = request.getSession(false);
+        return session == null || sessionPermissionStore.get(session.getId()).isEmpty();
+    }
+
+    private boolean isAdminWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !HttpMethod.GET.matches(method)
+            && !HttpMethod.HEAD.matches(method)
+            && !HttpMethod.OPTIONS.matches(method)
+            && antPathMatcher.match(ADMIN_API_PATTERN, urlPathHelper.getRequestUri(request));
+    }
+
+    @NonNull
+    private String buildKey(@NonNull HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(themeService.getActivatedThemeId())
+            .append(':')
+            .append(urlPathHelper.getRequestUri(request));
+        if (request.getQueryString() != null) {
+            key.append('?').append(request.getQueryString());
+        }
+        return key.toString();
+    }
+
+    private void writePage(@NonNull CachedPage page, @NonNull HttpServletRequest request,
+        @NonNull HttpServletResponse response) throws IOException {
+        // HEAD requests, e.g. of link checkers, are not visits
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            publishVisitEvents(page.getTags());
+        }
+
+        if (new ServletWebRequest(request, response).checkNotModified(page.getEtag())) {
+            return;
+        }
+
+        response.setContentType(page.getContentType());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        byte[] body = page.getBody();
+        if (page.getGzipBody() != null && acceptsGzip(request)) {
+            body = page.getGzipBody();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+
+        if (!HttpMethod.HEAD.matches(request.getMethod())) {
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private boolean acceptsGzip(@NonNull HttpServletRequest request) {
+        return StringUtils.containsIgnoreCase(request.getHeader(HttpHeaders.ACCEPT_ENCODING),
+            "gzip");
+    }
+
+    /**
+     * Counts visits of posts and sheets which were counted while rendering the page.
+     */
+    private void publishVisitEvents(@NonNull Set<String> tags) {
+        for (String tag : tags) {
+            if (tag.startsWith(PageCache.POST_TAG_PREFIX)) {
+                postService.publishVisitEvent(
+                    Integer.valueOf(tag.substring(PageCache.POST_TAG_PREFIX.length())));
+            } else if (tag.startsWith(PageCache.SHEET_TAG_PREFIX)) {
+                sheetService.publishVisitEvent(
+                    Integer.valueOf(tag.substring(PageCache.SHEET_TAG_PREFIX.length())));
+            }
+        }
+    }
+}
@@ -2,10 +2,10 @@ package run.halo.app.handler.file;
 
 import static run.halo.app.model.support.HaloConst.FILE_SEPARATOR;
 
+import java.awt.Dimension;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.function.Supplier;
-import javax.imageio.ImageReader;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
@@ -73,9 +73,9 @@ public interface FileHandler {
         if (isImageType(file)) {
             // Handle image
             try (InputStream is = file.getInputStream()) {
-                ImageReader image = ImageUtils.getImageReaderFromFile(is, uploadResult.getSuffix());
-                uploadResult.setWidth(image.getWidth(0));
-                uploadResult.setHeight(image.getHeight(0));
+                Dimension size = ImageUtils.getImageSize(is, uploadResult.getSuffix());
+                uploadResult.setWidth(size.width);
+                uploadResult.setHeight(size.height);
                 if (thumbnailSupplier != null) {
                     uploadResult.setThumbPath(thumbnailSupplier.get());
                 }
@@ -2,7 +2,7 @@ package run.halo.app.handler.file;
 
 import static run.halo.app.model.support.HaloConst.FILE_SEPARATOR;
 
-import java.awt.image.BufferedImage;
+import java.awt.Dimension;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -11,7 +11,6 @@ import java.nio.file.Paths;
 import java.util.Calendar;
 import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
-import net.coobird.thumbnailator.Thumbnails;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
@@ -41,25 +40,16 @@ public class LocalFileHandler implements FileHandler {
      */
     private static final String UPLOAD_SUB_DIR = "upload/";
 
-    private static final String THUMBNAIL_SUFFIX = "-thumbnail";
-
-    /**
-     * Thumbnail width.
-     */
-    private static final int THUMB_WIDTH = 256;
-
-    /**
-     * Thumbnail height.
-     */
-    private static final int THUMB_HEIGHT = 256;
-
     private final OptionService optionService;
 
+    private final ThumbnailGenerator thumbnailGenerator;
+
     private final String workDir;
 
     public LocalFileHandler(OptionService optionService,
-        HaloProperties haloProperties) {
+        HaloProperties haloProperties, ThumbnailGenerator thumbnailGenerator) {
         this.optionService = optionService;
+        this.thumbnailGenerator = thumbnailGenerator;
 
         // Get work dir
         workDir = FileHandler.normalizeDirectory(haloProperties.getWorkDir());
@@ -138,25 +128,12 @@ public class LocalFileHandler implements FileHandler {
                 .setMediaType(MediaType.valueOf(Objects.requireNonNull(file.getContentType())));
             uploadResult.setSize(file.getSize());
 
-            // TODO refactor this: if image is svg ext. extension
-            handleImageMetadata(file, uploadResult, () -> {
-                // Upload a thumbnail
-                final String thumbnailBasename = basename + THUMBNAIL_SUFFIX;
-                final String thumbnailSubFilePath = subDir + thumbnailBasename + '.' + extension;
-                final Path thumbnailPath = Paths.get(workDir + thumbnailSubFilePath);
-                try (InputStream is = file.getInputStream()) {
-                    // Generate thumbnail
-                    BufferedImage originalImage = ImageUtils.getImageFromFile(is, extension);
-                    boolean result = generateThumbnail(originalImage, thumbnailPath, extension);
-                    if (result) {
-                        // Set thumb path
-                        return thumbnailSubFilePath;
-                    }
-                } catch (Throwable e) {
-                    log.warn("Failed to open image file.", e);
-                }
-                return subFilePath;
-            });
+            // Thumbnails are generated after the attachment is created
+            uploadResult.setThumbPath(subFilePath);
+            if (isImageType(file)) {
+                handleImageSize(uploadPath, uploadResult);
+                uploadResult.setThumbnailPending(thumbnailGenerator.supports(extension));
+            }
 
             log.info("Uploaded file: [{}] to directory: [{}] successfully",
                 file.getOriginalFilename(), uploadPath.toString());
@@ -179,24 +156,15 @@ public class LocalFileHandler implements FileHandler {
             throw new FileOperationException("附件 " + key + " 删除失败", e);
         }
 
-        // Delete thumb if necessary
-        String basename = FilenameUtils.getBasename(key);
-        String extension = FilenameUtils.getExtension(key);
-
-        // Get thumbnail name
-        String thumbnailName = basename + THUMBNAIL_SUFFIX + '.' + extension;
-
-        // Get thumbnail path
-        Path thumbnailPath = Paths.get(path.getParent().toString(), thumbnailName);
-
-        // Delete thumbnail file
-        try {
-            boolean deleteResult = Files.deleteIfExists(thumbnailPath);
-            if (!deleteResult) {
-                log.warn("Thumbnail: [{}] may not exist", thumbnailPath.toString());
+        // Delete thumbnails if necessary
+        for (String thumbnailKey : thumbnailGenerator.listThumbnailKeys(key)) {
+            Path thumbnailPath = Paths.get(workDir, thumbnailKey);
+            try {
+                Files.deleteIfExists(thumbnailPath);
+            } catch (IOException e) {
+                throw new FileOperationException(
+                    "附件缩略图 " + thumbnailPath.getFileName() + " 删除失败", e);
             }
-        } catch (IOException e) {
-            throw new FileOperationException("附件缩略图 " + thumbnailName + " 删除失败", e);
         }
     }
 
@@ -205,29 +173,17 @@ public class LocalFileHandler implements FileHandler {
         return AttachmentType.LOCAL;
     }
 
-    private boolean generateThumbnail(BufferedImage originalImage, Path thumbPath,
-        String extension) {
-        Assert.notNull(originalImage, "Image must not be null");
-        Assert.notNull(thumbPath, "Thumb path must not be null");
-
-        boolean result = false;
-        // Create the thumbnail
-        try {
-            Files.createFile(thumbPath);
-            // Convert to thumbnail and copy the thumbnail
-            log.debug("Trying to generate thumbnail: [{}]", thumbPath.toString());
-            Thumbnails.of(originalImage).size(THUMB_WIDTH, THUMB_HEIGHT).keepAspectRatio(true)
-                .toFile(thumbPath.toFile());
-            log.info("Generated thumbnail image, and wrote the thumbnail to [{}]",
-                thumbPath.toString());
-            result = true;
-        } catch (Throwable t) {
-            // Ignore the error
-            log.warn("Failed to generate thumbnail: " + thumbPath, t);
-        } finally {
-            // Disposes of this graphics context and releases any system resources that it is using.
-            originalImage.getGraphics().dispose();
+    /**
+     * Reads width and height of the uploaded image from its header.
+     */
+    private void handleImageSize(Path uploadPath, UploadResult uploadResult) {
+        try (InputStream is = Files.newInputStream(uploadPath)) {
+            Dimension size = ImageUtils.getImageSize(is, uploadResult.getSuffix());
+            uploadResult.setWidth(size.width);
+            uploadResult.setHeight(size.height);
+        } catch (IOException | OutOfMemoryError e) {
+            // Some readers allocate buffers by sizes in corrupted headers
+            log.warn("Failed to fetch image meta data of [{}]", uploadPath, e);
         }
-        return result;
     }
 }
@@ -0,0 +1,190 @@
+package run.halo.app.handler.file;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import lombok.extern.slf4j.Slf4j;
+import net.coobird.thumbnailator.Thumbnails;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.exception.ImageFormatException;
+import run.halo.app.utils.FilenameUtils;
+
+/**
+ * Generates thumbnails of images uploaded to the work directory in a bounded worker pool.
+ *
+ * <p>Images are decoded once for all thumbnail sizes, and large images are subsampled while
+ * decoding, so that full resolution pixels are never held in memory.
+ */
+@Slf4j
+@Component
+public class ThumbnailGenerator implements DisposableBean {
+
+    private static final String THUMBNAIL_SUFFIX = "-thumbnail";
+
+    /**
+     * Decoded images are kept at least twice as large as the largest thumbnail, to keep
+     * thumbnails sharp.
+     */
+    private static final int SUBSAMPLING_MARGIN = 2;
+
+    private final String workDir;
+
+    private final List<Integer> sizes;
+
+    private final int maxSize;
+
+    private final ThreadPoolExecutor executor;
+
+    public ThumbnailGenerator(HaloProperties haloProperties) {
+        this.workDir = FileHandler.normalizeDirectory(haloProperties.getWorkDir());
+        this.sizes = haloProperties.getThumbnailSizes().stream()
+            .filter(size -> size != null && size > 0)
+            .distinct()
+            .collect(Collectors.toUnmodifiableList());
+        Assert.notEmpty(sizes, "Thumbnail sizes must not be empty");
+        this.maxSize = Collections.max(sizes);
+
+        int threads = Math.max(1, haloProperties.getThumbnailThreads());
+        // Callers generate thumbnails by themselves once the queue is full
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(Math.max(1, haloProperties.getThumbnailQueueCapacity())),
+            new CustomizableThreadFactory("thumbnail-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Checks whether thumbnails can be generated for images with the extension.
+     *
+     * @param extension file extension
+     * @return true if supported, false otherwise
+     */
+    public boolean supports(String extension) {
+        return extension != null
+            && ImageIO.getImageReadersBySuffix(extension).hasNext()
+            && ImageIO.getImageWritersBySuffix(extension).hasNext();
+    }
+
+    /**
+     * Generates thumbnails of all sizes for the image asynchronously.
+     *
+     * @param key file key of the image relative to the work directory must not be blank
+     * @return a future of the file key of the thumbnail of the first size
+     */
+    @NonNull
+    public CompletableFuture<String> generateAsync(@NonNull String key) {
+        Assert.hasText(key, "File key must not be blank");
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return generate(key);
+            } catch (IOException e) {
+                throw new ImageFormatException("Failed to generate thumbnails of " + key, e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Generates thumbnails of all sizes for the image.
+     *
+     * @param key file key of the image relative to the work directory must not be blank
+     * @return file key of the thumbnail of the first size
+     * @throws IOException throws when failed to read the image or write thumbnails
+     */
+    @NonNull
+    public String generate(@NonNull String key) throws IOException {
+        Assert.hasText(key, "File key must not be blank");
+
+        long start = System.currentTimeMillis();
+        BufferedImage image = read(Paths.get(workDir, key));
+        try {
+            List<String> thumbnailKeys = listThumbnailKeys(key);
+            for (int i = 0; i < sizes.size(); i++) {
+                int size = sizes.get(i);
+                Thumbnails.of(image)
+                    .size(size, size)
+                    .keepAspectRatio(true)
+                    .toFile(Paths.get(workDir, thumbnailKeys.get(i)).toFile());
+            }
+            log.debug("Generated [{}] thumbnails of [{}] in [{}] ms", sizes.size(), key,
+                System.currentTimeMillis() - start);
+            return thumbnailKeys.get(0);
+        } finally {
+            image.flush();
+        }
+    }
+
+    /**
+     * Lists file keys of thumbnails of all sizes for the image.
+     *
+     * @param key file key of the image must not be blank
+     * @return a list of thumbnail file keys, the first one is the thumbnail of attachments
+     */
+    @NonNull
+    public List<String> listThumbnailKeys(@NonNull String key) {
+        Assert.hasText(key, "File key must not be blank");
+
+        String basename = FilenameUtils.getBasename(key);
+        String extension = FilenameUtils.getExtension(key);
+        int separatorIndex = Math.max(key.lastIndexOf('/'), key.lastIndexOf('\\'));
+        String directory = key.substring(0, separatorIndex + 1);
+
+        List<String> thumbnailKeys = new ArrayList<>(sizes.size());
+        for (int i = 0; i < sizes.size(); i++) {
+            // The first one keeps the name of thumbnails generated before sizes are configurable
+            String sizeSuffix = i == 0 ? "" : "-" + sizes.get(i);
+            thumbnailKeys.add(
+                directory + basename + THUMBNAIL_SUFFIX + sizeSuffix + '.' + extension);
+        }
+        return thumbnailKeys;
+    }
+
+    @NonNull
+    private BufferedImage read(@NonNull Path path) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers =
+                input == null ? Collections.emptyIterator() : ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new ImageFormatException("不支持的图片格式").setErrorData(path);
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling =
+                    Math.max(1, Math.max(width, height) / (maxSize * SUBSAMPLING_MARGIN));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,30 @@
+package run.halo.app.listener.attachment;
+
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import run.halo.app.service.AttachmentService;
+
+/**
+ * Resumes generating thumbnails of attachments.
+ */
+@Component
+public class AttachmentThumbnailListener {
+
+    private final AttachmentService attachmentService;
+
+    public AttachmentThumbnailListener(AttachmentService attachmentService) {
+        this.attachmentService = attachmentService;
+    }
+
+    /**
+     * Generates thumbnails of attachments still pending, since queued thumbnails are lost on
+     * shutting down.
+     */
+    @Async
+    @EventListener
+    public void onApplicationStarted(ApplicationStartedEvent event) {
+        attachmentService.generatePendingThumbnailsAsync();
+    }
+}
@@ -0,0 +1,84 @@
+package run.halo.app.listener.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import run.halo.app.cache.PageCache;
+import run.halo.app.event.comment.AbstractCommentBaseEvent;
+import run.halo.app.event.comment.CommentNewEvent;
+import run.halo.app.event.comment.CommentReplyEvent;
+import run.halo.app.event.options.OptionUpdatedEvent;
+import run.halo.app.event.post.PostUpdatedEvent;
+import run.halo.app.event.theme.ThemeActivatedEvent;
+import run.halo.app.event.theme.ThemeUpdatedEvent;
+import run.halo.app.service.PostCommentService;
+import run.halo.app.service.SheetCommentService;
+
+/**
+ * Page cache event listener, which drops cached pages depending on the changed contents.
+ */
+@Component
+@ConditionalOnProperty(prefix = "halo", name = "page-cache", havingValue = "true")
+public class PageCacheEventListener {
+
+    private final PageCache pageCache;
+
+    private final PostCommentService postCommentService;
+
+    private final SheetCommentService sheetCommentService;
+
+    public PageCacheEventListener(PageCache pageCache,
+        PostCommentService postCommentService,
+        SheetCommentService sheetCommentService) {
+        this.pageCache = pageCache;
+        this.postCommentService = postCommentService;
+        this.sheetCommentService = sheetCommentService;
+    }
+
+    @TransactionalEventListener(classes = OptionUpdatedEvent.class, fallbackExecution = true)
+    public void onOptionUpdate() {
+        pageCache.invalidateAll();
+    }
+
+    @EventListener(ThemeUpdatedEvent.class)
+    public void onThemeUpdate() {
+        pageCache.invalidateAll();
+    }
+
+    @EventListener(ThemeActivatedEvent.class)
+    public void onThemeActivate() {
+        pageCache.invalidateAll();
+    }
+
+    /**
+     * Drops all pages once a post is changed, since every page may contain it, such as listing
+     * pages, sidebars and previous or next post of post pages.
+     *
+     * @param event post updated event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostUpdate(PostUpdatedEvent event) {
+        pageCache.invalidateAll();
+    }
+
+    /**
+     * Drops the commented page and listing pages showing comment counts, once a comment or a
+     * reply is created.
+     *
+     * @param event comment new event or comment reply event
+     */
+    @TransactionalEventListener(classes = {CommentNewEvent.class, CommentReplyEvent.class},
+        fallbackExecution = true)
+    public void onCommentCreate(AbstractCommentBaseEvent event) {
+        if (event.getSource() instanceof PostCommentService) {
+            postCommentService.fetchById(event.getCommentId()).ifPresent(comment -> pageCache
+                .invalidate(PageCache.LIST_TAG, PageCache.POST_TAG_PREFIX + comment.getPostId()));
+        } else if (event.getSource() instanceof SheetCommentService) {
+            sheetCommentService.fetchById(event.getCommentId()).ifPresent(comment -> pageCache
+                .invalidate(PageCache.LIST_TAG, PageCache.SHEET_TAG_PREFIX + comment.getPostId()));
+        } else {
+            pageCache.invalidate(PageCache.LIST_TAG);
+        }
+    }
+}
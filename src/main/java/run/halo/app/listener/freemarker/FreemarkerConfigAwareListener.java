@@ -1,7 +1,5 @@
 package run.halo.app.listener.freemarker;
 
-import static run.halo.app.model.support.HaloConst.OPTIONS_CACHE_KEY;
-
 import freemarker.core.TemplateClassResolver;
 import freemarker.template.Configuration;
 import freemarker.template.TemplateModel;
@@ -16,7 +14,7 @@ import org.springframework.context.event.EventListener;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
-import run.halo.app.cache.AbstractStringCacheStore;
+import org.springframework.transaction.event.TransactionalEventListener;
 import run.halo.app.core.freemarker.inheritance.ThemeExtendsDirective;
 import run.halo.app.event.options.OptionUpdatedEvent;
 import run.halo.app.event.theme.ThemeActivatedEvent;
@@ -51,20 +49,16 @@ public class FreemarkerConfigAwareListener {
 
     private final UserService userService;
 
-    private final AbstractStringCacheStore cacheStore;
-
     public FreemarkerConfigAwareListener(OptionService optionService,
         Configuration configuration,
         ThemeService themeService,
         ThemeSettingService themeSettingService,
-        UserService userService,
-        AbstractStringCacheStore cacheStore) throws TemplateModelException {
+        UserService userService) throws TemplateModelException {
         this.optionService = optionService;
         this.configuration = configuration;
         this.themeService = themeService;
         this.themeSettingService = themeSettingService;
         this.userService = userService;
-        this.cacheStore = cacheStore;
 
         this.initFreemarkerConfig();
     }
@@ -114,13 +108,12 @@ public class FreemarkerConfigAwareListener {
         loadUserConfig();
     }
 
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void onOptionUpdate(OptionUpdatedEvent event) throws TemplateModelException {
         log.debug("Received option updated event");
 
-        // refresh options cache
+        // options snapshot has been reloaded by option service
         optionService.flush();
-        cacheStore.delete(OPTIONS_CACHE_KEY);
 
         loadOptionsConfig();
         loadThemeConfig();
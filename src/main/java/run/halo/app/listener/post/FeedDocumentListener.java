@@ -0,0 +1,58 @@
+package run.halo.app.listener.post;
+
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import run.halo.app.event.category.CategoryUpdatedEvent;
+import run.halo.app.event.options.OptionUpdatedEvent;
+import run.halo.app.event.post.PostUpdatedEvent;
+import run.halo.app.event.post.SheetUpdatedEvent;
+import run.halo.app.event.tag.TagUpdatedEvent;
+import run.halo.app.service.FeedService;
+
+/**
+ * Feed document listener, which invalidates feed and sitemap documents once their contents
+ * changed.
+ */
+@Component
+public class FeedDocumentListener {
+
+    private final FeedService feedService;
+
+    public FeedDocumentListener(FeedService feedService) {
+        this.feedService = feedService;
+    }
+
+    /**
+     * Invalidates documents affected by the post after it is committed, and regenerates those of
+     * all posts. Documents of categories will be regenerated on demand.
+     *
+     * @param event post updated event
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostUpdate(PostUpdatedEvent event) {
+        feedService.invalidatePost(event.getPostId());
+        feedService.generate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSheetUpdate(SheetUpdatedEvent event) {
+        feedService.invalidateSheet(event.getSheetId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryUpdate(CategoryUpdatedEvent event) {
+        feedService.invalidateCategories();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagUpdate(TagUpdatedEvent event) {
+        feedService.invalidateSitemaps();
+    }
+
+    @TransactionalEventListener(classes = OptionUpdatedEvent.class, fallbackExecution = true)
+    public void onOptionUpdate() {
+        feedService.invalidate();
+    }
+}
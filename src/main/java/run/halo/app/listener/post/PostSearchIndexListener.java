@@ -0,0 +1,42 @@
+package run.halo.app.listener.post;
+
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import run.halo.app.event.post.PostUpdatedEvent;
+import run.halo.app.service.PostSearchService;
+
+/**
+ * Keeps post search index in sync with database.
+ */
+@Component
+public class PostSearchIndexListener {
+
+    private final PostSearchService postSearchService;
+
+    public PostSearchIndexListener(PostSearchService postSearchService) {
+        this.postSearchService = postSearchService;
+    }
+
+    /**
+     * Rebuilds the whole index once started, because posts may be changed outside of the
+     * application, e.g. by importing a backup or migrating.
+     */
+    @Async
+    @EventListener
+    public void onApplicationStarted(ApplicationStartedEvent event) {
+        postSearchService.rebuildIndex();
+    }
+
+    /**
+     * Refreshes the index of the post after the transaction committed, so that the latest state
+     * of the post can be read.
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostUpdated(PostUpdatedEvent event) {
+        postSearchService.refreshIndex(event.getPostId());
+    }
+}
@@ -0,0 +1,59 @@
+package run.halo.app.listener.post;
+
+import java.util.Objects;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import run.halo.app.event.options.OptionUpdatedEvent;
+import run.halo.app.model.properties.PostProperties;
+import run.halo.app.service.OptionService;
+import run.halo.app.service.PostService;
+
+/**
+ * Keeps generated summaries of posts in sync with the summary length option.
+ */
+@Component
+public class PostSummaryListener {
+
+    private final PostService postService;
+
+    private final OptionService optionService;
+
+    private volatile Integer summaryLength;
+
+    public PostSummaryListener(PostService postService, OptionService optionService) {
+        this.postService = postService;
+        this.optionService = optionService;
+    }
+
+    /**
+     * Generates summaries of posts saved before summaries were stored, or imported from
+     * outside of the application.
+     */
+    @Async
+    @EventListener
+    public void onApplicationStarted(ApplicationStartedEvent event) {
+        summaryLength = getSummaryLength();
+        postService.refreshSummaries(true);
+    }
+
+    /**
+     * Regenerates summaries of all posts once the summary length changed.
+     */
+    @Async
+    @TransactionalEventListener(classes = OptionUpdatedEvent.class, fallbackExecution = true)
+    public synchronized void onOptionUpdate() {
+        Integer currentSummaryLength = getSummaryLength();
+        if (summaryLength != null && !Objects.equals(summaryLength, currentSummaryLength)) {
+            postService.refreshSummaries(false);
+        }
+        summaryLength = currentSummaryLength;
+    }
+
+    private Integer getSummaryLength() {
+        return optionService
+            .getByPropertyOrDefault(PostProperties.SUMMARY_LENGTH, Integer.class, 150);
+    }
+}
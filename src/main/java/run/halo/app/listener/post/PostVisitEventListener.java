@@ -1,7 +1,6 @@
 package run.halo.app.listener.post;
 
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import run.halo.app.event.post.PostVisitEvent;
 import run.halo.app.service.PostService;
@@ -19,9 +18,8 @@ public class PostVisitEventListener extends AbstractVisitEventListener {
         super(postService);
     }
 
-    @Async
     @EventListener
-    public void onPostVisitEvent(PostVisitEvent event) throws InterruptedException {
+    public void onPostVisitEvent(PostVisitEvent event) {
         handleVisitEvent(event);
     }
 }
@@ -1,7 +1,6 @@
 package run.halo.app.listener.post;
 
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import run.halo.app.event.post.SheetVisitEvent;
 import run.halo.app.service.SheetService;
@@ -19,9 +18,8 @@ public class SheetVisitEventListener extends AbstractVisitEventListener {
         super(sheetService);
     }
 
-    @Async
     @EventListener
-    public void onSheetVisitEvent(SheetVisitEvent event) throws InterruptedException {
+    public void onSheetVisitEvent(SheetVisitEvent event) {
         handleVisitEvent(event);
     }
 
@@ -0,0 +1,36 @@
+package run.halo.app.listener.theme;
+
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import run.halo.app.core.freemarker.ThemeTemplateCache;
+import run.halo.app.event.theme.ThemeActivatedEvent;
+import run.halo.app.event.theme.ThemeUpdatedEvent;
+import run.halo.app.service.ThemeService;
+
+/**
+ * Parses templates of the activated theme in background once started or the theme changed.
+ */
+@Component
+public class ThemeTemplatePrecompileListener {
+
+    private final ThemeService themeService;
+
+    private final ThemeTemplateCache themeTemplateCache;
+
+    public ThemeTemplatePrecompileListener(ThemeService themeService,
+        ThemeTemplateCache themeTemplateCache) {
+        this.themeService = themeService;
+        this.themeTemplateCache = themeTemplateCache;
+    }
+
+    @Async
+    @EventListener({ApplicationStartedEvent.class, ThemeActivatedEvent.class,
+        ThemeUpdatedEvent.class})
+    public void onThemeChanged() {
+        if (themeTemplateCache.isEnabled()) {
+            themeService.fetchActivatedTheme().ifPresent(themeTemplateCache::precompile);
+        }
+    }
+}
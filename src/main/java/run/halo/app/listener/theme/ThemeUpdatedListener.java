@@ -2,6 +2,7 @@ package run.halo.app.listener.theme;
 
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 import run.halo.app.cache.AbstractStringCacheStore;
 import run.halo.app.event.options.OptionUpdatedEvent;
 import run.halo.app.event.theme.ThemeUpdatedEvent;
@@ -27,7 +28,7 @@ public class ThemeUpdatedListener {
         cacheStore.delete(ThemeService.THEMES_CACHE_KEY);
     }
 
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void onOptionUpdatedEvent(OptionUpdatedEvent optionUpdatedEvent) {
         cacheStore.delete(ThemeService.THEMES_CACHE_KEY);
     }
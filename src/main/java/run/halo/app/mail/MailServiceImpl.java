@@ -8,9 +8,9 @@ import java.nio.file.Paths;
 import java.util.Map;
 import javax.mail.MessagingException;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationListener;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
 import org.springframework.web.servlet.view.freemarker.FreeMarkerConfigurer;
 import run.halo.app.event.options.OptionUpdatedEvent;
@@ -25,8 +25,7 @@ import run.halo.app.service.OptionService;
  */
 @Slf4j
 @Service
-public class MailServiceImpl extends AbstractMailService
-    implements ApplicationListener<OptionUpdatedEvent> {
+public class MailServiceImpl extends AbstractMailService {
 
     private final FreeMarkerConfigurer freeMarker;
 
@@ -91,8 +90,8 @@ public class MailServiceImpl extends AbstractMailService
         super.testConnection();
     }
 
-    @Override
-    public void onApplicationEvent(@NonNull OptionUpdatedEvent event) {
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOptionUpdated(@NonNull OptionUpdatedEvent event) {
         // clear the cached java mail sender
         clearCache();
     }
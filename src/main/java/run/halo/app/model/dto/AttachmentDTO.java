@@ -5,6 +5,7 @@ import lombok.Data;
 import run.halo.app.model.dto.base.OutputConverter;
 import run.halo.app.model.entity.Attachment;
 import run.halo.app.model.enums.AttachmentType;
+import run.halo.app.model.enums.ThumbnailStatus;
 
 /**
  * Attachment output dto.
@@ -25,6 +26,8 @@ public class AttachmentDTO implements OutputConverter<AttachmentDTO, Attachment>
 
     private String thumbPath;
 
+    private ThumbnailStatus thumbStatus;
+
     private String mediaType;
 
     private String suffix;
@@ -16,4 +16,9 @@ public class BackupDTO {
     private Long updateTime;
 
     private Long fileSize;
+
+    /**
+     * File name of the backup which an incremental backup is based on.
+     */
+    private String parentFilename;
 }
@@ -16,4 +16,6 @@ import lombok.ToString;
 public class CategoryWithPostCountDTO extends CategoryDTO {
 
     private Long postCount;
+
+    private Long publishedPostCount;
 }
@@ -17,4 +17,6 @@ public class TagWithPostCountDTO extends TagDTO {
 
     private Long postCount;
 
+    private Long publishedPostCount;
+
 }
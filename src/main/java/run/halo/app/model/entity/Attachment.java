@@ -13,6 +13,7 @@ import lombok.ToString;
 import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.GenericGenerator;
 import run.halo.app.model.enums.AttachmentType;
+import run.halo.app.model.enums.ThumbnailStatus;
 
 /**
  * Attachment entity
@@ -59,6 +60,13 @@ public class Attachment extends BaseEntity {
     @Column(name = "thumb_path", length = 1023)
     private String thumbPath;
 
+    /**
+     * Thumbnail status.
+     */
+    @Column(name = "thumb_status")
+    @ColumnDefault("0")
+    private ThumbnailStatus thumbStatus;
+
     /**
      * Attachment media type.
      */
@@ -110,6 +118,10 @@ public class Attachment extends BaseEntity {
             thumbPath = "";
         }
 
+        if (thumbStatus == null) {
+            thumbStatus = ThumbnailStatus.READY;
+        }
+
         if (suffix == null) {
             suffix = "";
         }
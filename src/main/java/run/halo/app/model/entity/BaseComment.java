@@ -125,6 +125,15 @@ public class BaseComment extends BaseEntity {
     @ColumnDefault("0")
     private Long parentId;
 
+    /**
+     * Ids of all ancestors from the top, like {@code /1/5/} for a reply of comment 5 which
+     * replies comment 1, and {@code /} for a top comment. Descendants of a comment share the
+     * prefix of its tree path followed by its id. The length of the column limits the depth of
+     * replies.
+     */
+    @Column(name = "tree_path", length = 1023)
+    private String treePath;
+
     @Override
     public void prePersist() {
         super.prePersist();
@@ -92,6 +92,13 @@ public class BasePost extends BaseEntity {
     @Lob
     private String formatContent;
 
+    /**
+     * Digest of original content and renderer version which the format content was rendered
+     * from.
+     */
+    @Column(name = "content_digest", length = 63)
+    private String contentDigest;
+
     /**
      * Post summary.
      */
@@ -99,6 +106,13 @@ public class BasePost extends BaseEntity {
     @Lob
     private String summary;
 
+    /**
+     * Summary generated from format content, which is used if summary is blank.
+     */
+    @Column(name = "generated_summary")
+    @Lob
+    private String generatedSummary;
+
     /**
      * Cover thumbnail of the post.
      */
@@ -171,6 +185,13 @@ public class BasePost extends BaseEntity {
     @ColumnDefault("0")
     private Long wordCount;
 
+    /**
+     * Count of published comments, maintained by comment services.
+     */
+    @Column(name = "comment_count")
+    @ColumnDefault("0")
+    private Long commentCount;
+
     @Override
     public void prePersist() {
         super.prePersist();
@@ -230,6 +251,10 @@ public class BasePost extends BaseEntity {
         if (wordCount == null || wordCount < 0) {
             wordCount = 0L;
         }
+
+        if (commentCount == null || commentCount < 0) {
+            commentCount = 0L;
+        }
     }
 
 }
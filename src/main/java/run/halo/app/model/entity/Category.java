@@ -79,10 +79,32 @@ public class Category extends BaseEntity {
     @Column(name = "password")
     private String password;
 
+    /**
+     * Count of posts in the category, maintained by post category service.
+     */
+    @Column(name = "post_count")
+    @ColumnDefault("0")
+    private Long postCount;
+
+    /**
+     * Count of published posts in the category, maintained by post category service.
+     */
+    @Column(name = "published_post_count")
+    @ColumnDefault("0")
+    private Long publishedPostCount;
+
     @Override
     public void prePersist() {
         super.prePersist();
 
+        if (postCount == null) {
+            postCount = 0L;
+        }
+
+        if (publishedPostCount == null) {
+            publishedPostCount = 0L;
+        }
+
         if (description == null) {
             description = "";
         }
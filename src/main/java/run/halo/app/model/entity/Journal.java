@@ -50,6 +50,13 @@ public class Journal extends BaseEntity {
     @ColumnDefault("0")
     private JournalType type;
 
+    /**
+     * Count of published comments, maintained by journal comment service.
+     */
+    @Column(name = "comment_count")
+    @ColumnDefault("0")
+    private Long commentCount;
+
     @Override
     public void prePersist() {
         super.prePersist();
@@ -61,5 +68,9 @@ public class Journal extends BaseEntity {
         if (type == null) {
             type = JournalType.PUBLIC;
         }
+
+        if (commentCount == null || commentCount < 0) {
+            commentCount = 0L;
+        }
     }
 }
@@ -10,6 +10,7 @@ import javax.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.GenericGenerator;
 
 /**
@@ -55,4 +56,31 @@ public class Tag extends BaseEntity {
      */
     @Column(name = "thumbnail", length = 1023)
     private String thumbnail;
+
+    /**
+     * Count of posts with the tag, maintained by post tag service.
+     */
+    @Column(name = "post_count")
+    @ColumnDefault("0")
+    private Long postCount;
+
+    /**
+     * Count of published posts with the tag, maintained by post tag service.
+     */
+    @Column(name = "published_post_count")
+    @ColumnDefault("0")
+    private Long publishedPostCount;
+
+    @Override
+    public void prePersist() {
+        super.prePersist();
+
+        if (postCount == null) {
+            postCount = 0L;
+        }
+
+        if (publishedPostCount == null) {
+            publishedPostCount = 0L;
+        }
+    }
 }
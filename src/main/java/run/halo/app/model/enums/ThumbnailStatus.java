@@ -0,0 +1,33 @@
+package run.halo.app.model.enums;
+
+/**
+ * Thumbnail status of attachments.
+ */
+public enum ThumbnailStatus implements ValueEnum<Integer> {
+
+    /**
+     * Thumbnail is ready, or the attachment itself is used as the thumbnail.
+     */
+    READY(0),
+
+    /**
+     * Thumbnail is being generated, the attachment itself is used as the thumbnail meanwhile.
+     */
+    PENDING(1),
+
+    /**
+     * Failed to generate the thumbnail, the attachment itself is used as the thumbnail.
+     */
+    FAILED(2);
+
+    private final int value;
+
+    ThumbnailStatus(int value) {
+        this.value = value;
+    }
+
+    @Override
+    public Integer getValue() {
+        return value;
+    }
+}
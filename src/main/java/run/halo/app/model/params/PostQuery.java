@@ -1,5 +1,6 @@
 package run.halo.app.model.params;
 
+import java.util.Set;
 import lombok.Data;
 import run.halo.app.model.enums.PostStatus;
 
@@ -22,9 +23,19 @@ public class PostQuery {
      */
     private PostStatus status;
 
+    /**
+     * Post statuses, posts with any of them are matched.
+     */
+    private Set<PostStatus> statuses;
+
     /**
      * Category id.
      */
     private Integer categoryId;
 
+    /**
+     * Tag id.
+     */
+    private Integer tagId;
+
 }
@@ -0,0 +1,19 @@
+package run.halo.app.model.projection;
+
+import java.util.Date;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Post archive projection, a lightweight reference of a post in archives.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostArchiveProjection {
+
+    private Integer id;
+
+    private Date createTime;
+}
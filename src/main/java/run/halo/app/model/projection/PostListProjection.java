@@ -0,0 +1,58 @@
+package run.halo.app.model.projection;
+
+import java.util.Date;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import run.halo.app.model.enums.PostEditorType;
+import run.halo.app.model.enums.PostStatus;
+
+/**
+ * Post list projection, which contains columns for listing posts only, without original and
+ * format content.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostListProjection {
+
+    private Integer id;
+
+    private String title;
+
+    private PostStatus status;
+
+    private String slug;
+
+    private PostEditorType editorType;
+
+    private String summary;
+
+    private String generatedSummary;
+
+    private String thumbnail;
+
+    private Long visits;
+
+    private Boolean disallowComment;
+
+    private String password;
+
+    private String template;
+
+    private Integer topPriority;
+
+    private Long likes;
+
+    private Date editTime;
+
+    private String metaKeywords;
+
+    private String metaDescription;
+
+    private Long wordCount;
+
+    private Date createTime;
+
+    private Date updateTime;
+}
@@ -0,0 +1,23 @@
+package run.halo.app.model.projection;
+
+import java.util.Date;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Post neighbor projection, a lightweight reference of a post with all its sort keys.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostNeighborProjection {
+
+    private Integer id;
+
+    private Date createTime;
+
+    private Date editTime;
+
+    private Long visits;
+}
@@ -0,0 +1,21 @@
+package run.halo.app.model.projection;
+
+import java.util.Date;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Post permalink projection, fields of a post or a sheet which its permalink is built from.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostPermalinkProjection {
+
+    private Integer id;
+
+    private String slug;
+
+    private Date createTime;
+}
@@ -0,0 +1,56 @@
+package run.halo.app.model.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Data;
+
+/**
+ * Manifest of a work directory backup, which records all files in the work directory at the
+ * time of the backup, and the archive storing content of each file.
+ */
+@Data
+public class BackupManifest {
+
+    /**
+     * File name of the backup this backup is based on, null for a full backup.
+     */
+    private String parent;
+
+    /**
+     * Name of the root folder of entries.
+     */
+    private String root;
+
+    private Long createTime;
+
+    /**
+     * File records by path relative to the work directory.
+     */
+    private Map<String, FileRecord> files = new LinkedHashMap<>();
+
+    /**
+     * Record of a file in the work directory.
+     */
+    @Data
+    public static class FileRecord {
+
+        private long size;
+
+        private long lastModified;
+
+        /**
+         * SHA-256 hash of the content.
+         */
+        private String hash;
+
+        /**
+         * File name of the backup storing the content.
+         */
+        private String archive;
+
+        /**
+         * Name of the entry storing the content in the archive.
+         */
+        private String entry;
+    }
+}
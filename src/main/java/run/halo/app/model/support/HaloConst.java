@@ -153,11 +153,6 @@ public class HaloConst {
      */
     public static String DATABASE_PRODUCT_NAME = null;
 
-    /**
-     * Options cache key.
-     */
-    public static final String OPTIONS_CACHE_KEY = "options";
-
     public static final String PRIVATE_OPTION_KEY = "private_options";
 
     static {
@@ -22,6 +22,11 @@ public class UploadResult {
 
     private String thumbPath;
 
+    /**
+     * Whether the thumbnail is to be generated after the attachment is created.
+     */
+    private boolean thumbnailPending;
+
     private String suffix;
 
     private MediaType mediaType;
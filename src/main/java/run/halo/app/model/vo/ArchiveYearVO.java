@@ -19,6 +19,11 @@ public class ArchiveYearVO {
 
     private Integer year;
 
+    /**
+     * Count of all posts in the archive, which may be more than the listed posts.
+     */
+    private Long count;
+
     private List<PostListVO> posts;
 
     public static class ArchiveComparator implements Comparator<ArchiveYearVO> {
@@ -2,10 +2,14 @@ package run.halo.app.repository;
 
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.annotation.Transactional;
 import run.halo.app.model.entity.Attachment;
 import run.halo.app.model.enums.AttachmentType;
+import run.halo.app.model.enums.ThumbnailStatus;
 import run.halo.app.repository.base.BaseRepository;
 
 /**
@@ -41,4 +45,29 @@ public interface AttachmentRepository
      * @return count of the given path
      */
     long countByPath(@NonNull String path);
+
+    /**
+     * Finds all attachments by thumbnail status.
+     *
+     * @param thumbStatus thumbnail status must not be null
+     * @return a list of attachment
+     */
+    @NonNull
+    List<Attachment> findAllByThumbStatus(@NonNull ThumbnailStatus thumbStatus);
+
+    /**
+     * Updates thumbnail of the attachment.
+     *
+     * @param id attachment id must not be null
+     * @param thumbPath thumbnail path must not be null
+     * @param thumbStatus thumbnail status must not be null
+     * @return updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("update Attachment a set a.thumbPath = :thumbPath, a.thumbStatus = :thumbStatus "
+        + "where a.id = :id")
+    int updateThumbnail(@Param("id") @NonNull Integer id,
+        @Param("thumbPath") @NonNull String thumbPath,
+        @Param("thumbStatus") @NonNull ThumbnailStatus thumbStatus);
 }
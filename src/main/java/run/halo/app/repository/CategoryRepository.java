@@ -2,7 +2,11 @@ package run.halo.app.repository;
 
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.annotation.Transactional;
 import run.halo.app.model.entity.Category;
 import run.halo.app.repository.base.BaseRepository;
 
@@ -52,4 +56,19 @@ public interface CategoryRepository extends BaseRepository<Category, Integer> {
      * @return list of category
      */
     List<Category> findByParentId(@NonNull Integer id);
+
+    /**
+     * Updates post counts of the category.
+     *
+     * @param id category id must not be null
+     * @param postCount count of posts
+     * @param publishedPostCount count of published posts
+     * @return updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("update Category category set category.postCount = :postCount, "
+        + "category.publishedPostCount = :publishedPostCount where category.id = :id")
+    int updatePostCount(@Param("id") @NonNull Integer id, @Param("postCount") long postCount,
+        @Param("publishedPostCount") long publishedPostCount);
 }
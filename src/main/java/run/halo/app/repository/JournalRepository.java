@@ -1,5 +1,6 @@
 package run.halo.app.repository;
 
+import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -7,8 +8,10 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.annotation.Transactional;
 import run.halo.app.model.entity.Journal;
 import run.halo.app.model.enums.JournalType;
+import run.halo.app.model.projection.CommentCountProjection;
 import run.halo.app.repository.base.BaseRepository;
 
 /**
@@ -41,4 +44,38 @@ public interface JournalRepository
     @Modifying
     @Query("update Journal j set j.likes = j.likes + :likes where j.id = :id")
     int updateLikes(@Param("likes") long likes, @Param("id") @NonNull Integer id);
+
+    /**
+     * Updates count of published comments of the journal.
+     *
+     * @param commentCount comment count
+     * @param id id must not be null
+     * @return updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("update Journal j set j.commentCount = :commentCount where j.id = :id")
+    int updateCommentCount(@Param("commentCount") long commentCount,
+        @Param("id") @NonNull Integer id);
+
+    /**
+     * Increases count of published comments of the journal atomically.
+     *
+     * @param delta count to increase, negative to decrease
+     * @param id id must not be null
+     * @return updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("update Journal j set j.commentCount = j.commentCount + :delta where j.id = :id")
+    int increaseCommentCount(@Param("delta") long delta, @Param("id") @NonNull Integer id);
+
+    /**
+     * Finds stored comment counts of all journals.
+     *
+     * @return a list of comment count projection
+     */
+    @Query("select new run.halo.app.model.projection.CommentCountProjection("
+        + "j.commentCount, j.id) from Journal j")
+    List<CommentCountProjection> findAllCommentCounts();
 }
@@ -127,4 +127,42 @@ public interface PostCategoryRepository extends BaseRepository<PostCategory, Int
     @Query("select pc from PostCategory pc where pc.categoryId in (?1)")
     @NonNull
     List<PostCategory> findAllByCategoryIdList(List<Integer> categoryIdList);
+
+    /**
+     * Finds post count by category id collection.
+     *
+     * @param categoryIds category id collection must not be null
+     * @return a list of category post count projection
+     */
+    @Query("select new run.halo.app.model.projection.CategoryPostCountProjection(count(pc.postId)"
+        + ", pc.categoryId) from PostCategory pc where pc.categoryId in ?1 group by pc.categoryId")
+    @NonNull
+    List<CategoryPostCountProjection> findPostCountByCategoryIds(
+        @NonNull Collection<Integer> categoryIds);
+
+    /**
+     * Finds post count by category id collection and post status.
+     *
+     * @param categoryIds category id collection must not be null
+     * @param status post status must not be null
+     * @return a list of category post count projection
+     */
+    @Query("select new run.halo.app.model.projection.CategoryPostCountProjection(count(pc.postId)"
+        + ", pc.categoryId) from PostCategory pc, Post post where pc.categoryId in ?1"
+        + " and post.id = pc.postId and post.status = ?2 group by pc.categoryId")
+    @NonNull
+    List<CategoryPostCountProjection> findPostCountByCategoryIds(
+        @NonNull Collection<Integer> categoryIds, @NonNull PostStatus status);
+
+    /**
+     * Finds post count of category by post status.
+     *
+     * @param status post status must not be null
+     * @return a list of category post count projection
+     */
+    @Query("select new run.halo.app.model.projection.CategoryPostCountProjection(count(pc.postId)"
+        + ", pc.categoryId) from PostCategory pc, Post post where post.id = pc.postId"
+        + " and post.status = ?1 group by pc.categoryId")
+    @NonNull
+    List<CategoryPostCountProjection> findPostCount(@NonNull PostStatus status);
 }
@@ -0,0 +1,38 @@
+package run.halo.app.repository;
+
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.projection.PostListProjection;
+
+/**
+ * Post repository fragment selecting columns for listing posts only.
+ */
+public interface PostListRepository {
+
+    /**
+     * Finds post list projections by specification.
+     *
+     * @param spec specification must not be null
+     * @param pageable page info must not be null
+     * @return a page of post list projection
+     */
+    @NonNull
+    Page<PostListProjection> findAllListBy(@NonNull Specification<Post> spec,
+        @NonNull Pageable pageable);
+
+    /**
+     * Finds post list projections by specification.
+     *
+     * @param spec specification must not be null
+     * @param sort sort info must not be null
+     * @return a list of post list projection
+     */
+    @NonNull
+    List<PostListProjection> findAllListBy(@NonNull Specification<Post> spec,
+        @NonNull Sort sort);
+}
@@ -0,0 +1,99 @@
+package run.halo.app.repository;
+
+import java.util.Arrays;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.util.Assert;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.projection.PostListProjection;
+
+/**
+ * Implementation of post list repository.
+ */
+public class PostListRepositoryImpl implements PostListRepository {
+
+    /**
+     * Attributes in the order of fields of {@link PostListProjection}.
+     */
+    private static final List<String> ATTRIBUTES = Arrays.asList("id", "title", "status", "slug",
+        "editorType", "summary", "generatedSummary", "thumbnail", "visits", "disallowComment",
+        "password", "template", "topPriority", "likes", "editTime", "metaKeywords",
+        "metaDescription", "wordCount", "createTime", "updateTime");
+
+    private final EntityManager entityManager;
+
+    public PostListRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<PostListProjection> findAllListBy(Specification<Post> spec, Pageable pageable) {
+        Assert.notNull(spec, "Specification must not be null");
+        Assert.notNull(pageable, "Page info must not be null");
+
+        TypedQuery<PostListProjection> query = createQuery(spec, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(query.getResultList());
+        }
+
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable,
+            () -> count(spec));
+    }
+
+    @Override
+    public List<PostListProjection> findAllListBy(Specification<Post> spec, Sort sort) {
+        Assert.notNull(spec, "Specification must not be null");
+        Assert.notNull(sort, "Sort info must not be null");
+
+        return createQuery(spec, sort).getResultList();
+    }
+
+    private TypedQuery<PostListProjection> createQuery(Specification<Post> spec, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PostListProjection> query =
+            criteriaBuilder.createQuery(PostListProjection.class);
+        Root<Post> root = query.from(Post.class);
+
+        Selection<?>[] selections = ATTRIBUTES.stream()
+            .map(root::get)
+            .toArray(Selection<?>[]::new);
+        query.select(criteriaBuilder.construct(PostListProjection.class, selections));
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Post> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Post> root = query.from(Post.class);
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(criteriaBuilder.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
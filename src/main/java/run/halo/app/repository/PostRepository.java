@@ -1,11 +1,16 @@
 package run.halo.app.repository;
 
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import run.halo.app.model.entity.Post;
 import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.CommentCountProjection;
+import run.halo.app.model.projection.PostArchiveProjection;
+import run.halo.app.model.projection.PostNeighborProjection;
+import run.halo.app.model.projection.PostPermalinkProjection;
 import run.halo.app.repository.base.BasePostRepository;
 
 
@@ -16,7 +21,8 @@ import run.halo.app.repository.base.BasePostRepository;
  * @author ryanwang
  * @date 2019-03-19
  */
-public interface PostRepository extends BasePostRepository<Post>, JpaSpecificationExecutor<Post> {
+public interface PostRepository
+    extends BasePostRepository<Post>, JpaSpecificationExecutor<Post>, PostListRepository {
 
     /**
      * Count all post visits.
@@ -103,4 +109,78 @@ public interface PostRepository extends BasePostRepository<Post>, JpaSpecificati
         + ".status = :status")
     Optional<Post> findBy(@Param("year") Integer year, @Param("month") Integer month,
         @Param("day") Integer day, @Param("slug") String slug, @Param("status") PostStatus status);
+
+    /**
+     * Finds archive references of posts by status.
+     *
+     * @param status post status must not be null
+     * @return a list of post archive projection
+     */
+    @Query("select new run.halo.app.model.projection.PostArchiveProjection(post.id, "
+        + "post.createTime) from Post post where post.status = :status")
+    List<PostArchiveProjection> findAllArchivesBy(@Param("status") PostStatus status);
+
+    /**
+     * Finds archive reference of the post by id and status.
+     *
+     * @param id post id must not be null
+     * @param status post status must not be null
+     * @return an optional post archive projection
+     */
+    @Query("select new run.halo.app.model.projection.PostArchiveProjection(post.id, "
+        + "post.createTime) from Post post where post.id = :id and post.status = :status")
+    Optional<PostArchiveProjection> findArchiveBy(@Param("id") Integer id,
+        @Param("status") PostStatus status);
+
+    /**
+     * Finds neighbor references of posts by status.
+     *
+     * @param status post status must not be null
+     * @return a list of post neighbor projection
+     */
+    @Query("select new run.halo.app.model.projection.PostNeighborProjection(post.id, "
+        + "post.createTime, post.editTime, post.visits) from Post post "
+        + "where post.status = :status")
+    List<PostNeighborProjection> findAllNeighborsBy(@Param("status") PostStatus status);
+
+    /**
+     * Finds neighbor reference of the post by id and status.
+     *
+     * @param id post id must not be null
+     * @param status post status must not be null
+     * @return an optional post neighbor projection
+     */
+    @Query("select new run.halo.app.model.projection.PostNeighborProjection(post.id, "
+        + "post.createTime, post.editTime, post.visits) from Post post "
+        + "where post.id = :id and post.status = :status")
+    Optional<PostNeighborProjection> findNeighborBy(@Param("id") Integer id,
+        @Param("status") PostStatus status);
+
+    /**
+     * Finds permalink references of all posts.
+     *
+     * @return a list of post permalink projection
+     */
+    @Query("select new run.halo.app.model.projection.PostPermalinkProjection(post.id, "
+        + "post.slug, post.createTime) from Post post")
+    List<PostPermalinkProjection> findAllPermalinks();
+
+    /**
+     * Finds permalink reference of the post by id.
+     *
+     * @param id post id must not be null
+     * @return an optional post permalink projection
+     */
+    @Query("select new run.halo.app.model.projection.PostPermalinkProjection(post.id, "
+        + "post.slug, post.createTime) from Post post where post.id = :id")
+    Optional<PostPermalinkProjection> findPermalinkBy(@Param("id") Integer id);
+
+    /**
+     * Finds stored comment counts of all posts.
+     *
+     * @return a list of comment count projection
+     */
+    @Query("select new run.halo.app.model.projection.CommentCountProjection("
+        + "post.commentCount, post.id) from Post post")
+    List<CommentCountProjection> findAllCommentCounts();
 }
@@ -117,4 +117,30 @@ public interface PostTagRepository extends BaseRepository<PostTag, Integer> {
         + " pt.tagId) from PostTag pt group by pt.tagId")
     @NonNull
     List<TagPostPostCountProjection> findPostCount();
+
+    /**
+     * Finds post count by tag id collection and post status.
+     *
+     * @param tagIds tag id collection must not be null
+     * @param status post status must not be null
+     * @return a list of tag post count projection
+     */
+    @Query("select new run.halo.app.model.projection.TagPostPostCountProjection(count(pt.postId),"
+        + " pt.tagId) from PostTag pt, Post post where pt.tagId in ?1 and post.id = pt.postId"
+        + " and post.status = ?2 group by pt.tagId")
+    @NonNull
+    List<TagPostPostCountProjection> findPostCountByTagIds(@NonNull Collection<Integer> tagIds,
+        @NonNull PostStatus status);
+
+    /**
+     * Finds post count of tag by post status.
+     *
+     * @param status post status must not be null
+     * @return a list of tag post count projection
+     */
+    @Query("select new run.halo.app.model.projection.TagPostPostCountProjection(count(pt.postId),"
+        + " pt.tagId) from PostTag pt, Post post where post.id = pt.postId and post.status = ?1"
+        + " group by pt.tagId")
+    @NonNull
+    List<TagPostPostCountProjection> findPostCount(@NonNull PostStatus status);
 }
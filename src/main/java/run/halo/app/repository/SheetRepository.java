@@ -1,10 +1,14 @@
 package run.halo.app.repository;
 
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import run.halo.app.model.entity.Sheet;
 import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.CommentCountProjection;
+import run.halo.app.model.projection.PostPermalinkProjection;
 import run.halo.app.repository.base.BasePostRepository;
 
 /**
@@ -43,4 +47,32 @@ public interface SheetRepository extends BasePostRepository<Sheet> {
     @NonNull
     @Override
     Optional<Sheet> getBySlugAndStatus(@NonNull String slug, @NonNull PostStatus status);
+
+    /**
+     * Finds permalink references of all sheets.
+     *
+     * @return a list of sheet permalink projection
+     */
+    @Query("select new run.halo.app.model.projection.PostPermalinkProjection(sheet.id, "
+        + "sheet.slug, sheet.createTime) from Sheet sheet")
+    List<PostPermalinkProjection> findAllPermalinks();
+
+    /**
+     * Finds permalink reference of the sheet by id.
+     *
+     * @param id sheet id must not be null
+     * @return an optional sheet permalink projection
+     */
+    @Query("select new run.halo.app.model.projection.PostPermalinkProjection(sheet.id, "
+        + "sheet.slug, sheet.createTime) from Sheet sheet where sheet.id = :id")
+    Optional<PostPermalinkProjection> findPermalinkBy(@Param("id") Integer id);
+
+    /**
+     * Finds stored comment counts of all sheets.
+     *
+     * @return a list of comment count projection
+     */
+    @Query("select new run.halo.app.model.projection.CommentCountProjection("
+        + "sheet.commentCount, sheet.id) from Sheet sheet")
+    List<CommentCountProjection> findAllCommentCounts();
 }
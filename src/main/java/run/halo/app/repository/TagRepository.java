@@ -1,7 +1,11 @@
 package run.halo.app.repository;
 
 import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.annotation.Transactional;
 import run.halo.app.model.entity.Tag;
 import run.halo.app.repository.base.BaseRepository;
 
@@ -36,4 +40,19 @@ public interface TagRepository extends BaseRepository<Tag, Integer> {
      * @return an optional of tag
      */
     Optional<Tag> getByName(@NonNull String name);
+
+    /**
+     * Updates post counts of the tag.
+     *
+     * @param id tag id must not be null
+     * @param postCount count of posts
+     * @param publishedPostCount count of published posts
+     * @return updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("update Tag tag set tag.postCount = :postCount, "
+        + "tag.publishedPostCount = :publishedPostCount where tag.id = :id")
+    int updatePostCount(@Param("id") @NonNull Integer id, @Param("postCount") long postCount,
+        @Param("publishedPostCount") long publishedPostCount);
 }
@@ -16,9 +16,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.context.ApplicationListener;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.util.Assert;
 import run.halo.app.config.properties.HaloProperties;
 import run.halo.app.event.options.OptionUpdatedEvent;
@@ -40,8 +40,7 @@ import run.halo.app.utils.FileUtils;
  */
 @Repository
 @Slf4j
-public class ThemeRepositoryImpl
-    implements ThemeRepository, ApplicationListener<OptionUpdatedEvent> {
+public class ThemeRepositoryImpl implements ThemeRepository {
 
     private final OptionRepository optionRepository;
 
@@ -200,8 +199,8 @@ public class ThemeRepositoryImpl
         return Paths.get(properties.getWorkDir()).resolve("templates/themes");
     }
 
-    @Override
-    public void onApplicationEvent(OptionUpdatedEvent event) {
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOptionUpdated(OptionUpdatedEvent event) {
         synchronized (this) {
             // reset current theme with null
             this.currentTheme = null;
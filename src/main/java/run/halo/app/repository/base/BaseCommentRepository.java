@@ -4,11 +4,14 @@ import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.annotation.Transactional;
 import run.halo.app.annotation.SensitiveConceal;
 import run.halo.app.model.entity.BaseComment;
 import run.halo.app.model.enums.CommentStatus;
@@ -74,7 +77,8 @@ public interface BaseCommentRepository<COMMENT extends BaseComment>
     List<CommentCountProjection> countByPostIds(@NonNull Collection<Integer> postIds);
 
     /**
-     * Counts comment count by comment status and post id collection.
+     * Counts comment count by comment status and post id collection, only comments of the
+     * repository's own type are counted, since ids of posts, sheets and journals overlap.
      *
      * @param status status must not be null
      * @param postIds post id collection must not be null
@@ -83,7 +87,7 @@ public interface BaseCommentRepository<COMMENT extends BaseComment>
     @Query(
         "select new run.halo.app.model.projection.CommentCountProjection(count(comment.id), "
             + "comment.postId) "
-            + "from BaseComment comment "
+            + "from #{#entityName} comment "
             + "where comment.status = ?1 "
             + "and comment.postId in ?2 "
             + "group by comment.postId")
@@ -91,6 +95,22 @@ public interface BaseCommentRepository<COMMENT extends BaseComment>
     List<CommentCountProjection> countByStatusAndPostIds(@NonNull CommentStatus status,
         @NonNull Collection<Integer> postIds);
 
+    /**
+     * Counts comment count of all posts by comment status, only comments of the repository's
+     * own type are counted.
+     *
+     * @param status status must not be null
+     * @return a list of comment count
+     */
+    @Query(
+        "select new run.halo.app.model.projection.CommentCountProjection(count(comment.id), "
+            + "comment.postId) "
+            + "from #{#entityName} comment "
+            + "where comment.status = ?1 "
+            + "group by comment.postId")
+    @NonNull
+    List<CommentCountProjection> countByStatusGroupByPostId(@NonNull CommentStatus status);
+
     /**
      * Count comments by post id.
      *
@@ -99,6 +119,15 @@ public interface BaseCommentRepository<COMMENT extends BaseComment>
      */
     long countByPostId(@NonNull Integer postId);
 
+    /**
+     * Counts comments by post id and comment status.
+     *
+     * @param postId post id must not be null
+     * @param status status must not be null
+     * @return comments count
+     */
+    long countByPostIdAndStatus(@NonNull Integer postId, @NonNull CommentStatus status);
+
     /**
      * Counts by comment status.
      *
@@ -187,26 +216,78 @@ public interface BaseCommentRepository<COMMENT extends BaseComment>
     List<COMMENT> findAllByPostIdAndParentId(@NonNull Integer postId, @NonNull Long parentId);
 
     /**
-     * Finds all comments by status and parent id collection.
+     * Finds all comments of a subtree by post id and tree path prefix.
      *
-     * @param status comment status must not be null
-     * @param parentIds parent id collection must not be null
+     * @param postId post id must not be null
+     * @param treePathPrefix tree path prefix must not be null
+     * @param sort sort info must not be null
      * @return a list of comment
+     * @see BaseComment#getTreePath()
      */
     @NonNull
     @SensitiveConceal
-    List<COMMENT> findAllByStatusAndParentIdIn(@NonNull CommentStatus status,
-        @NonNull Collection<Long> parentIds);
+    List<COMMENT> findAllByPostIdAndTreePathStartingWith(@NonNull Integer postId,
+        @NonNull String treePathPrefix, @NonNull Sort sort);
+
+    /**
+     * Checks whether there are comments without tree path.
+     *
+     * @return true if there are comments without tree path, false otherwise
+     */
+    boolean existsByTreePathIsNull();
 
     /**
-     * Finds all comments by parent id collection.
+     * Finds comments with tree path, which have children without tree path.
      *
-     * @param parentIds parent id collection must not be null
+     * @param pageable page info must not be null
      * @return a list of comment
      */
-    @SensitiveConceal
-    List<COMMENT> findAllByParentIdIn(@NonNull Collection<Long> parentIds);
+    @NonNull
+    @Query("select comment from #{#entityName} comment "
+        + "where comment.treePath is not null and exists ("
+        + "select child.id from #{#entityName} child "
+        + "where child.parentId = comment.id and child.treePath is null) "
+        + "order by comment.id")
+    List<COMMENT> findAllParentsOfMissingTreePaths(@NonNull Pageable pageable);
 
+    /**
+     * Finds parent ids of comments without tree path, where the parent comments do not exist,
+     * including the parent id {@code 0} of top comments.
+     *
+     * @param pageable page info must not be null
+     * @return a list of parent id
+     */
+    @NonNull
+    @Query("select distinct comment.parentId from #{#entityName} comment "
+        + "where comment.treePath is null and not exists ("
+        + "select parent.id from #{#entityName} parent where parent.id = comment.parentId) "
+        + "order by comment.parentId")
+    List<Long> findAllAbsentParentIdsOfMissingTreePaths(@NonNull Pageable pageable);
+
+    /**
+     * Updates tree paths of children without tree path by parent id.
+     *
+     * @param parentId parent id must not be null
+     * @param treePath tree path must not be null
+     * @return updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("update #{#entityName} comment set comment.treePath = ?2 "
+        + "where comment.parentId = ?1 and comment.treePath is null")
+    int updateMissingTreePathByParentId(@NonNull Long parentId, @NonNull String treePath);
+
+    /**
+     * Updates tree paths of all comments without tree path.
+     *
+     * @param treePath tree path must not be null
+     * @return updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("update #{#entityName} comment set comment.treePath = ?1 "
+        + "where comment.treePath is null")
+    int updateMissingTreePath(@NonNull String treePath);
 
     /**
      * Finds direct children count by comment ids.
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.annotation.Transactional;
 import run.halo.app.model.entity.BasePost;
 import run.halo.app.model.enums.PostStatus;
 
@@ -215,6 +216,32 @@ public interface BasePostRepository<POST extends BasePost> extends BaseRepositor
     @Query("update BasePost p set p.likes = p.likes + :likes where p.id = :postId")
     int updateLikes(@Param("likes") long likes, @Param("postId") @NonNull Integer postId);
 
+    /**
+     * Updates count of published comments of the post.
+     *
+     * @param commentCount comment count
+     * @param postId post id must not be null
+     * @return updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("update BasePost p set p.commentCount = :commentCount where p.id = :postId")
+    int updateCommentCount(@Param("commentCount") long commentCount,
+        @Param("postId") @NonNull Integer postId);
+
+    /**
+     * Increases count of published comments of the post atomically.
+     *
+     * @param delta count to increase, negative to decrease
+     * @param postId post id must not be null
+     * @return updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("update BasePost p set p.commentCount = p.commentCount + :delta where p.id = :postId")
+    int increaseCommentCount(@Param("delta") long delta,
+        @Param("postId") @NonNull Integer postId);
+
     /**
      * Updates post original content.
      *
@@ -250,4 +277,49 @@ public interface BasePostRepository<POST extends BasePost> extends BaseRepositor
     @Query("update BasePost p set p.formatContent = :formatContent where p.id = :postId")
     int updateFormatContent(@Param("formatContent") @NonNull String formatContent,
         @Param("postId") @NonNull Integer postId);
+
+    /**
+     * Updates post format content, content digest and fields computed from format content by
+     * post id.
+     *
+     * @param formatContent format content must not be null.
+     * @param contentDigest content digest must not be null.
+     * @param wordCount word count must not be null.
+     * @param generatedSummary generated summary must not be null.
+     * @param postId post id must not be null.
+     * @return updated rows.
+     */
+    @Modifying
+    @Transactional
+    @Query("update BasePost p set p.formatContent = :formatContent, "
+        + "p.contentDigest = :contentDigest, p.wordCount = :wordCount, "
+        + "p.generatedSummary = :generatedSummary where p.id = :postId")
+    int updateFormatContent(@Param("formatContent") @NonNull String formatContent,
+        @Param("contentDigest") @NonNull String contentDigest,
+        @Param("wordCount") @NonNull Long wordCount,
+        @Param("generatedSummary") @NonNull String generatedSummary,
+        @Param("postId") @NonNull Integer postId);
+
+    /**
+     * Updates post word count and generated summary by post id.
+     *
+     * @param wordCount word count must not be null.
+     * @param generatedSummary generated summary must not be null.
+     * @param postId post id must not be null.
+     * @return updated rows.
+     */
+    @Modifying
+    @Transactional
+    @Query("update BasePost p set p.wordCount = :wordCount, "
+        + "p.generatedSummary = :generatedSummary where p.id = :postId")
+    int updateGeneratedSummary(@Param("wordCount") @NonNull Long wordCount,
+        @Param("generatedSummary") @NonNull String generatedSummary,
+        @Param("postId") @NonNull Integer postId);
+
+    /**
+     * Checks whether there are posts without generated summary.
+     *
+     * @return true if exists, false otherwise
+     */
+    boolean existsByGeneratedSummaryIsNull();
 }
@@ -6,7 +6,6 @@ import static run.halo.app.model.support.HaloConst.ONE_TIME_TOKEN_QUERY_NAME;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import javax.servlet.FilterChain;
@@ -34,6 +33,7 @@ import run.halo.app.security.handler.AuthenticationFailureHandler;
 import run.halo.app.security.handler.DefaultAuthenticationFailureHandler;
 import run.halo.app.security.service.OneTimeTokenService;
 import run.halo.app.service.OptionService;
+import run.halo.app.utils.CompiledPathMatcher;
 
 /**
  * Abstract authentication filter.
@@ -55,9 +55,11 @@ public abstract class AbstractAuthenticationFilter extends OncePerRequestFilter
     /**
      * Exclude url patterns.
      */
-    private Set<String> excludeUrlPatterns = new HashSet<>(16);
+    private volatile CompiledPathMatcher excludeUrlMatcher =
+        CompiledPathMatcher.compile(Collections.emptySet());
 
-    private Set<String> urlPatterns = new LinkedHashSet<>();
+    private volatile CompiledPathMatcher urlMatcher =
+        CompiledPathMatcher.compile(Collections.emptySet());
 
     AbstractAuthenticationFilter(HaloProperties haloProperties,
         OptionService optionService,
@@ -115,13 +117,10 @@ public abstract class AbstractAuthenticationFilter extends OncePerRequestFilter
     protected boolean shouldNotFilter(HttpServletRequest request) {
         Assert.notNull(request, "Http servlet request must not be null");
 
-        // check white list
-        boolean result = excludeUrlPatterns.stream()
-            .anyMatch(p -> antPathMatcher.match(p, urlPathHelper.getRequestUri(request)));
-
-        return result || urlPatterns.stream()
-            .noneMatch(p -> antPathMatcher.match(p, urlPathHelper.getRequestUri(request)));
+        String requestUri = urlPathHelper.getRequestUri(request);
 
+        // check white list
+        return excludeUrlMatcher.matches(requestUri) || !urlMatcher.matches(requestUri);
     }
 
     /**
@@ -129,20 +128,22 @@ public abstract class AbstractAuthenticationFilter extends OncePerRequestFilter
      *
      * @param excludeUrlPatterns exclude urls
      */
-    public void addExcludeUrlPatterns(@NonNull String... excludeUrlPatterns) {
+    public synchronized void addExcludeUrlPatterns(@NonNull String... excludeUrlPatterns) {
         Assert.notNull(excludeUrlPatterns, "Exclude url patterns must not be null");
 
-        Collections.addAll(this.excludeUrlPatterns, excludeUrlPatterns);
+        Set<String> patterns = new LinkedHashSet<>(this.excludeUrlMatcher.getPatterns());
+        Collections.addAll(patterns, excludeUrlPatterns);
+        this.excludeUrlMatcher = CompiledPathMatcher.compile(patterns);
     }
 
     /**
      * Gets exclude url patterns.
      *
-     * @return exclude url patterns.
+     * @return an unmodifiable set of exclude url patterns.
      */
     @NonNull
     public Set<String> getExcludeUrlPatterns() {
-        return excludeUrlPatterns;
+        return excludeUrlMatcher.getPatterns();
     }
 
     /**
@@ -153,21 +154,24 @@ public abstract class AbstractAuthenticationFilter extends OncePerRequestFilter
     public void setExcludeUrlPatterns(@NonNull Collection<String> excludeUrlPatterns) {
         Assert.notNull(excludeUrlPatterns, "Exclude url patterns must not be null");
 
-        this.excludeUrlPatterns = new HashSet<>(excludeUrlPatterns);
+        this.excludeUrlMatcher = CompiledPathMatcher.compile(excludeUrlPatterns);
     }
 
     public Collection<String> getUrlPatterns() {
-        return this.urlPatterns;
+        return urlMatcher.getPatterns();
     }
 
     public void setUrlPatterns(Collection<String> urlPatterns) {
         Assert.notNull(urlPatterns, "UrlPatterns must not be null");
-        this.urlPatterns = new LinkedHashSet<>(urlPatterns);
+        this.urlMatcher = CompiledPathMatcher.compile(urlPatterns);
     }
 
-    public void addUrlPatterns(String... urlPatterns) {
+    public synchronized void addUrlPatterns(String... urlPatterns) {
         Assert.notNull(urlPatterns, "UrlPatterns must not be null");
-        Collections.addAll(this.urlPatterns, urlPatterns);
+
+        Set<String> patterns = new LinkedHashSet<>(this.urlMatcher.getPatterns());
+        Collections.addAll(patterns, urlPatterns);
+        this.urlMatcher = CompiledPathMatcher.compile(patterns);
     }
 
     /**
@@ -42,6 +42,20 @@ public interface AttachmentService extends CrudService<Attachment, Integer> {
     @NonNull
     Attachment upload(@NonNull MultipartFile file);
 
+    /**
+     * Generates thumbnails of the attachment asynchronously, and updates its thumbnail path
+     * once generated.
+     *
+     * @param attachment attachment with pending thumbnail must not be null
+     */
+    void generateThumbnailAsync(@NonNull Attachment attachment);
+
+    /**
+     * Generates thumbnails of all attachments with pending thumbnails asynchronously, e.g.
+     * those interrupted by restarting.
+     */
+    void generatePendingThumbnailsAsync();
+
     /**
      * Removes attachment permanently.
      *
@@ -45,7 +45,7 @@ public interface AuthorizationService {
     /**
      * Get access permission store
      *
-     * @return access permission store
+     * @return an unmodifiable view of access permissions of current session
      */
     Set<String> getAccessPermissionStore();
 
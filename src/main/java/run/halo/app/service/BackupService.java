@@ -37,6 +37,23 @@ public interface BackupService {
     @NonNull
     BackupDTO backupWorkDirectory();
 
+    /**
+     * Zips work directory.
+     *
+     * @param incremental whether to store only files changed since the latest backup
+     * @return backup dto.
+     */
+    @NonNull
+    BackupDTO backupWorkDirectory(boolean incremental);
+
+    /**
+     * Restores the work directory at the time of the backup into a new full backup.
+     *
+     * @param fileName file name of the backup must not be blank
+     * @return backup dto of the new full backup
+     */
+    @NonNull
+    BackupDTO restoreWorkDirBackup(@NonNull String fileName);
 
     /**
      * Lists all backups.
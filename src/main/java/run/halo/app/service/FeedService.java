@@ -0,0 +1,104 @@
+package run.halo.app.service;
+
+import java.nio.file.Path;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import run.halo.app.model.entity.Category;
+
+/**
+ * Feed service interface.
+ *
+ * <p>Feeds and sitemaps are rendered once into documents under work directory, together with
+ * their gzip variants named with a {@code .gz} suffix. Documents are regenerated on demand
+ * after being invalidated, and only documents affected by a change are invalidated.
+ */
+public interface FeedService {
+
+    /**
+     * Max count of urls in a sitemap, sitemaps with more urls are split and listed by a sitemap
+     * index.
+     */
+    int MAX_SITEMAP_URLS = 50000;
+
+    /**
+     * File name suffix of gzip variants.
+     */
+    String GZIP_SUFFIX = ".gz";
+
+    /**
+     * Gets rss feed document.
+     *
+     * @param category category of posts, null for all posts
+     * @return path of the document
+     */
+    @NonNull
+    Path getRssFeed(@Nullable Category category);
+
+    /**
+     * Gets atom feed document.
+     *
+     * @param category category of posts, null for all posts
+     * @return path of the document
+     */
+    @NonNull
+    Path getAtomFeed(@Nullable Category category);
+
+    /**
+     * Gets sitemap document, which is a sitemap index if there are too many urls.
+     *
+     * @return path of the document
+     */
+    @NonNull
+    Path getSitemapXml();
+
+    /**
+     * Gets a sitemap listed by the sitemap index.
+     *
+     * @param index index of the sitemap, starting from 1
+     * @return path of the document
+     */
+    @NonNull
+    Path getSitemapXml(int index);
+
+    /**
+     * Gets html sitemap document.
+     *
+     * @return path of the document
+     */
+    @NonNull
+    Path getSitemapHtml();
+
+    /**
+     * Invalidates all documents.
+     */
+    void invalidate();
+
+    /**
+     * Invalidates documents which list the post or should list it.
+     *
+     * @param postId post id must not be null
+     */
+    void invalidatePost(@NonNull Integer postId);
+
+    /**
+     * Invalidates sitemaps if they list the sheet or should list it.
+     *
+     * @param sheetId sheet id must not be null
+     */
+    void invalidateSheet(@NonNull Integer sheetId);
+
+    /**
+     * Invalidates sitemaps and feeds of categories, once categories changed.
+     */
+    void invalidateCategories();
+
+    /**
+     * Invalidates sitemaps, once tags changed.
+     */
+    void invalidateSitemaps();
+
+    /**
+     * Regenerates feed and sitemap documents of all posts if absent.
+     */
+    void generate();
+}
@@ -41,8 +41,6 @@ public interface OptionService extends CrudService<Option, Integer> {
 
     int DEFAULT_RSS_PAGE_SIZE = 20;
 
-    String OPTIONS_KEY = "options";
-
     /**
      * Save multiple options
      *
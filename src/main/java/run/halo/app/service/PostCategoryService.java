@@ -216,4 +216,19 @@ public interface PostCategoryService extends CrudService<PostCategory, Integer>
      */
     @NonNull
     List<PostCategory> listByCategoryIdList(@NonNull List<Integer> categoryIdList);
+
+    /**
+     * Refreshes post counts of categories, which should be called once posts of the categories
+     * are changed.
+     *
+     * @param categoryIds category id collection
+     */
+    @Transactional
+    void refreshPostCountBy(@Nullable Collection<Integer> categoryIds);
+
+    /**
+     * Recomputes post counts of all categories.
+     */
+    @Transactional
+    void refreshAllPostCounts();
 }
@@ -0,0 +1,41 @@
+package run.halo.app.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.NonNull;
+import run.halo.app.model.entity.Post;
+
+/**
+ * Post search service interface.
+ *
+ * <p>Implementations are selected by {@code halo.search}, {@code lucene} (default) for an
+ * embedded full-text index under work directory and {@code database} for plain like queries.
+ */
+public interface PostSearchService {
+
+    /**
+     * Searches published posts by keyword.
+     *
+     * <p>The summary of every returned post is replaced by the highlighted fragment if there is
+     * one, and the returned posts are copies that must not be saved.
+     *
+     * @param keyword keyword must not be null
+     * @param pageable page info must not be null
+     * @return a page of post, ordered by relevance if supported
+     */
+    @NonNull
+    Page<Post> search(@NonNull String keyword, @NonNull Pageable pageable);
+
+    /**
+     * Refreshes the index of a post, the post will be removed from index if it doesn't exist
+     * or is not published anymore.
+     *
+     * @param postId post id must not be null
+     */
+    void refreshIndex(@NonNull Integer postId);
+
+    /**
+     * Rebuilds the whole index from database.
+     */
+    void rebuildIndex();
+}
@@ -8,6 +8,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import run.halo.app.model.entity.Post;
 import run.halo.app.model.entity.PostMeta;
 import run.halo.app.model.enums.PostStatus;
@@ -39,6 +40,28 @@ public interface PostService extends BasePostService<Post> {
     @NonNull
     Page<Post> pageBy(@NonNull PostQuery postQuery, @NonNull Pageable pageable);
 
+    /**
+     * Pages posts for listing. Original and format content of the posts are not loaded, so the
+     * posts must not be updated.
+     *
+     * @param postQuery post query must not be null
+     * @param pageable page info must not be null
+     * @return a page of post without content
+     */
+    @NonNull
+    Page<Post> pageWithoutContentBy(@NonNull PostQuery postQuery, @NonNull Pageable pageable);
+
+    /**
+     * Lists posts for listing. Original and format content of the posts are not loaded, so the
+     * posts must not be updated.
+     *
+     * @param postQuery post query must not be null
+     * @param sort sort info must not be null
+     * @return a list of post without content
+     */
+    @NonNull
+    List<Post> listWithoutContentBy(@NonNull PostQuery postQuery, @NonNull Sort sort);
+
     /**
      * Pages post by keyword
      *
@@ -172,7 +195,7 @@ public interface PostService extends BasePostService<Post> {
     List<Post> removeByIds(@NonNull Collection<Integer> ids);
 
     /**
-     * Lists year archives.
+     * Lists year archives with all of their posts.
      *
      * @return a list of year archive
      */
@@ -180,13 +203,53 @@ public interface PostService extends BasePostService<Post> {
     List<ArchiveYearVO> listYearArchives();
 
     /**
-     * Lists month archives.
+     * Lists year archives with their latest posts only.
+     *
+     * @param postSize max count of posts in every archive, null for all posts
+     * @return a list of year archive
+     */
+    @NonNull
+    List<ArchiveYearVO> listYearArchives(@Nullable Integer postSize);
+
+    /**
+     * Lists month archives with all of their posts.
      *
      * @return a list of month archive
      */
     @NonNull
     List<ArchiveMonthVO> listMonthArchives();
 
+    /**
+     * Lists month archives with their latest posts only.
+     *
+     * @param postSize max count of posts in every archive, null for all posts
+     * @return a list of month archive
+     */
+    @NonNull
+    List<ArchiveMonthVO> listMonthArchives(@Nullable Integer postSize);
+
+    /**
+     * Pages published posts of an archive, the latest created first. Sort of the pageable is
+     * ignored.
+     *
+     * @param year year of the archive, null for all published posts
+     * @param month month of the archive starting from 1, null for the whole year
+     * @param pageable page info must not be null
+     * @return a page of post list vo
+     */
+    @NonNull
+    Page<PostListVO> pageArchivePostsBy(@Nullable Integer year, @Nullable Integer month,
+        @NonNull Pageable pageable);
+
+    /**
+     * Groups converted posts to year archives.
+     *
+     * @param posts posts must not be null
+     * @return list of ArchiveYearVO
+     */
+    @NonNull
+    List<ArchiveYearVO> groupToYearArchives(@NonNull List<PostListVO> posts);
+
     /**
      * Convert to year archives
      *
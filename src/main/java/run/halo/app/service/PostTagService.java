@@ -157,4 +157,19 @@ public interface PostTagService extends CrudService<PostTag, Integer> {
     @NonNull
     @Transactional
     List<PostTag> removeByTagId(@NonNull Integer tagId);
+
+    /**
+     * Refreshes post counts of tags, which should be called once posts of the tags
+     * are changed.
+     *
+     * @param tagIds tag id collection
+     */
+    @Transactional
+    void refreshPostCountBy(@Nullable Collection<Integer> tagIds);
+
+    /**
+     * Recomputes post counts of all tags.
+     */
+    @Transactional
+    void refreshAllPostCounts();
 }
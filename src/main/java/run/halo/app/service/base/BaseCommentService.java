@@ -288,4 +288,9 @@ public interface BaseCommentService<COMMENT extends BaseComment>
     @NonNull
     List<COMMENT> listChildrenBy(@NonNull Integer targetId, @NonNull Long commentParentId,
         @NonNull Sort sort);
+
+    /**
+     * Recounts published comments of all targets, and repairs comment counts stored on targets.
+     */
+    void refreshAllCommentCounts();
 }
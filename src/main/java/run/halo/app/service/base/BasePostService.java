@@ -277,6 +277,35 @@ public interface BasePostService<POST extends BasePost> extends CrudService<POST
     @NonNull
     POST updateDraftContent(@Nullable String content, @NonNull Integer postId);
 
+    /**
+     * Re-renders format content of the post only if its original content, editor type or the
+     * renderer version has changed since the last rendering.
+     *
+     * @param post post must not be null
+     * @return post with up-to-date format content
+     */
+    @NonNull
+    POST renderContentIfNecessary(@NonNull POST post);
+
+    /**
+     * Re-renders format content of all posts, e.g. after the markdown renderer has changed.
+     * Posts are read page by page and their columns are updated directly, so update time of
+     * posts is kept and no long transaction is held.
+     *
+     * @return count of re-rendered posts
+     */
+    long renderAllContent();
+
+    /**
+     * Refreshes generated summary and word count of posts from their format content, e.g.
+     * after the summary length has changed. Posts are read page by page and their columns are
+     * updated directly, so update time of posts is kept and no long transaction is held.
+     *
+     * @param onlyMissing whether to refresh posts without generated summary only
+     * @return count of refreshed posts
+     */
+    long refreshSummaries(boolean onlyMissing);
+
     /**
      * Updates post status.
      *
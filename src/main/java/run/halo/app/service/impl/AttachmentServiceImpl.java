@@ -20,9 +20,11 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.web.multipart.MultipartFile;
 import run.halo.app.exception.AlreadyExistsException;
 import run.halo.app.handler.file.FileHandlers;
+import run.halo.app.handler.file.ThumbnailGenerator;
 import run.halo.app.model.dto.AttachmentDTO;
 import run.halo.app.model.entity.Attachment;
 import run.halo.app.model.enums.AttachmentType;
+import run.halo.app.model.enums.ThumbnailStatus;
 import run.halo.app.model.params.AttachmentQuery;
 import run.halo.app.model.properties.AttachmentProperties;
 import run.halo.app.model.support.UploadResult;
@@ -50,13 +52,17 @@ public class AttachmentServiceImpl extends AbstractCrudService<Attachment, Integ
 
     private final FileHandlers fileHandlers;
 
+    private final ThumbnailGenerator thumbnailGenerator;
+
     public AttachmentServiceImpl(AttachmentRepository attachmentRepository,
         OptionService optionService,
-        FileHandlers fileHandlers) {
+        FileHandlers fileHandlers,
+        ThumbnailGenerator thumbnailGenerator) {
         super(attachmentRepository);
         this.attachmentRepository = attachmentRepository;
         this.optionService = optionService;
         this.fileHandlers = fileHandlers;
+        this.thumbnailGenerator = thumbnailGenerator;
     }
 
     @Override
@@ -131,11 +137,46 @@ public class AttachmentServiceImpl extends AbstractCrudService<Attachment, Integ
         attachment.setHeight(uploadResult.getHeight());
         attachment.setSize(uploadResult.getSize());
         attachment.setType(attachmentType);
+        attachment.setThumbStatus(
+            uploadResult.isThumbnailPending() ? ThumbnailStatus.PENDING : ThumbnailStatus.READY);
 
         log.debug("Creating attachment: [{}]", attachment);
 
         // Create and return
-        return create(attachment);
+        Attachment createdAttachment = create(attachment);
+        if (ThumbnailStatus.PENDING.equals(createdAttachment.getThumbStatus())) {
+            generateThumbnailAsync(createdAttachment);
+        }
+        return createdAttachment;
+    }
+
+    @Override
+    public void generateThumbnailAsync(Attachment attachment) {
+        Assert.notNull(attachment, "Attachment must not be null");
+
+        Integer attachmentId = attachment.getId();
+        String fileKey = attachment.getFileKey();
+        thumbnailGenerator.generateAsync(fileKey).whenComplete((thumbnailKey, e) -> {
+            if (e != null) {
+                log.warn("Failed to generate thumbnails of attachment: [{}]", fileKey, e);
+                attachmentRepository.updateThumbnail(attachmentId, attachment.getPath(),
+                    ThumbnailStatus.FAILED);
+            } else {
+                attachmentRepository.updateThumbnail(attachmentId,
+                    HaloUtils.changeFileSeparatorToUrlSeparator(thumbnailKey),
+                    ThumbnailStatus.READY);
+            }
+        });
+    }
+
+    @Override
+    public void generatePendingThumbnailsAsync() {
+        List<Attachment> attachments =
+            attachmentRepository.findAllByThumbStatus(ThumbnailStatus.PENDING);
+        if (!attachments.isEmpty()) {
+            log.info("Generating thumbnails of [{}] pending attachments", attachments.size());
+        }
+        attachments.forEach(this::generateThumbnailAsync);
     }
 
     @Override
@@ -1,17 +1,14 @@
 package run.halo.app.service.impl;
 
 import cn.hutool.core.util.StrUtil;
-import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
-import run.halo.app.model.entity.Category;
 import run.halo.app.model.entity.Post;
-import run.halo.app.repository.CategoryRepository;
 import run.halo.app.repository.PostCategoryRepository;
 import run.halo.app.service.AuthenticationService;
 import run.halo.app.service.AuthorizationService;
+import run.halo.app.service.support.CategoryTreeSnapshot;
+import run.halo.app.service.support.CategoryTreeSnapshotHolder;
 
 
 /**
@@ -21,26 +18,25 @@ import run.halo.app.service.AuthorizationService;
 @Service
 public class AuthenticationServiceImpl implements AuthenticationService {
 
-    private final CategoryRepository categoryRepository;
+    private final CategoryTreeSnapshotHolder categoryTreeSnapshotHolder;
 
     private final AuthorizationService authorizationService;
 
     private final PostCategoryRepository postCategoryRepository;
 
     public AuthenticationServiceImpl(PostCategoryRepository postCategoryRepository,
-        CategoryRepository categoryRepository,
+        CategoryTreeSnapshotHolder categoryTreeSnapshotHolder,
         AuthorizationService authorizationService
     ) {
         this.postCategoryRepository = postCategoryRepository;
-        this.categoryRepository = categoryRepository;
+        this.categoryTreeSnapshotHolder = categoryTreeSnapshotHolder;
         this.authorizationService = authorizationService;
     }
 
     @Override
     public boolean postAuthentication(Post post, String password) {
-        Set<String> accessPermissionStore = authorizationService.getAccessPermissionStore();
-
         if (StrUtil.isNotBlank(post.getPassword())) {
+            Set<String> accessPermissionStore = authorizationService.getAccessPermissionStore();
             if (accessPermissionStore.contains(AuthorizationService.buildPostToken(post.getId()))) {
                 return true;
             }
@@ -70,41 +66,25 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     @Override
     public boolean categoryAuthentication(Integer categoryId, String password) {
+        // Only the nearest encrypted category decides
+        CategoryTreeSnapshot.Node encryptedCategory =
+            categoryTreeSnapshotHolder.get().getEncryptedNode(categoryId);
 
-        Map<Integer, Category> idToCategoryMap = categoryRepository.findAll().stream()
-                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        if (encryptedCategory == null) {
+            return true;
+        }
 
         Set<String> accessPermissionStore = authorizationService.getAccessPermissionStore();
-
-        return doCategoryAuthentication(
-            idToCategoryMap, accessPermissionStore, categoryId, password);
-    }
-
-    private boolean doCategoryAuthentication(Map<Integer, Category> idToCategoryMap,
-            Set<String> accessPermissionStore,
-            Integer categoryId, String password) {
-
-        Category category = idToCategoryMap.get(categoryId);
-
-        if (StrUtil.isNotBlank(category.getPassword())) {
-            if (accessPermissionStore.contains(
-                AuthorizationService.buildCategoryToken(category.getId()))) {
-                return true;
-            }
-
-            if (category.getPassword().equals(password)) {
-                authorizationService.categoryAuthorization(category.getId());
-                return true;
-            }
-
-            return false;
+        if (accessPermissionStore.contains(
+            AuthorizationService.buildCategoryToken(encryptedCategory.getId()))) {
+            return true;
         }
 
-        if (category.getParentId() == 0) {
+        if (encryptedCategory.getPassword().equals(password)) {
+            authorizationService.categoryAuthorization(encryptedCategory.getId());
             return true;
         }
 
-        return doCategoryAuthentication(
-            idToCategoryMap, accessPermissionStore, category.getParentId(), password);
+        return false;
     }
 }
@@ -1,14 +1,12 @@
 package run.halo.app.service.impl;
 
-import java.util.HashSet;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 import javax.servlet.http.HttpServletRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
-import run.halo.app.cache.AbstractStringCacheStore;
 import run.halo.app.service.AuthorizationService;
+import run.halo.app.service.support.SessionPermissionStore;
 
 /**
  * @author ZhiXiang Yuan
@@ -17,10 +15,10 @@ import run.halo.app.service.AuthorizationService;
 @Service
 public class AuthorizationServiceImpl implements AuthorizationService {
 
-    private final AbstractStringCacheStore cacheStore;
+    private final SessionPermissionStore sessionPermissionStore;
 
-    public AuthorizationServiceImpl(AbstractStringCacheStore cacheStore) {
-        this.cacheStore = cacheStore;
+    public AuthorizationServiceImpl(SessionPermissionStore sessionPermissionStore) {
+        this.sessionPermissionStore = sessionPermissionStore;
     }
 
     @Override
@@ -35,7 +33,7 @@ public class AuthorizationServiceImpl implements AuthorizationService {
 
     @Override
     public Set<String> getAccessPermissionStore() {
-        return cacheStore.getAny(buildAccessPermissionKey(), Set.class).orElseGet(HashSet::new);
+        return sessionPermissionStore.get(getSessionId());
     }
 
     @Override
@@ -49,28 +47,20 @@ public class AuthorizationServiceImpl implements AuthorizationService {
     }
 
     private void doDeleteAuthorization(String value) {
-        Set<String> accessStore = getAccessPermissionStore();
-
-        accessStore.remove(value);
-
-        cacheStore.putAny(buildAccessPermissionKey(), accessStore, 1, TimeUnit.DAYS);
+        sessionPermissionStore.remove(getSessionId(), value);
     }
 
     private void doAuthorization(String value) {
-        Set<String> accessStore = getAccessPermissionStore();
-
-        accessStore.add(value);
-
-        cacheStore.putAny(buildAccessPermissionKey(), accessStore, 1, TimeUnit.DAYS);
+        sessionPermissionStore.add(getSessionId(), value);
     }
 
-    private String buildAccessPermissionKey() {
+    private String getSessionId() {
         ServletRequestAttributes requestAttributes = (ServletRequestAttributes) RequestContextHolder
                 .getRequestAttributes();
 
         HttpServletRequest request = requestAttributes.getRequest();
 
-        return "ACCESS_PERMISSION: " + request.getSession().getId();
+        return request.getSession().getId();
     }
 
 }
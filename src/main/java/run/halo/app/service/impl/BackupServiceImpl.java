@@ -11,9 +11,16 @@ import cn.hutool.core.io.IoUtil;
 import cn.hutool.core.io.file.FileWriter;
 import cn.hutool.core.util.CharsetUtil;
 import cn.hutool.core.util.IdUtil;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -21,13 +28,15 @@ import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.ZipOutputStream;
@@ -36,6 +45,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
@@ -43,6 +57,7 @@ import org.springframework.web.multipart.MultipartFile;
 import run.halo.app.config.properties.HaloProperties;
 import run.halo.app.event.options.OptionUpdatedEvent;
 import run.halo.app.event.theme.ThemeUpdatedEvent;
+import run.halo.app.exception.BadRequestException;
 import run.halo.app.exception.NotFoundException;
 import run.halo.app.exception.ServiceException;
 import run.halo.app.handler.file.FileHandler;
@@ -70,6 +85,7 @@ import run.halo.app.model.entity.Tag;
 import run.halo.app.model.entity.ThemeSetting;
 import run.halo.app.model.entity.User;
 import run.halo.app.model.params.PostMarkdownParam;
+import run.halo.app.model.support.BackupManifest;
 import run.halo.app.model.support.HaloConst;
 import run.halo.app.model.vo.PostMarkdownVO;
 import run.halo.app.security.service.OneTimeTokenService;
@@ -87,6 +103,7 @@ import run.halo.app.service.PhotoService;
 import run.halo.app.service.PostCategoryService;
 import run.halo.app.service.PostCommentService;
 import run.halo.app.service.PostMetaService;
+import run.halo.app.service.PostSearchService;
 import run.halo.app.service.PostService;
 import run.halo.app.service.PostTagService;
 import run.halo.app.service.SheetCommentService;
@@ -95,6 +112,8 @@ import run.halo.app.service.SheetService;
 import run.halo.app.service.TagService;
 import run.halo.app.service.ThemeSettingService;
 import run.halo.app.service.UserService;
+import run.halo.app.service.base.CrudService;
+import run.halo.app.service.support.WorkDirBackupArchiver;
 import run.halo.app.utils.DateTimeUtils;
 import run.halo.app.utils.HaloUtils;
 import run.halo.app.utils.JsonUtils;
@@ -120,6 +139,11 @@ public class BackupServiceImpl implements BackupService {
 
     private static final String UPLOAD_SUB_DIR = "upload/";
 
+    /**
+     * Rows of a table paged out for exporting, or saved at a time while importing.
+     */
+    private static final int DATA_BATCH_SIZE = 500;
+
     private final AttachmentService attachmentService;
 
     private final CategoryService categoryService;
@@ -142,6 +166,8 @@ public class BackupServiceImpl implements BackupService {
 
     private final PostService postService;
 
+    private final PostSearchService postSearchService;
+
     private final PostCategoryService postCategoryService;
 
     private final PostCommentService postCommentService;
@@ -168,17 +194,24 @@ public class BackupServiceImpl implements BackupService {
 
     private final ApplicationEventPublisher eventPublisher;
 
+    private final WorkDirBackupArchiver workDirBackupArchiver;
+
+    /**
+     * Exported tables by name, in the order of importing.
+     */
+    private final Map<String, DataTable<?>> dataTables;
+
     public BackupServiceImpl(AttachmentService attachmentService, CategoryService categoryService,
         CommentBlackListService commentBlackListService, JournalService journalService,
         JournalCommentService journalCommentService, LinkService linkService, LogService logService,
         MenuService menuService, OptionService optionService, PhotoService photoService,
-        PostService postService, PostCategoryService postCategoryService,
-        PostCommentService postCommentService, PostMetaService postMetaService,
-        PostTagService postTagService, SheetService sheetService,
+        PostService postService, PostSearchService postSearchService,
+        PostCategoryService postCategoryService, PostCommentService postCommentService,
+        PostMetaService postMetaService, PostTagService postTagService, SheetService sheetService,
         SheetCommentService sheetCommentService, SheetMetaService sheetMetaService,
         TagService tagService, ThemeSettingService themeSettingService, UserService userService,
         OneTimeTokenService oneTimeTokenService, HaloProperties haloProperties,
-        ApplicationEventPublisher eventPublisher) {
+        ApplicationEventPublisher eventPublisher, WorkDirBackupArchiver workDirBackupArchiver) {
         this.attachmentService = attachmentService;
         this.categoryService = categoryService;
         this.commentBlackListService = commentBlackListService;
@@ -190,6 +223,7 @@ public class BackupServiceImpl implements BackupService {
         this.optionService = optionService;
         this.photoService = photoService;
         this.postService = postService;
+        this.postSearchService = postSearchService;
         this.postCategoryService = postCategoryService;
         this.postCommentService = postCommentService;
         this.postMetaService = postMetaService;
@@ -203,6 +237,52 @@ public class BackupServiceImpl implements BackupService {
         this.oneTimeTokenService = oneTimeTokenService;
         this.haloProperties = haloProperties;
         this.eventPublisher = eventPublisher;
+        this.workDirBackupArchiver = workDirBackupArchiver;
+        this.dataTables = buildDataTables();
+    }
+
+    @NonNull
+    private Map<String, DataTable<?>> buildDataTables() {
+        Map<String, DataTable<?>> tables = new LinkedHashMap<>();
+        addDataTable(tables, "attachments", Attachment.class, attachmentService);
+        // Categories are few, and encrypted categories can't be paged by the service
+        addDataTable(tables, new DataTable<>("categories", Category.class,
+            pageable -> new PageImpl<>(categoryService.listAll(true)),
+            categoryService::createInBatch, Long.MAX_VALUE));
+        addDataTable(tables, "tags", Tag.class, tagService);
+        addDataTable(tables, "comment_black_list", CommentBlackList.class,
+            commentBlackListService);
+        addDataTable(tables, "journals", Journal.class, journalService);
+        addDataTable(tables, "journal_comments", JournalComment.class, journalCommentService);
+        addDataTable(tables, "links", Link.class, linkService);
+        addDataTable(tables, "logs", Log.class, logService);
+        addDataTable(tables, "menus", Menu.class, menuService);
+        addDataTable(tables, "options", Option.class, optionService);
+        addDataTable(tables, "photos", Photo.class, photoService);
+        addDataTable(tables, "posts", Post.class, postService);
+        addDataTable(tables, "post_categories", PostCategory.class, postCategoryService);
+        addDataTable(tables, "post_comments", PostComment.class, postCommentService);
+        addDataTable(tables, "post_metas", PostMeta.class, postMetaService);
+        addDataTable(tables, "post_tags", PostTag.class, postTagService);
+        addDataTable(tables, "sheets", Sheet.class, sheetService);
+        addDataTable(tables, "sheet_comments", SheetComment.class, sheetCommentService);
+        addDataTable(tables, "sheet_metas", SheetMeta.class, sheetMetaService);
+        addDataTable(tables, "theme_settings", ThemeSetting.class, themeSettingService);
+        // Only the first user is imported
+        addDataTable(tables, new DataTable<>("user", User.class, userService::listAll,
+            users -> userService.create(users.get(0)), 1));
+        return Collections.unmodifiableMap(tables);
+    }
+
+    private static <D> void addDataTable(@NonNull Map<String, DataTable<?>> tables,
+        @NonNull String name, @NonNull Class<D> type, @NonNull CrudService<D, ?> service) {
+        addDataTable(tables,
+            new DataTable<>(name, type, service::listAll, service::createInBatch, Long.MAX_VALUE));
+    }
+
+    private static void addDataTable(@NonNull Map<String, DataTable<?>> tables,
+        @NonNull DataTable<?> dataTable) {
+        tables.put(dataTable.name, dataTable);
     }
 
     @Override
@@ -217,46 +297,123 @@ public class BackupServiceImpl implements BackupService {
 
     @Override
     public BackupDTO backupWorkDirectory() {
+        return backupWorkDirectory(false);
+    }
+
+    @Override
+    public BackupDTO backupWorkDirectory(boolean incremental) {
         // Zip work directory to temporary file
         try {
-            // Create zip path for halo zip
-            String haloZipFileName = HALO_BACKUP_PREFIX
-                + DateTimeUtils.format(LocalDateTime.now(), HORIZONTAL_LINE_DATETIME_FORMATTER)
-                + IdUtil.simpleUUID().hashCode() + ".zip";
-            // Create halo zip file
-            Path haloZipFilePath = Paths.get(haloProperties.getBackupDir(), haloZipFileName);
-            if (!Files.exists(haloZipFilePath.getParent())) {
-                Files.createDirectories(haloZipFilePath.getParent());
+            // Base on the latest backup having a manifest
+            Path parentPath = null;
+            if (incremental) {
+                parentPath = listWorkDirBackupPaths().stream()
+                    .filter(backupPath -> workDirBackupArchiver.readManifest(backupPath)
+                        .isPresent())
+                    .findFirst()
+                    .orElse(null);
             }
-            Path haloZipPath = Files.createFile(haloZipFilePath);
+
+            // Create zip path for halo zip
+            Path haloZipPath = createWorkDirBackupPath();
 
             // Zip halo
-            run.halo.app.utils.FileUtils
-                .zip(Paths.get(this.haloProperties.getWorkDir()), haloZipPath);
+            BackupManifest manifest;
+            try {
+                manifest = workDirBackupArchiver
+                    .archive(Paths.get(this.haloProperties.getWorkDir()), haloZipPath, parentPath);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(haloZipPath);
+                throw e;
+            }
 
             // Build backup dto
-            return buildBackupDto(BACKUP_RESOURCE_BASE_URI, haloZipPath);
+            BackupDTO backup = buildBackupDto(BACKUP_RESOURCE_BASE_URI, haloZipPath);
+            backup.setParentFilename(manifest.getParent());
+            return backup;
         } catch (IOException e) {
             throw new ServiceException("Failed to backup halo", e);
         }
     }
 
     @Override
-    public List<BackupDTO> listWorkDirBackups() {
+    public BackupDTO restoreWorkDirBackup(String fileName) {
+        Assert.hasText(fileName, "File name must not be blank");
+
+        Path backupRootPath = Paths.get(haloProperties.getBackupDir());
+        Path backupPath = backupRootPath.resolve(fileName);
+        checkDirectoryTraversal(backupRootPath, backupPath);
+        if (Files.notExists(backupPath)) {
+            throw new NotFoundException("The file " + fileName + " was not found");
+        }
+
+        try {
+            Path haloZipPath = createWorkDirBackupPath();
+            try {
+                workDirBackupArchiver.restore(backupPath, haloZipPath);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(haloZipPath);
+                throw e;
+            }
+            return buildBackupDto(BACKUP_RESOURCE_BASE_URI, haloZipPath);
+        } catch (IOException e) {
+            throw new ServiceException("Failed to restore backup " + fileName, e);
+        }
+    }
+
+    @NonNull
+    private Path createWorkDirBackupPath() throws IOException {
+        String haloZipFileName = HALO_BACKUP_PREFIX
+            + DateTimeUtils.format(LocalDateTime.now(), HORIZONTAL_LINE_DATETIME_FORMATTER)
+            + IdUtil.simpleUUID().hashCode() + ".zip";
+        // Create halo zip file
+        Path haloZipFilePath = Paths.get(haloProperties.getBackupDir(), haloZipFileName);
+        if (!Files.exists(haloZipFilePath.getParent())) {
+            Files.createDirectories(haloZipFilePath.getParent());
+        }
+        return Files.createFile(haloZipFilePath);
+    }
+
+    /**
+     * Lists paths of work directory backups, the latest first.
+     */
+    @NonNull
+    private List<Path> listWorkDirBackupPaths() throws IOException {
         // Ensure the parent folder exist
         Path backupParentPath = Paths.get(haloProperties.getBackupDir());
         if (Files.notExists(backupParentPath)) {
             return Collections.emptyList();
         }
 
-        // Build backup dto
         try (Stream<Path> subPathStream = Files.list(backupParentPath)) {
             return subPathStream
                 .filter(backupPath -> StringUtils
                     .startsWithIgnoreCase(backupPath.getFileName().toString(),
                         HALO_BACKUP_PREFIX))
-                .map(backupPath -> buildBackupDto(BACKUP_RESOURCE_BASE_URI, backupPath))
-                .sorted(Comparator.comparingLong(BackupDTO::getUpdateTime).reversed())
+                .sorted(Comparator.comparingLong(this::getLastModifiedTime).reversed())
+                .collect(Collectors.toList());
+        }
+    }
+
+    private long getLastModifiedTime(@NonNull Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            throw new ServiceException("Failed to access file " + path, e);
+        }
+    }
+
+    @Override
+    public List<BackupDTO> listWorkDirBackups() {
+        // Build backup dto
+        try {
+            return listWorkDirBackupPaths().stream()
+                .map(backupPath -> {
+                    BackupDTO backup = buildBackupDto(BACKUP_RESOURCE_BASE_URI, backupPath);
+                    workDirBackupArchiver.readManifest(backupPath)
+                        .ifPresent(manifest -> backup.setParentFilename(manifest.getParent()));
+                    return backup;
+                })
                 .collect(Collectors.toList());
         } catch (IOException e) {
             throw new ServiceException("Failed to fetch backups", e);
@@ -286,6 +443,17 @@ public class BackupServiceImpl implements BackupService {
         checkDirectoryTraversal(backupRootPath, backupPath);
 
         try {
+            // Incremental backups refer to files stored in the backups they are based on
+            for (Path otherPath : listWorkDirBackupPaths()) {
+                String parent = workDirBackupArchiver.readManifest(otherPath)
+                    .map(BackupManifest::getParent)
+                    .orElse(null);
+                if (fileName.equals(parent)) {
+                    throw new BadRequestException(
+                        "备份 " + otherPath.getFileName() + " 依赖于该备份，请先删除它");
+                }
+            }
+
             // Delete backup file
             Files.delete(backupPath);
         } catch (NoSuchFileException e) {
@@ -332,31 +500,6 @@ public class BackupServiceImpl implements BackupService {
 
     @Override
     public BackupDTO exportData() {
-        Map<String, Object> data = new HashMap<>();
-        data.put("version", HaloConst.HALO_VERSION);
-        data.put("export_date", DateUtil.now());
-        data.put("attachments", attachmentService.listAll());
-        data.put("categories", categoryService.listAll(true));
-        data.put("comment_black_list", commentBlackListService.listAll());
-        data.put("journals", journalService.listAll());
-        data.put("journal_comments", journalCommentService.listAll());
-        data.put("links", linkService.listAll());
-        data.put("logs", logService.listAll());
-        data.put("menus", menuService.listAll());
-        data.put("options", optionService.listAll());
-        data.put("photos", photoService.listAll());
-        data.put("posts", postService.listAll());
-        data.put("post_categories", postCategoryService.listAll());
-        data.put("post_comments", postCommentService.listAll());
-        data.put("post_metas", postMetaService.listAll());
-        data.put("post_tags", postTagService.listAll());
-        data.put("sheets", sheetService.listAll());
-        data.put("sheet_comments", sheetCommentService.listAll());
-        data.put("sheet_metas", sheetMetaService.listAll());
-        data.put("tags", tagService.listAll());
-        data.put("theme_settings", themeSettingService.listAll());
-        data.put("user", userService.listAll());
-
         try {
             String haloDataFileName = HALO_DATA_EXPORT_PREFIX
                 + DateTimeUtils.format(LocalDateTime.now(), HORIZONTAL_LINE_DATETIME_FORMATTER)
@@ -368,8 +511,17 @@ public class BackupServiceImpl implements BackupService {
             }
             Path haloDataPath = Files.createFile(haloDataFilePath);
 
-            FileWriter fileWriter = new FileWriter(haloDataPath.toFile(), CharsetUtil.UTF_8);
-            fileWriter.write(JsonUtils.objectToJson(data));
+            try (OutputStream outputStream = Files.newOutputStream(haloDataPath);
+                 JsonGenerator generator = JsonUtils.DEFAULT_JSON_MAPPER.getFactory()
+                     .createGenerator(outputStream, JsonEncoding.UTF8)) {
+                generator.writeStartObject();
+                generator.writeStringField("version", HaloConst.HALO_VERSION);
+                generator.writeStringField("export_date", DateUtil.now());
+                for (DataTable<?> dataTable : dataTables.values()) {
+                    exportTable(generator, dataTable);
+                }
+                generator.writeEndObject();
+            }
 
             return buildBackupDto(DATA_EXPORT_BASE_URI, haloDataPath);
         } catch (IOException e) {
@@ -377,6 +529,31 @@ public class BackupServiceImpl implements BackupService {
         }
     }
 
+    /**
+     * Writes rows of the table page by page, so that only one page is held in memory.
+     */
+    private <D> void exportTable(@NonNull JsonGenerator generator,
+        @NonNull DataTable<D> dataTable) throws IOException {
+        ObjectWriter writer = JsonUtils.DEFAULT_JSON_MAPPER.writerFor(dataTable.type)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        generator.writeArrayFieldStart(dataTable.name);
+        Pageable pageable = PageRequest.of(0, DATA_BATCH_SIZE, Sort.by("id"));
+        long count = 0;
+        Page<D> page;
+        do {
+            page = dataTable.pager.apply(pageable);
+            for (D row : page) {
+                writer.writeValue(generator, row);
+            }
+            count += page.getNumberOfElements();
+            pageable = pageable.next();
+        } while (page.hasNext());
+        generator.writeEndArray();
+
+        log.info("Exported [{}] rows of [{}]", count, dataTable.name);
+    }
+
     @Override
     public List<BackupDTO> listExportedData() {
 
@@ -420,110 +597,73 @@ public class BackupServiceImpl implements BackupService {
 
     @Override
     public void importData(MultipartFile file) throws IOException {
-        String jsonContent = IoUtil.read(file.getInputStream(), StandardCharsets.UTF_8);
-
-        ObjectMapper mapper = JsonUtils.createDefaultJsonMapper();
-        TypeReference<HashMap<String, Object>> typeRef =
-            new TypeReference<>() {
-            };
-        HashMap<String, Object> data = mapper.readValue(jsonContent, typeRef);
-
-        List<Attachment> attachments = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("attachments")), Attachment[].class));
-        attachmentService.createInBatch(attachments);
-
-        List<Category> categories = Arrays.asList(
-            mapper.readValue(mapper.writeValueAsString(data.get("categories")), Category[].class));
-        categoryService.createInBatch(categories);
-
-        List<Tag> tags = Arrays
-            .asList(mapper.readValue(mapper.writeValueAsString(data.get("tags")), Tag[].class));
-        tagService.createInBatch(tags);
-
-        List<CommentBlackList> commentBlackList = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("comment_black_list")),
-                CommentBlackList[].class));
-        commentBlackListService.createInBatch(commentBlackList);
-
-        List<Journal> journals = Arrays.asList(
-            mapper.readValue(mapper.writeValueAsString(data.get("journals")), Journal[].class));
-        journalService.createInBatch(journals);
-
-        List<JournalComment> journalComments = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("journal_comments")),
-                JournalComment[].class));
-        journalCommentService.createInBatch(journalComments);
-
-        List<Link> links = Arrays
-            .asList(mapper.readValue(mapper.writeValueAsString(data.get("links")), Link[].class));
-        linkService.createInBatch(links);
-
-        List<Log> logs = Arrays
-            .asList(mapper.readValue(mapper.writeValueAsString(data.get("logs")), Log[].class));
-        logService.createInBatch(logs);
-
-        List<Menu> menus = Arrays
-            .asList(mapper.readValue(mapper.writeValueAsString(data.get("menus")), Menu[].class));
-        menuService.createInBatch(menus);
-
-        List<Option> options = Arrays.asList(
-            mapper.readValue(mapper.writeValueAsString(data.get("options")), Option[].class));
-        optionService.createInBatch(options);
-
-        eventPublisher.publishEvent(new OptionUpdatedEvent(this));
-
-        List<Photo> photos = Arrays
-            .asList(mapper.readValue(mapper.writeValueAsString(data.get("photos")), Photo[].class));
-        photoService.createInBatch(photos);
-
-        List<Post> posts = Arrays
-            .asList(mapper.readValue(mapper.writeValueAsString(data.get("posts")), Post[].class));
-        postService.createInBatch(posts);
-
-        List<PostCategory> postCategories = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("post_categories")),
-                PostCategory[].class));
-        postCategoryService.createInBatch(postCategories);
-
-        List<PostComment> postComments = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("post_comments")), PostComment[].class));
-        postCommentService.createInBatch(postComments);
-
-        List<PostMeta> postMetas = Arrays.asList(
-            mapper.readValue(mapper.writeValueAsString(data.get("post_metas")), PostMeta[].class));
-        postMetaService.createInBatch(postMetas);
-
-        List<PostTag> postTags = Arrays.asList(
-            mapper.readValue(mapper.writeValueAsString(data.get("post_tags")), PostTag[].class));
-        postTagService.createInBatch(postTags);
-
-        List<Sheet> sheets = Arrays
-            .asList(mapper.readValue(mapper.writeValueAsString(data.get("sheets")), Sheet[].class));
-        sheetService.createInBatch(sheets);
-
-        List<SheetComment> sheetComments = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("sheet_comments")),
-                SheetComment[].class));
-        sheetCommentService.createInBatch(sheetComments);
-
-        List<SheetMeta> sheetMetas = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("sheet_metas")), SheetMeta[].class));
-        sheetMetaService.createInBatch(sheetMetas);
-
-        List<ThemeSetting> themeSettings = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("theme_settings")),
-                ThemeSetting[].class));
-        themeSettingService.createInBatch(themeSettings);
+        try (InputStream inputStream = file.getInputStream();
+             JsonParser parser = JsonUtils.DEFAULT_JSON_MAPPER.getFactory()
+                 .createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new BadRequestException("数据文件格式错误");
+            }
 
-        eventPublisher.publishEvent(new ThemeUpdatedEvent(this));
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                DataTable<?> dataTable = dataTables.get(parser.getCurrentName());
+                JsonToken token = parser.nextToken();
+                if (dataTable == null || token != JsonToken.START_ARRAY) {
+                    // Version, export date or unknown fields
+                    parser.skipChildren();
+                    continue;
+                }
+                importTable(parser, dataTable);
+            }
+        } finally {
+            // Post counts and comment counts of imported data may be missing or stale
+            postTagService.refreshAllPostCounts();
+            postCategoryService.refreshAllPostCounts();
+            postCommentService.refreshAllCommentCounts();
+            sheetCommentService.refreshAllCommentCounts();
+            journalCommentService.refreshAllCommentCounts();
+
+            // Imported posts are not indexed for searching yet
+            postSearchService.rebuildIndex();
+
+            // Refresh caches even if the import is interrupted, since some tables are imported
+            eventPublisher.publishEvent(new OptionUpdatedEvent(this));
+            eventPublisher.publishEvent(new ThemeUpdatedEvent(this));
+        }
+    }
 
-        List<User> users = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("user")),
-                User[].class));
+    /**
+     * Reads rows of the table from the parser positioned at the start of the array, and saves
+     * them batch by batch.
+     */
+    private <D> void importTable(@NonNull JsonParser parser, @NonNull DataTable<D> dataTable)
+        throws IOException {
+        ObjectReader reader = JsonUtils.DEFAULT_JSON_MAPPER.readerFor(dataTable.type);
+
+        List<D> batch = new ArrayList<>(DATA_BATCH_SIZE);
+        long count = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (count >= dataTable.limit) {
+                parser.skipChildren();
+                continue;
+            }
+            D row = reader.readValue(parser);
+            if (row == null) {
+                continue;
+            }
+            batch.add(row);
+            count++;
 
-        if (users.size() > 0) {
-            userService.create(users.get(0));
+            if (batch.size() >= DATA_BATCH_SIZE) {
+                dataTable.importer.accept(batch);
+                batch = new ArrayList<>(DATA_BATCH_SIZE);
+                log.info("Imported [{}] rows of [{}]", count, dataTable.name);
+            }
         }
+        if (!batch.isEmpty()) {
+            dataTable.importer.accept(batch);
+        }
+
+        log.info("Imported [{}] rows of [{}] completely", count, dataTable.name);
     }
 
     @Override
@@ -690,4 +830,33 @@ public class BackupServiceImpl implements BackupService {
             + "=" + oneTimeToken;
     }
 
+    /**
+     * Table of exported data.
+     *
+     * @param <D> row type
+     */
+    private static class DataTable<D> {
+
+        private final String name;
+
+        private final Class<D> type;
+
+        private final Function<Pageable, Page<D>> pager;
+
+        private final Consumer<List<D>> importer;
+
+        /**
+         * Max rows to import, the rest are skipped.
+         */
+        private final long limit;
+
+        private DataTable(String name, Class<D> type, Function<Pageable, Page<D>> pager,
+            Consumer<List<D>> importer, long limit) {
+            this.name = name;
+            this.type = type;
+            this.pager = pager;
+            this.importer = importer;
+            this.limit = limit;
+        }
+    }
 }
@@ -3,10 +3,14 @@ package run.halo.app.service.impl;
 import static org.springframework.data.domain.Sort.Direction.DESC;
 
 import cn.hutool.core.util.URLUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -19,18 +23,24 @@ import javax.persistence.criteria.Predicate;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import run.halo.app.event.comment.CommentNewEvent;
 import run.halo.app.event.comment.CommentReplyEvent;
+import run.halo.app.event.options.OptionUpdatedEvent;
 import run.halo.app.exception.BadRequestException;
 import run.halo.app.exception.NotFoundException;
 import run.halo.app.model.dto.BaseCommentDTO;
@@ -69,11 +79,39 @@ import run.halo.app.utils.ValidationUtils;
 public abstract class BaseCommentServiceImpl<COMMENT extends BaseComment>
     extends AbstractCrudService<COMMENT, Long> implements BaseCommentService<COMMENT> {
 
+    /**
+     * Separator of comment ids in tree path.
+     */
+    private static final String TREE_PATH_SEPARATOR = "/";
+
+    /**
+     * Max length of tree path, the same as the length of the tree path column, which limits
+     * the depth of replies.
+     */
+    private static final int TREE_PATH_MAX_LENGTH = 1023;
+
+    /**
+     * Page size of filling missing tree paths.
+     */
+    private static final int TREE_PATH_FILL_PAGE_SIZE = 100;
+
+    /**
+     * Max count of cached comment trees.
+     */
+    private static final int COMMENT_TREE_CACHE_SIZE = 1000;
+
     protected final OptionService optionService;
     protected final UserService userService;
     protected final ApplicationEventPublisher eventPublisher;
     private final BaseCommentRepository<COMMENT> baseCommentRepository;
 
+    /**
+     * Published comment trees, keyed by post id and sort direction of comment id.
+     */
+    private final Cache<String, CommentTree> commentTreeCache = Caffeine.newBuilder()
+        .maximumSize(COMMENT_TREE_CACHE_SIZE)
+        .build();
+
     public BaseCommentServiceImpl(BaseCommentRepository<COMMENT> baseCommentRepository,
         OptionService optionService,
         UserService userService, ApplicationEventPublisher eventPublisher) {
@@ -135,7 +173,7 @@ public abstract class BaseCommentServiceImpl<COMMENT extends BaseComment>
 
         log.debug("Getting comment tree view of post: [{}], page info: [{}]", postId, pageable);
 
-        // List all the top comments (Caution: This list will be cleared)
+        // List all the comments
         List<COMMENT> comments = baseCommentRepository.findAllByPostId(postId);
 
         return pageVosBy(comments, pageable);
@@ -154,41 +192,60 @@ public abstract class BaseCommentServiceImpl<COMMENT extends BaseComment>
         // Convert to vo
         List<BaseCommentVO> topComments = convertToVo(comments, commentComparator);
 
+        return pageVosBy(new CommentTree(topComments, comments.size()), pageable);
+    }
+
+    @Override
+    @NonNull
+    public Page<BaseCommentVO> pageVosBy(@NonNull Integer postId, @NonNull Pageable pageable) {
+        Assert.notNull(postId, "Post id must not be null");
+        Assert.notNull(pageable, "Page info must not be null");
+
+        log.debug("Getting comment tree view of post: [{}], page info: [{}]", postId, pageable);
+
+        Sort sort = pageable.getSortOr(Sort.by(Sort.Direction.DESC, "createTime"));
+        String cacheKey = buildCommentTreeCacheKey(postId, getIdDirection(sort));
+
+        CommentTree commentTree = commentTreeCache.get(cacheKey, key -> {
+            List<COMMENT> comments =
+                baseCommentRepository.findAllByPostIdAndStatus(postId, CommentStatus.PUBLISHED);
+            return new CommentTree(convertToVo(comments, buildCommentComparator(sort)),
+                comments.size());
+        });
+
+        return pageVosBy(commentTree, pageable);
+    }
+
+    /**
+     * Slices a page of top comments from the comment tree.
+     *
+     * @param commentTree comment tree must not be null
+     * @param pageable page info must not be null
+     * @return a page of comment vo
+     */
+    @NonNull
+    private Page<BaseCommentVO> pageVosBy(@NonNull CommentTree commentTree,
+        @NonNull Pageable pageable) {
+        List<BaseCommentVO> topComments = commentTree.getTopComments();
+
         List<BaseCommentVO> pageContent;
 
         // Calc the shear index
-        int startIndex = pageable.getPageNumber() * pageable.getPageSize();
+        long startIndex = pageable.getOffset();
         if (startIndex >= topComments.size() || startIndex < 0) {
             pageContent = Collections.emptyList();
         } else {
-            int endIndex = startIndex + pageable.getPageSize();
-            if (endIndex > topComments.size()) {
-                endIndex = topComments.size();
-            }
+            int endIndex = (int) Math.min(startIndex + pageable.getPageSize(), topComments.size());
 
             log.debug("Top comments size: [{}]", topComments.size());
             log.debug("Start index: [{}]", startIndex);
             log.debug("End index: [{}]", endIndex);
 
-            pageContent = topComments.subList(startIndex, endIndex);
+            pageContent = topComments.subList((int) startIndex, endIndex);
         }
 
-        return new CommentPage<>(pageContent, pageable, topComments.size(), comments.size());
-    }
-
-    @Override
-    @NonNull
-    public Page<BaseCommentVO> pageVosBy(@NonNull Integer postId, @NonNull Pageable pageable) {
-        Assert.notNull(postId, "Post id must not be null");
-        Assert.notNull(pageable, "Page info must not be null");
-
-        log.debug("Getting comment tree view of post: [{}], page info: [{}]", postId, pageable);
-
-        // List all the top comments (Caution: This list will be cleared)
-        List<COMMENT> comments =
-            baseCommentRepository.findAllByPostIdAndStatus(postId, CommentStatus.PUBLISHED);
-
-        return pageVosBy(comments, pageable);
+        return new CommentPage<>(pageContent, pageable, topComments.size(),
+            commentTree.getCommentCount());
     }
 
     @Override
@@ -305,9 +362,16 @@ public abstract class BaseCommentServiceImpl<COMMENT extends BaseComment>
             validateTarget(comment.getPostId());
         }
 
-        // Check parent id
-        if (!ServiceUtils.isEmptyId(comment.getParentId())) {
-            mustExistById(comment.getParentId());
+        // Check parent id and build tree path
+        COMMENT parentComment = ServiceUtils.isEmptyId(comment.getParentId()) ? null :
+            getById(comment.getParentId());
+        if (parentComment == null || parentComment.getTreePath() != null) {
+            String treePath = buildChildTreePath(parentComment);
+            if (treePath.length() > TREE_PATH_MAX_LENGTH) {
+                throw new BadRequestException("评论层级过深，无法继续回复")
+                    .setErrorData(comment.getParentId());
+            }
+            comment.setTreePath(treePath);
         }
 
         // Check user login status and set this field
@@ -345,6 +409,8 @@ public abstract class BaseCommentServiceImpl<COMMENT extends BaseComment>
 
         // Create comment
         COMMENT createdComment = super.create(comment);
+        evictCommentTree(createdComment.getPostId());
+        changeCommentCount(createdComment.getPostId(), null, createdComment.getStatus());
 
         if (ServiceUtils.isEmptyId(createdComment.getParentId())) {
             if (authentication == null) {
@@ -400,12 +466,16 @@ public abstract class BaseCommentServiceImpl<COMMENT extends BaseComment>
 
         // Get comment by id
         COMMENT comment = getById(commentId);
+        CommentStatus oldStatus = comment.getStatus();
 
         // Set comment status
         comment.setStatus(status);
 
         // Update comment
-        return update(comment);
+        COMMENT updatedComment = super.update(comment);
+        evictCommentTree(updatedComment.getPostId());
+        changeCommentCount(updatedComment.getPostId(), oldStatus, status);
+        return updatedComment;
     }
 
     @Override
@@ -422,7 +492,76 @@ public abstract class BaseCommentServiceImpl<COMMENT extends BaseComment>
     @Override
     public List<COMMENT> removeByPostId(@NonNull Integer postId) {
         Assert.notNull(postId, "Post id must not be null");
-        return baseCommentRepository.deleteByPostId(postId);
+        List<COMMENT> comments = baseCommentRepository.deleteByPostId(postId);
+        evictCommentTree(postId);
+        refreshCommentCount(postId);
+        return comments;
+    }
+
+    @Override
+    public List<COMMENT> createInBatch(Collection<COMMENT> comments) {
+        List<COMMENT> createdComments = super.createInBatch(comments);
+        evictAllCommentTrees();
+        fillMissingTreePaths();
+        refreshCommentCounts(ServiceUtils.fetchProperty(createdComments, BaseComment::getPostId));
+        return createdComments;
+    }
+
+    @Override
+    public COMMENT update(COMMENT comment) {
+        COMMENT updatedComment = super.update(comment);
+        evictCommentTree(updatedComment.getPostId());
+        refreshCommentCount(updatedComment.getPostId());
+        return updatedComment;
+    }
+
+    @Override
+    public List<COMMENT> updateInBatch(Collection<COMMENT> comments) {
+        List<COMMENT> updatedComments = super.updateInBatch(comments);
+        evictAllCommentTrees();
+        refreshCommentCounts(ServiceUtils.fetchProperty(updatedComments, BaseComment::getPostId));
+        return updatedComments;
+    }
+
+    @Override
+    public void remove(COMMENT comment) {
+        super.remove(comment);
+        evictCommentTree(comment.getPostId());
+        changeCommentCount(comment.getPostId(), comment.getStatus(), null);
+    }
+
+    @Override
+    public void removeInBatch(Collection<Long> ids) {
+        Set<Integer> postIds =
+            ServiceUtils.fetchProperty(listAllByIds(ids), BaseComment::getPostId);
+        super.removeInBatch(ids);
+        evictAllCommentTrees();
+        refreshCommentCounts(postIds);
+    }
+
+    @Override
+    public void removeAll(Collection<COMMENT> comments) {
+        super.removeAll(comments);
+        evictAllCommentTrees();
+        refreshCommentCounts(ServiceUtils.fetchProperty(comments, BaseComment::getPostId));
+    }
+
+    @Override
+    public void removeAll() {
+        super.removeAll();
+        evictAllCommentTrees();
+        refreshAllCommentCounts();
+    }
+
+    /**
+     * Clears cached comment trees once options updated, because avatars of comments depend on
+     * options.
+     *
+     * @param event option updated event
+     */
+    @EventListener
+    public void onOptionUpdated(OptionUpdatedEvent event) {
+        evictAllCommentTrees();
     }
 
     @Override
@@ -548,12 +687,12 @@ public abstract class BaseCommentServiceImpl<COMMENT extends BaseComment>
         // Init the top virtual comment
         BaseCommentVO topVirtualComment = new BaseCommentVO();
         topVirtualComment.setId(0L);
-        topVirtualComment.setChildren(new LinkedList<>());
 
         // Concrete the comment tree
-        concreteTree(topVirtualComment, new LinkedList<>(comments), comparator);
+        concreteTree(topVirtualComment, comments, comparator);
 
-        return topVirtualComment.getChildren();
+        return topVirtualComment.getChildren() == null ? Collections.emptyList() :
+            topVirtualComment.getChildren();
     }
 
     @Override
@@ -602,27 +741,24 @@ public abstract class BaseCommentServiceImpl<COMMENT extends BaseComment>
     @NonNull
     public List<COMMENT> listChildrenBy(@NonNull Integer targetId, @NonNull Long commentParentId,
         @NonNull CommentStatus status, @NonNull Sort sort) {
-        Assert.notNull(targetId, "Target id must not be null");
-        Assert.notNull(commentParentId, "Comment parent id must not be null");
-        Assert.notNull(sort, "Sort info must not be null");
-
-        // Get comments recursively
-
-        // Get direct children
-        List<COMMENT> directChildren = baseCommentRepository
-            .findAllByPostIdAndStatusAndParentId(targetId, status, commentParentId);
-
-        // Create result container
-        Set<COMMENT> children = new HashSet<>();
+        Assert.notNull(status, "Comment status must not be null");
 
-        // Get children comments
-        getChildrenRecursively(directChildren, status, children);
+        List<COMMENT> subtree = listChildrenBy(targetId, commentParentId, sort);
 
-        // Sort children
-        List<COMMENT> childrenList = new ArrayList<>(children);
-        childrenList.sort(Comparator.comparing(BaseComment::getId));
+        // Parents are always in front of their children, so a single pass is enough to exclude
+        // comments under the ones not in the given status
+        Set<Long> includedIds = new HashSet<>();
+        includedIds.add(commentParentId);
 
-        return childrenList;
+        List<COMMENT> children = new ArrayList<>(subtree.size());
+        for (COMMENT comment : subtree) {
+            if (status.equals(comment.getStatus())
+                && includedIds.contains(comment.getParentId())) {
+                includedIds.add(comment.getId());
+                children.add(comment);
+            }
+        }
+        return children;
     }
 
     @Override
@@ -633,80 +769,80 @@ public abstract class BaseCommentServiceImpl<COMMENT extends BaseComment>
         Assert.notNull(commentParentId, "Comment parent id must not be null");
         Assert.notNull(sort, "Sort info must not be null");
 
-        // Get comments recursively
-
-        // Get direct children
-        List<COMMENT> directChildren =
-            baseCommentRepository.findAllByPostIdAndParentId(targetId, commentParentId);
-
-        // Create result container
-        Set<COMMENT> children = new HashSet<>();
-
-        // Get children comments
-        getChildrenRecursively(directChildren, children);
-
-        // Sort children
-        List<COMMENT> childrenList = new ArrayList<>(children);
-        childrenList.sort(Comparator.comparing(BaseComment::getId));
+        String treePathPrefix;
+        if (ServiceUtils.isEmptyId(commentParentId)) {
+            treePathPrefix = buildChildTreePath(null);
+        } else {
+            COMMENT parentComment = fetchById(commentParentId).orElse(null);
+            if (parentComment == null || parentComment.getTreePath() == null) {
+                return Collections.emptyList();
+            }
+            treePathPrefix = buildChildTreePath(parentComment);
+        }
 
-        return childrenList;
+        // Fetch the whole subtree at once, ordered by id so that parents come first
+        return baseCommentRepository.findAllByPostIdAndTreePathStartingWith(targetId,
+            treePathPrefix, Sort.by("id"));
     }
 
     /**
-     * Get children comments recursively.
+     * Builds tree path of a child comment.
      *
-     * @param topComments top comment list
-     * @param status comment status must not be null
-     * @param children children result must not be null
+     * @param parentComment parent comment, null for top comments
+     * @return tree path of the child comment
      */
-    private void getChildrenRecursively(@Nullable List<COMMENT> topComments,
-        @NonNull CommentStatus status, @NonNull Set<COMMENT> children) {
-        Assert.notNull(status, "Comment status must not be null");
-        Assert.notNull(children, "Children comment set must not be null");
-
-        if (CollectionUtils.isEmpty(topComments)) {
-            return;
+    @NonNull
+    private String buildChildTreePath(@Nullable COMMENT parentComment) {
+        if (parentComment == null) {
+            return TREE_PATH_SEPARATOR;
         }
-
-        // Convert comment id set
-        Set<Long> commentIds = ServiceUtils.fetchProperty(topComments, COMMENT::getId);
-
-        // Get direct children
-        List<COMMENT> directChildren =
-            baseCommentRepository.findAllByStatusAndParentIdIn(status, commentIds);
-
-        // Recursively invoke
-        getChildrenRecursively(directChildren, status, children);
-
-        // Add direct children to children result
-        children.addAll(topComments);
+        return parentComment.getTreePath() + parentComment.getId() + TREE_PATH_SEPARATOR;
     }
 
     /**
-     * Get children comments recursively.
-     *
-     * @param topComments top comment list
-     * @param children children result must not be null
+     * Fills tree paths of comments created before tree paths were introduced or imported
+     * without them. Tree paths are filled level by level with bulk updates, so that update time
+     * of comments is kept.
      */
-    private void getChildrenRecursively(@Nullable List<COMMENT> topComments,
-        @NonNull Set<COMMENT> children) {
-        Assert.notNull(children, "Children comment set must not be null");
-
-        if (CollectionUtils.isEmpty(topComments)) {
+    @EventListener(ApplicationStartedEvent.class)
+    public void fillMissingTreePaths() {
+        if (!baseCommentRepository.existsByTreePathIsNull()) {
             return;
         }
 
-        // Convert comment id set
-        Set<Long> commentIds = ServiceUtils.fetchProperty(topComments, COMMENT::getId);
-
-        // Get direct children
-        List<COMMENT> directChildren = baseCommentRepository.findAllByParentIdIn(commentIds);
+        Pageable firstPage = PageRequest.of(0, TREE_PATH_FILL_PAGE_SIZE);
+        int filledCount = 0;
+        List<Long> absentParentIds;
+        do {
+            // Top comments and comments whose parent was deleted are placed at top
+            absentParentIds =
+                baseCommentRepository.findAllAbsentParentIdsOfMissingTreePaths(firstPage);
+            for (Long parentId : absentParentIds) {
+                filledCount += baseCommentRepository.updateMissingTreePathByParentId(parentId,
+                    buildChildTreePath(null));
+            }
 
-        // Recursively invoke
-        getChildrenRecursively(directChildren, children);
+            // Filled children drop out of the query, so always read the first page
+            List<COMMENT> parents;
+            while (!(parents =
+                baseCommentRepository.findAllParentsOfMissingTreePaths(firstPage)).isEmpty()) {
+                for (COMMENT parent : parents) {
+                    String treePath = buildChildTreePath(parent);
+                    if (treePath.length() > TREE_PATH_MAX_LENGTH) {
+                        log.warn("Comment [{}] is nested too deep, place its replies at top",
+                            parent.getId());
+                        treePath = buildChildTreePath(null);
+                    }
+                    filledCount +=
+                        baseCommentRepository.updateMissingTreePathByParentId(parent.getId(),
+                            treePath);
+                }
+            }
+        } while (!absentParentIds.isEmpty());
 
-        // Add direct children to children result
-        children.addAll(topComments);
+        // Only comments in parent cycles are left
+        filledCount += baseCommentRepository.updateMissingTreePath(buildChildTreePath(null));
+        log.info("Filled tree paths of [{}] comments", filledCount);
     }
 
     /**
@@ -725,37 +861,216 @@ public abstract class BaseCommentServiceImpl<COMMENT extends BaseComment>
             return;
         }
 
-        // Get children
-        List<COMMENT> children = comments.stream()
-            .filter(comment -> Objects.equals(parentComment.getId(), comment.getParentId()))
-            .collect(Collectors.toList());
+        // Index comments by parent id in a single pass
+        Map<Long, List<COMMENT>> childrenMap = comments.stream()
+            .filter(comment -> comment.getParentId() != null)
+            .collect(Collectors.groupingBy(BaseComment::getParentId));
 
-        // Add children
-        children.forEach(comment -> {
-            // Convert to comment vo
-            BaseCommentVO commentVo = new BaseCommentVO().convertFrom(comment);
+        Deque<BaseCommentVO> parents = new ArrayDeque<>();
+        parents.push(parentComment);
 
-            commentVo.setAvatar(buildAvatarUrl(commentVo.getGravatarMd5()));
+        while (!parents.isEmpty()) {
+            BaseCommentVO parent = parents.pop();
 
-            if (parentComment.getChildren() == null) {
-                parentComment.setChildren(new LinkedList<>());
+            // Every group of children is consumed only once
+            List<COMMENT> children = childrenMap.remove(parent.getId());
+            if (CollectionUtils.isEmpty(children)) {
+                continue;
             }
 
-            parentComment.getChildren().add(commentVo);
-        });
+            List<BaseCommentVO> childrenVos = new ArrayList<>(children.size());
+            children.forEach(comment -> {
+                // Convert to comment vo
+                BaseCommentVO commentVo = new BaseCommentVO().convertFrom(comment);
 
-        // Remove children
-        comments.removeAll(children);
+                commentVo.setAvatar(buildAvatarUrl(commentVo.getGravatarMd5()));
+
+                childrenVos.add(commentVo);
+                parents.push(commentVo);
+            });
 
-        if (!CollectionUtils.isEmpty(parentComment.getChildren())) {
-            // Recursively concrete the children
-            parentComment.getChildren()
-                .forEach(childComment -> concreteTree(childComment, comments, commentComparator));
             // Sort the children
             if (commentComparator != null) {
-                parentComment.getChildren().sort(commentComparator);
+                childrenVos.sort(commentComparator);
+            }
+
+            parent.setChildren(Collections.unmodifiableList(childrenVos));
+        }
+    }
+
+    @Override
+    public void refreshAllCommentCounts() {
+        Map<Integer, Long> commentCountMap = ServiceUtils.convertToMap(
+            baseCommentRepository.countByStatusGroupByPostId(CommentStatus.PUBLISHED),
+            CommentCountProjection::getPostId, CommentCountProjection::getCount);
+
+        int repaired = 0;
+        for (CommentCountProjection storedCount : listCommentCounts()) {
+            long commentCount = commentCountMap.getOrDefault(storedCount.getPostId(), 0L);
+            if (!Objects.equals(storedCount.getCount(), commentCount)) {
+                updateCommentCount(storedCount.getPostId(), commentCount);
+                repaired++;
             }
         }
+
+        log.debug("Repaired comment counts of [{}] targets", repaired);
+    }
+
+    /**
+     * Updates the count of published comments stored on the target.
+     *
+     * @param targetId target id must not be null (post id, sheet id or journal id)
+     * @param commentCount count of published comments
+     */
+    protected abstract void updateCommentCount(@NonNull Integer targetId, long commentCount);
+
+    /**
+     * Increases the count of published comments stored on the target atomically.
+     *
+     * @param targetId target id must not be null (post id, sheet id or journal id)
+     * @param delta count to increase, negative to decrease
+     */
+    protected abstract void increaseCommentCount(@NonNull Integer targetId, long delta);
+
+    /**
+     * Lists counts of published comments stored on all targets.
+     *
+     * @return a list of comment count projection, keyed by target id
+     */
+    @NonNull
+    protected abstract List<CommentCountProjection> listCommentCounts();
+
+    /**
+     * Recounts published comments of the target and stores the count on it.
+     *
+     * @param postId post id
+     */
+    protected void refreshCommentCount(@Nullable Integer postId) {
+        if (ServiceUtils.isEmptyId(postId)) {
+            return;
+        }
+        updateCommentCount(postId,
+            baseCommentRepository.countByPostIdAndStatus(postId, CommentStatus.PUBLISHED));
+    }
+
+    /**
+     * Changes the count of published comments stored on the target by the status change of a
+     * comment. Unlike recounting, the atomic update keeps increments of concurrent transactions,
+     * which are not visible to each other before commit.
+     *
+     * @param postId post id
+     * @param oldStatus status before the change, null for created comments
+     * @param newStatus status after the change, null for removed comments
+     */
+    private void changeCommentCount(@Nullable Integer postId, @Nullable CommentStatus oldStatus,
+        @Nullable CommentStatus newStatus) {
+        long delta = (CommentStatus.PUBLISHED.equals(newStatus) ? 1 : 0)
+            - (CommentStatus.PUBLISHED.equals(oldStatus) ? 1 : 0);
+        if (delta == 0 || ServiceUtils.isEmptyId(postId)) {
+            return;
+        }
+        increaseCommentCount(postId, delta);
+    }
+
+    /**
+     * Recounts published comments of the targets and stores counts on them.
+     *
+     * @param postIds post ids
+     */
+    private void refreshCommentCounts(@Nullable Collection<Integer> postIds) {
+        if (CollectionUtils.isEmpty(postIds)) {
+            return;
+        }
+
+        Map<Integer, Long> commentCountMap =
+            countByStatusAndPostIds(CommentStatus.PUBLISHED, postIds);
+        postIds.stream()
+            .filter(postId -> !ServiceUtils.isEmptyId(postId))
+            .forEach(postId ->
+                updateCommentCount(postId, commentCountMap.getOrDefault(postId, 0L)));
+    }
+
+    /**
+     * Evicts cached comment trees of the post. Within a transaction, they are evicted after
+     * commit, otherwise a tree rebuilt before commit would keep the stale comments.
+     *
+     * @param postId post id
+     */
+    protected void evictCommentTree(@Nullable Integer postId) {
+        if (postId == null) {
+            return;
+        }
+        runAfterCommit(() -> doEvictCommentTree(postId));
+    }
+
+    /**
+     * Evicts all cached comment trees, after commit within a transaction.
+     */
+    protected void evictAllCommentTrees() {
+        runAfterCommit(commentTreeCache::invalidateAll);
+    }
+
+    private void runAfterCommit(@NonNull Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                });
+            return;
+        }
+        action.run();
+    }
+
+    private void doEvictCommentTree(@NonNull Integer postId) {
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            commentTreeCache.invalidate(buildCommentTreeCacheKey(postId, direction));
+        }
+    }
+
+    @NonNull
+    private String buildCommentTreeCacheKey(@NonNull Integer postId,
+        @NonNull Sort.Direction direction) {
+        return postId + ":" + direction;
+    }
+
+    /**
+     * Gets sort direction of comment id, which is the only property comment trees sorted by.
+     *
+     * @param sort sort info must not be null
+     * @return sort direction of comment id
+     * @see #buildCommentComparator(Sort)
+     */
+    @NonNull
+    private Sort.Direction getIdDirection(@NonNull Sort sort) {
+        Sort.Order order = sort.getOrderFor("id");
+        return order == null ? Sort.Direction.DESC : order.getDirection();
+    }
+
+    /**
+     * Immutable comment tree.
+     */
+    private static class CommentTree {
+
+        private final List<BaseCommentVO> topComments;
+
+        private final long commentCount;
+
+        private CommentTree(@NonNull List<BaseCommentVO> topComments, long commentCount) {
+            this.topComments = Collections.unmodifiableList(topComments);
+            this.commentCount = commentCount;
+        }
+
+        @NonNull
+        List<BaseCommentVO> getTopComments() {
+            return topComments;
+        }
+
+        long getCommentCount() {
+            return commentCount;
+        }
     }
 
     /**
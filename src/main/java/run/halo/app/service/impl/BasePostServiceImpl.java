@@ -10,6 +10,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -20,7 +21,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import run.halo.app.exception.AlreadyExistsException;
-import run.halo.app.exception.BadRequestException;
 import run.halo.app.exception.NotFoundException;
 import run.halo.app.exception.ServiceException;
 import run.halo.app.model.dto.post.BasePostDetailDTO;
@@ -34,6 +34,7 @@ import run.halo.app.repository.base.BasePostRepository;
 import run.halo.app.service.OptionService;
 import run.halo.app.service.base.AbstractCrudService;
 import run.halo.app.service.base.BasePostService;
+import run.halo.app.service.support.PostCounterBuffer;
 import run.halo.app.utils.DateUtils;
 import run.halo.app.utils.HaloUtils;
 import run.halo.app.utils.MarkdownUtils;
@@ -54,15 +55,21 @@ public abstract class BasePostServiceImpl<POST extends BasePost>
 
     private final OptionService optionService;
 
+    private final PostCounterBuffer postCounterBuffer;
+
     private static final Pattern summaryPattern = Pattern.compile("\t|\r|\n");
 
     private static final Pattern BLANK_PATTERN = Pattern.compile("\\s");
 
+    private static final int RENDER_BATCH_SIZE = 100;
+
     public BasePostServiceImpl(BasePostRepository<POST> basePostRepository,
-        OptionService optionService) {
+        OptionService optionService,
+        PostCounterBuffer postCounterBuffer) {
         super(basePostRepository);
         this.basePostRepository = basePostRepository;
         this.optionService = optionService;
+        this.postCounterBuffer = postCounterBuffer;
     }
 
     @Override
@@ -228,49 +235,30 @@ public abstract class BasePostServiceImpl<POST extends BasePost>
     }
 
     @Override
-    @Transactional
     public void increaseVisit(long visits, Integer postId) {
         Assert.isTrue(visits > 0, "Visits to increase must not be less than 1");
         Assert.notNull(postId, "Post id must not be null");
 
-        boolean finishedIncrease;
-        if (basePostRepository.getByIdAndStatus(postId, PostStatus.DRAFT).isPresent()) {
-            finishedIncrease = true;
-            log.info("Post with id: [{}] is a draft and visits will not be updated", postId);
-        } else {
-            finishedIncrease = basePostRepository.updateVisit(visits, postId) == 1;
-        }
-
-        if (!finishedIncrease) {
-            log.error("Post with id: [{}] may not be found", postId);
-            throw new BadRequestException(
-                "Failed to increase visits " + visits + " for post with id " + postId);
-        }
+        // Visits of drafts will be ignored while flushing
+        postCounterBuffer.increaseVisit(postId, visits);
     }
 
     @Override
-    @Transactional
     public void increaseVisit(Integer postId) {
         increaseVisit(1L, postId);
     }
 
     @Override
-    @Transactional
     public void increaseLike(long likes, Integer postId) {
         Assert.isTrue(likes > 0, "Likes to increase must not be less than 1");
         Assert.notNull(postId, "Post id must not be null");
 
-        long affectedRows = basePostRepository.updateLikes(likes, postId);
+        mustExistById(postId);
 
-        if (affectedRows != 1) {
-            log.error("Post with id: [{}] may not be found", postId);
-            throw new BadRequestException(
-                "Failed to increase likes " + likes + " for post with id " + postId);
-        }
+        postCounterBuffer.increaseLike(postId, likes);
     }
 
     @Override
-    @Transactional
     public void increaseLike(Integer postId) {
         increaseLike(1L, postId);
     }
@@ -284,19 +272,9 @@ public abstract class BasePostServiceImpl<POST extends BasePost>
     public POST createOrUpdateBy(POST post) {
         Assert.notNull(post, "Post must not be null");
 
-        String originalContent = post.getOriginalContent();
-
         // CS304 issue link : https://github.com/halo-dev/halo/issues/1224
-        // Render content and set word count
-        if (post.getEditorType().equals(PostEditorType.MARKDOWN)) {
-            post.setFormatContent(MarkdownUtils.renderHtml(post.getOriginalContent()));
-
-            post.setWordCount(htmlFormatWordCount(post.getFormatContent()));
-        } else {
-            post.setFormatContent(originalContent);
-
-            post.setWordCount(htmlFormatWordCount(originalContent));
-        }
+        // Render content, set word count and generated summary
+        renderContent(post);
 
         // Create or update post
         if (ServiceUtils.isEmptyId(post.getId())) {
@@ -358,9 +336,7 @@ public abstract class BasePostServiceImpl<POST extends BasePost>
         BasePostSimpleDTO basePostSimpleDTO = new BasePostSimpleDTO().convertFrom(post);
 
         // Set summary
-        if (StringUtils.isBlank(basePostSimpleDTO.getSummary())) {
-            basePostSimpleDTO.setSummary(generateSummary(post.getFormatContent()));
-        }
+        basePostSimpleDTO.setSummary(summaryOf(post));
 
         return basePostSimpleDTO;
     }
@@ -412,7 +388,7 @@ public abstract class BasePostServiceImpl<POST extends BasePost>
             post.setOriginalContent(content);
         }
 
-        return post;
+        return renderContentIfNecessary(post);
     }
 
     @Override
@@ -437,21 +413,91 @@ public abstract class BasePostServiceImpl<POST extends BasePost>
 
         // Sync content
         if (PostStatus.PUBLISHED.equals(status)) {
-            // If publish this post, then convert the formatted content
-            String formatContent = MarkdownUtils.renderHtml(post.getOriginalContent());
-            int updatedRows = basePostRepository.updateFormatContent(formatContent, postId);
+            // If publish this post, then make sure the formatted content is up to date
+            renderContentIfNecessary(post);
+        }
 
-            if (updatedRows != 1) {
-                throw new ServiceException(
-                    "Failed to update post format content of post with id " + postId);
-            }
+        return post;
+    }
 
-            post.setFormatContent(formatContent);
+    @Override
+    @Transactional
+    public POST renderContentIfNecessary(POST post) {
+        Assert.notNull(post, "Post must not be null");
+
+        if (StringUtils.equals(post.getContentDigest(), contentDigestOf(post))) {
+            return post;
+        }
+
+        log.debug("Re-rendering format content of post: [{}]", post.getId());
+
+        renderContent(post);
+
+        int updatedRows = basePostRepository.updateFormatContent(post.getFormatContent(),
+            post.getContentDigest(), post.getWordCount(), post.getGeneratedSummary(),
+            post.getId());
+        if (updatedRows != 1) {
+            throw new ServiceException(
+                "Failed to update post format content of post with id " + post.getId());
         }
 
         return post;
     }
 
+    @Override
+    public long renderAllContent() {
+        long renderedCount = 0;
+
+        Pageable pageable = PageRequest.of(0, RENDER_BATCH_SIZE, Sort.by(ASC, "id"));
+        Page<POST> postPage;
+        do {
+            postPage = listAll(pageable);
+            for (POST post : postPage.getContent()) {
+                renderContent(post);
+                // Write the columns directly, so that update time of the post is kept
+                basePostRepository.updateFormatContent(post.getFormatContent(),
+                    post.getContentDigest(), post.getWordCount(), post.getGeneratedSummary(),
+                    post.getId());
+                renderedCount++;
+            }
+            pageable = pageable.next();
+        } while (postPage.hasNext());
+
+        log.info("Re-rendered format content of [{}] posts", renderedCount);
+
+        return renderedCount;
+    }
+
+    @Override
+    public long refreshSummaries(boolean onlyMissing) {
+        if (onlyMissing && !basePostRepository.existsByGeneratedSummaryIsNull()) {
+            return 0;
+        }
+
+        long refreshedCount = 0;
+
+        Pageable pageable = PageRequest.of(0, RENDER_BATCH_SIZE, Sort.by(ASC, "id"));
+        Page<POST> postPage;
+        do {
+            postPage = listAll(pageable);
+            for (POST post : postPage.getContent()) {
+                if (onlyMissing && post.getGeneratedSummary() != null) {
+                    continue;
+                }
+                // Write the columns directly, so that update time of the post is kept
+                String formatContent = StringUtils.defaultString(post.getFormatContent());
+                basePostRepository.updateGeneratedSummary(htmlFormatWordCount(formatContent),
+                    generateSummary(formatContent), post.getId());
+                refreshedCount++;
+            }
+            pageable = pageable.next();
+        } while (postPage.hasNext());
+
+        log.info("Refreshed generated summary and word count of [{}] posts", refreshedCount);
+
+        return refreshedCount;
+    }
+
     @Override
     @Transactional
     public List<POST> updateStatusByIds(List<Integer> ids, PostStatus status) {
@@ -519,6 +565,66 @@ public abstract class BasePostServiceImpl<POST extends BasePost>
         }
     }
 
+    /**
+     * Renders format content from original content of the post and refreshes its content digest.
+     *
+     * @param post post must not be null
+     */
+    protected void renderContent(@NonNull POST post) {
+        Assert.notNull(post, "Post must not be null");
+
+        if (PostEditorType.MARKDOWN.equals(post.getEditorType())) {
+            post.setFormatContent(MarkdownUtils.renderHtml(post.getOriginalContent()));
+        } else {
+            post.setFormatContent(StringUtils.defaultString(post.getOriginalContent()));
+        }
+
+        post.setContentDigest(contentDigestOf(post));
+
+        computeFromFormatContent(post);
+    }
+
+    /**
+     * Computes word count and generated summary from format content of the post, so that
+     * listing posts never needs format content.
+     *
+     * @param post post must not be null
+     */
+    private void computeFromFormatContent(@NonNull POST post) {
+        String formatContent = StringUtils.defaultString(post.getFormatContent());
+        post.setWordCount(htmlFormatWordCount(formatContent));
+        post.setGeneratedSummary(generateSummary(formatContent));
+    }
+
+    /**
+     * Gets summary of the post, which is the generated one if not specified.
+     *
+     * @param post post must not be null
+     * @return summary of the post
+     */
+    @NonNull
+    protected String summaryOf(@NonNull BasePost post) {
+        if (StringUtils.isNotBlank(post.getSummary())) {
+            return post.getSummary();
+        }
+        if (post.getGeneratedSummary() != null) {
+            return post.getGeneratedSummary();
+        }
+        return post.getFormatContent() == null ? "" : generateSummary(post.getFormatContent());
+    }
+
+    /**
+     * Computes the digest of original content, editor type and renderer version of the post.
+     *
+     * @param post post must not be null
+     * @return content digest
+     */
+    @NonNull
+    private String contentDigestOf(@NonNull POST post) {
+        return DigestUtils.md5Hex(MarkdownUtils.RENDERER_VERSION + ":" + post.getEditorType()
+            + ":" + StringUtils.defaultString(post.getOriginalContent()));
+    }
+
     @NonNull
     protected String generateSummary(@NonNull String htmlContent) {
         Assert.notNull(htmlContent, "html content must not be null");
@@ -1,7 +1,5 @@
 package run.halo.app.service.impl;
 
-import static run.halo.app.model.support.HaloConst.URL_SEPARATOR;
-
 import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.util.StrUtil;
 import com.google.common.base.Objects;
@@ -10,12 +8,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +22,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import run.halo.app.event.category.CategoryUpdatedEvent;
 import run.halo.app.exception.AlreadyExistsException;
 import run.halo.app.exception.NotFoundException;
 import run.halo.app.exception.UnsupportedException;
@@ -38,10 +36,11 @@ import run.halo.app.repository.CategoryRepository;
 import run.halo.app.service.AuthenticationService;
 import run.halo.app.service.AuthorizationService;
 import run.halo.app.service.CategoryService;
-import run.halo.app.service.OptionService;
 import run.halo.app.service.PostCategoryService;
 import run.halo.app.service.PostService;
 import run.halo.app.service.base.AbstractCrudService;
+import run.halo.app.service.support.CategoryTreeSnapshotHolder;
+import run.halo.app.service.support.PermalinkRouter;
 import run.halo.app.utils.BeanUtils;
 import run.halo.app.utils.ServiceUtils;
 
@@ -61,7 +60,7 @@ public class CategoryServiceImpl extends AbstractCrudService<Category, Integer>
 
     private final PostCategoryService postCategoryService;
 
-    private final OptionService optionService;
+    private final PermalinkRouter permalinkRouter;
 
     private final AuthorizationService authorizationService;
 
@@ -69,17 +68,25 @@ public class CategoryServiceImpl extends AbstractCrudService<Category, Integer>
 
     private final AuthenticationService authenticationService;
 
+    private final CategoryTreeSnapshotHolder categoryTreeSnapshotHolder;
+
+    private final ApplicationEventPublisher eventPublisher;
+
     public CategoryServiceImpl(CategoryRepository categoryRepository,
         PostCategoryService postCategoryService,
-        OptionService optionService,
+        PermalinkRouter permalinkRouter,
         AuthenticationService authenticationService,
-        AuthorizationService authorizationService) {
+        AuthorizationService authorizationService,
+        CategoryTreeSnapshotHolder categoryTreeSnapshotHolder,
+        ApplicationEventPublisher eventPublisher) {
         super(categoryRepository);
         this.categoryRepository = categoryRepository;
         this.postCategoryService = postCategoryService;
-        this.optionService = optionService;
+        this.permalinkRouter = permalinkRouter;
         this.authenticationService = authenticationService;
         this.authorizationService = authorizationService;
+        this.categoryTreeSnapshotHolder = categoryTreeSnapshotHolder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Lazy
@@ -118,7 +125,40 @@ public class CategoryServiceImpl extends AbstractCrudService<Category, Integer>
         }
 
         // Create it
-        return super.create(category);
+        Category createdCategory = super.create(category);
+        eventPublisher.publishEvent(new CategoryUpdatedEvent(this));
+        return createdCategory;
+    }
+
+    @Override
+    public List<Category> createInBatch(Collection<Category> categories) {
+        List<Category> createdCategories = super.createInBatch(categories);
+        eventPublisher.publishEvent(new CategoryUpdatedEvent(this));
+        return createdCategories;
+    }
+
+    @Override
+    public void remove(Category category) {
+        super.remove(category);
+        eventPublisher.publishEvent(new CategoryUpdatedEvent(this));
+    }
+
+    @Override
+    public void removeInBatch(Collection<Integer> ids) {
+        super.removeInBatch(ids);
+        eventPublisher.publishEvent(new CategoryUpdatedEvent(this));
+    }
+
+    @Override
+    public void removeAll(Collection<Category> categories) {
+        super.removeAll(categories);
+        eventPublisher.publishEvent(new CategoryUpdatedEvent(this));
+    }
+
+    @Override
+    public void removeAll() {
+        super.removeAll();
+        eventPublisher.publishEvent(new CategoryUpdatedEvent(this));
     }
 
     @Override
@@ -172,19 +212,7 @@ public class CategoryServiceImpl extends AbstractCrudService<Category, Integer>
                 parentCategory.setChildren(new LinkedList<>());
             }
 
-            StringBuilder fullPath = new StringBuilder();
-
-            if (optionService.isEnabledAbsolutePath()) {
-                fullPath.append(optionService.getBlogBaseUrl());
-            }
-
-            fullPath.append(URL_SEPARATOR)
-                .append(optionService.getCategoriesPrefix())
-                .append(URL_SEPARATOR)
-                .append(child.getSlug())
-                .append(optionService.getPathSuffix());
-
-            child.setFullPath(fullPath.toString());
+            child.setFullPath(permalinkRouter.buildCategoryFullPath(child.getSlug()));
 
             if (!fillPassword) {
                 child.setPassword(null);
@@ -338,19 +366,7 @@ public class CategoryServiceImpl extends AbstractCrudService<Category, Integer>
 
         CategoryDTO categoryDTO = new CategoryDTO().convertFrom(category);
 
-        StringBuilder fullPath = new StringBuilder();
-
-        if (optionService.isEnabledAbsolutePath()) {
-            fullPath.append(optionService.getBlogBaseUrl());
-        }
-
-        fullPath.append(URL_SEPARATOR)
-            .append(optionService.getCategoriesPrefix())
-            .append(URL_SEPARATOR)
-            .append(category.getSlug())
-            .append(optionService.getPathSuffix());
-
-        categoryDTO.setFullPath(fullPath.toString());
+        categoryDTO.setFullPath(permalinkRouter.buildCategoryFullPath(category.getSlug()));
 
         return categoryDTO;
     }
@@ -531,6 +547,7 @@ public class CategoryServiceImpl extends AbstractCrudService<Category, Integer>
     @Transactional
     public Category update(Category category) {
         Category update = super.update(category);
+        eventPublisher.publishEvent(new CategoryUpdatedEvent(this));
 
         if (StrUtil.isNotBlank(category.getPassword())) {
             doEncryptPost(category);
@@ -584,19 +601,14 @@ public class CategoryServiceImpl extends AbstractCrudService<Category, Integer>
 
     private void doDecryptPost(Category category) {
 
-        List<Category> allCategoryList = super.listAll();
-
-        Map<Integer, Category> idToCategoryMap = allCategoryList.stream().collect(
-            Collectors.toMap(Category::getId, Function.identity()));
-
-        if (doCategoryHasEncrypt(idToCategoryMap, category.getParentId())) {
+        if (categoryHasEncrypt(category.getParentId())) {
             // If the parent category is encrypted, there is no need to update the encryption status
             return;
         }
 
         CategoryVO topLevelCategory = createTopLevelCategory();
 
-        concreteTree(topLevelCategory, allCategoryList, true);
+        concreteTree(topLevelCategory, super.listAll(), true);
 
         List<Category> collectorList = new ArrayList<>();
 
@@ -628,38 +640,9 @@ public class CategoryServiceImpl extends AbstractCrudService<Category, Integer>
 
     @Override
     public Boolean categoryHasEncrypt(Integer categoryId) {
-        List<Category> allCategoryList = super.listAll();
-
-        Map<Integer, Category> idToCategoryMap = allCategoryList.stream().collect(
-            Collectors.toMap(Category::getId, Function.identity()));
-
-        return doCategoryHasEncrypt(idToCategoryMap, categoryId);
-    }
-
-    /**
-     * Find whether the parent category is encrypted.
-     *
-     * @param idToCategoryMap find category by id
-     * @param categoryId category id
-     * @return whether to encrypt
-     */
-    private boolean doCategoryHasEncrypt(
-        Map<Integer, Category> idToCategoryMap, Integer categoryId) {
-
-        if (categoryId == 0) {
-            return false;
-        }
-
-        Category category = idToCategoryMap.get(categoryId);
-
-        if (StrUtil.isNotBlank(category.getPassword())) {
-            return true;
-        }
-
-        return doCategoryHasEncrypt(idToCategoryMap, category.getParentId());
+        return categoryTreeSnapshotHolder.get().isEncrypted(categoryId);
     }
 
-
     @Override
     public List<Category> updateInBatch(Collection<Category> categories) {
         if (CollectionUtils.isEmpty(categories)) {
@@ -0,0 +1,42 @@
+package run.halo.app.service.impl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import run.halo.app.model.entity.Post;
+import run.halo.app.service.PostSearchService;
+import run.halo.app.service.PostService;
+
+/**
+ * Post search service implementation which searches by like queries against database.
+ */
+@Service
+@ConditionalOnProperty(prefix = "halo", name = "search", havingValue = "database")
+public class DatabasePostSearchServiceImpl implements PostSearchService {
+
+    private final PostService postService;
+
+    public DatabasePostSearchServiceImpl(PostService postService) {
+        this.postService = postService;
+    }
+
+    @Override
+    public Page<Post> search(String keyword, Pageable pageable) {
+        Assert.notNull(keyword, "Keyword must not be null");
+        Assert.notNull(pageable, "Page info must not be null");
+
+        return postService.pageBy(keyword, pageable);
+    }
+
+    @Override
+    public void refreshIndex(Integer postId) {
+        // Nothing to do, database is the index
+    }
+
+    @Override
+    public void rebuildIndex() {
+        // Nothing to do, database is the index
+    }
+}
@@ -0,0 +1,441 @@
+package run.halo.app.service.impl;
+
+import static org.springframework.data.domain.Sort.Direction.DESC;
+
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.RegExUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.view.freemarker.FreeMarkerConfigurer;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.exception.NotFoundException;
+import run.halo.app.exception.ServiceException;
+import run.halo.app.model.dto.CategoryDTO;
+import run.halo.app.model.dto.post.BasePostMinimalDTO;
+import run.halo.app.model.entity.Category;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.vo.PostDetailVO;
+import run.halo.app.service.CategoryService;
+import run.halo.app.service.FeedService;
+import run.halo.app.service.OptionService;
+import run.halo.app.service.PostCategoryService;
+import run.halo.app.service.PostService;
+import run.halo.app.service.SheetService;
+import run.halo.app.service.TagService;
+import run.halo.app.utils.FileUtils;
+import run.halo.app.utils.ServiceUtils;
+
+/**
+ * FeedService implementation.
+ *
+ * <p>Documents are grouped by what they list: feeds of all posts, feeds of every category and
+ * sitemaps, and documents of a group are invalidated together. Documents of every generation of
+ * a group are kept in their own folder, so that invalidating never deletes a document being
+ * served. Folders older than the previous generation are deleted on invalidation.
+ */
+@Slf4j
+@Service
+public class FeedServiceImpl implements FeedService {
+
+    private static final String FEEDS_FOLDER = "feeds";
+
+    private static final String XML_INVALID_CHAR = "[\\x00-\\x1F\\x7F]";
+
+    private static final String POSTS_GROUP = "posts";
+
+    private static final String CATEGORY_GROUP_PREFIX = "categories/";
+
+    private static final String SITEMAPS_GROUP = "sitemaps";
+
+    private final PostService postService;
+
+    private final CategoryService categoryService;
+
+    private final PostCategoryService postCategoryService;
+
+    private final TagService tagService;
+
+    private final SheetService sheetService;
+
+    private final OptionService optionService;
+
+    private final FreeMarkerConfigurer freeMarker;
+
+    private final Path feedsDir;
+
+    /**
+     * Current generations of document groups, guarded by this.
+     */
+    private final Map<String, Long> generations = new HashMap<>();
+
+    /**
+     * Ids of posts listed by feeds of current generations, group as key. Guarded by this.
+     */
+    private final Map<String, Set<Integer>> listedPostIds = new HashMap<>();
+
+    /**
+     * Count of urls while rendering sitemaps of the current generation, -1 if none has been
+     * rendered. Guarded by this.
+     */
+    private long sitemapUrlCount = -1;
+
+    /**
+     * Last generation assigned to a group, guarded by this.
+     */
+    private long lastGeneration;
+
+    public FeedServiceImpl(PostService postService,
+        CategoryService categoryService,
+        PostCategoryService postCategoryService,
+        TagService tagService,
+        SheetService sheetService,
+        OptionService optionService,
+        FreeMarkerConfigurer freeMarker,
+        HaloProperties haloProperties) {
+        this.postService = postService;
+        this.categoryService = categoryService;
+        this.postCategoryService = postCategoryService;
+        this.tagService = tagService;
+        this.sheetService = sheetService;
+        this.optionService = optionService;
+        this.freeMarker = freeMarker;
+        this.feedsDir = Paths.get(haloProperties.getWorkDir(), FEEDS_FOLDER);
+
+        // Documents of last run may be stale
+        FileUtils.deleteFolderQuietly(feedsDir);
+    }
+
+    @Override
+    public Path getRssFeed(Category category) {
+        String group = getFeedGroup(category);
+        return getDocument(group, "rss.xml",
+            () -> renderFeed(group, "common/web/rss.ftl", category));
+    }
+
+    @Override
+    public Path getAtomFeed(Category category) {
+        String group = getFeedGroup(category);
+        return getDocument(group, "atom.xml",
+            () -> renderFeed(group, "common/web/atom.ftl", category));
+    }
+
+    @Override
+    public Path getSitemapXml() {
+        return getDocument(SITEMAPS_GROUP, "sitemap.xml", () -> {
+            int postSitemapCount = countPostSitemaps();
+            if (postSitemapCount == 0) {
+                return renderSitemap(postService.pageBy(PostStatus.PUBLISHED,
+                    buildSitemapPageable(Integer.MAX_VALUE, 0)).getContent(), true);
+            }
+
+            // Sitemap of pages is followed by sitemaps of posts
+            Map<String, Object> model = new HashMap<>();
+            model.put("sitemaps", IntStream.rangeClosed(1, postSitemapCount + 1)
+                .boxed()
+                .collect(Collectors.toList()));
+            model.put("lastModified", new Timestamp(System.currentTimeMillis()));
+            return render("common/web/sitemap_index_xml.ftl", model);
+        });
+    }
+
+    @Override
+    public Path getSitemapXml(int index) {
+        return getDocument(SITEMAPS_GROUP, "sitemap-" + index + ".xml", () -> {
+            int postSitemapCount = countPostSitemaps();
+            if (index < 1 || index > postSitemapCount + 1) {
+                throw new NotFoundException("查询不到该站点地图");
+            }
+
+            if (index == 1) {
+                return renderSitemap(List.of(), true);
+            }
+            return renderSitemap(postService.pageBy(PostStatus.PUBLISHED,
+                buildSitemapPageable(MAX_SITEMAP_URLS, index - 2)).getContent(), false);
+        });
+    }
+
+    @Override
+    public Path getSitemapHtml() {
+        return getDocument(SITEMAPS_GROUP, "sitemap.html", () -> {
+            sitemapUrlCount = countSitemapUrls();
+
+            Map<String, Object> model = new HashMap<>();
+            model.put("posts", postService.convertToMinimal(postService
+                .pageBy(PostStatus.PUBLISHED, buildSitemapPageable(Integer.MAX_VALUE, 0))
+                .getContent()));
+            model.put("sheets", listPublishedSheets());
+            return render("common/web/sitemap_html.ftl", model);
+        });
+    }
+
+    @Override
+    public synchronized void invalidate() {
+        new ArrayList<>(generations.keySet()).forEach(this::invalidateGroup);
+    }
+
+    @Override
+    public void invalidatePost(Integer postId) {
+        Assert.notNull(postId, "Post id must not be null");
+
+        Set<String> groups = new HashSet<>();
+        Optional<Post> post = postService.fetchById(postId);
+        if (post.isPresent() && PostStatus.PUBLISHED.equals(post.get().getStatus())) {
+            groups.add(POSTS_GROUP);
+            groups.add(SITEMAPS_GROUP);
+            postCategoryService.listCategoryIdsByPostId(postId)
+                .forEach(categoryId -> groups.add(CATEGORY_GROUP_PREFIX + categoryId));
+        }
+
+        synchronized (this) {
+            // Feeds which listed the post before it was unpublished or deleted
+            listedPostIds.forEach((group, postIds) -> {
+                if (postIds.contains(postId)) {
+                    groups.add(group);
+                }
+            });
+            if (!groups.contains(SITEMAPS_GROUP) && isSitemapUrlCountChanged()) {
+                groups.add(SITEMAPS_GROUP);
+            }
+            groups.forEach(this::invalidateGroup);
+        }
+    }
+
+    @Override
+    public void invalidateSheet(Integer sheetId) {
+        Assert.notNull(sheetId, "Sheet id must not be null");
+
+        boolean published = sheetService.fetchById(sheetId)
+            .map(sheet -> PostStatus.PUBLISHED.equals(sheet.getStatus()))
+            .orElse(false);
+
+        synchronized (this) {
+            if (published || isSitemapUrlCountChanged()) {
+                invalidateGroup(SITEMAPS_GROUP);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void invalidateCategories() {
+        generations.keySet().stream()
+            .filter(group -> group.startsWith(CATEGORY_GROUP_PREFIX))
+            .collect(Collectors.toList())
+            .forEach(this::invalidateGroup);
+        invalidateGroup(SITEMAPS_GROUP);
+    }
+
+    @Override
+    public synchronized void invalidateSitemaps() {
+        invalidateGroup(SITEMAPS_GROUP);
+    }
+
+    @Override
+    public void generate() {
+        getRssFeed(null);
+        getAtomFeed(null);
+        getSitemapXml();
+    }
+
+    /**
+     * Gets a document of the current generation of the group, rendering it if absent. The
+     * generation is read under the same lock as invalidating, so its folder is never deleted
+     * while being resolved.
+     */
+    @NonNull
+    private synchronized Path getDocument(@NonNull String group, @NonNull String name,
+        @NonNull Supplier<String> renderer) {
+        long generation = generations.computeIfAbsent(group, key -> 0L);
+        Path document = feedsDir.resolve(group).resolve(String.valueOf(generation)).resolve(name);
+        if (Files.notExists(document)) {
+            write(document, renderer.get());
+            log.debug("Generated feed document: [{}]", document);
+        }
+        return document;
+    }
+
+    /**
+     * Invalidates documents of the group, must be called while holding the lock.
+     */
+    private void invalidateGroup(@NonNull String group) {
+        long previous = generations.getOrDefault(group, 0L);
+        generations.put(group, ++lastGeneration);
+        listedPostIds.remove(group);
+        if (SITEMAPS_GROUP.equals(group)) {
+            sitemapUrlCount = -1;
+        }
+
+        // Documents of the previous generation may still be served
+        try (Stream<Path> folders = Files.list(feedsDir.resolve(group))) {
+            folders.filter(folder -> !isGeneration(folder, previous))
+                .forEach(FileUtils::deleteFolderQuietly);
+        } catch (IOException e) {
+            log.debug("No feed documents of [{}] to delete", group, e);
+        }
+    }
+
+    private void write(@NonNull Path document, @NonNull String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        try {
+            Files.createDirectories(document.getParent());
+
+            // Write gzip variant first since the document marks both are ready
+            Path gzipTemp = Files.createTempFile(document.getParent(), null, null);
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipTemp))) {
+                out.write(bytes);
+            }
+            Files.move(gzipTemp, document.resolveSibling(document.getFileName() + GZIP_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Path temp = Files.createTempFile(document.getParent(), null, null);
+            Files.write(temp, bytes);
+            Files.move(temp, document,
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ServiceException("生成订阅文件失败", e);
+        }
+    }
+
+    @NonNull
+    private String renderFeed(@NonNull String group, @NonNull String templateName,
+        @Nullable Category category) {
+        Pageable pageable =
+            PageRequest.of(0, optionService.getRssPageSize(), Sort.by(DESC, "createTime"));
+
+        Map<String, Object> model = new HashMap<>();
+        Page<Post> postPage;
+        if (category == null) {
+            postPage = postService.pageBy(PostStatus.PUBLISHED, pageable);
+        } else {
+            CategoryDTO categoryDTO = categoryService.convertTo(category);
+            model.put("category", categoryDTO);
+            postPage =
+                postCategoryService.pagePostBy(category.getId(), PostStatus.PUBLISHED, pageable);
+        }
+
+        listedPostIds.computeIfAbsent(group, key -> new HashSet<>())
+            .addAll(ServiceUtils.fetchProperty(postPage.getContent(), Post::getId));
+
+        List<PostDetailVO> posts = postService.convertToDetailVo(postPage).getContent();
+        posts.forEach(postDetailVO -> {
+            postDetailVO.setFormatContent(
+                RegExUtils.replaceAll(postDetailVO.getFormatContent(), XML_INVALID_CHAR, ""));
+            postDetailVO
+                .setSummary(RegExUtils.replaceAll(postDetailVO.getSummary(), XML_INVALID_CHAR, ""));
+        });
+        model.put("posts", posts);
+        model.put("lastModified", getLastModifiedTime(posts));
+        return render(templateName, model);
+    }
+
+    @NonNull
+    private String renderSitemap(@NonNull List<Post> posts, boolean includePages) {
+        List<BasePostMinimalDTO> postMinimals = postService.convertToMinimal(posts);
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("posts", postMinimals);
+        model.put("includePages", includePages);
+        if (includePages) {
+            model.put("sheets", listPublishedSheets());
+        }
+        return render("common/web/sitemap_xml.ftl", model);
+    }
+
+    @NonNull
+    private String render(@NonNull String templateName, @NonNull Map<String, Object> model) {
+        try {
+            Template template = freeMarker.getConfiguration().getTemplate(templateName);
+            return FreeMarkerTemplateUtils.processTemplateIntoString(template, model);
+        } catch (IOException | TemplateException e) {
+            throw new ServiceException("渲染模板 " + templateName + " 失败", e);
+        }
+    }
+
+    @NonNull
+    private List<BasePostMinimalDTO> listPublishedSheets() {
+        return sheetService.convertToMinimal(sheetService.listAllBy(PostStatus.PUBLISHED));
+    }
+
+    /**
+     * Counts sitemaps of posts, and records the count of urls for the current generation.
+     *
+     * @return count of sitemaps of posts, 0 if all urls fit in a single sitemap
+     */
+    private int countPostSitemaps() {
+        sitemapUrlCount = countSitemapUrls();
+        if (sitemapUrlCount <= MAX_SITEMAP_URLS) {
+            return 0;
+        }
+        long postCount = postService.countByStatus(PostStatus.PUBLISHED);
+        return (int) ((postCount + MAX_SITEMAP_URLS - 1) / MAX_SITEMAP_URLS);
+    }
+
+    private long countSitemapUrls() {
+        return 1 + postService.countByStatus(PostStatus.PUBLISHED)
+            + sheetService.countByStatus(PostStatus.PUBLISHED)
+            + categoryService.count() + tagService.count();
+    }
+
+    /**
+     * Checks whether the count of urls changed since sitemaps were rendered, which tells that
+     * a post or sheet listed by them has been unpublished or deleted. Must be called while
+     * holding the lock.
+     */
+    private boolean isSitemapUrlCountChanged() {
+        return sitemapUrlCount >= 0 && countSitemapUrls() != sitemapUrlCount;
+    }
+
+    @NonNull
+    private String getFeedGroup(@Nullable Category category) {
+        return category == null ? POSTS_GROUP : CATEGORY_GROUP_PREFIX + category.getId();
+    }
+
+    @NonNull
+    private Pageable buildSitemapPageable(int size, int page) {
+        return PageRequest.of(page, size, Sort.by(DESC, "createTime"));
+    }
+
+    @NonNull
+    private Timestamp getLastModifiedTime(@NonNull List<PostDetailVO> posts) {
+        OptionalLong lastModifiedTimestamp =
+            posts.stream().mapToLong(post -> post.getEditTime().getTime()).max();
+        if (lastModifiedTimestamp.isEmpty()) {
+            return new Timestamp(System.currentTimeMillis());
+        }
+        return new Timestamp(lastModifiedTimestamp.getAsLong());
+    }
+
+    private boolean isGeneration(@NonNull Path folder, long generation) {
+        return folder.getFileName().toString().equals(String.valueOf(generation));
+    }
+}
@@ -16,6 +16,7 @@ import run.halo.app.exception.NotFoundException;
 import run.halo.app.model.dto.JournalDTO;
 import run.halo.app.model.entity.Journal;
 import run.halo.app.model.entity.JournalComment;
+import run.halo.app.model.projection.CommentCountProjection;
 import run.halo.app.model.vo.JournalCommentWithJournalVO;
 import run.halo.app.repository.JournalCommentRepository;
 import run.halo.app.repository.JournalRepository;
@@ -51,6 +52,22 @@ public class JournalCommentServiceImpl extends BaseCommentServiceImpl<JournalCom
         }
     }
 
+    @Override
+    protected void updateCommentCount(@NonNull Integer journalId, long commentCount) {
+        journalRepository.updateCommentCount(commentCount, journalId);
+    }
+
+    @Override
+    protected void increaseCommentCount(@NonNull Integer journalId, long delta) {
+        journalRepository.increaseCommentCount(delta, journalId);
+    }
+
+    @Override
+    @NonNull
+    protected List<CommentCountProjection> listCommentCounts() {
+        return journalRepository.findAllCommentCounts();
+    }
+
     @Override
     @NonNull
     public List<JournalCommentWithJournalVO> convertToWithJournalVo(
@@ -3,7 +3,7 @@ package run.halo.app.service.impl;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.persistence.criteria.Predicate;
@@ -23,7 +23,6 @@ import run.halo.app.model.dto.JournalDTO;
 import run.halo.app.model.dto.JournalWithCmtCountDTO;
 import run.halo.app.model.entity.Journal;
 import run.halo.app.model.entity.JournalComment;
-import run.halo.app.model.enums.CommentStatus;
 import run.halo.app.model.enums.JournalType;
 import run.halo.app.model.params.JournalParam;
 import run.halo.app.model.params.JournalQuery;
@@ -119,20 +118,13 @@ public class JournalServiceImpl extends AbstractCrudService<Journal, Integer>
             return Collections.emptyList();
         }
 
-        // Get journal ids
-        Set<Integer> journalIds = ServiceUtils.fetchProperty(journals, Journal::getId);
-
-        // Get comment count map
-        Map<Integer, Long> journalCommentCountMap =
-            journalCommentService.countByStatusAndPostIds(CommentStatus.PUBLISHED, journalIds);
-
         return journals.stream()
             .map(journal -> {
                 JournalWithCmtCountDTO journalWithCmtCountDTO =
                     new JournalWithCmtCountDTO().convertFrom(journal);
-                // Set comment count
+                // Set comment count maintained by journal comment service
                 journalWithCmtCountDTO
-                    .setCommentCount(journalCommentCountMap.getOrDefault(journal.getId(), 0L));
+                    .setCommentCount(Objects.requireNonNullElse(journal.getCommentCount(), 0L));
                 return journalWithCmtCountDTO;
             })
             .collect(Collectors.toList());
@@ -0,0 +1,344 @@
+package run.halo.app.service.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.search.highlight.SimpleSpanFragmenter;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.service.PostSearchService;
+import run.halo.app.service.PostService;
+import run.halo.app.utils.BeanUtils;
+import run.halo.app.utils.HaloUtils;
+import run.halo.app.utils.ServiceUtils;
+
+/**
+ * Post search service implementation backed by an embedded lucene index.
+ *
+ * <p>Posts are indexed with their status, and only published ones are matched while searching,
+ * so that pages and totals come from the index alone. Title and plain text of rendered content
+ * are tokenized by {@link CJKAnalyzer}, which splits CJK text into bigrams and handles latin
+ * words as usual. The index is stored under {@code ${halo.work-dir}/search/posts}, and searching
+ * falls back to like queries against database whenever the index is unavailable.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "halo", name = "search", havingValue = "lucene",
+    matchIfMissing = true)
+public class LucenePostSearchServiceImpl implements PostSearchService {
+
+    private static final String ID_FIELD = "id";
+
+    private static final String STATUS_FIELD = "status";
+
+    private static final String TITLE_FIELD = "title";
+
+    private static final String CONTENT_FIELD = "content";
+
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(TITLE_FIELD, 2F,
+        CONTENT_FIELD, 1F);
+
+    /**
+     * Max length of highlighted fragment.
+     */
+    private static final int FRAGMENT_SIZE = 150;
+
+    private static final int REBUILD_BATCH_SIZE = 100;
+
+    private final PostService postService;
+
+    private final HaloProperties haloProperties;
+
+    private final Analyzer analyzer = new CJKAnalyzer();
+
+    private Directory directory;
+
+    private IndexWriter indexWriter;
+
+    private volatile SearcherManager searcherManager;
+
+    public LucenePostSearchServiceImpl(PostService postService,
+        HaloProperties haloProperties) {
+        this.postService = postService;
+        this.haloProperties = haloProperties;
+    }
+
+    @PostConstruct
+    public void init() {
+        Path indexPath = Paths.get(haloProperties.getWorkDir(), "search", "posts");
+        try {
+            Files.createDirectories(indexPath);
+            directory = FSDirectory.open(indexPath);
+            indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            searcherManager = new SearcherManager(indexWriter, null);
+            log.debug("Opened post search index at: [{}]", indexPath);
+        } catch (IOException e) {
+            log.error("Failed to open post search index at: [" + indexPath
+                + "], searching will fall back to database", e);
+            close();
+        }
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        close();
+    }
+
+    @Override
+    public Page<Post> search(String keyword, Pageable pageable) {
+        Assert.notNull(keyword, "Keyword must not be null");
+        Assert.notNull(pageable, "Page info must not be null");
+
+        SearcherManager manager = searcherManager;
+        if (manager == null || StringUtils.isBlank(keyword)) {
+            return postService.pageBy(keyword, pageable);
+        }
+
+        try {
+            return doSearch(manager, keyword.trim(), pageable);
+        } catch (IOException | ParseException | AlreadyClosedException e) {
+            log.warn("Failed to search posts by keyword: [" + keyword
+                + "] from index, fall back to database", e);
+            return postService.pageBy(keyword, pageable);
+        }
+    }
+
+    @Override
+    public synchronized void refreshIndex(Integer postId) {
+        Assert.notNull(postId, "Post id must not be null");
+
+        if (!isAvailable()) {
+            return;
+        }
+
+        try {
+            Post post = postService.fetchById(postId).orElse(null);
+            if (post == null) {
+                indexWriter.deleteDocuments(new Term(ID_FIELD, postId.toString()));
+            } else {
+                indexWriter.updateDocument(new Term(ID_FIELD, postId.toString()),
+                    toDocument(post));
+            }
+            indexWriter.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("Failed to refresh index of post: [" + postId + "]", e);
+        }
+    }
+
+    @Override
+    public synchronized void rebuildIndex() {
+        if (!isAvailable()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            indexWriter.deleteAll();
+
+            Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+            long count = 0;
+            Page<Post> postPage;
+            do {
+                postPage = postService.listAll(pageable);
+                for (Post post : postPage) {
+                    indexWriter.addDocument(toDocument(post));
+                }
+                count += postPage.getNumberOfElements();
+                pageable = pageable.next();
+            } while (postPage.hasNext());
+
+            indexWriter.commit();
+            searcherManager.maybeRefresh();
+            log.info("Rebuilt post search index with [{}] posts in [{}] ms", count,
+                System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            log.error("Failed to rebuild post search index", e);
+            try {
+                indexWriter.rollback();
+            } catch (IOException rollbackException) {
+                log.error("Failed to roll back post search index", rollbackException);
+            }
+            // The writer is closed by rollback
+            close();
+        }
+    }
+
+    @NonNull
+    private Page<Post> doSearch(@NonNull SearcherManager manager, @NonNull String keyword,
+        @NonNull Pageable pageable) throws IOException, ParseException {
+        MultiFieldQueryParser queryParser =
+            new MultiFieldQueryParser(new String[] {TITLE_FIELD, CONTENT_FIELD}, analyzer,
+                FIELD_BOOSTS);
+        queryParser.setDefaultOperator(QueryParser.Operator.AND);
+        Query query = new BooleanQuery.Builder()
+            .add(queryParser.parse(QueryParser.escape(keyword)), BooleanClause.Occur.MUST)
+            .add(new TermQuery(new Term(STATUS_FIELD, PostStatus.PUBLISHED.name())),
+                BooleanClause.Occur.FILTER)
+            .build();
+
+        int offset = (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE);
+        int limit = (int) Math.min((long) offset + pageable.getPageSize(), Integer.MAX_VALUE);
+
+        List<Integer> postIds = new ArrayList<>(pageable.getPageSize());
+        Map<Integer, String> fragments = new HashMap<>(pageable.getPageSize());
+        long total;
+
+        IndexSearcher searcher = manager.acquire();
+        try {
+            // Count all hits, since total hits are only a lower bound beyond the default threshold
+            TopScoreDocCollector collector =
+                TopScoreDocCollector.create(Math.max(limit, 1), Integer.MAX_VALUE);
+            searcher.search(query, collector);
+            TopDocs topDocs = collector.topDocs();
+            total = topDocs.totalHits.value;
+
+            QueryScorer scorer = new QueryScorer(query, CONTENT_FIELD);
+            Highlighter highlighter =
+                new Highlighter(new SimpleHTMLFormatter("<em>", "</em>"), scorer);
+            highlighter.setTextFragmenter(new SimpleSpanFragmenter(scorer, FRAGMENT_SIZE));
+
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            for (int i = offset; i < scoreDocs.length; i++) {
+                Document document = searcher.doc(scoreDocs[i].doc);
+                Integer postId = Integer.valueOf(document.get(ID_FIELD));
+                postIds.add(postId);
+
+                String fragment = highlight(highlighter, document.get(CONTENT_FIELD));
+                if (StringUtils.isNotBlank(fragment)) {
+                    fragments.put(postId, fragment);
+                }
+            }
+        } finally {
+            manager.release(searcher);
+        }
+
+        if (postIds.isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, total);
+        }
+
+        Map<Integer, Post> postMap =
+            ServiceUtils.convertToMap(postService.listAllByIds(postIds), Post::getId);
+
+        // Keep the order of relevance
+        List<Post> posts = postIds.stream()
+            .map(postMap::get)
+            .filter(Objects::nonNull)
+            // Status in database differs from the index only while its refresh is pending
+            .filter(post -> PostStatus.PUBLISHED.equals(post.getStatus()))
+            .map(post -> {
+                Post result = BeanUtils.transformFrom(post, Post.class);
+                String fragment = fragments.get(post.getId());
+                if (result != null && fragment != null) {
+                    result.setSummary(fragment);
+                }
+                return result;
+            })
+            .collect(Collectors.toList());
+
+        return new PageImpl<>(posts, pageable, total);
+    }
+
+    @Nullable
+    private String highlight(@NonNull Highlighter highlighter, @Nullable String text)
+        throws IOException {
+        if (StringUtils.isBlank(text)) {
+            return null;
+        }
+        try {
+            return highlighter.getBestFragment(analyzer, CONTENT_FIELD, text);
+        } catch (InvalidTokenOffsetsException e) {
+            log.warn("Failed to highlight search result", e);
+            return null;
+        }
+    }
+
+    @NonNull
+    private Document toDocument(@NonNull Post post) {
+        Document document = new Document();
+        document.add(new StringField(ID_FIELD, post.getId().toString(), Field.Store.YES));
+        document.add(new StringField(STATUS_FIELD, String.valueOf(post.getStatus()),
+            Field.Store.NO));
+        document.add(new TextField(TITLE_FIELD, StringUtils.defaultString(post.getTitle()),
+            Field.Store.YES));
+        document.add(new TextField(CONTENT_FIELD, HaloUtils.cleanHtmlTag(post.getFormatContent()),
+            Field.Store.YES));
+        return document;
+    }
+
+    private boolean isAvailable() {
+        return searcherManager != null && indexWriter != null && indexWriter.isOpen();
+    }
+
+    private synchronized void close() {
+        try {
+            if (searcherManager != null) {
+                searcherManager.close();
+            }
+            if (indexWriter != null && indexWriter.isOpen()) {
+                indexWriter.close();
+            }
+            if (directory != null) {
+                directory.close();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close post search index", e);
+        } finally {
+            searcherManager = null;
+            indexWriter = null;
+            directory = null;
+        }
+    }
+}
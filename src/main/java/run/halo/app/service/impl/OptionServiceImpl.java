@@ -17,6 +17,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -24,9 +26,9 @@ import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
-import run.halo.app.cache.AbstractStringCacheStore;
 import run.halo.app.event.options.OptionUpdatedEvent;
 import run.halo.app.exception.MissingPropertyException;
 import run.halo.app.model.dto.OptionDTO;
@@ -49,6 +51,7 @@ import run.halo.app.model.properties.SeoProperties;
 import run.halo.app.repository.OptionRepository;
 import run.halo.app.service.OptionService;
 import run.halo.app.service.base.AbstractCrudService;
+import run.halo.app.service.support.OptionSnapshot;
 import run.halo.app.utils.DateUtils;
 import run.halo.app.utils.ServiceUtils;
 import run.halo.app.utils.ValidationUtils;
@@ -67,18 +70,20 @@ public class OptionServiceImpl extends AbstractCrudService<Option, Integer>
 
     private final OptionRepository optionRepository;
     private final ApplicationContext applicationContext;
-    private final AbstractStringCacheStore cacheStore;
     private final Map<String, PropertyEnum> propertyEnumMap;
     private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Snapshot of all options, it will be swapped as a whole once options are updated.
+     */
+    private volatile OptionSnapshot optionSnapshot;
+
     public OptionServiceImpl(OptionRepository optionRepository,
         ApplicationContext applicationContext,
-        AbstractStringCacheStore cacheStore,
         ApplicationEventPublisher eventPublisher) {
         super(optionRepository);
         this.optionRepository = optionRepository;
         this.applicationContext = applicationContext;
-        this.cacheStore = cacheStore;
         this.eventPublisher = eventPublisher;
 
         propertyEnumMap = Collections.unmodifiableMap(PropertyEnum.getValuePropertyEnumMap());
@@ -183,49 +188,77 @@ public class OptionServiceImpl extends AbstractCrudService<Option, Integer>
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public Map<String, Object> listOptions() {
-        // Get options from cache
-        return cacheStore.getAny(OPTIONS_KEY, Map.class).orElseGet(() -> {
-            List<Option> options = listAll();
+        return getOptionSnapshot().asMap();
+    }
+
+    /**
+     * Reloads the option snapshot after commit, before any other listener reads options. Other
+     * listeners of option updated events also run after commit, so that none of them reads the
+     * stale snapshot, and a rolled back update never gets into the snapshot.
+     *
+     * @param event option updated event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onOptionUpdated(OptionUpdatedEvent event) {
+        log.debug("Received option updated event, reloading option snapshot");
+
+        optionSnapshot = loadOptionSnapshot();
+    }
+
+    @NonNull
+    private OptionSnapshot getOptionSnapshot() {
+        OptionSnapshot snapshot = optionSnapshot;
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = optionSnapshot;
+                if (snapshot == null) {
+                    snapshot = loadOptionSnapshot();
+                    optionSnapshot = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
 
-            Set<String> keys = ServiceUtils.fetchProperty(options, Option::getKey);
+    @NonNull
+    private OptionSnapshot loadOptionSnapshot() {
+        List<Option> options = listAll();
 
-            Map<String, Object> userDefinedOptionMap =
-                ServiceUtils.convertToMap(options, Option::getKey, option -> {
-                    String key = option.getKey();
+        Set<String> keys = ServiceUtils.fetchProperty(options, Option::getKey);
 
-                    PropertyEnum propertyEnum = propertyEnumMap.get(key);
+        Map<String, Object> userDefinedOptionMap =
+            ServiceUtils.convertToMap(options, Option::getKey, option -> {
+                String key = option.getKey();
 
-                    if (propertyEnum == null) {
-                        return option.getValue();
-                    }
+                PropertyEnum propertyEnum = propertyEnumMap.get(key);
 
-                    return PropertyEnum.convertTo(option.getValue(), propertyEnum);
-                });
+                if (propertyEnum == null) {
+                    return option.getValue();
+                }
 
-            Map<String, Object> result = new HashMap<>(userDefinedOptionMap);
+                return PropertyEnum.convertTo(option.getValue(), propertyEnum);
+            });
 
-            // Add default property
-            propertyEnumMap.keySet()
-                .stream()
-                .filter(key -> !keys.contains(key))
-                .forEach(key -> {
-                    PropertyEnum propertyEnum = propertyEnumMap.get(key);
+        Map<String, Object> result = new HashMap<>(userDefinedOptionMap);
 
-                    if (StringUtils.isBlank(propertyEnum.defaultValue())) {
-                        return;
-                    }
+        // Add default property
+        propertyEnumMap.keySet()
+            .stream()
+            .filter(key -> !keys.contains(key))
+            .forEach(key -> {
+                PropertyEnum propertyEnum = propertyEnumMap.get(key);
 
-                    result.put(key,
-                        PropertyEnum.convertTo(propertyEnum.defaultValue(), propertyEnum));
-                });
+                if (StringUtils.isBlank(propertyEnum.defaultValue())) {
+                    return;
+                }
 
-            // Cache the result
-            cacheStore.putAny(OPTIONS_KEY, result);
+                result.put(key,
+                    PropertyEnum.convertTo(propertyEnum.defaultValue(), propertyEnum));
+            });
 
-            return result;
-        });
+        return new OptionSnapshot(result);
     }
 
     @Override
@@ -312,12 +345,14 @@ public class OptionServiceImpl extends AbstractCrudService<Option, Integer>
     public Optional<Object> getByKey(String key) {
         Assert.hasText(key, "Option key must not be blank");
 
-        return Optional.ofNullable(listOptions().get(key));
+        return getOptionSnapshot().get(key);
     }
 
     @Override
     public <T> Optional<T> getByKey(String key, Class<T> valueType) {
-        return getByKey(key).map(value -> PropertyEnum.convertTo(value.toString(), valueType));
+        Assert.hasText(key, "Option key must not be blank");
+
+        return getOptionSnapshot().get(key, valueType);
     }
 
     @Override
@@ -341,8 +376,9 @@ public class OptionServiceImpl extends AbstractCrudService<Option, Integer>
 
     @Override
     public <T> Optional<T> getByProperty(PropertyEnum property, Class<T> propertyType) {
-        return getByProperty(property)
-            .map(propertyValue -> PropertyEnum.convertTo(propertyValue.toString(), propertyType));
+        Assert.notNull(property, "Blog property must not be null");
+
+        return getOptionSnapshot().get(property.getValue(), propertyType);
     }
 
     @Override
@@ -1,16 +1,16 @@
 package run.halo.app.service.impl;
 
-import static run.halo.app.model.support.HaloConst.URL_SEPARATOR;
-
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
@@ -26,12 +26,13 @@ import run.halo.app.model.entity.Post;
 import run.halo.app.model.entity.PostCategory;
 import run.halo.app.model.enums.PostStatus;
 import run.halo.app.model.projection.CategoryPostCountProjection;
+import run.halo.app.repository.CategoryRepository;
 import run.halo.app.repository.PostCategoryRepository;
 import run.halo.app.repository.PostRepository;
 import run.halo.app.service.CategoryService;
-import run.halo.app.service.OptionService;
 import run.halo.app.service.PostCategoryService;
 import run.halo.app.service.base.AbstractCrudService;
+import run.halo.app.service.support.PermalinkRouter;
 import run.halo.app.utils.ServiceUtils;
 
 /**
@@ -42,6 +43,7 @@ import run.halo.app.utils.ServiceUtils;
  * @author guqing
  * @date 2019-03-19
  */
+@Slf4j
 @Service
 public class PostCategoryServiceImpl extends AbstractCrudService<PostCategory, Integer>
     implements PostCategoryService {
@@ -50,17 +52,21 @@ public class PostCategoryServiceImpl extends AbstractCrudService<PostCategory, I
 
     private final PostRepository postRepository;
 
+    private final CategoryRepository categoryRepository;
+
     private CategoryService categoryService;
 
-    private final OptionService optionService;
+    private final PermalinkRouter permalinkRouter;
 
     public PostCategoryServiceImpl(PostCategoryRepository postCategoryRepository,
         PostRepository postRepository,
-        OptionService optionService) {
+        CategoryRepository categoryRepository,
+        PermalinkRouter permalinkRouter) {
         super(postCategoryRepository);
         this.postCategoryRepository = postCategoryRepository;
         this.postRepository = postRepository;
-        this.optionService = optionService;
+        this.categoryRepository = categoryRepository;
+        this.permalinkRouter = permalinkRouter;
     }
 
     @Lazy
@@ -264,6 +270,13 @@ public class PostCategoryServiceImpl extends AbstractCrudService<PostCategory, I
         // Add all created post categories
         postCategories.addAll(createInBatch(postCategoriesToCreate));
 
+        // Refresh post counts of all categories of the post, since its status may be changed as
+        // well
+        Set<Integer> affectedCategoryIds = new HashSet<>(categoryIds);
+        affectedCategoryIds.addAll(
+            ServiceUtils.fetchProperty(postCategoriesToRemove, PostCategory::getCategoryId));
+        refreshPostCountBy(affectedCategoryIds);
+
         // Create them
         return postCategories;
     }
@@ -293,7 +306,12 @@ public class PostCategoryServiceImpl extends AbstractCrudService<PostCategory, I
     public List<PostCategory> removeByPostId(Integer postId) {
         Assert.notNull(postId, "Post id must not be null");
 
-        return postCategoryRepository.deleteByPostId(postId);
+        List<PostCategory> postCategories = postCategoryRepository.deleteByPostId(postId);
+
+        refreshPostCountBy(
+            ServiceUtils.fetchProperty(postCategories, PostCategory::getCategoryId));
+
+        return postCategories;
     }
 
     @Override
@@ -307,37 +325,18 @@ public class PostCategoryServiceImpl extends AbstractCrudService<PostCategory, I
     public List<CategoryWithPostCountDTO> listCategoryWithPostCountDto(
         Sort sort, boolean queryEncryptCategory) {
         Assert.notNull(sort, "Sort info must not be null");
+        // Post counts are maintained along with categories
         List<Category> categories = categoryService.listAll(sort, queryEncryptCategory);
 
-        // Query category post count
-        Map<Integer, Long> categoryPostCountMap = ServiceUtils
-            .convertToMap(postCategoryRepository.findPostCount(),
-                CategoryPostCountProjection::getCategoryId,
-                CategoryPostCountProjection::getPostCount);
-
         // Convert and return
         return categories.stream()
             .map(category -> {
                 // Create category post count dto
                 CategoryWithPostCountDTO categoryWithPostCountDTO =
                     new CategoryWithPostCountDTO().convertFrom(category);
-                // Set post count
-                categoryWithPostCountDTO
-                    .setPostCount(categoryPostCountMap.getOrDefault(category.getId(), 0L));
-
-                StringBuilder fullPath = new StringBuilder();
-
-                if (optionService.isEnabledAbsolutePath()) {
-                    fullPath.append(optionService.getBlogBaseUrl());
-                }
 
-                fullPath.append(URL_SEPARATOR)
-                    .append(optionService.getCategoriesPrefix())
-                    .append(URL_SEPARATOR)
-                    .append(category.getSlug())
-                    .append(optionService.getPathSuffix());
-
-                categoryWithPostCountDTO.setFullPath(fullPath.toString());
+                categoryWithPostCountDTO.setFullPath(
+                    permalinkRouter.buildCategoryFullPath(category.getSlug()));
 
                 return categoryWithPostCountDTO;
             })
@@ -349,4 +348,48 @@ public class PostCategoryServiceImpl extends AbstractCrudService<PostCategory, I
         Assert.notEmpty(categoryIdList, "category id list not empty");
         return postCategoryRepository.findAllByCategoryIdList(categoryIdList);
     }
+
+    @Override
+    public void refreshPostCountBy(Collection<Integer> categoryIds) {
+        if (CollectionUtils.isEmpty(categoryIds)) {
+            return;
+        }
+
+        Map<Integer, Long> postCountMap = ServiceUtils.convertToMap(
+            postCategoryRepository.findPostCountByCategoryIds(categoryIds),
+            CategoryPostCountProjection::getCategoryId, CategoryPostCountProjection::getPostCount);
+        Map<Integer, Long> publishedPostCountMap = ServiceUtils.convertToMap(
+            postCategoryRepository.findPostCountByCategoryIds(categoryIds, PostStatus.PUBLISHED),
+            CategoryPostCountProjection::getCategoryId, CategoryPostCountProjection::getPostCount);
+
+        // Categories loaded earlier in the transaction may be stale, so update them
+        // unconditionally
+        categoryIds.forEach(categoryId -> categoryRepository.updatePostCount(categoryId,
+            postCountMap.getOrDefault(categoryId, 0L),
+            publishedPostCountMap.getOrDefault(categoryId, 0L)));
+    }
+
+    @Override
+    public void refreshAllPostCounts() {
+        Map<Integer, Long> postCountMap = ServiceUtils.convertToMap(
+            postCategoryRepository.findPostCount(),
+            CategoryPostCountProjection::getCategoryId, CategoryPostCountProjection::getPostCount);
+        Map<Integer, Long> publishedPostCountMap = ServiceUtils.convertToMap(
+            postCategoryRepository.findPostCount(PostStatus.PUBLISHED),
+            CategoryPostCountProjection::getCategoryId, CategoryPostCountProjection::getPostCount);
+
+        int repaired = 0;
+        for (Category category : categoryRepository.findAll()) {
+            long postCount = postCountMap.getOrDefault(category.getId(), 0L);
+            long publishedPostCount = publishedPostCountMap.getOrDefault(category.getId(), 0L);
+            if (!Objects.equals(category.getPostCount(), postCount)
+                || !Objects.equals(category.getPublishedPostCount(), publishedPostCount)) {
+                categoryRepository.updatePostCount(category.getId(), postCount,
+                    publishedPostCount);
+                repaired++;
+            }
+        }
+
+        log.debug("Repaired post counts of [{}] categories", repaired);
+    }
 }
@@ -1,8 +1,5 @@
 package run.halo.app.service.impl;
 
-import static run.halo.app.model.support.HaloConst.URL_SEPARATOR;
-
-import cn.hutool.core.date.DateUtil;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -23,7 +20,7 @@ import run.halo.app.model.dto.post.BasePostMinimalDTO;
 import run.halo.app.model.entity.Post;
 import run.halo.app.model.entity.PostComment;
 import run.halo.app.model.enums.CommentViolationTypeEnum;
-import run.halo.app.model.enums.PostPermalinkType;
+import run.halo.app.model.projection.CommentCountProjection;
 import run.halo.app.model.properties.CommentProperties;
 import run.halo.app.model.vo.PostCommentWithPostVO;
 import run.halo.app.repository.PostCommentRepository;
@@ -32,6 +29,7 @@ import run.halo.app.service.CommentBlackListService;
 import run.halo.app.service.OptionService;
 import run.halo.app.service.PostCommentService;
 import run.halo.app.service.UserService;
+import run.halo.app.service.support.PermalinkRouter;
 import run.halo.app.utils.ServiceUtils;
 import run.halo.app.utils.ServletUtils;
 
@@ -51,15 +49,19 @@ public class PostCommentServiceImpl extends BaseCommentServiceImpl<PostComment>
 
     private final CommentBlackListService commentBlackListService;
 
+    private final PermalinkRouter permalinkRouter;
+
     public PostCommentServiceImpl(PostCommentRepository postCommentRepository,
         PostRepository postRepository,
         UserService userService,
         OptionService optionService,
         CommentBlackListService commentBlackListService,
-        ApplicationEventPublisher eventPublisher) {
+        ApplicationEventPublisher eventPublisher,
+        PermalinkRouter permalinkRouter) {
         super(postCommentRepository, optionService, userService, eventPublisher);
         this.postRepository = postRepository;
         this.commentBlackListService = commentBlackListService;
+        this.permalinkRouter = permalinkRouter;
     }
 
     @Override
@@ -122,65 +124,8 @@ public class PostCommentServiceImpl extends BaseCommentServiceImpl<PostComment>
     }
 
     private BasePostMinimalDTO buildPostFullPath(BasePostMinimalDTO post) {
-        PostPermalinkType permalinkType = optionService.getPostPermalinkType();
-
-        String pathSuffix = optionService.getPathSuffix();
-
-        String archivesPrefix = optionService.getArchivesPrefix();
-
-        int month = DateUtil.month(post.getCreateTime()) + 1;
-
-        String monthString = month < 10 ? "0" + month : String.valueOf(month);
-
-        int day = DateUtil.dayOfMonth(post.getCreateTime());
-
-        String dayString = day < 10 ? "0" + day : String.valueOf(day);
-
-        StringBuilder fullPath = new StringBuilder();
-
-        if (optionService.isEnabledAbsolutePath()) {
-            fullPath.append(optionService.getBlogBaseUrl());
-        }
-
-        fullPath.append(URL_SEPARATOR);
-
-        if (permalinkType.equals(PostPermalinkType.DEFAULT)) {
-            fullPath.append(archivesPrefix)
-                .append(URL_SEPARATOR)
-                .append(post.getSlug())
-                .append(pathSuffix);
-        } else if (permalinkType.equals(PostPermalinkType.ID)) {
-            fullPath.append("?p=")
-                .append(post.getId());
-        } else if (permalinkType.equals(PostPermalinkType.DATE)) {
-            fullPath.append(DateUtil.year(post.getCreateTime()))
-                .append(URL_SEPARATOR)
-                .append(monthString)
-                .append(URL_SEPARATOR)
-                .append(post.getSlug())
-                .append(pathSuffix);
-        } else if (permalinkType.equals(PostPermalinkType.DAY)) {
-            fullPath.append(DateUtil.year(post.getCreateTime()))
-                .append(URL_SEPARATOR)
-                .append(monthString)
-                .append(URL_SEPARATOR)
-                .append(dayString)
-                .append(URL_SEPARATOR)
-                .append(post.getSlug())
-                .append(pathSuffix);
-        } else if (permalinkType.equals(PostPermalinkType.YEAR)) {
-            fullPath.append(DateUtil.year(post.getCreateTime()))
-                .append(URL_SEPARATOR)
-                .append(post.getSlug())
-                .append(pathSuffix);
-        } else if (permalinkType.equals(PostPermalinkType.ID_SLUG)) {
-            fullPath.append(archivesPrefix)
-                .append(URL_SEPARATOR)
-                .append(post.getId())
-                .append(pathSuffix);
-        }
-
-        post.setFullPath(fullPath.toString());
+        post.setFullPath(
+            permalinkRouter.getPostFullPath(post.getId(), post.getSlug(), post.getCreateTime()));
 
         return post;
     }
@@ -195,6 +140,22 @@ public class PostCommentServiceImpl extends BaseCommentServiceImpl<PostComment>
         }
     }
 
+    @Override
+    protected void updateCommentCount(@NonNull Integer postId, long commentCount) {
+        postRepository.updateCommentCount(commentCount, postId);
+    }
+
+    @Override
+    protected void increaseCommentCount(@NonNull Integer postId, long delta) {
+        postRepository.increaseCommentCount(delta, postId);
+    }
+
+    @Override
+    @NonNull
+    protected List<CommentCountProjection> listCommentCounts() {
+        return postRepository.findAllCommentCounts();
+    }
+
     @Override
     public void validateCommentBlackListStatus() {
         CommentViolationTypeEnum banStatus =
@@ -1,7 +1,6 @@
 package run.halo.app.service.impl;
 
 import static org.springframework.data.domain.Sort.Direction.DESC;
-import static run.halo.app.model.support.HaloConst.URL_SEPARATOR;
 
 import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.date.DateUtil;
@@ -12,6 +11,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +27,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
@@ -37,6 +38,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import run.halo.app.event.logger.LogEvent;
+import run.halo.app.event.post.PostUpdatedEvent;
 import run.halo.app.event.post.PostVisitEvent;
 import run.halo.app.exception.NotFoundException;
 import run.halo.app.model.dto.post.BasePostMinimalDTO;
@@ -48,9 +50,7 @@ import run.halo.app.model.entity.PostComment;
 import run.halo.app.model.entity.PostMeta;
 import run.halo.app.model.entity.PostTag;
 import run.halo.app.model.entity.Tag;
-import run.halo.app.model.enums.CommentStatus;
 import run.halo.app.model.enums.LogType;
-import run.halo.app.model.enums.PostPermalinkType;
 import run.halo.app.model.enums.PostStatus;
 import run.halo.app.model.params.PostParam;
 import run.halo.app.model.params.PostQuery;
@@ -71,6 +71,14 @@ import run.halo.app.service.PostMetaService;
 import run.halo.app.service.PostService;
 import run.halo.app.service.PostTagService;
 import run.halo.app.service.TagService;
+import run.halo.app.service.support.PermalinkRouter;
+import run.halo.app.service.support.PostArchiveIndex;
+import run.halo.app.service.support.PostArchiveIndex.Bucket;
+import run.halo.app.service.support.PostCounterBuffer;
+import run.halo.app.service.support.PostNeighborIndex;
+import run.halo.app.service.support.PostRelationLoader;
+import run.halo.app.service.support.PostRelationLoader.PostRelations;
+import run.halo.app.utils.BeanUtils;
 import run.halo.app.utils.DateUtils;
 import run.halo.app.utils.MarkdownUtils;
 import run.halo.app.utils.ServiceUtils;
@@ -111,6 +119,14 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
 
     private final AuthorizationService authorizationService;
 
+    private final PostRelationLoader postRelationLoader;
+
+    private final PostArchiveIndex postArchiveIndex;
+
+    private final PostNeighborIndex postNeighborIndex;
+
+    private final PermalinkRouter permalinkRouter;
+
     public PostServiceImpl(BasePostRepository<Post> basePostRepository,
         OptionService optionService,
         PostRepository postRepository,
@@ -121,8 +137,13 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
         PostCommentService postCommentService,
         ApplicationEventPublisher eventPublisher,
         PostMetaService postMetaService,
-        AuthorizationService authorizationService) {
-        super(basePostRepository, optionService);
+        AuthorizationService authorizationService,
+        PostCounterBuffer postCounterBuffer,
+        PostRelationLoader postRelationLoader,
+        PostArchiveIndex postArchiveIndex,
+        PostNeighborIndex postNeighborIndex,
+        PermalinkRouter permalinkRouter) {
+        super(basePostRepository, optionService, postCounterBuffer);
         this.postRepository = postRepository;
         this.tagService = tagService;
         this.categoryService = categoryService;
@@ -133,6 +154,10 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
         this.postMetaService = postMetaService;
         this.optionService = optionService;
         this.authorizationService = authorizationService;
+        this.postRelationLoader = postRelationLoader;
+        this.postArchiveIndex = postArchiveIndex;
+        this.postNeighborIndex = postNeighborIndex;
+        this.permalinkRouter = permalinkRouter;
     }
 
     @Override
@@ -144,6 +169,24 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
         return postRepository.findAll(buildSpecByQuery(postQuery), pageable);
     }
 
+    @Override
+    public Page<Post> pageWithoutContentBy(PostQuery postQuery, Pageable pageable) {
+        Assert.notNull(postQuery, "Post query must not be null");
+        Assert.notNull(pageable, "Page info must not be null");
+
+        return postRepository.findAllListBy(buildSpecByQuery(postQuery), pageable)
+            .map(projection -> BeanUtils.transformFrom(projection, Post.class));
+    }
+
+    @Override
+    public List<Post> listWithoutContentBy(PostQuery postQuery, Sort sort) {
+        Assert.notNull(postQuery, "Post query must not be null");
+        Assert.notNull(sort, "Sort info must not be null");
+
+        return BeanUtils.transformFromInBatch(
+            postRepository.findAllListBy(buildSpecByQuery(postQuery), sort), Post.class);
+    }
+
     @Override
     public Page<Post> pageBy(String keyword, Pageable pageable) {
         Assert.notNull(keyword, "keyword must not be null");
@@ -205,6 +248,47 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
         return super.getBy(status, slug);
     }
 
+    @Override
+    public List<Post> listPrevPosts(Post post, int size) {
+        Assert.notNull(post, "Post must not be null");
+
+        return listAllByIdsInOrder(
+            postNeighborIndex.listPrevPostIds(post, getIndexSort(), size));
+    }
+
+    @Override
+    public List<Post> listNextPosts(Post post, int size) {
+        Assert.notNull(post, "Post must not be null");
+
+        return listAllByIdsInOrder(
+            postNeighborIndex.listNextPostIds(post, getIndexSort(), size));
+    }
+
+    @NonNull
+    private String getIndexSort() {
+        return optionService.getByPropertyOfNonNull(PostProperties.INDEX_SORT).toString();
+    }
+
+    /**
+     * Lists posts without content by ids, keeping the order of the ids. Neighbor posts are only
+     * shown as links by themes, so callers which need the content must load the whole post.
+     */
+    @NonNull
+    private List<Post> listAllByIdsInOrder(@NonNull List<Integer> postIds) {
+        if (postIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Specification<Post> idIn = (root, query, criteriaBuilder) -> root.get("id").in(postIds);
+        List<Post> posts = BeanUtils.transformFromInBatch(
+            postRepository.findAllListBy(idIn, Sort.unsorted()), Post.class);
+        Map<Integer, Post> postMap = ServiceUtils.convertToMap(posts, Post::getId);
+        return postIds.stream()
+            .map(postMap::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
     @Override
     public Post getBy(Integer year, Integer month, String slug) {
         Assert.notNull(year, "Post create year must not be null");
@@ -284,20 +368,89 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
 
     @Override
     public List<ArchiveYearVO> listYearArchives() {
-        // Get all posts
-        List<Post> posts = postRepository
-            .findAllByStatus(PostStatus.PUBLISHED, Sort.by(DESC, "createTime"));
+        return listYearArchives(null);
+    }
 
-        return convertToYearArchives(posts);
+    @Override
+    public List<ArchiveYearVO> listYearArchives(Integer postSize) {
+        List<Bucket> buckets = postArchiveIndex.listYears();
+        Map<Integer, PostListVO> postMap = listArchivePosts(buckets, postSize);
+
+        return buckets.stream().map(bucket -> {
+            ArchiveYearVO archive = new ArchiveYearVO();
+            archive.setYear(bucket.getYear());
+            archive.setCount(bucket.getCount());
+            archive.setPosts(collectArchivePosts(bucket, postSize, postMap));
+            return archive;
+        }).collect(Collectors.toList());
     }
 
     @Override
     public List<ArchiveMonthVO> listMonthArchives() {
-        // Get all posts
-        List<Post> posts = postRepository
-            .findAllByStatus(PostStatus.PUBLISHED, Sort.by(DESC, "createTime"));
+        return listMonthArchives(null);
+    }
 
-        return convertToMonthArchives(posts);
+    @Override
+    public List<ArchiveMonthVO> listMonthArchives(Integer postSize) {
+        List<Bucket> buckets = postArchiveIndex.listMonths();
+        Map<Integer, PostListVO> postMap = listArchivePosts(buckets, postSize);
+
+        return buckets.stream().map(bucket -> {
+            ArchiveMonthVO archive = new ArchiveMonthVO();
+            archive.setYear(bucket.getYear());
+            archive.setMonth(bucket.getMonth());
+            archive.setCount(bucket.getCount());
+            archive.setPosts(collectArchivePosts(bucket, postSize, postMap));
+            return archive;
+        }).collect(Collectors.toList());
+    }
+
+    @Override
+    public Page<PostListVO> pageArchivePostsBy(Integer year, Integer month, Pageable pageable) {
+        Assert.notNull(pageable, "Page info must not be null");
+
+        List<Integer> postIds = year == null ? postArchiveIndex.listPostIds() :
+            postArchiveIndex.getBucket(year, month)
+                .map(Bucket::getPostIds)
+                .orElse(Collections.emptyList());
+
+        int fromIndex = (int) Math.min(pageable.getOffset(), postIds.size());
+        int toIndex = Math.min(fromIndex + pageable.getPageSize(), postIds.size());
+        List<Integer> pagePostIds = postIds.subList(fromIndex, toIndex);
+
+        Map<Integer, PostListVO> postMap = ServiceUtils.convertToMap(
+            convertToListVo(listWithoutContentByIds(pagePostIds)), PostListVO::getId);
+        List<PostListVO> posts = pagePostIds.stream()
+            .map(postMap::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+
+        return new PageImpl<>(posts, pageable, postIds.size());
+    }
+
+    @Override
+    public List<ArchiveYearVO> groupToYearArchives(List<PostListVO> posts) {
+        Assert.notNull(posts, "Posts must not be null");
+
+        Map<Integer, List<PostListVO>> yearPostMap = new LinkedHashMap<>();
+        posts.forEach(post -> yearPostMap.computeIfAbsent(
+            DateUtils.convertTo(post.getCreateTime()).get(Calendar.YEAR),
+            year -> new LinkedList<>()).add(post));
+
+        List<ArchiveYearVO> archives = new LinkedList<>();
+        yearPostMap.forEach((year, postList) -> {
+            ArchiveYearVO archive = new ArchiveYearVO();
+            archive.setYear(year);
+            archive.setCount(postArchiveIndex.getBucket(year, null)
+                .map(Bucket::getCount)
+                .orElse((long) postList.size()));
+            archive.setPosts(postList);
+            archives.add(archive);
+        });
+
+        archives.sort(new ArchiveYearVO.ArchiveComparator());
+
+        return archives;
     }
 
     @Override
@@ -316,6 +469,7 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
             // Build archive
             ArchiveYearVO archive = new ArchiveYearVO();
             archive.setYear(year);
+            archive.setCount((long) postList.size());
             archive.setPosts(convertToListVo(postList));
 
             // Add archive
@@ -349,6 +503,7 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
                 ArchiveMonthVO archive = new ArchiveMonthVO();
                 archive.setYear(year);
                 archive.setMonth(month);
+                archive.setCount((long) postList.size());
                 archive.setPosts(convertToListVo(postList));
 
                 archives.add(archive);
@@ -530,21 +685,20 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
 
     @Override
     public PostDetailVO convertToDetailVo(Post post, boolean queryEncryptCategory) {
-        // List tags
-        List<Tag> tags = postTagService.listTagsBy(post.getId());
-        // List categories
-        List<Category> categories = postCategoryService
-            .listCategoriesBy(post.getId(), queryEncryptCategory);
-        // List metas
-        List<PostMeta> metas = postMetaService.listBy(post.getId());
-        // Convert to detail vo
-        return convertTo(post, tags, categories, metas);
+        Assert.notNull(post, "Post must not be null");
+
+        PostRelations relations =
+            postRelationLoader.load(Collections.singleton(post.getId()), queryEncryptCategory);
+        return convertToDetailVo(post, relations);
     }
 
     @Override
     public Page<PostDetailVO> convertToDetailVo(Page<Post> postPage) {
         Assert.notNull(postPage, "Post page must not be null");
-        return postPage.map(this::convertToDetailVo);
+
+        PostRelations relations = postRelationLoader
+            .load(ServiceUtils.fetchProperty(postPage.getContent(), Post::getId), false);
+        return postPage.map(post -> convertToDetailVo(post, relations));
     }
 
     @Override
@@ -577,73 +731,54 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
         eventPublisher.publishEvent(new LogEvent(this, postId.toString(), LogType.POST_DELETED,
             deletedPost.getTitle()));
 
-        return deletedPost;
-    }
+        eventPublisher.publishEvent(new PostUpdatedEvent(this, postId));
 
-    @Override
-    public Page<PostListVO> convertToListVo(Page<Post> postPage) {
-        return convertToListVo(postPage, false);
+        return deletedPost;
     }
 
     @Override
-    public Page<PostListVO> convertToListVo(Page<Post> postPage, boolean queryEncryptCategory) {
-        Assert.notNull(postPage, "Post page must not be null");
-
-        List<Post> posts = postPage.getContent();
+    public Post create(Post post) {
+        Post createdPost = super.create(post);
 
-        Set<Integer> postIds = ServiceUtils.fetchProperty(posts, Post::getId);
+        eventPublisher.publishEvent(new PostUpdatedEvent(this, createdPost.getId()));
 
-        // Get tag list map
-        Map<Integer, List<Tag>> tagListMap = postTagService.listTagListMapBy(postIds);
-
-        // Get category list map
-        Map<Integer, List<Category>> categoryListMap = postCategoryService
-            .listCategoryListMap(postIds, queryEncryptCategory);
-
-        // Get comment count
-        Map<Integer, Long> commentCountMap = postCommentService.countByStatusAndPostIds(
-            CommentStatus.PUBLISHED, postIds);
+        return createdPost;
+    }
 
-        // Get post meta list map
-        Map<Integer, List<PostMeta>> postMetaListMap = postMetaService.listPostMetaAsMap(postIds);
+    @Override
+    public Post update(Post post) {
+        Post updatedPost = super.update(post);
 
-        return postPage.map(post -> {
-            PostListVO postListVO = new PostListVO().convertFrom(post);
+        // The status may be changed
+        refreshPostCountsOf(updatedPost.getId());
 
-            if (StringUtils.isBlank(postListVO.getSummary())) {
-                postListVO.setSummary(generateSummary(post.getFormatContent()));
-            }
+        eventPublisher.publishEvent(new PostUpdatedEvent(this, updatedPost.getId()));
 
-            Optional.ofNullable(tagListMap.get(post.getId())).orElseGet(LinkedList::new);
+        return updatedPost;
+    }
 
-            // Set tags
-            postListVO.setTags(Optional.ofNullable(tagListMap.get(post.getId()))
-                .orElseGet(LinkedList::new)
-                .stream()
-                .filter(Objects::nonNull)
-                .map(tagService::convertTo)
-                .collect(Collectors.toList()));
+    @Override
+    @Transactional
+    public Post updateDraftContent(String content, Integer postId) {
+        Post post = super.updateDraftContent(content, postId);
 
-            // Set categories
-            postListVO.setCategories(Optional.ofNullable(categoryListMap.get(post.getId()))
-                .orElseGet(LinkedList::new)
-                .stream()
-                .filter(Objects::nonNull)
-                .map(categoryService::convertTo)
-                .collect(Collectors.toList()));
+        eventPublisher.publishEvent(new PostUpdatedEvent(this, postId));
 
-            // Set post metas
-            List<PostMeta> metas = Optional.ofNullable(postMetaListMap.get(post.getId()))
-                .orElseGet(LinkedList::new);
-            postListVO.setMetas(postMetaService.convertToMap(metas));
+        return post;
+    }
 
-            // Set comment count
-            postListVO.setCommentCount(commentCountMap.getOrDefault(post.getId(), 0L));
+    @Override
+    public Page<PostListVO> convertToListVo(Page<Post> postPage) {
+        return convertToListVo(postPage, false);
+    }
 
-            postListVO.setFullPath(buildFullPath(post));
+    @Override
+    public Page<PostListVO> convertToListVo(Page<Post> postPage, boolean queryEncryptCategory) {
+        Assert.notNull(postPage, "Post page must not be null");
 
-            return postListVO;
-        });
+        PostRelations relations = postRelationLoader.load(
+            ServiceUtils.fetchProperty(postPage.getContent(), Post::getId), queryEncryptCategory);
+        return postPage.map(post -> convertToListVo(post, relations));
     }
 
     @Override
@@ -655,59 +790,47 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
     public List<PostListVO> convertToListVo(List<Post> posts, boolean queryEncryptCategory) {
         Assert.notNull(posts, "Post page must not be null");
 
-        Set<Integer> postIds = ServiceUtils.fetchProperty(posts, Post::getId);
-
-        // Get tag list map
-        Map<Integer, List<Tag>> tagListMap = postTagService.listTagListMapBy(postIds);
-
-        // Get category list map
-        Map<Integer, List<Category>> categoryListMap = postCategoryService
-            .listCategoryListMap(postIds, queryEncryptCategory);
-
-        // Get comment count
-        Map<Integer, Long> commentCountMap =
-            postCommentService.countByStatusAndPostIds(CommentStatus.PUBLISHED, postIds);
-
-        // Get post meta list map
-        Map<Integer, List<PostMeta>> postMetaListMap = postMetaService.listPostMetaAsMap(postIds);
-
-        return posts.stream().map(post -> {
-            PostListVO postListVO = new PostListVO().convertFrom(post);
+        PostRelations relations = postRelationLoader
+            .load(ServiceUtils.fetchProperty(posts, Post::getId), queryEncryptCategory);
+        return posts.stream()
+            .map(post -> convertToListVo(post, relations))
+            .collect(Collectors.toList());
+    }
 
-            if (StringUtils.isBlank(postListVO.getSummary())) {
-                postListVO.setSummary(generateSummary(post.getFormatContent()));
-            }
+    /**
+     * Converts to post list vo.
+     *
+     * @param post post must not be null
+     * @param relations relations containing the post
+     * @return post list vo
+     */
+    @NonNull
+    private PostListVO convertToListVo(@NonNull Post post, @NonNull PostRelations relations) {
+        PostListVO postListVO = new PostListVO().convertFrom(post);
 
-            Optional.ofNullable(tagListMap.get(post.getId())).orElseGet(LinkedList::new);
+        postListVO.setSummary(summaryOf(post));
 
-            // Set tags
-            postListVO.setTags(Optional.ofNullable(tagListMap.get(post.getId()))
-                .orElseGet(LinkedList::new)
-                .stream()
-                .filter(Objects::nonNull)
-                .map(tagService::convertTo)
-                .collect(Collectors.toList()));
+        // Set tags
+        postListVO.setTags(relations.getTags(post.getId()).stream()
+            .filter(Objects::nonNull)
+            .map(tagService::convertTo)
+            .collect(Collectors.toList()));
 
-            // Set categories
-            postListVO.setCategories(Optional.ofNullable(categoryListMap.get(post.getId()))
-                .orElseGet(LinkedList::new)
-                .stream()
-                .filter(Objects::nonNull)
-                .map(categoryService::convertTo)
-                .collect(Collectors.toList()));
+        // Set categories
+        postListVO.setCategories(relations.getCategories(post.getId()).stream()
+            .filter(Objects::nonNull)
+            .map(categoryService::convertTo)
+            .collect(Collectors.toList()));
 
-            // Set post metas
-            List<PostMeta> metas = Optional.ofNullable(postMetaListMap.get(post.getId()))
-                .orElseGet(LinkedList::new);
-            postListVO.setMetas(postMetaService.convertToMap(metas));
+        // Set post metas
+        postListVO.setMetas(postMetaService.convertToMap(relations.getMetas(post.getId())));
 
-            // Set comment count
-            postListVO.setCommentCount(commentCountMap.getOrDefault(post.getId(), 0L));
+        // Set comment count
+        postListVO.setCommentCount(Objects.requireNonNullElse(post.getCommentCount(), 0L));
 
-            postListVO.setFullPath(buildFullPath(post));
+        postListVO.setFullPath(buildFullPath(post));
 
-            return postListVO;
-        }).collect(Collectors.toList());
+        return postListVO;
     }
 
     @Override
@@ -738,15 +861,27 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
         BasePostSimpleDTO basePostSimpleDTO = new BasePostSimpleDTO().convertFrom(post);
 
         // Set summary
-        if (StringUtils.isBlank(basePostSimpleDTO.getSummary())) {
-            basePostSimpleDTO.setSummary(generateSummary(post.getFormatContent()));
-        }
+        basePostSimpleDTO.setSummary(summaryOf(post));
 
         basePostSimpleDTO.setFullPath(buildFullPath(post));
 
         return basePostSimpleDTO;
     }
 
+    /**
+     * Converts to post detail vo.
+     *
+     * @param post post must not be null
+     * @param relations relations containing the post
+     * @return post detail vo
+     */
+    @NonNull
+    private PostDetailVO convertToDetailVo(@NonNull Post post,
+        @NonNull PostRelations relations) {
+        return convertTo(post, relations.getTags(post.getId()),
+            relations.getCategories(post.getId()), relations.getMetas(post.getId()));
+    }
+
     /**
      * Converts to post detail vo.
      *
@@ -764,9 +899,7 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
         // Convert to base detail vo
         PostDetailVO postDetailVO = new PostDetailVO().convertFrom(post);
 
-        if (StringUtils.isBlank(postDetailVO.getSummary())) {
-            postDetailVO.setSummary(generateSummary(post.getFormatContent()));
-        }
+        postDetailVO.setSummary(summaryOf(post));
 
         // Extract ids
         Set<Integer> tagIds = ServiceUtils.fetchProperty(tags, Tag::getId);
@@ -785,13 +918,67 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
         postDetailVO.setMetaIds(metaIds);
         postDetailVO.setMetas(postMetaService.convertTo(postMetaList));
 
-        postDetailVO.setCommentCount(postCommentService.countByPostId(post.getId()));
+        postDetailVO.setCommentCount(Objects.requireNonNullElse(post.getCommentCount(), 0L));
 
         postDetailVO.setFullPath(buildFullPath(post));
 
         return postDetailVO;
     }
 
+    /**
+     * Lists and converts posts of the archives.
+     *
+     * @param buckets archive buckets must not be null
+     * @param postSize max count of posts in every archive, null for all posts
+     * @return a map of post list vo, key: post id
+     */
+    @NonNull
+    private Map<Integer, PostListVO> listArchivePosts(@NonNull List<Bucket> buckets,
+        @Nullable Integer postSize) {
+        List<Post> posts;
+        if (postSize == null) {
+            PostQuery postQuery = new PostQuery();
+            postQuery.setStatus(PostStatus.PUBLISHED);
+            posts = listWithoutContentBy(postQuery, Sort.unsorted());
+        } else {
+            posts = listWithoutContentByIds(buckets.stream()
+                .flatMap(bucket -> limitArchivePostIds(bucket, postSize).stream())
+                .collect(Collectors.toList()));
+        }
+        return ServiceUtils.convertToMap(convertToListVo(posts), PostListVO::getId);
+    }
+
+    @NonNull
+    private List<PostListVO> collectArchivePosts(@NonNull Bucket bucket,
+        @Nullable Integer postSize, @NonNull Map<Integer, PostListVO> postMap) {
+        // Posts published after the index was read are absent
+        return limitArchivePostIds(bucket, postSize).stream()
+            .map(postMap::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    @NonNull
+    private List<Integer> limitArchivePostIds(@NonNull Bucket bucket,
+        @Nullable Integer postSize) {
+        List<Integer> postIds = bucket.getPostIds();
+        if (postSize == null || postSize >= postIds.size()) {
+            return postIds;
+        }
+        return postIds.subList(0, Math.max(postSize, 0));
+    }
+
+    @NonNull
+    private List<Post> listWithoutContentByIds(@NonNull Collection<Integer> postIds) {
+        if (postIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return BeanUtils.transformFromInBatch(postRepository.findAllListBy(
+            (root, query, criteriaBuilder) -> root.get("id").in(postIds), Sort.unsorted()),
+            Post.class);
+    }
+
     /**
      * Build specification by post query.
      *
@@ -809,6 +996,10 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
                 predicates.add(criteriaBuilder.equal(root.get("status"), postQuery.getStatus()));
             }
 
+            if (!CollectionUtils.isEmpty(postQuery.getStatuses())) {
+                predicates.add(root.get("status").in(postQuery.getStatuses()));
+            }
+
             if (postQuery.getCategoryId() != null) {
                 Subquery<Post> postSubquery = query.subquery(Post.class);
                 Root<PostCategory> postCategoryRoot = postSubquery.from(PostCategory.class);
@@ -820,6 +1011,16 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
                 predicates.add(criteriaBuilder.exists(postSubquery));
             }
 
+            if (postQuery.getTagId() != null) {
+                Subquery<Post> postSubquery = query.subquery(Post.class);
+                Root<PostTag> postTagRoot = postSubquery.from(PostTag.class);
+                postSubquery.select(postTagRoot.get("postId"));
+                postSubquery.where(
+                    criteriaBuilder.equal(root.get("id"), postTagRoot.get("postId")),
+                    criteriaBuilder.equal(postTagRoot.get("tagId"), postQuery.getTagId()));
+                predicates.add(criteriaBuilder.exists(postSubquery));
+            }
+
             if (postQuery.getKeyword() != null) {
                 // Format like condition
                 String likeCondition = String
@@ -906,9 +1107,25 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
             // the post status should be converted to a intimate post
             categoryService.refreshPostStatus(Collections.singletonList(postId));
         }
+
+        refreshPostCountsOf(postId);
+
+        eventPublisher.publishEvent(new PostUpdatedEvent(this, postId));
+
         return getById(postId);
     }
 
+    /**
+     * Refreshes post counts of tags and categories of the post.
+     *
+     * @param postId post id must not be null
+     */
+    private void refreshPostCountsOf(@NonNull Integer postId) {
+        postTagService.refreshPostCountBy(postTagService.listTagIdsByPostId(postId));
+        postCategoryService
+            .refreshPostCountBy(postCategoryService.listCategoryIdsByPostId(postId));
+    }
+
     @Override
     @Transactional
     public List<Post> updateStatusByIds(List<Integer> ids, PostStatus status) {
@@ -989,64 +1206,7 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
     }
 
     private String buildFullPath(Post post) {
-
-        PostPermalinkType permalinkType = optionService.getPostPermalinkType();
-
-        String pathSuffix = optionService.getPathSuffix();
-
-        String archivesPrefix = optionService.getArchivesPrefix();
-
-        int month = DateUtil.month(post.getCreateTime()) + 1;
-
-        String monthString = month < 10 ? "0" + month : String.valueOf(month);
-
-        int day = DateUtil.dayOfMonth(post.getCreateTime());
-
-        String dayString = day < 10 ? "0" + day : String.valueOf(day);
-
-        StringBuilder fullPath = new StringBuilder();
-
-        if (optionService.isEnabledAbsolutePath()) {
-            fullPath.append(optionService.getBlogBaseUrl());
-        }
-
-        fullPath.append(URL_SEPARATOR);
-
-        if (permalinkType.equals(PostPermalinkType.DEFAULT)) {
-            fullPath.append(archivesPrefix)
-                .append(URL_SEPARATOR)
-                .append(post.getSlug())
-                .append(pathSuffix);
-        } else if (permalinkType.equals(PostPermalinkType.ID)) {
-            fullPath.append("?p=")
-                .append(post.getId());
-        } else if (permalinkType.equals(PostPermalinkType.DATE)) {
-            fullPath.append(DateUtil.year(post.getCreateTime()))
-                .append(URL_SEPARATOR)
-                .append(monthString)
-                .append(URL_SEPARATOR)
-                .append(post.getSlug())
-                .append(pathSuffix);
-        } else if (permalinkType.equals(PostPermalinkType.DAY)) {
-            fullPath.append(DateUtil.year(post.getCreateTime()))
-                .append(URL_SEPARATOR)
-                .append(monthString)
-                .append(URL_SEPARATOR)
-                .append(dayString)
-                .append(URL_SEPARATOR)
-                .append(post.getSlug())
-                .append(pathSuffix);
-        } else if (permalinkType.equals(PostPermalinkType.YEAR)) {
-            fullPath.append(DateUtil.year(post.getCreateTime()))
-                .append(URL_SEPARATOR)
-                .append(post.getSlug())
-                .append(pathSuffix);
-        } else if (permalinkType.equals(PostPermalinkType.ID_SLUG)) {
-            fullPath.append(archivesPrefix)
-                .append(URL_SEPARATOR)
-                .append(post.getId())
-                .append(pathSuffix);
-        }
-        return fullPath.toString();
+        return permalinkRouter.getPostFullPath(post.getId(), post.getSlug(),
+            post.getCreateTime());
     }
 }
@@ -1,15 +1,16 @@
 package run.halo.app.service.impl;
 
-import static run.halo.app.model.support.HaloConst.URL_SEPARATOR;
-
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -26,9 +27,9 @@ import run.halo.app.model.projection.TagPostPostCountProjection;
 import run.halo.app.repository.PostRepository;
 import run.halo.app.repository.PostTagRepository;
 import run.halo.app.repository.TagRepository;
-import run.halo.app.service.OptionService;
 import run.halo.app.service.PostTagService;
 import run.halo.app.service.base.AbstractCrudService;
+import run.halo.app.service.support.PermalinkRouter;
 import run.halo.app.utils.ServiceUtils;
 
 /**
@@ -38,6 +39,7 @@ import run.halo.app.utils.ServiceUtils;
  * @author ryanwang
  * @date 2019-03-19
  */
+@Slf4j
 @Service
 public class PostTagServiceImpl extends AbstractCrudService<PostTag, Integer>
     implements PostTagService {
@@ -48,17 +50,17 @@ public class PostTagServiceImpl extends AbstractCrudService<PostTag, Integer>
 
     private final TagRepository tagRepository;
 
-    private final OptionService optionService;
+    private final PermalinkRouter permalinkRouter;
 
     public PostTagServiceImpl(PostTagRepository postTagRepository,
         PostRepository postRepository,
         TagRepository tagRepository,
-        OptionService optionService) {
+        PermalinkRouter permalinkRouter) {
         super(postTagRepository);
         this.postTagRepository = postTagRepository;
         this.postRepository = postRepository;
         this.tagRepository = tagRepository;
-        this.optionService = optionService;
+        this.permalinkRouter = permalinkRouter;
     }
 
     @Override
@@ -75,34 +77,15 @@ public class PostTagServiceImpl extends AbstractCrudService<PostTag, Integer>
     public List<TagWithPostCountDTO> listTagWithCountDtos(Sort sort) {
         Assert.notNull(sort, "Sort info must not be null");
 
-        // Find all tags
+        // Find all tags, post counts are maintained along with them
         List<Tag> tags = tagRepository.findAll(sort);
 
-        // Find all post count
-        Map<Integer, Long> tagPostCountMap = ServiceUtils
-            .convertToMap(postTagRepository.findPostCount(), TagPostPostCountProjection::getTagId,
-                TagPostPostCountProjection::getPostCount);
-
-        // Find post count
         return tags.stream().map(
             tag -> {
                 TagWithPostCountDTO tagWithCountOutputDTO =
                     new TagWithPostCountDTO().convertFrom(tag);
-                tagWithCountOutputDTO.setPostCount(tagPostCountMap.getOrDefault(tag.getId(), 0L));
-
-                StringBuilder fullPath = new StringBuilder();
-
-                if (optionService.isEnabledAbsolutePath()) {
-                    fullPath.append(optionService.getBlogBaseUrl());
-                }
-
-                fullPath.append(URL_SEPARATOR)
-                    .append(optionService.getTagsPrefix())
-                    .append(URL_SEPARATOR)
-                    .append(tag.getSlug())
-                    .append(optionService.getPathSuffix());
 
-                tagWithCountOutputDTO.setFullPath(fullPath.toString());
+                tagWithCountOutputDTO.setFullPath(permalinkRouter.buildTagFullPath(tag.getSlug()));
 
                 return tagWithCountOutputDTO;
             }
@@ -239,6 +222,11 @@ public class PostTagServiceImpl extends AbstractCrudService<PostTag, Integer>
         // Add all created post tags
         postTags.addAll(createInBatch(postTagsToCreate));
 
+        // Refresh post counts of all tags of the post, since its status may be changed as well
+        Set<Integer> affectedTagIds = new HashSet<>(tagIds);
+        affectedTagIds.addAll(ServiceUtils.fetchProperty(postTagsToRemove, PostTag::getTagId));
+        refreshPostCountBy(affectedTagIds);
+
         // Return post tags
         return postTags;
     }
@@ -268,7 +256,11 @@ public class PostTagServiceImpl extends AbstractCrudService<PostTag, Integer>
     public List<PostTag> removeByPostId(Integer postId) {
         Assert.notNull(postId, "Post id must not be null");
 
-        return postTagRepository.deleteByPostId(postId);
+        List<PostTag> postTags = postTagRepository.deleteByPostId(postId);
+
+        refreshPostCountBy(ServiceUtils.fetchProperty(postTags, PostTag::getTagId));
+
+        return postTags;
     }
 
     @Override
@@ -277,4 +269,45 @@ public class PostTagServiceImpl extends AbstractCrudService<PostTag, Integer>
 
         return postTagRepository.deleteByTagId(tagId);
     }
+
+    @Override
+    public void refreshPostCountBy(Collection<Integer> tagIds) {
+        if (CollectionUtils.isEmpty(tagIds)) {
+            return;
+        }
+
+        Map<Integer, Long> postCountMap = ServiceUtils.convertToMap(
+            postTagRepository.findPostCountByTagIds(tagIds),
+            TagPostPostCountProjection::getTagId, TagPostPostCountProjection::getPostCount);
+        Map<Integer, Long> publishedPostCountMap = ServiceUtils.convertToMap(
+            postTagRepository.findPostCountByTagIds(tagIds, PostStatus.PUBLISHED),
+            TagPostPostCountProjection::getTagId, TagPostPostCountProjection::getPostCount);
+
+        // Tags loaded earlier in the transaction may be stale, so update them unconditionally
+        tagIds.forEach(tagId -> tagRepository.updatePostCount(tagId,
+            postCountMap.getOrDefault(tagId, 0L), publishedPostCountMap.getOrDefault(tagId, 0L)));
+    }
+
+    @Override
+    public void refreshAllPostCounts() {
+        Map<Integer, Long> postCountMap = ServiceUtils.convertToMap(
+            postTagRepository.findPostCount(),
+            TagPostPostCountProjection::getTagId, TagPostPostCountProjection::getPostCount);
+        Map<Integer, Long> publishedPostCountMap = ServiceUtils.convertToMap(
+            postTagRepository.findPostCount(PostStatus.PUBLISHED),
+            TagPostPostCountProjection::getTagId, TagPostPostCountProjection::getPostCount);
+
+        int repaired = 0;
+        for (Tag tag : tagRepository.findAll()) {
+            long postCount = postCountMap.getOrDefault(tag.getId(), 0L);
+            long publishedPostCount = publishedPostCountMap.getOrDefault(tag.getId(), 0L);
+            if (!Objects.equals(tag.getPostCount(), postCount)
+                || !Objects.equals(tag.getPublishedPostCount(), publishedPostCount)) {
+                tagRepository.updatePostCount(tag.getId(), postCount, publishedPostCount);
+                repaired++;
+            }
+        }
+
+        log.debug("Repaired post counts of [{}] tags", repaired);
+    }
 }
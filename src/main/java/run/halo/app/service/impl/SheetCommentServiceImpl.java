@@ -1,7 +1,5 @@
 package run.halo.app.service.impl;
 
-import static run.halo.app.model.support.HaloConst.URL_SEPARATOR;
-
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -19,13 +17,14 @@ import run.halo.app.exception.NotFoundException;
 import run.halo.app.model.dto.post.BasePostMinimalDTO;
 import run.halo.app.model.entity.Sheet;
 import run.halo.app.model.entity.SheetComment;
-import run.halo.app.model.enums.SheetPermalinkType;
+import run.halo.app.model.projection.CommentCountProjection;
 import run.halo.app.model.vo.SheetCommentWithSheetVO;
 import run.halo.app.repository.SheetCommentRepository;
 import run.halo.app.repository.SheetRepository;
 import run.halo.app.service.OptionService;
 import run.halo.app.service.SheetCommentService;
 import run.halo.app.service.UserService;
+import run.halo.app.service.support.PermalinkRouter;
 import run.halo.app.utils.ServiceUtils;
 
 /**
@@ -41,13 +40,17 @@ public class SheetCommentServiceImpl extends BaseCommentServiceImpl<SheetComment
 
     private final SheetRepository sheetRepository;
 
+    private final PermalinkRouter permalinkRouter;
+
     public SheetCommentServiceImpl(SheetCommentRepository sheetCommentRepository,
         OptionService optionService,
         UserService userService,
         ApplicationEventPublisher eventPublisher,
-        SheetRepository sheetRepository) {
+        SheetRepository sheetRepository,
+        PermalinkRouter permalinkRouter) {
         super(sheetCommentRepository, optionService, userService, eventPublisher);
         this.sheetRepository = sheetRepository;
+        this.permalinkRouter = permalinkRouter;
     }
 
     @Override
@@ -60,6 +63,22 @@ public class SheetCommentServiceImpl extends BaseCommentServiceImpl<SheetComment
         }
     }
 
+    @Override
+    protected void updateCommentCount(@NonNull Integer sheetId, long commentCount) {
+        sheetRepository.updateCommentCount(commentCount, sheetId);
+    }
+
+    @Override
+    protected void increaseCommentCount(@NonNull Integer sheetId, long delta) {
+        sheetRepository.increaseCommentCount(delta, sheetId);
+    }
+
+    @Override
+    @NonNull
+    protected List<CommentCountProjection> listCommentCounts() {
+        return sheetRepository.findAllCommentCounts();
+    }
+
     @Override
     @NonNull
     public SheetCommentWithSheetVO convertToWithSheetVo(@NonNull SheetComment comment) {
@@ -118,27 +137,8 @@ public class SheetCommentServiceImpl extends BaseCommentServiceImpl<SheetComment
     }
 
     private BasePostMinimalDTO buildSheetFullPath(BasePostMinimalDTO basePostMinimalDto) {
-        StringBuilder fullPath = new StringBuilder();
-
-        SheetPermalinkType permalinkType = optionService.getSheetPermalinkType();
-
-        if (optionService.isEnabledAbsolutePath()) {
-            fullPath.append(optionService.getBlogBaseUrl());
-        }
-
-        if (permalinkType.equals(SheetPermalinkType.SECONDARY)) {
-            fullPath.append(URL_SEPARATOR)
-                .append(optionService.getSheetPrefix())
-                .append(URL_SEPARATOR)
-                .append(basePostMinimalDto.getSlug())
-                .append(optionService.getPathSuffix());
-        } else if (permalinkType.equals(SheetPermalinkType.ROOT)) {
-            fullPath.append(URL_SEPARATOR)
-                .append(basePostMinimalDto.getSlug())
-                .append(optionService.getPathSuffix());
-        }
-
-        basePostMinimalDto.setFullPath(fullPath.toString());
+        basePostMinimalDto.setFullPath(
+            permalinkRouter.buildSheetFullPath(basePostMinimalDto.getSlug()));
         return basePostMinimalDto;
     }
 
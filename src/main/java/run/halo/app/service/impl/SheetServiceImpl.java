@@ -1,11 +1,10 @@
 package run.halo.app.service.impl;
 
-import static run.halo.app.model.support.HaloConst.URL_SEPARATOR;
-
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -19,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import run.halo.app.event.logger.LogEvent;
+import run.halo.app.event.post.SheetUpdatedEvent;
 import run.halo.app.event.post.SheetVisitEvent;
 import run.halo.app.exception.AlreadyExistsException;
 import run.halo.app.exception.NotFoundException;
@@ -27,10 +27,8 @@ import run.halo.app.model.dto.post.BasePostMinimalDTO;
 import run.halo.app.model.entity.Sheet;
 import run.halo.app.model.entity.SheetComment;
 import run.halo.app.model.entity.SheetMeta;
-import run.halo.app.model.enums.CommentStatus;
 import run.halo.app.model.enums.LogType;
 import run.halo.app.model.enums.PostStatus;
-import run.halo.app.model.enums.SheetPermalinkType;
 import run.halo.app.model.vo.SheetDetailVO;
 import run.halo.app.model.vo.SheetListVO;
 import run.halo.app.repository.SheetRepository;
@@ -39,6 +37,8 @@ import run.halo.app.service.SheetCommentService;
 import run.halo.app.service.SheetMetaService;
 import run.halo.app.service.SheetService;
 import run.halo.app.service.ThemeService;
+import run.halo.app.service.support.PermalinkRouter;
+import run.halo.app.service.support.PostCounterBuffer;
 import run.halo.app.utils.MarkdownUtils;
 import run.halo.app.utils.ServiceUtils;
 
@@ -66,19 +66,24 @@ public class SheetServiceImpl extends BasePostServiceImpl<Sheet> implements Shee
 
     private final OptionService optionService;
 
+    private final PermalinkRouter permalinkRouter;
+
     public SheetServiceImpl(SheetRepository sheetRepository,
         ApplicationEventPublisher eventPublisher,
         SheetCommentService sheetCommentService,
         SheetMetaService sheetMetaService,
         ThemeService themeService,
-        OptionService optionService) {
-        super(sheetRepository, optionService);
+        OptionService optionService,
+        PostCounterBuffer postCounterBuffer,
+        PermalinkRouter permalinkRouter) {
+        super(sheetRepository, optionService, postCounterBuffer);
         this.sheetRepository = sheetRepository;
         this.eventPublisher = eventPublisher;
         this.sheetCommentService = sheetCommentService;
         this.sheetMetaService = sheetMetaService;
         this.themeService = themeService;
         this.optionService = optionService;
+        this.permalinkRouter = permalinkRouter;
     }
 
     @Override
@@ -264,25 +269,36 @@ public class SheetServiceImpl extends BasePostServiceImpl<Sheet> implements Shee
         eventPublisher.publishEvent(
             new LogEvent(this, id.toString(), LogType.SHEET_DELETED, sheet.getTitle()));
 
+        eventPublisher.publishEvent(new SheetUpdatedEvent(this, id));
+
         return sheet;
     }
 
     @Override
-    public Page<SheetListVO> convertToListVo(Page<Sheet> sheetPage) {
-        Assert.notNull(sheetPage, "Sheet page must not be null");
+    public Sheet create(Sheet sheet) {
+        Sheet createdSheet = super.create(sheet);
+
+        eventPublisher.publishEvent(new SheetUpdatedEvent(this, createdSheet.getId()));
+
+        return createdSheet;
+    }
+
+    @Override
+    public Sheet update(Sheet sheet) {
+        Sheet updatedSheet = super.update(sheet);
 
-        // Get all sheet id
-        List<Sheet> sheets = sheetPage.getContent();
+        eventPublisher.publishEvent(new SheetUpdatedEvent(this, updatedSheet.getId()));
 
-        Set<Integer> sheetIds = ServiceUtils.fetchProperty(sheets, Sheet::getId);
+        return updatedSheet;
+    }
 
-        // key: sheet id, value: comment count
-        Map<Integer, Long> sheetCommentCountMap = sheetCommentService.countByStatusAndPostIds(
-            CommentStatus.PUBLISHED, sheetIds);
+    @Override
+    public Page<SheetListVO> convertToListVo(Page<Sheet> sheetPage) {
+        Assert.notNull(sheetPage, "Sheet page must not be null");
 
         return sheetPage.map(sheet -> {
             SheetListVO sheetListVO = new SheetListVO().convertFrom(sheet);
-            sheetListVO.setCommentCount(sheetCommentCountMap.getOrDefault(sheet.getId(), 0L));
+            sheetListVO.setCommentCount(Objects.requireNonNullElse(sheet.getCommentCount(), 0L));
 
             sheetListVO.setFullPath(buildFullPath(sheet));
 
@@ -341,7 +357,7 @@ public class SheetServiceImpl extends BasePostServiceImpl<Sheet> implements Shee
             sheetDetailVO.setSummary(generateSummary(sheet.getFormatContent()));
         }
 
-        sheetDetailVO.setCommentCount(sheetCommentService.countByPostId(sheet.getId()));
+        sheetDetailVO.setCommentCount(Objects.requireNonNullElse(sheet.getCommentCount(), 0L));
 
         sheetDetailVO.setFullPath(buildFullPath(sheet));
 
@@ -369,27 +385,7 @@ public class SheetServiceImpl extends BasePostServiceImpl<Sheet> implements Shee
     }
 
     private String buildFullPath(Sheet sheet) {
-        StringBuilder fullPath = new StringBuilder();
-
-        SheetPermalinkType permalinkType = optionService.getSheetPermalinkType();
-
-        if (optionService.isEnabledAbsolutePath()) {
-            fullPath.append(optionService.getBlogBaseUrl());
-        }
-
-        if (permalinkType.equals(SheetPermalinkType.SECONDARY)) {
-            fullPath.append(URL_SEPARATOR)
-                .append(optionService.getSheetPrefix())
-                .append(URL_SEPARATOR)
-                .append(sheet.getSlug())
-                .append(optionService.getPathSuffix());
-        } else if (permalinkType.equals(SheetPermalinkType.ROOT)) {
-            fullPath.append(URL_SEPARATOR)
-                .append(sheet.getSlug())
-                .append(optionService.getPathSuffix());
-        }
-
-        return fullPath.toString();
+        return permalinkRouter.buildSheetFullPath(sheet.getSlug());
     }
 
 }
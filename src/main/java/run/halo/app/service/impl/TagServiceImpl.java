@@ -1,23 +1,24 @@
 package run.halo.app.service.impl;
 
-import static run.halo.app.model.support.HaloConst.URL_SEPARATOR;
-
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import run.halo.app.event.tag.TagUpdatedEvent;
 import run.halo.app.exception.AlreadyExistsException;
 import run.halo.app.exception.NotFoundException;
 import run.halo.app.model.dto.TagDTO;
 import run.halo.app.model.entity.Tag;
 import run.halo.app.repository.TagRepository;
-import run.halo.app.service.OptionService;
 import run.halo.app.service.TagService;
 import run.halo.app.service.base.AbstractCrudService;
+import run.halo.app.service.support.PermalinkRouter;
 
 /**
  * TagService implementation class.
@@ -32,13 +33,17 @@ public class TagServiceImpl extends AbstractCrudService<Tag, Integer> implements
 
     private final TagRepository tagRepository;
 
-    private final OptionService optionService;
+    private final PermalinkRouter permalinkRouter;
+
+    private final ApplicationEventPublisher eventPublisher;
 
     public TagServiceImpl(TagRepository tagRepository,
-        OptionService optionService) {
+        PermalinkRouter permalinkRouter,
+        ApplicationEventPublisher eventPublisher) {
         super(tagRepository);
         this.tagRepository = tagRepository;
-        this.optionService = optionService;
+        this.permalinkRouter = permalinkRouter;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -55,7 +60,54 @@ public class TagServiceImpl extends AbstractCrudService<Tag, Integer> implements
         }
 
         // Get tag name
-        return super.create(tag);
+        Tag createdTag = super.create(tag);
+        eventPublisher.publishEvent(new TagUpdatedEvent(this));
+        return createdTag;
+    }
+
+    @Override
+    public List<Tag> createInBatch(Collection<Tag> tags) {
+        List<Tag> createdTags = super.createInBatch(tags);
+        eventPublisher.publishEvent(new TagUpdatedEvent(this));
+        return createdTags;
+    }
+
+    @Override
+    public Tag update(Tag tag) {
+        Tag updatedTag = super.update(tag);
+        eventPublisher.publishEvent(new TagUpdatedEvent(this));
+        return updatedTag;
+    }
+
+    @Override
+    public List<Tag> updateInBatch(Collection<Tag> tags) {
+        List<Tag> updatedTags = super.updateInBatch(tags);
+        eventPublisher.publishEvent(new TagUpdatedEvent(this));
+        return updatedTags;
+    }
+
+    @Override
+    public void remove(Tag tag) {
+        super.remove(tag);
+        eventPublisher.publishEvent(new TagUpdatedEvent(this));
+    }
+
+    @Override
+    public void removeInBatch(Collection<Integer> ids) {
+        super.removeInBatch(ids);
+        eventPublisher.publishEvent(new TagUpdatedEvent(this));
+    }
+
+    @Override
+    public void removeAll(Collection<Tag> tags) {
+        super.removeAll(tags);
+        eventPublisher.publishEvent(new TagUpdatedEvent(this));
+    }
+
+    @Override
+    public void removeAll() {
+        super.removeAll();
+        eventPublisher.publishEvent(new TagUpdatedEvent(this));
     }
 
     @Override
@@ -80,19 +132,7 @@ public class TagServiceImpl extends AbstractCrudService<Tag, Integer> implements
 
         TagDTO tagDTO = new TagDTO().convertFrom(tag);
 
-        StringBuilder fullPath = new StringBuilder();
-
-        if (optionService.isEnabledAbsolutePath()) {
-            fullPath.append(optionService.getBlogBaseUrl());
-        }
-
-        fullPath.append(URL_SEPARATOR)
-            .append(optionService.getTagsPrefix())
-            .append(URL_SEPARATOR)
-            .append(tag.getSlug())
-            .append(optionService.getPathSuffix());
-
-        tagDTO.setFullPath(fullPath.toString());
+        tagDTO.setFullPath(permalinkRouter.buildTagFullPath(tag.getSlug()));
 
         return tagDTO;
     }
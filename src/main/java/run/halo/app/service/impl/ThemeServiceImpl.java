@@ -21,6 +21,7 @@ import org.springframework.util.Assert;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.core.freemarker.ThemeTemplateCache;
 import run.halo.app.event.theme.ThemeActivatedEvent;
 import run.halo.app.event.theme.ThemeUpdatedEvent;
 import run.halo.app.exception.BadRequestException;
@@ -75,12 +76,15 @@ public class ThemeServiceImpl implements ThemeService {
 
     private final ThemeRepository themeRepository;
 
+    private final ThemeTemplateCache themeTemplateCache;
+
     public ThemeServiceImpl(HaloProperties haloProperties,
         ThemeConfigResolver themeConfigResolver,
         RestTemplate restTemplate,
         ApplicationEventPublisher eventPublisher,
         ThemeSettingRepository themeSettingRepository,
-        ThemeRepository themeRepository) {
+        ThemeRepository themeRepository,
+        ThemeTemplateCache themeTemplateCache) {
         this.themeConfigResolver = themeConfigResolver;
         this.restTemplate = restTemplate;
 
@@ -88,6 +92,7 @@ public class ThemeServiceImpl implements ThemeService {
         this.eventPublisher = eventPublisher;
         this.themeSettingRepository = themeSettingRepository;
         this.themeRepository = themeRepository;
+        this.themeTemplateCache = themeTemplateCache;
 
         this.fetcherComposite = new ThemeFetcherComposite();
         this.fetcherComposite.addFetcher(new ZipThemeFetcher());
@@ -160,7 +165,7 @@ public class ThemeServiceImpl implements ThemeService {
             // Check the directory
             checkDirectory(templatePath.toString());
             // Check existence
-            return Files.exists(templatePath);
+            return themeTemplateCache.fileExists(themeProperty, template);
         }).orElse(false);
     }
 
@@ -214,6 +219,8 @@ public class ThemeServiceImpl implements ThemeService {
         } catch (IOException e) {
             throw new ServiceException("保存模板内容失败 " + absolutePath, e);
         }
+
+        eventPublisher.publishEvent(new ThemeUpdatedEvent(this));
     }
 
     @Override
@@ -229,6 +236,8 @@ public class ThemeServiceImpl implements ThemeService {
         } catch (IOException e) {
             throw new ServiceException("保存模板内容失败 " + absolutePath, e);
         }
+
+        eventPublisher.publishEvent(new ThemeUpdatedEvent(this));
     }
 
     @Transactional
@@ -0,0 +1,133 @@
+package run.halo.app.service.support;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import run.halo.app.model.entity.Category;
+import run.halo.app.utils.ServiceUtils;
+
+/**
+ * Immutable snapshot of the category tree.
+ *
+ * <p>Every node knows its nearest encrypted category, which is itself or the closest ancestor
+ * with a password. Only that category decides whether the node is accessible, so encryption
+ * checks are a single map lookup.
+ */
+public final class CategoryTreeSnapshot {
+
+    private final Map<Integer, Node> nodes;
+
+    public CategoryTreeSnapshot(@NonNull Collection<Category> categories) {
+        Assert.notNull(categories, "Categories must not be null");
+
+        Map<Integer, Category> categoryMap = new HashMap<>(categories.size());
+        categories.forEach(category -> categoryMap.put(category.getId(), category));
+
+        Map<Integer, Node> nodeMap = new HashMap<>(categories.size());
+        categories.forEach(category -> resolve(category.getId(), categoryMap, nodeMap));
+
+        this.nodes = Collections.unmodifiableMap(nodeMap);
+    }
+
+    /**
+     * Gets node of the category.
+     *
+     * @param categoryId category id
+     * @return node of the category or null if not found
+     */
+    @Nullable
+    public Node get(@Nullable Integer categoryId) {
+        return categoryId == null ? null : nodes.get(categoryId);
+    }
+
+    /**
+     * Gets the nearest encrypted category of the category, which is itself or the closest
+     * ancestor with a password.
+     *
+     * @param categoryId category id
+     * @return the nearest encrypted category or null if the category is not encrypted at all
+     */
+    @Nullable
+    public Node getEncryptedNode(@Nullable Integer categoryId) {
+        Node node = get(categoryId);
+        return node == null ? null : nodes.get(node.getEncryptedCategoryId());
+    }
+
+    /**
+     * Checks whether the category or any of its ancestors is encrypted.
+     *
+     * @param categoryId category id
+     * @return true if encrypted, false otherwise
+     */
+    public boolean isEncrypted(@Nullable Integer categoryId) {
+        return getEncryptedNode(categoryId) != null;
+    }
+
+    /**
+     * Resolves node of the category, from top to bottom so that every ancestor is resolved
+     * once.
+     */
+    @Nullable
+    private static Node resolve(@Nullable Integer categoryId,
+        @NonNull Map<Integer, Category> categoryMap, @NonNull Map<Integer, Node> nodeMap) {
+        if (ServiceUtils.isEmptyId(categoryId)) {
+            return null;
+        }
+
+        Node node = nodeMap.get(categoryId);
+        if (node != null) {
+            return node;
+        }
+
+        Category category = categoryMap.get(categoryId);
+        if (category == null) {
+            return null;
+        }
+
+        // Guard against cycles made by broken data
+        nodeMap.put(categoryId, new Node(category, null));
+
+        Integer encryptedCategoryId;
+        if (StringUtils.isNotBlank(category.getPassword())) {
+            encryptedCategoryId = categoryId;
+        } else {
+            Node parent = resolve(category.getParentId(), categoryMap, nodeMap);
+            encryptedCategoryId = parent == null ? null : parent.getEncryptedCategoryId();
+        }
+
+        node = new Node(category, encryptedCategoryId);
+        nodeMap.put(categoryId, node);
+        return node;
+    }
+
+    /**
+     * Category node.
+     */
+    @Getter
+    public static final class Node {
+
+        private final Integer id;
+
+        private final Integer parentId;
+
+        private final String password;
+
+        /**
+         * Id of the nearest encrypted category, null if not encrypted.
+         */
+        private final Integer encryptedCategoryId;
+
+        private Node(@NonNull Category category, @Nullable Integer encryptedCategoryId) {
+            this.id = category.getId();
+            this.parentId = category.getParentId();
+            this.password = category.getPassword();
+            this.encryptedCategoryId = encryptedCategoryId;
+        }
+    }
+}
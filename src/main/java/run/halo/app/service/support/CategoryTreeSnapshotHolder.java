@@ -0,0 +1,74 @@
+package run.halo.app.service.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import run.halo.app.event.category.CategoryUpdatedEvent;
+import run.halo.app.repository.CategoryRepository;
+
+/**
+ * Holds the latest {@link CategoryTreeSnapshot}, which is loaded lazily and dropped once
+ * categories are updated.
+ */
+@Slf4j
+@Component
+public class CategoryTreeSnapshotHolder {
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile CategoryTreeSnapshot snapshot;
+
+    public CategoryTreeSnapshotHolder(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Gets the category tree snapshot.
+     *
+     * @return category tree snapshot
+     */
+    @NonNull
+    public CategoryTreeSnapshot get() {
+        CategoryTreeSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = new CategoryTreeSnapshot(categoryRepository.findAll());
+                    snapshot = current;
+                    log.debug("Loaded category tree snapshot");
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Drops the snapshot immediately, so that the rest of the updating transaction sees the
+     * changes.
+     *
+     * @param event category updated event
+     */
+    @EventListener
+    public void onCategoryUpdated(CategoryUpdatedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Drops the snapshot again after the transaction completed, in case it was reloaded by
+     * another thread before committing.
+     *
+     * @param event category updated event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterCategoryUpdated(CategoryUpdatedEvent event) {
+        invalidate();
+    }
+
+    private synchronized void invalidate() {
+        snapshot = null;
+    }
+}
@@ -0,0 +1,66 @@
+package run.halo.app.service.support;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.lang.NonNull;
+import org.springframework.util.Assert;
+import run.halo.app.model.properties.PropertyEnum;
+
+/**
+ * Immutable snapshot of all options.
+ *
+ * <p>Values of known properties have already been converted to the types declared by their
+ * {@link PropertyEnum}, so typed reads are mostly a map lookup and a cast.
+ */
+public final class OptionSnapshot {
+
+    private final Map<String, Object> options;
+
+    public OptionSnapshot(@NonNull Map<String, Object> options) {
+        Assert.notNull(options, "Options must not be null");
+
+        this.options = Collections.unmodifiableMap(new HashMap<>(options));
+    }
+
+    /**
+     * Gets all options as an unmodifiable map.
+     *
+     * @return an unmodifiable option map
+     */
+    @NonNull
+    public Map<String, Object> asMap() {
+        return options;
+    }
+
+    /**
+     * Gets option value by key.
+     *
+     * @param key option key must not be null
+     * @return an optional option value
+     */
+    @NonNull
+    public Optional<Object> get(@NonNull String key) {
+        return Optional.ofNullable(options.get(key));
+    }
+
+    /**
+     * Gets option value by key with the given type.
+     *
+     * @param key option key must not be null
+     * @param valueType value type must not be null
+     * @param <T> value type
+     * @return an optional option value
+     */
+    @NonNull
+    public <T> Optional<T> get(@NonNull String key, @NonNull Class<T> valueType) {
+        return get(key).map(value -> {
+            if (valueType.isInstance(value)) {
+                // The value has been converted while taking the snapshot
+                return valueType.cast(value);
+            }
+            return PropertyEnum.convertTo(value.toString(), valueType);
+        });
+    }
+}
@@ -0,0 +1,603 @@
+package run.halo.app.service.support;
+
+import static run.halo.app.model.support.HaloConst.URL_SEPARATOR;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+import run.halo.app.event.options.OptionUpdatedEvent;
+import run.halo.app.event.post.PostUpdatedEvent;
+import run.halo.app.event.post.SheetUpdatedEvent;
+import run.halo.app.model.enums.PostPermalinkType;
+import run.halo.app.model.enums.SheetPermalinkType;
+import run.halo.app.model.projection.PostPermalinkProjection;
+import run.halo.app.repository.PostRepository;
+import run.halo.app.repository.SheetRepository;
+import run.halo.app.service.OptionService;
+import run.halo.app.utils.DateUtils;
+
+/**
+ * Compiled routing table of permalinks, which resolves request paths to posts and sheets and
+ * builds full paths of posts, sheets, categories and tags without accessing options or database.
+ *
+ * <p>The table is compiled lazily from options and permalinks of all posts and sheets, compiled
+ * again once options are updated, and patched post by post and sheet by sheet once the
+ * transaction updating it is committed.
+ *
+ * <p>Slugs are matched case-insensitively, as the default collation of MySQL did when paths were
+ * resolved by database queries. Posts or sheets whose slugs differ only in case are resolved to
+ * one of them.
+ */
+@Slf4j
+@Component
+public class PermalinkRouter {
+
+    private final OptionService optionService;
+
+    private final PostRepository postRepository;
+
+    private final SheetRepository sheetRepository;
+
+    private volatile Routes routes;
+
+    /**
+     * Version of the table, increased on every change so that a table compiled before the
+     * change is discarded.
+     */
+    private long version;
+
+    public PermalinkRouter(OptionService optionService,
+        PostRepository postRepository,
+        SheetRepository sheetRepository) {
+        this.optionService = optionService;
+        this.postRepository = postRepository;
+        this.sheetRepository = sheetRepository;
+    }
+
+    /**
+     * Matches the first path segment against prefixes of content pages.
+     *
+     * @param prefix first path segment
+     * @return the matched prefix, or null if no prefix matched
+     */
+    @Nullable
+    public Prefix matchPrefix(@Nullable String prefix) {
+        return prefix == null ? null : getRoutes().prefixes.get(prefix);
+    }
+
+    /**
+     * Finds post id by a path of two segments, for default, id slug and year permalinks.
+     *
+     * @param prefix first path segment must not be null
+     * @param slug second path segment must not be null
+     * @return an optional post id
+     */
+    @NonNull
+    public Optional<Integer> findPostId(@NonNull String prefix, @NonNull String slug) {
+        Assert.notNull(prefix, "Prefix must not be null");
+        Assert.notNull(slug, "Slug must not be null");
+
+        Routes current = getRoutes();
+        switch (current.postPermalinkType) {
+            case DEFAULT:
+                return current.archivesPrefix.equals(prefix)
+                    ? current.findPostId(slug) : Optional.empty();
+            case ID_SLUG:
+                int id = NumberUtils.toInt(slug, -1);
+                return current.archivesPrefix.equals(prefix) && id >= 0
+                    ? current.findPostId(String.valueOf(id)) : Optional.empty();
+            case YEAR:
+                return prefix.length() == 4 && StringUtils.isNumeric(prefix)
+                    ? current.findPostId(routeKey(Integer.parseInt(prefix), slug))
+                    : Optional.empty();
+            default:
+                return Optional.empty();
+        }
+    }
+
+    /**
+     * Finds post id by create year, create month and slug, for date permalinks.
+     *
+     * @param year create year
+     * @param month create month starting from 1
+     * @param slug post slug must not be null
+     * @return an optional post id
+     */
+    @NonNull
+    public Optional<Integer> findPostId(int year, int month, @NonNull String slug) {
+        Assert.notNull(slug, "Slug must not be null");
+
+        Routes current = getRoutes();
+        return PostPermalinkType.DATE.equals(current.postPermalinkType)
+            ? current.findPostId(routeKey(year, month, slug)) : Optional.empty();
+    }
+
+    /**
+     * Finds post id by create year, create month, create day and slug, for day permalinks.
+     *
+     * @param year create year
+     * @param month create month starting from 1
+     * @param day create day of month
+     * @param slug post slug must not be null
+     * @return an optional post id
+     */
+    @NonNull
+    public Optional<Integer> findPostId(int year, int month, int day, @NonNull String slug) {
+        Assert.notNull(slug, "Slug must not be null");
+
+        Routes current = getRoutes();
+        return PostPermalinkType.DAY.equals(current.postPermalinkType)
+            ? current.findPostId(routeKey(year, month, day, slug)) : Optional.empty();
+    }
+
+    /**
+     * Finds sheet id by a path of one segment, for root sheet permalinks.
+     *
+     * @param slug sheet slug must not be null
+     * @return an optional sheet id
+     */
+    @NonNull
+    public Optional<Integer> findSheetId(@NonNull String slug) {
+        Assert.notNull(slug, "Slug must not be null");
+
+        Routes current = getRoutes();
+        return SheetPermalinkType.ROOT.equals(current.sheetPermalinkType)
+            ? current.findSheetId(slug) : Optional.empty();
+    }
+
+    /**
+     * Finds sheet id by a path of two segments, for secondary sheet permalinks.
+     *
+     * @param prefix first path segment must not be null
+     * @param slug sheet slug must not be null
+     * @return an optional sheet id
+     */
+    @NonNull
+    public Optional<Integer> findSheetId(@NonNull String prefix, @NonNull String slug) {
+        Assert.notNull(prefix, "Prefix must not be null");
+        Assert.notNull(slug, "Slug must not be null");
+
+        Routes current = getRoutes();
+        return SheetPermalinkType.SECONDARY.equals(current.sheetPermalinkType)
+            && current.sheetPrefix.equals(prefix)
+            ? current.findSheetId(slug) : Optional.empty();
+    }
+
+    /**
+     * Gets full path of the post.
+     *
+     * @param postId post id must not be null
+     * @param slug post slug
+     * @param createTime create time of the post
+     * @return full path of the post
+     */
+    @NonNull
+    public String getPostFullPath(@NonNull Integer postId, @Nullable String slug,
+        @Nullable Date createTime) {
+        Assert.notNull(postId, "Post id must not be null");
+
+        Routes current = getRoutes();
+        PostLink link = current.postLinks.get(postId);
+        // The post may be changed but not committed yet
+        if (link != null && Objects.equals(link.slug, slug)
+            && Objects.equals(link.createTime, timeOf(createTime))) {
+            return link.fullPath;
+        }
+        return current.buildPostFullPath(postId, slug, createTime);
+    }
+
+    /**
+     * Builds full path of the sheet.
+     *
+     * @param slug sheet slug
+     * @return full path of the sheet
+     */
+    @NonNull
+    public String buildSheetFullPath(@Nullable String slug) {
+        Routes current = getRoutes();
+        switch (current.sheetPermalinkType) {
+            case SECONDARY:
+                return current.buildFullPath(current.sheetPrefix, slug);
+            case ROOT:
+                return current.context + URL_SEPARATOR + slug + current.pathSuffix;
+            default:
+                return current.context;
+        }
+    }
+
+    /**
+     * Builds full path of the category.
+     *
+     * @param slug category slug
+     * @return full path of the category
+     */
+    @NonNull
+    public String buildCategoryFullPath(@Nullable String slug) {
+        Routes current = getRoutes();
+        return current.buildFullPath(current.categoriesPrefix, slug);
+    }
+
+    /**
+     * Builds full path of the tag.
+     *
+     * @param slug tag slug
+     * @return full path of the tag
+     */
+    @NonNull
+    public String buildTagFullPath(@Nullable String slug) {
+        Routes current = getRoutes();
+        return current.buildFullPath(current.tagsPrefix, slug);
+    }
+
+    /**
+     * Patches the post in the table after the transaction committed.
+     *
+     * @param event post updated event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostUpdated(PostUpdatedEvent event) {
+        refreshPost(event.getPostId());
+    }
+
+    /**
+     * Patches the sheet in the table after the transaction committed.
+     *
+     * @param event sheet updated event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSheetUpdated(SheetUpdatedEvent event) {
+        refreshSheet(event.getSheetId());
+    }
+
+    /**
+     * Drops the table, since prefixes and permalink types may be changed, and options are also
+     * updated when importing backups, which may change posts in bulk.
+     */
+    @TransactionalEventListener(classes = OptionUpdatedEvent.class, fallbackExecution = true)
+    public synchronized void onOptionUpdated() {
+        version++;
+        routes = null;
+    }
+
+    /**
+     * Patches the post in the table.
+     *
+     * @param postId post id must not be null
+     */
+    public void refreshPost(@NonNull Integer postId) {
+        Optional<PostPermalinkProjection> permalink = postRepository.findPermalinkBy(postId);
+
+        synchronized (this) {
+            version++;
+            Routes current = routes;
+            if (current != null) {
+                routes = current.withPost(postId, permalink.orElse(null));
+            }
+        }
+    }
+
+    /**
+     * Patches the sheet in the table.
+     *
+     * @param sheetId sheet id must not be null
+     */
+    public void refreshSheet(@NonNull Integer sheetId) {
+        Optional<PostPermalinkProjection> permalink = sheetRepository.findPermalinkBy(sheetId);
+
+        synchronized (this) {
+            version++;
+            Routes current = routes;
+            if (current != null) {
+                routes = current.withSheet(sheetId, permalink.orElse(null));
+            }
+        }
+    }
+
+    @NonNull
+    private Routes getRoutes() {
+        Routes current = routes;
+        if (current != null) {
+            return current;
+        }
+
+        long compilingVersion;
+        synchronized (this) {
+            compilingVersion = version;
+        }
+        current = new Routes(optionService, postRepository.findAllPermalinks(),
+            sheetRepository.findAllPermalinks());
+
+        synchronized (this) {
+            if (version == compilingVersion && routes == null) {
+                routes = current;
+                log.debug("Compiled permalinks of [{}] posts and [{}] sheets",
+                    current.postLinks.size(), current.sheetIds.size());
+            }
+        }
+        return current;
+    }
+
+    @Nullable
+    private static Long timeOf(@Nullable Date date) {
+        return date == null ? null : date.getTime();
+    }
+
+    @NonNull
+    private static String routeKey(Object... segments) {
+        return StringUtils.join(segments, URL_SEPARATOR);
+    }
+
+    /**
+     * Folds case of the route key or slug, so that it is matched case-insensitively.
+     */
+    @Nullable
+    private static String foldCase(@Nullable String key) {
+        return key == null ? null : key.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Prefixes of content pages.
+     */
+    public enum Prefix {
+        ARCHIVES,
+        CATEGORIES,
+        TAGS,
+        JOURNALS,
+        PHOTOS,
+        LINKS
+    }
+
+    /**
+     * Full path of a post, with fields it was built from.
+     */
+    private static class PostLink {
+
+        private final String routeKey;
+
+        private final String slug;
+
+        private final Long createTime;
+
+        private final String fullPath;
+
+        private PostLink(String routeKey, String slug, Long createTime, String fullPath) {
+            this.routeKey = routeKey;
+            this.slug = slug;
+            this.createTime = createTime;
+            this.fullPath = fullPath;
+        }
+    }
+
+    private static class Routes {
+
+        private final Map<String, Prefix> prefixes;
+
+        private final PostPermalinkType postPermalinkType;
+
+        private final SheetPermalinkType sheetPermalinkType;
+
+        private final String archivesPrefix;
+
+        private final String categoriesPrefix;
+
+        private final String tagsPrefix;
+
+        private final String sheetPrefix;
+
+        private final String pathSuffix;
+
+        /**
+         * Blog base url if absolute paths are enabled, empty otherwise.
+         */
+        private final String context;
+
+        /**
+         * Post ids by case folded route key.
+         */
+        private final Map<String, Integer> postIds;
+
+        private final Map<Integer, PostLink> postLinks;
+
+        /**
+         * Sheet ids by case folded slug.
+         */
+        private final Map<String, Integer> sheetIds;
+
+        private Routes(OptionService optionService, List<PostPermalinkProjection> posts,
+            List<PostPermalinkProjection> sheets) {
+            this.postPermalinkType = optionService.getPostPermalinkType();
+            this.sheetPermalinkType = optionService.getSheetPermalinkType();
+            this.archivesPrefix = optionService.getArchivesPrefix();
+            this.categoriesPrefix = optionService.getCategoriesPrefix();
+            this.tagsPrefix = optionService.getTagsPrefix();
+            this.sheetPrefix = optionService.getSheetPrefix();
+            this.pathSuffix = optionService.getPathSuffix();
+            this.context = Boolean.TRUE.equals(optionService.isEnabledAbsolutePath())
+                ? optionService.getBlogBaseUrl() : "";
+
+            // The first matched prefix wins, in the same order as they were compared one by one
+            Map<String, Prefix> prefixMap = new HashMap<>();
+            prefixMap.putIfAbsent(archivesPrefix, Prefix.ARCHIVES);
+            prefixMap.putIfAbsent(categoriesPrefix, Prefix.CATEGORIES);
+            prefixMap.putIfAbsent(tagsPrefix, Prefix.TAGS);
+            prefixMap.putIfAbsent(optionService.getJournalsPrefix(), Prefix.JOURNALS);
+            prefixMap.putIfAbsent(optionService.getPhotosPrefix(), Prefix.PHOTOS);
+            prefixMap.putIfAbsent(optionService.getLinksPrefix(), Prefix.LINKS);
+            this.prefixes = Collections.unmodifiableMap(prefixMap);
+
+            Map<String, Integer> postIdMap = new HashMap<>(posts.size() * 2);
+            Map<Integer, PostLink> postLinkMap = new HashMap<>(posts.size() * 2);
+            posts.forEach(post -> putPost(postIdMap, postLinkMap, post));
+            this.postIds = postIdMap;
+            this.postLinks = postLinkMap;
+
+            Map<String, Integer> sheetIdMap = new HashMap<>(sheets.size() * 2);
+            sheets.forEach(sheet -> sheetIdMap.put(foldCase(sheet.getSlug()), sheet.getId()));
+            this.sheetIds = sheetIdMap;
+        }
+
+        private Routes(Routes routes, Map<String, Integer> postIds,
+            Map<Integer, PostLink> postLinks, Map<String, Integer> sheetIds) {
+            this.prefixes = routes.prefixes;
+            this.postPermalinkType = routes.postPermalinkType;
+            this.sheetPermalinkType = routes.sheetPermalinkType;
+            this.archivesPrefix = routes.archivesPrefix;
+            this.categoriesPrefix = routes.categoriesPrefix;
+            this.tagsPrefix = routes.tagsPrefix;
+            this.sheetPrefix = routes.sheetPrefix;
+            this.pathSuffix = routes.pathSuffix;
+            this.context = routes.context;
+            this.postIds = postIds;
+            this.postLinks = postLinks;
+            this.sheetIds = sheetIds;
+        }
+
+        @NonNull
+        private Optional<Integer> findPostId(@NonNull String routeKey) {
+            return Optional.ofNullable(postIds.get(foldCase(routeKey)));
+        }
+
+        @NonNull
+        private Optional<Integer> findSheetId(@NonNull String slug) {
+            return Optional.ofNullable(sheetIds.get(foldCase(slug)));
+        }
+
+        /**
+         * Copies the routes with the post replaced.
+         */
+        @NonNull
+        private Routes withPost(@NonNull Integer postId,
+            @Nullable PostPermalinkProjection post) {
+            Map<String, Integer> postIdMap = new HashMap<>(postIds);
+            Map<Integer, PostLink> postLinkMap = new HashMap<>(postLinks);
+            PostLink removedLink = postLinkMap.remove(postId);
+            if (removedLink != null && removedLink.routeKey != null) {
+                postIdMap.remove(removedLink.routeKey, postId);
+            }
+            if (post != null) {
+                putPost(postIdMap, postLinkMap, post);
+            }
+            return new Routes(this, postIdMap, postLinkMap, sheetIds);
+        }
+
+        /**
+         * Copies the routes with the sheet replaced.
+         */
+        @NonNull
+        private Routes withSheet(@NonNull Integer sheetId,
+            @Nullable PostPermalinkProjection sheet) {
+            Map<String, Integer> sheetIdMap = new HashMap<>(sheetIds);
+            sheetIdMap.values().removeIf(sheetId::equals);
+            if (sheet != null) {
+                sheetIdMap.put(foldCase(sheet.getSlug()), sheetId);
+            }
+            return new Routes(this, postIds, postLinks, sheetIdMap);
+        }
+
+        private void putPost(Map<String, Integer> postIdMap, Map<Integer, PostLink> postLinkMap,
+            PostPermalinkProjection post) {
+            String routeKey = foldCase(
+                buildPostRouteKey(post.getId(), post.getSlug(), post.getCreateTime()));
+            if (routeKey != null) {
+                postIdMap.put(routeKey, post.getId());
+            }
+            postLinkMap.put(post.getId(), new PostLink(routeKey, post.getSlug(),
+                timeOf(post.getCreateTime()),
+                buildPostFullPath(post.getId(), post.getSlug(), post.getCreateTime())));
+        }
+
+        /**
+         * Builds the key which request paths of the post are resolved by, date segments are
+         * not padded so that both "/2021/03/slug" and "/2021/3/slug" are resolved.
+         *
+         * @return route key, or null if the post is not routed by this table
+         */
+        @Nullable
+        private String buildPostRouteKey(Integer id, String slug, @Nullable Date createTime) {
+            if (PostPermalinkType.DEFAULT.equals(postPermalinkType)) {
+                return slug;
+            }
+            if (PostPermalinkType.ID_SLUG.equals(postPermalinkType)) {
+                return String.valueOf(id);
+            }
+            if (PostPermalinkType.ID.equals(postPermalinkType) || createTime == null) {
+                return null;
+            }
+
+            Calendar calendar = DateUtils.convertTo(createTime);
+            int year = calendar.get(Calendar.YEAR);
+            int month = calendar.get(Calendar.MONTH) + 1;
+            switch (postPermalinkType) {
+                case YEAR:
+                    return routeKey(year, slug);
+                case DATE:
+                    return routeKey(year, month, slug);
+                case DAY:
+                    return routeKey(year, month, calendar.get(Calendar.DAY_OF_MONTH), slug);
+                default:
+                    return null;
+            }
+        }
+
+        @NonNull
+        private String buildPostFullPath(Integer id, String slug, Date createTime) {
+            StringBuilder fullPath = new StringBuilder(context).append(URL_SEPARATOR);
+            if (PostPermalinkType.DEFAULT.equals(postPermalinkType)) {
+                return fullPath.append(archivesPrefix)
+                    .append(URL_SEPARATOR)
+                    .append(slug)
+                    .append(pathSuffix)
+                    .toString();
+            }
+            if (PostPermalinkType.ID.equals(postPermalinkType)) {
+                return fullPath.append("?p=").append(id).toString();
+            }
+            if (PostPermalinkType.ID_SLUG.equals(postPermalinkType)) {
+                return fullPath.append(archivesPrefix)
+                    .append(URL_SEPARATOR)
+                    .append(id)
+                    .append(pathSuffix)
+                    .toString();
+            }
+
+            Calendar calendar = DateUtils.convertTo(createTime);
+            fullPath.append(calendar.get(Calendar.YEAR)).append(URL_SEPARATOR);
+            if (PostPermalinkType.DATE.equals(postPermalinkType)
+                || PostPermalinkType.DAY.equals(postPermalinkType)) {
+                appendTwoDigits(fullPath, calendar.get(Calendar.MONTH) + 1);
+                fullPath.append(URL_SEPARATOR);
+            }
+            if (PostPermalinkType.DAY.equals(postPermalinkType)) {
+                appendTwoDigits(fullPath, calendar.get(Calendar.DAY_OF_MONTH));
+                fullPath.append(URL_SEPARATOR);
+            }
+            return fullPath.append(slug).append(pathSuffix).toString();
+        }
+
+        @NonNull
+        private String buildFullPath(String prefix, @Nullable String slug) {
+            return context + URL_SEPARATOR + prefix + URL_SEPARATOR + slug + pathSuffix;
+        }
+
+        private static void appendTwoDigits(StringBuilder builder, int value) {
+            if (value < 10) {
+                builder.append('0');
+            }
+            builder.append(value);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package run.halo.app.service.support;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import run.halo.app.event.options.OptionUpdatedEvent;
+import run.halo.app.event.post.PostUpdatedEvent;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.PostArchiveProjection;
+import run.halo.app.repository.PostRepository;
+import run.halo.app.utils.DateUtils;
+
+/**
+ * In-memory index of published posts grouped by year and month of their create time.
+ *
+ * <p>The index is loaded lazily, and then kept up to date post by post once the transaction
+ * updating the post is committed.
+ */
+@Slf4j
+@Component
+public class PostArchiveIndex {
+
+    private static final Comparator<PostArchiveProjection> NEWEST_FIRST =
+        Comparator.comparing(PostArchiveProjection::getCreateTime)
+            .thenComparing(PostArchiveProjection::getId)
+            .reversed();
+
+    private final PostRepository postRepository;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Version of the index, increased on every change so that a snapshot loaded before the
+     * change is discarded.
+     */
+    private long version;
+
+    public PostArchiveIndex(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    /**
+     * Lists year buckets, the latest year first.
+     *
+     * @return a list of year buckets
+     */
+    @NonNull
+    public List<Bucket> listYears() {
+        return getSnapshot().years;
+    }
+
+    /**
+     * Lists month buckets, the latest month first.
+     *
+     * @return a list of month buckets
+     */
+    @NonNull
+    public List<Bucket> listMonths() {
+        return getSnapshot().months;
+    }
+
+    /**
+     * Gets the bucket of the year, or the bucket of the month if the month is present.
+     *
+     * @param year year
+     * @param month month starting from 1, null for the whole year
+     * @return an optional bucket
+     */
+    @NonNull
+    public Optional<Bucket> getBucket(int year, @Nullable Integer month) {
+        List<Bucket> buckets = month == null ? listYears() : listMonths();
+        return buckets.stream()
+            .filter(bucket -> bucket.year == year && Objects.equals(bucket.month, month))
+            .findFirst();
+    }
+
+    /**
+     * Lists ids of all published posts, the latest created first.
+     *
+     * @return a list of post id
+     */
+    @NonNull
+    public List<Integer> listPostIds() {
+        return getSnapshot().postIds;
+    }
+
+    /**
+     * Refreshes the post in the index after the transaction committed.
+     *
+     * @param event post updated event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostUpdated(PostUpdatedEvent event) {
+        refresh(event.getPostId());
+    }
+
+    /**
+     * Drops the index, since options are updated when importing backups, which may change
+     * posts in bulk.
+     */
+    @TransactionalEventListener(classes = OptionUpdatedEvent.class, fallbackExecution = true)
+    public synchronized void onOptionUpdated() {
+        version++;
+        snapshot = null;
+    }
+
+    /**
+     * Refreshes the post in the index.
+     *
+     * @param postId post id must not be null
+     */
+    public void refresh(@NonNull Integer postId) {
+        Optional<PostArchiveProjection> archive =
+            postRepository.findArchiveBy(postId, PostStatus.PUBLISHED);
+
+        synchronized (this) {
+            version++;
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+
+            List<PostArchiveProjection> archives = new ArrayList<>(current.archives);
+            archives.removeIf(existing -> existing.getId().equals(postId));
+            archive.ifPresent(archives::add);
+            snapshot = new Snapshot(archives);
+        }
+    }
+
+    @NonNull
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+
+        long loadingVersion;
+        synchronized (this) {
+            loadingVersion = version;
+        }
+        current = new Snapshot(postRepository.findAllArchivesBy(PostStatus.PUBLISHED));
+
+        synchronized (this) {
+            if (version == loadingVersion && snapshot == null) {
+                snapshot = current;
+                log.debug("Loaded post archive index of [{}] posts", current.postIds.size());
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Posts created in a year or a month.
+     */
+    public static class Bucket {
+
+        private final int year;
+
+        private final Integer month;
+
+        private final List<Integer> postIds;
+
+        private Bucket(int year, @Nullable Integer month, @NonNull List<Integer> postIds) {
+            this.year = year;
+            this.month = month;
+            this.postIds = Collections.unmodifiableList(postIds);
+        }
+
+        public int getYear() {
+            return year;
+        }
+
+        /**
+         * Gets the month starting from 1.
+         *
+         * @return the month, null for a year bucket
+         */
+        @Nullable
+        public Integer getMonth() {
+            return month;
+        }
+
+        /**
+         * Gets ids of posts in the bucket, the latest created first.
+         *
+         * @return a list of post id
+         */
+        @NonNull
+        public List<Integer> getPostIds() {
+            return postIds;
+        }
+
+        public long getCount() {
+            return postIds.size();
+        }
+    }
+
+    private static class Snapshot {
+
+        private final List<PostArchiveProjection> archives;
+
+        private final List<Integer> postIds;
+
+        private final List<Bucket> years;
+
+        private final List<Bucket> months;
+
+        private Snapshot(List<PostArchiveProjection> archives) {
+            List<PostArchiveProjection> sortedArchives = new ArrayList<>(archives);
+            sortedArchives.sort(NEWEST_FIRST);
+
+            this.archives = Collections.unmodifiableList(sortedArchives);
+            this.postIds = Collections.unmodifiableList(sortedArchives.stream()
+                .map(PostArchiveProjection::getId)
+                .collect(Collectors.toList()));
+            this.years = group(sortedArchives, calendar -> List.of(calendar.get(Calendar.YEAR)));
+            this.months = group(sortedArchives, calendar ->
+                List.of(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1));
+        }
+
+        /**
+         * Groups sorted archives, buckets keep the order of the archives.
+         */
+        private static List<Bucket> group(List<PostArchiveProjection> sortedArchives,
+            Function<Calendar, List<Integer>> keyMapper) {
+            Map<List<Integer>, List<Integer>> postIdsMap = new LinkedHashMap<>();
+            sortedArchives.forEach(archive -> postIdsMap
+                .computeIfAbsent(keyMapper.apply(DateUtils.convertTo(archive.getCreateTime())),
+                    key -> new ArrayList<>())
+                .add(archive.getId()));
+
+            List<Bucket> buckets = new ArrayList<>(postIdsMap.size());
+            postIdsMap.forEach((key, postIds) ->
+                buckets.add(new Bucket(key.get(0), key.size() > 1 ? key.get(1) : null, postIds)));
+            return Collections.unmodifiableList(buckets);
+        }
+    }
+}
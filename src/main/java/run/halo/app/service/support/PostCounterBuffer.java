@@ -0,0 +1,253 @@
+package run.halo.app.service.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import run.halo.app.model.enums.PostStatus;
+
+/**
+ * Buffers visits and likes of posts and sheets in memory, and writes them to database in batches.
+ *
+ * <p>Posts and sheets share the same table, so a single buffer serves both of them. Flushes
+ * always run on the scheduler thread, request threads only signal an early flush once too many
+ * posts are pending. The count of pending posts is capped, increments of further posts are
+ * dropped until the next successful flush.
+ */
+@Slf4j
+@Component
+public class PostCounterBuffer {
+
+    /**
+     * Flush period. (ms)
+     */
+    private static final long FLUSH_PERIOD = 10 * 1000;
+
+    /**
+     * Period of checking whether a flush is due or has been signalled. (ms)
+     */
+    private static final long CHECK_PERIOD = 1000;
+
+    /**
+     * Maximum delay of retrying after failed flushes. (ms)
+     */
+    private static final long MAX_RETRY_DELAY = 5 * 60 * 1000;
+
+    /**
+     * Count of posts with pending increments, an early flush will be signalled once exceeded.
+     */
+    private static final int EARLY_FLUSH_PENDING_POSTS = 10000;
+
+    /**
+     * Maximum count of posts with pending increments, increments of further posts will be
+     * dropped once reached.
+     */
+    private static final int MAX_PENDING_POSTS = 50000;
+
+    private static final String UPDATE_VISITS_SQL =
+        "update posts set visits = visits + ? where id = ? and status <> ?";
+
+    private static final String UPDATE_LIKES_SQL =
+        "update posts set likes = likes + ? where id = ?";
+
+    /**
+     * Pending visits, post id as key. Increments are merged and drained atomically per key, so
+     * that no increment gets lost while flushing.
+     */
+    private final ConcurrentHashMap<Integer, Long> pendingVisits = new ConcurrentHashMap<>();
+
+    /**
+     * Pending likes, post id as key.
+     */
+    private final ConcurrentHashMap<Integer, Long> pendingLikes = new ConcurrentHashMap<>();
+
+    /**
+     * Whether an early flush has been signalled.
+     */
+    private final AtomicBoolean flushSignalled = new AtomicBoolean();
+
+    /**
+     * Time of the next periodic flush. (ms)
+     */
+    private volatile long nextFlushTime = System.currentTimeMillis() + FLUSH_PERIOD;
+
+    /**
+     * No flush is attempted before this time after failed flushes. (ms)
+     */
+    private volatile long retryTime;
+
+    /**
+     * Current delay of retrying, doubled after every failed flush. (ms)
+     */
+    private long retryDelay;
+
+    private final Counter droppedCounter;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostCounterBuffer(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        Gauge.builder("halo.posts.visits.pending", pendingVisits, PostCounterBuffer::sum)
+            .description("Visits of posts which have not been written to database yet")
+            .register(meterRegistry);
+        Gauge.builder("halo.posts.likes.pending", pendingLikes, PostCounterBuffer::sum)
+            .description("Likes of posts which have not been written to database yet")
+            .register(meterRegistry);
+        droppedCounter = Counter.builder("halo.posts.counters.dropped")
+            .description("Visits and likes of posts dropped since too many posts were pending")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Increases visits of the post.
+     *
+     * @param postId post id must not be null
+     * @param visits visits must not be less than 1
+     */
+    public void increaseVisit(@NonNull Integer postId, long visits) {
+        Assert.notNull(postId, "Post id must not be null");
+        Assert.isTrue(visits > 0, "Visits to increase must not be less than 1");
+
+        increase(pendingVisits, postId, visits);
+    }
+
+    /**
+     * Increases likes of the post. Likes of posts which do not exist are dropped while flushing.
+     *
+     * @param postId post id must not be null
+     * @param likes likes must not be less than 1
+     */
+    public void increaseLike(@NonNull Integer postId, long likes) {
+        Assert.notNull(postId, "Post id must not be null");
+        Assert.isTrue(likes > 0, "Likes to increase must not be less than 1");
+
+        increase(pendingLikes, postId, likes);
+    }
+
+    /**
+     * Flushes pending visits and likes if the flush period has elapsed or an early flush has been
+     * signalled, unless retrying is backed off after failed flushes.
+     */
+    @Scheduled(fixedDelay = CHECK_PERIOD, initialDelay = CHECK_PERIOD)
+    public void flushIfNecessary() {
+        long now = System.currentTimeMillis();
+        if (now < retryTime) {
+            return;
+        }
+        if (now >= nextFlushTime || flushSignalled.get()) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all pending visits and likes to database.
+     */
+    public synchronized void flush() {
+        flushSignalled.set(false);
+        nextFlushTime = System.currentTimeMillis() + FLUSH_PERIOD;
+
+        Map<Integer, Long> visits = drain(pendingVisits);
+        Map<Integer, Long> likes = drain(pendingLikes);
+
+        if (visits.isEmpty() && likes.isEmpty()) {
+            return;
+        }
+
+        boolean failed = false;
+        try {
+            batchUpdate(UPDATE_VISITS_SQL, visits, PostStatus.DRAFT.getValue());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush visits of [{}] posts, they will be retried", visits.size(),
+                e);
+            visits.forEach((postId, delta) -> pendingVisits.merge(postId, delta, Long::sum));
+            failed = true;
+        }
+
+        try {
+            // Posts which do not exist are not updated, so their likes are simply dropped
+            batchUpdate(UPDATE_LIKES_SQL, likes, null);
+        } catch (RuntimeException e) {
+            log.error("Failed to flush likes of [{}] posts, they will be retried", likes.size(),
+                e);
+            likes.forEach((postId, delta) -> pendingLikes.merge(postId, delta, Long::sum));
+            failed = true;
+        }
+
+        if (failed) {
+            retryDelay = Math.min(Math.max(retryDelay * 2, FLUSH_PERIOD), MAX_RETRY_DELAY);
+            retryTime = System.currentTimeMillis() + retryDelay;
+            log.warn("Backing off flushing visits and likes for [{}] ms", retryDelay);
+            return;
+        }
+
+        retryDelay = 0;
+        retryTime = 0;
+        log.debug("Flushed visits of [{}] posts and likes of [{}] posts", visits.size(),
+            likes.size());
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        log.debug("Flushing pending visits and likes before shutdown");
+        flush();
+    }
+
+    private void increase(Map<Integer, Long> pending, Integer postId, long delta) {
+        if (pending.size() >= MAX_PENDING_POSTS && !pending.containsKey(postId)) {
+            // Pending posts still merge increments, while flushing is failing or lagging behind
+            droppedCounter.increment(delta);
+            log.debug("Pending posts reach [{}], dropped increment of post [{}]",
+                MAX_PENDING_POSTS, postId);
+            return;
+        }
+
+        pending.merge(postId, delta, Long::sum);
+
+        if (pending.size() > EARLY_FLUSH_PENDING_POSTS
+            && flushSignalled.compareAndSet(false, true)) {
+            log.debug("Pending posts exceed [{}], signalling an early flush",
+                EARLY_FLUSH_PENDING_POSTS);
+        }
+    }
+
+    private void batchUpdate(String sql, Map<Integer, Long> deltas, Object extraArg) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        deltas.forEach((postId, delta) -> batchArgs.add(extraArg == null
+            ? new Object[] {delta, postId}
+            : new Object[] {delta, postId, extraArg}));
+
+        jdbcTemplate.batchUpdate(sql, batchArgs);
+    }
+
+    private static Map<Integer, Long> drain(ConcurrentHashMap<Integer, Long> pending) {
+        Map<Integer, Long> drained = new LinkedHashMap<>();
+        for (Integer postId : pending.keySet()) {
+            Long delta = pending.remove(postId);
+            if (delta != null && delta > 0) {
+                drained.put(postId, delta);
+            }
+        }
+        return drained;
+    }
+
+    private static double sum(Map<Integer, Long> pending) {
+        return pending.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
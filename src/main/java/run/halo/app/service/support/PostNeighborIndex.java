@@ -0,0 +1,276 @@
+package run.halo.app.service.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+import run.halo.app.event.options.OptionUpdatedEvent;
+import run.halo.app.event.post.PostUpdatedEvent;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.PostNeighborProjection;
+import run.halo.app.repository.PostRepository;
+
+/**
+ * In-memory index of published posts ordered by every index sort, which finds previous and next
+ * posts of a post by binary search.
+ *
+ * <p>Posts are ordered by the sort key and then by id, so that posts sharing the same sort key
+ * are still reachable from each other. The index is loaded lazily and kept up to date post by
+ * post, except for visits, which change on every view and are reloaded periodically instead.
+ */
+@Slf4j
+@Component
+public class PostNeighborIndex {
+
+    /**
+     * Visits reloading period. (ms)
+     */
+    private static final long VISITS_RELOAD_PERIOD = 5 * 60 * 1000;
+
+    private static final Map<String, ToLongFunction<PostNeighborProjection>> SORT_KEYS = Map.of(
+        "createTime", neighbor -> timeOf(neighbor.getCreateTime()),
+        "editTime", neighbor -> timeOf(neighbor.getEditTime()),
+        "visits", neighbor -> neighbor.getVisits() == null ? 0 : neighbor.getVisits());
+
+    private final PostRepository postRepository;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Version of the index, increased on every change so that a snapshot loaded before the
+     * change is discarded.
+     */
+    private long version;
+
+    public PostNeighborIndex(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    /**
+     * Lists ids of published posts after the post in the index sort, the nearest first.
+     *
+     * @param post post must not be null
+     * @param indexSort index sort, such as createTime, editTime and visits
+     * @param size max size of ids
+     * @return a list of post id, empty if the index sort is unknown
+     */
+    @NonNull
+    public List<Integer> listPrevPostIds(@NonNull Post post, @NonNull String indexSort,
+        int size) {
+        return listPostIds(post, indexSort, size, true);
+    }
+
+    /**
+     * Lists ids of published posts before the post in the index sort, the nearest first.
+     *
+     * @param post post must not be null
+     * @param indexSort index sort, such as createTime, editTime and visits
+     * @param size max size of ids
+     * @return a list of post id, empty if the index sort is unknown
+     */
+    @NonNull
+    public List<Integer> listNextPostIds(@NonNull Post post, @NonNull String indexSort,
+        int size) {
+        return listPostIds(post, indexSort, size, false);
+    }
+
+    /**
+     * Refreshes the post in the index after the transaction committed.
+     *
+     * @param event post updated event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostUpdated(PostUpdatedEvent event) {
+        refresh(event.getPostId());
+    }
+
+    /**
+     * Drops the index, since options are updated when importing backups, which may change
+     * posts in bulk.
+     */
+    @TransactionalEventListener(classes = OptionUpdatedEvent.class, fallbackExecution = true)
+    public synchronized void onOptionUpdated() {
+        version++;
+        snapshot = null;
+    }
+
+    /**
+     * Refreshes the post in the index.
+     *
+     * @param postId post id must not be null
+     */
+    public void refresh(@NonNull Integer postId) {
+        Optional<PostNeighborProjection> neighbor =
+            postRepository.findNeighborBy(postId, PostStatus.PUBLISHED);
+
+        synchronized (this) {
+            version++;
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+
+            Map<Integer, PostNeighborProjection> neighbors = new HashMap<>(current.neighbors);
+            neighbors.remove(postId);
+            neighbor.ifPresent(value -> neighbors.put(postId, value));
+            snapshot = new Snapshot(neighbors.values());
+        }
+    }
+
+    /**
+     * Reloads the index periodically, so that posts ordered by visits are reordered.
+     */
+    @Scheduled(fixedDelay = VISITS_RELOAD_PERIOD, initialDelay = VISITS_RELOAD_PERIOD)
+    public void reloadVisits() {
+        if (snapshot != null) {
+            load();
+        }
+    }
+
+    @NonNull
+    private List<Integer> listPostIds(@NonNull Post post, @NonNull String indexSort, int size,
+        boolean after) {
+        Assert.notNull(post, "Post must not be null");
+        Assert.notNull(indexSort, "Index sort must not be null");
+
+        Snapshot current = getSnapshot();
+        Ordering ordering = current.orderings.get(indexSort);
+        if (ordering == null || size <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Prefer the indexed sort key, which is consistent with the ordering
+        PostNeighborProjection neighbor = current.neighbors.get(post.getId());
+        if (neighbor == null) {
+            neighbor = new PostNeighborProjection(post.getId(), post.getCreateTime(),
+                post.getEditTime(), post.getVisits());
+        }
+        long key = SORT_KEYS.get(indexSort).applyAsLong(neighbor);
+        int id = post.getId() == null ? 0 : post.getId();
+
+        int index = ordering.search(key, id);
+        boolean found = index >= 0;
+        int insertionIndex = found ? index : -index - 1;
+
+        List<Integer> postIds = new ArrayList<>(Math.min(size, ordering.ids.length));
+        if (after) {
+            int start = found ? insertionIndex + 1 : insertionIndex;
+            for (int i = start; i < ordering.ids.length && postIds.size() < size; i++) {
+                postIds.add(ordering.ids[i]);
+            }
+        } else {
+            for (int i = insertionIndex - 1; i >= 0 && postIds.size() < size; i--) {
+                postIds.add(ordering.ids[i]);
+            }
+        }
+        return postIds;
+    }
+
+    @NonNull
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    @NonNull
+    private Snapshot load() {
+        long loadingVersion;
+        synchronized (this) {
+            loadingVersion = version;
+        }
+        Snapshot loaded = new Snapshot(postRepository.findAllNeighborsBy(PostStatus.PUBLISHED));
+
+        synchronized (this) {
+            if (version == loadingVersion) {
+                snapshot = loaded;
+                log.debug("Loaded post neighbor index of [{}] posts", loaded.neighbors.size());
+            }
+        }
+        return loaded;
+    }
+
+    private static long timeOf(@Nullable Date date) {
+        return date == null ? 0 : date.getTime();
+    }
+
+    /**
+     * Post ids sorted by a sort key and then by id, in ascending order.
+     */
+    private static class Ordering {
+
+        private final long[] keys;
+
+        private final int[] ids;
+
+        private Ordering(List<PostNeighborProjection> neighbors,
+            ToLongFunction<PostNeighborProjection> keyMapper) {
+            List<PostNeighborProjection> sortedNeighbors = new ArrayList<>(neighbors);
+            sortedNeighbors.sort(Comparator.comparingLong(keyMapper)
+                .thenComparing(PostNeighborProjection::getId));
+
+            this.keys = new long[sortedNeighbors.size()];
+            this.ids = new int[sortedNeighbors.size()];
+            for (int i = 0; i < sortedNeighbors.size(); i++) {
+                keys[i] = keyMapper.applyAsLong(sortedNeighbors.get(i));
+                ids[i] = sortedNeighbors.get(i).getId();
+            }
+        }
+
+        /**
+         * Searches the post, see {@link Arrays#binarySearch(long[], long)}.
+         *
+         * @return index of the post if present, otherwise (-(insertion point) - 1)
+         */
+        private int search(long key, int id) {
+            int low = 0;
+            int high = ids.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int compared = keys[mid] != key ? Long.compare(keys[mid], key)
+                    : Integer.compare(ids[mid], id);
+                if (compared < 0) {
+                    low = mid + 1;
+                } else if (compared > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    private static class Snapshot {
+
+        private final Map<Integer, PostNeighborProjection> neighbors;
+
+        private final Map<String, Ordering> orderings;
+
+        private Snapshot(Iterable<PostNeighborProjection> neighbors) {
+            Map<Integer, PostNeighborProjection> neighborMap = new HashMap<>();
+            neighbors.forEach(neighbor -> neighborMap.put(neighbor.getId(), neighbor));
+            List<PostNeighborProjection> neighborList = new ArrayList<>(neighborMap.values());
+
+            Map<String, Ordering> orderingMap = new HashMap<>(SORT_KEYS.size());
+            SORT_KEYS.forEach((indexSort, keyMapper) ->
+                orderingMap.put(indexSort, new Ordering(neighborList, keyMapper)));
+
+            this.neighbors = Collections.unmodifiableMap(neighborMap);
+            this.orderings = Collections.unmodifiableMap(orderingMap);
+        }
+    }
+}
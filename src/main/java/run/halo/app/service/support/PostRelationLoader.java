@@ -0,0 +1,196 @@
+package run.halo.app.service.support;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import run.halo.app.model.entity.Category;
+import run.halo.app.model.entity.PostMeta;
+import run.halo.app.model.entity.Tag;
+import run.halo.app.service.PostCategoryService;
+import run.halo.app.service.PostMetaService;
+import run.halo.app.service.PostTagService;
+
+/**
+ * Loads tags, categories and metas of posts in batches.
+ *
+ * <p>Every relation is queried at most once for all posts of a batch, and only when it is
+ * accessed. Relations loaded while serving a GET or HEAD request are kept in the request, so that
+ * converting the same post again in the request, e.g. as the previous post of another one,
+ * costs no query.
+ */
+@Component
+public class PostRelationLoader {
+
+    private static final String MEMO_ATTRIBUTE_PREFIX = PostRelationLoader.class.getName() + ".";
+
+    private final PostTagService postTagService;
+
+    private final PostCategoryService postCategoryService;
+
+    private final PostMetaService postMetaService;
+
+    public PostRelationLoader(PostTagService postTagService,
+        PostCategoryService postCategoryService,
+        PostMetaService postMetaService) {
+        this.postTagService = postTagService;
+        this.postCategoryService = postCategoryService;
+        this.postMetaService = postMetaService;
+    }
+
+    /**
+     * Creates relations of the given posts, nothing is queried until a relation is accessed.
+     *
+     * @param postIds post ids must not be null
+     * @param queryEncryptCategory whether to query encrypted categories
+     * @return relations of the posts
+     */
+    @NonNull
+    public PostRelations load(@NonNull Collection<Integer> postIds,
+        boolean queryEncryptCategory) {
+        Assert.notNull(postIds, "Post ids must not be null");
+
+        Set<Integer> ids = new LinkedHashSet<>(postIds);
+        ids.remove(null);
+        return new PostRelations(ids, queryEncryptCategory);
+    }
+
+    /**
+     * Relations of a batch of posts.
+     */
+    public class PostRelations {
+
+        private final Relation<List<Tag>> tags;
+
+        private final Relation<List<Category>> categories;
+
+        private final Relation<List<PostMeta>> metas;
+
+        private PostRelations(Set<Integer> postIds, boolean queryEncryptCategory) {
+            this.tags = new Relation<>(postIds, "tags", Collections::emptyList,
+                postTagService::listTagListMapBy);
+            this.categories = new Relation<>(postIds, "categories:" + queryEncryptCategory,
+                Collections::emptyList,
+                ids -> postCategoryService.listCategoryListMap(ids, queryEncryptCategory));
+            this.metas = new Relation<>(postIds, "metas", Collections::emptyList,
+                postMetaService::listPostMetaAsMap);
+        }
+
+        @NonNull
+        public List<Tag> getTags(@NonNull Integer postId) {
+            return tags.get(postId);
+        }
+
+        @NonNull
+        public List<Category> getCategories(@NonNull Integer postId) {
+            return categories.get(postId);
+        }
+
+        @NonNull
+        public List<PostMeta> getMetas(@NonNull Integer postId) {
+            return metas.get(postId);
+        }
+    }
+
+    /**
+     * A relation queried for all posts of a batch on first access.
+     *
+     * @param <V> value type
+     */
+    private static class Relation<V> {
+
+        private final Set<Integer> postIds;
+
+        private final Supplier<V> defaultValue;
+
+        private final Function<Set<Integer>, Map<Integer, V>> batchLoader;
+
+        private final Map<Integer, V> values;
+
+        private boolean loaded;
+
+        private Relation(Set<Integer> postIds, String name, Supplier<V> defaultValue,
+            Function<Set<Integer>, Map<Integer, V>> batchLoader) {
+            this.postIds = postIds;
+            this.defaultValue = defaultValue;
+            this.batchLoader = batchLoader;
+            this.values = getMemo(name);
+        }
+
+        @NonNull
+        private synchronized V get(@NonNull Integer postId) {
+            if (!loaded) {
+                load();
+            }
+            V value = values.get(postId);
+            if (value == null) {
+                // Post out of the batch
+                value = batchLoader.apply(Collections.singleton(postId))
+                    .getOrDefault(postId, defaultValue.get());
+                values.put(postId, value);
+            }
+            return value;
+        }
+
+        private void load() {
+            Set<Integer> missingIds = new LinkedHashSet<>(postIds);
+            missingIds.removeAll(values.keySet());
+            if (!missingIds.isEmpty()) {
+                Map<Integer, V> loadedValues = batchLoader.apply(missingIds);
+                missingIds.forEach(postId -> values
+                    .put(postId, loadedValues.getOrDefault(postId, defaultValue.get())));
+            }
+            loaded = true;
+        }
+    }
+
+    /**
+     * Gets memo of the relation in the current request, a new map will be returned if not in a
+     * read-only request.
+     */
+    @SuppressWarnings("unchecked")
+    @NonNull
+    private static <V> Map<Integer, V> getMemo(@NonNull String name) {
+        HttpServletRequest request = getReadOnlyRequest();
+        if (request == null) {
+            return new HashMap<>();
+        }
+
+        String attributeName = MEMO_ATTRIBUTE_PREFIX + name;
+        Map<Integer, V> memo = (Map<Integer, V>) request.getAttribute(attributeName);
+        if (memo == null) {
+            memo = new HashMap<>();
+            request.setAttribute(attributeName, memo);
+        }
+        return memo;
+    }
+
+    @Nullable
+    private static HttpServletRequest getReadOnlyRequest() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (!(requestAttributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+
+        HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
+        if (HttpMethod.GET.matches(request.getMethod())
+            || HttpMethod.HEAD.matches(request.getMethod())) {
+            return request;
+        }
+        return null;
+    }
+}
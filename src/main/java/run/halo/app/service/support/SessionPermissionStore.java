@@ -0,0 +1,135 @@
+package run.halo.app.service.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Stores access permissions of encrypted contents per session in memory.
+ *
+ * <p>Permissions of a session are kept in a concurrent set, so checking is a hash lookup and
+ * granting or revoking is atomic. Permissions of a session expire once the session has not been
+ * accessed for {@link #SESSION_TTL}, and only the latest {@link #MAX_PERMISSIONS_PER_SESSION}
+ * permissions are kept for every session.
+ */
+@Component
+public class SessionPermissionStore {
+
+    /**
+     * Permissions of a session expire after the session has been idle for this duration.
+     */
+    static final Duration SESSION_TTL = Duration.ofDays(1);
+
+    /**
+     * Max count of permissions per session.
+     */
+    static final int MAX_PERMISSIONS_PER_SESSION = 100;
+
+    /**
+     * Max count of sessions.
+     */
+    private static final long MAX_SESSIONS = 100_000;
+
+    private final Cache<String, SessionPermissions> sessions = Caffeine.newBuilder()
+        .expireAfterAccess(SESSION_TTL)
+        .maximumSize(MAX_SESSIONS)
+        .build();
+
+    /**
+     * Gets an unmodifiable view of permissions of the session.
+     *
+     * @param sessionId session id must not be blank
+     * @return permissions of the session
+     */
+    @NonNull
+    public Set<String> get(@NonNull String sessionId) {
+        Assert.hasText(sessionId, "Session id must not be blank");
+
+        SessionPermissions permissions = sessions.getIfPresent(sessionId);
+        return permissions == null ? Collections.emptySet() : permissions.view;
+    }
+
+    /**
+     * Checks whether the session has the permission.
+     *
+     * @param sessionId session id must not be blank
+     * @param permission permission must not be blank
+     * @return true if the session has the permission, false otherwise
+     */
+    public boolean contains(@NonNull String sessionId, @NonNull String permission) {
+        return get(sessionId).contains(permission);
+    }
+
+    /**
+     * Grants the permission to the session. The earliest granted permission will be dropped
+     * once the session has too many permissions.
+     *
+     * @param sessionId session id must not be blank
+     * @param permission permission must not be blank
+     */
+    public void add(@NonNull String sessionId, @NonNull String permission) {
+        Assert.hasText(sessionId, "Session id must not be blank");
+        Assert.hasText(permission, "Permission must not be blank");
+
+        sessions.get(sessionId, id -> new SessionPermissions()).add(permission);
+    }
+
+    /**
+     * Revokes the permission from the session.
+     *
+     * @param sessionId session id must not be blank
+     * @param permission permission must not be blank
+     */
+    public void remove(@NonNull String sessionId, @NonNull String permission) {
+        Assert.hasText(sessionId, "Session id must not be blank");
+        Assert.hasText(permission, "Permission must not be blank");
+
+        SessionPermissions permissions = sessions.getIfPresent(sessionId);
+        if (permissions != null) {
+            permissions.remove(permission);
+        }
+    }
+
+    /**
+     * Permissions of a session.
+     */
+    private static class SessionPermissions {
+
+        private final AtomicLong sequence = new AtomicLong();
+
+        /**
+         * Permission as key and granting sequence as value.
+         */
+        private final Map<String, Long> permissions = new ConcurrentHashMap<>();
+
+        private final Set<String> view = Collections.unmodifiableSet(permissions.keySet());
+
+        private void add(@NonNull String permission) {
+            permissions.put(permission, sequence.incrementAndGet());
+
+            if (permissions.size() > MAX_PERMISSIONS_PER_SESSION) {
+                dropEarliest();
+            }
+        }
+
+        private void remove(@NonNull String permission) {
+            permissions.remove(permission);
+        }
+
+        private synchronized void dropEarliest() {
+            while (permissions.size() > MAX_PERMISSIONS_PER_SESSION) {
+                permissions.entrySet().stream()
+                    .min(Map.Entry.comparingByValue())
+                    .ifPresent(entry -> permissions.remove(entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package run.halo.app.service.support;
+
+import static run.halo.app.utils.FileUtils.checkDirectoryTraversal;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import run.halo.app.exception.NotFoundException;
+import run.halo.app.exception.ServiceException;
+import run.halo.app.model.support.BackupManifest;
+import run.halo.app.model.support.BackupManifest.FileRecord;
+import run.halo.app.utils.JsonUtils;
+
+/**
+ * Archives the work directory into full or incremental backups.
+ *
+ * <p>Every backup carries a manifest recording size, last modified time and hash of all files
+ * at the time of the backup. A full backup stores all files. An incremental backup stores only
+ * files whose content is not stored by the backup it is based on, and refers to the previous
+ * backups for the rest. Entries are compressed in parallel, and already compressed media are
+ * stored without deflating.
+ */
+@Slf4j
+@Component
+public class WorkDirBackupArchiver {
+
+    /**
+     * Name of the manifest entry in archives.
+     */
+    public static final String MANIFEST_ENTRY = ".halo-backup-manifest.json";
+
+    private static final String SEPARATOR = "/";
+
+    /**
+     * Extensions of files which are compressed already.
+     */
+    private static final Set<String> STORED_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif",
+        "webp", "ico", "mp3", "mp4", "webm", "woff", "woff2", "zip", "gz", "7z", "rar");
+
+    /**
+     * Archives the work directory.
+     *
+     * @param workDir work directory must not be null
+     * @param archivePath path of the new archive must not be null
+     * @param parentPath path of the backup which the new backup is based on, null for a full
+     * backup
+     * @return manifest of the new backup
+     * @throws IOException throws when failed to access the work directory or archives
+     */
+    @NonNull
+    public BackupManifest archive(@NonNull Path workDir, @NonNull Path archivePath,
+        @Nullable Path parentPath) throws IOException {
+        Assert.notNull(workDir, "Work directory must not be null");
+        Assert.notNull(archivePath, "Archive path must not be null");
+
+        BackupManifest parent = null;
+        if (parentPath != null) {
+            parent = readManifest(parentPath).orElseThrow(() -> new NotFoundException(
+                "The manifest of backup " + parentPath.getFileName() + " was not found"));
+        }
+
+        String archiveName = archivePath.getFileName().toString();
+        String root = workDir.getFileName().toString();
+        BackupManifest manifest = new BackupManifest();
+        manifest.setParent(parentPath == null ? null : parentPath.getFileName().toString());
+        manifest.setRoot(root);
+        manifest.setCreateTime(System.currentTimeMillis());
+
+        // Files unchanged since the parent backup are not read again
+        List<PendingFile> pendingFiles = new ArrayList<>();
+        for (Path file : listFiles(workDir, archivePath)) {
+            String path = toUnixPath(workDir.relativize(file));
+            BasicFileAttributes attributes =
+                Files.readAttributes(file, BasicFileAttributes.class);
+
+            FileRecord record = new FileRecord();
+            record.setSize(attributes.size());
+            record.setLastModified(attributes.lastModifiedTime().toMillis());
+            manifest.getFiles().put(path, record);
+
+            FileRecord previous = parent == null ? null : parent.getFiles().get(path);
+            if (previous != null && previous.getSize() == record.getSize()
+                && previous.getLastModified() == record.getLastModified()) {
+                record.setHash(previous.getHash());
+                record.setArchive(previous.getArchive());
+                record.setEntry(previous.getEntry());
+            } else {
+                pendingFiles.add(new PendingFile(file, root + SEPARATOR + path, record));
+            }
+        }
+
+        ParallelScatterZipCreator zipCreator = new ParallelScatterZipCreator();
+        if (parent == null) {
+            // All files are stored, so hash them while compressing
+            pendingFiles.forEach(pendingFile -> {
+                pendingFile.record.setArchive(archiveName);
+                pendingFile.record.setEntry(pendingFile.entry);
+                zipCreator.addArchiveEntry(createEntry(pendingFile),
+                    () -> new HashingInputStream(pendingFile));
+            });
+        } else {
+            hash(pendingFiles);
+
+            // Content stored already is referred to instead of stored again
+            Map<String, FileRecord> contents = new HashMap<>();
+            parent.getFiles().values().forEach(record -> contents.put(record.getHash(), record));
+            pendingFiles.forEach(pendingFile -> {
+                FileRecord stored = contents.putIfAbsent(pendingFile.record.getHash(),
+                    pendingFile.record);
+                if (stored != null) {
+                    pendingFile.record.setArchive(stored.getArchive());
+                    pendingFile.record.setEntry(stored.getEntry());
+                    return;
+                }
+                pendingFile.record.setArchive(archiveName);
+                pendingFile.record.setEntry(pendingFile.entry);
+                zipCreator.addArchiveEntry(createEntry(pendingFile),
+                    () -> open(pendingFile.path));
+            });
+        }
+
+        try (OutputStream outputStream = Files.newOutputStream(archivePath);
+             ZipArchiveOutputStream zipOut = new ZipArchiveOutputStream(outputStream)) {
+            zipCreator.writeTo(zipOut);
+            writeManifest(manifest, zipOut);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while archiving " + archiveName);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+
+        log.info("Archived [{}] files of work directory into [{}], [{}] files changed",
+            manifest.getFiles().size(), archiveName, pendingFiles.size());
+        return manifest;
+    }
+
+    /**
+     * Restores the work directory at the time of the backup into a new full backup, which
+     * stores all files without referring to other backups.
+     *
+     * @param backupPath path of the backup must not be null
+     * @param archivePath path of the new archive must not be null
+     * @return manifest of the new backup
+     * @throws IOException throws when failed to access archives
+     */
+    @NonNull
+    public BackupManifest restore(@NonNull Path backupPath, @NonNull Path archivePath)
+        throws IOException {
+        Assert.notNull(backupPath, "Backup path must not be null");
+        Assert.notNull(archivePath, "Archive path must not be null");
+
+        BackupManifest source = readManifest(backupPath).orElseThrow(() -> new NotFoundException(
+            "The manifest of backup " + backupPath.getFileName() + " was not found"));
+
+        String archiveName = archivePath.getFileName().toString();
+        BackupManifest manifest = new BackupManifest();
+        manifest.setRoot(source.getRoot());
+        manifest.setCreateTime(System.currentTimeMillis());
+
+        Path backupDir = backupPath.getParent();
+        Map<String, ZipFile> archives = new HashMap<>();
+        try (OutputStream outputStream = Files.newOutputStream(archivePath);
+             ZipArchiveOutputStream zipOut = new ZipArchiveOutputStream(outputStream)) {
+            for (Map.Entry<String, FileRecord> file : source.getFiles().entrySet()) {
+                FileRecord record = file.getValue();
+                ZipFile archive = archives.get(record.getArchive());
+                if (archive == null) {
+                    Path path = backupDir.resolve(record.getArchive()).normalize();
+                    checkDirectoryTraversal(backupDir, path);
+                    if (Files.notExists(path)) {
+                        throw new NotFoundException(
+                            "The backup " + record.getArchive() + " was not found");
+                    }
+                    archive = new ZipFile(path.toFile());
+                    archives.put(record.getArchive(), archive);
+                }
+
+                ZipArchiveEntry storedEntry = archive.getEntry(record.getEntry());
+                if (storedEntry == null) {
+                    throw new NotFoundException("The entry " + record.getEntry()
+                        + " was not found in backup " + record.getArchive());
+                }
+
+                // Copy compressed data as it is
+                String entryName = source.getRoot() + SEPARATOR + file.getKey();
+                ZipArchiveEntry entry = new ZipArchiveEntry(entryName);
+                entry.setMethod(storedEntry.getMethod());
+                entry.setCrc(storedEntry.getCrc());
+                entry.setSize(storedEntry.getSize());
+                entry.setCompressedSize(storedEntry.getCompressedSize());
+                entry.setTime(record.getLastModified());
+                try (InputStream rawInputStream = archive.getRawInputStream(storedEntry)) {
+                    zipOut.addRawArchiveEntry(entry, rawInputStream);
+                }
+
+                FileRecord restoredRecord = new FileRecord();
+                restoredRecord.setSize(record.getSize());
+                restoredRecord.setLastModified(record.getLastModified());
+                restoredRecord.setHash(record.getHash());
+                restoredRecord.setArchive(archiveName);
+                restoredRecord.setEntry(entryName);
+                manifest.getFiles().put(file.getKey(), restoredRecord);
+            }
+            writeManifest(manifest, zipOut);
+        } finally {
+            for (ZipFile archive : archives.values()) {
+                ZipFile.closeQuietly(archive);
+            }
+        }
+
+        log.info("Restored [{}] files of backup [{}] into [{}]", manifest.getFiles().size(),
+            backupPath.getFileName(), archiveName);
+        return manifest;
+    }
+
+    /**
+     * Reads the manifest of the backup.
+     *
+     * @param backupPath path of the backup must not be null
+     * @return an optional manifest, empty if the backup has no manifest
+     */
+    @NonNull
+    public Optional<BackupManifest> readManifest(@NonNull Path backupPath) {
+        Assert.notNull(backupPath, "Backup path must not be null");
+
+        try (ZipFile archive = new ZipFile(backupPath.toFile())) {
+            ZipArchiveEntry manifestEntry = archive.getEntry(MANIFEST_ENTRY);
+            if (manifestEntry == null) {
+                return Optional.empty();
+            }
+            try (InputStream inputStream = archive.getInputStream(manifestEntry)) {
+                return Optional.of(
+                    JsonUtils.DEFAULT_JSON_MAPPER.readValue(inputStream, BackupManifest.class));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read manifest of backup: [{}]", backupPath, e);
+            return Optional.empty();
+        }
+    }
+
+    @NonNull
+    private List<Path> listFiles(@NonNull Path workDir, @NonNull Path archivePath)
+        throws IOException {
+        // Skip backups if they are kept in the work directory
+        Path backupDir = archivePath.toAbsolutePath().getParent();
+        boolean backupDirInside = backupDir.startsWith(workDir.toAbsolutePath());
+        try (Stream<Path> pathStream = Files.walk(workDir)) {
+            return pathStream
+                .filter(path -> !backupDirInside || !path.toAbsolutePath().startsWith(backupDir))
+                .filter(Files::isRegularFile)
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Hashes files in parallel.
+     */
+    private void hash(@NonNull List<PendingFile> pendingFiles) throws IOException {
+        if (pendingFiles.isEmpty()) {
+            return;
+        }
+
+        ExecutorService executor =
+            Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Callable<Void>> tasks = pendingFiles.stream()
+                .map(pendingFile -> (Callable<Void>) () -> {
+                    try (InputStream inputStream = open(pendingFile.path)) {
+                        pendingFile.record.setHash(DigestUtils.sha256Hex(inputStream));
+                    }
+                    return null;
+                })
+                .collect(Collectors.toList());
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while hashing files");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void writeManifest(@NonNull BackupManifest manifest,
+        @NonNull ZipArchiveOutputStream zipOut) throws IOException {
+        ZipArchiveEntry manifestEntry = new ZipArchiveEntry(MANIFEST_ENTRY);
+        zipOut.putArchiveEntry(manifestEntry);
+        zipOut.write(JsonUtils.DEFAULT_JSON_MAPPER.writeValueAsBytes(manifest));
+        zipOut.closeArchiveEntry();
+    }
+
+    @NonNull
+    private static ZipArchiveEntry createEntry(@NonNull PendingFile pendingFile) {
+        ZipArchiveEntry entry = new ZipArchiveEntry(pendingFile.entry);
+        String extension = StringUtils.substringAfterLast(pendingFile.entry, ".");
+        entry.setMethod(STORED_EXTENSIONS.contains(extension.toLowerCase())
+            ? ZipEntry.STORED : ZipEntry.DEFLATED);
+        entry.setTime(pendingFile.record.getLastModified());
+        return entry;
+    }
+
+    @NonNull
+    private static InputStream open(@NonNull Path path) {
+        try {
+            return Files.newInputStream(path);
+        } catch (IOException e) {
+            throw new ServiceException("Failed to open file " + path, e);
+        }
+    }
+
+    @NonNull
+    private static IOException unwrap(@NonNull ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        return new IOException(cause);
+    }
+
+    @NonNull
+    private static String toUnixPath(@NonNull Path path) {
+        return path.toString().replace('\\', '/');
+    }
+
+    /**
+     * File whose content may need to be stored.
+     */
+    private static class PendingFile {
+
+        private final Path path;
+
+        private final String entry;
+
+        private final FileRecord record;
+
+        private PendingFile(Path path, String entry, FileRecord record) {
+            this.path = path;
+            this.entry = entry;
+            this.record = record;
+        }
+    }
+
+    /**
+     * Input stream recording the hash of the file once read completely.
+     */
+    private static class HashingInputStream extends FilterInputStream {
+
+        private final FileRecord record;
+
+        private final MessageDigest digest;
+
+        private HashingInputStream(@NonNull PendingFile pendingFile) {
+            this(open(pendingFile.path), DigestUtils.getSha256Digest(), pendingFile.record);
+        }
+
+        private HashingInputStream(InputStream inputStream, MessageDigest digest,
+            FileRecord record) {
+            super(new DigestInputStream(inputStream, digest));
+            this.digest = digest;
+            this.record = record;
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            if (record.getHash() == null) {
+                record.setHash(Hex.encodeHexString(digest.digest()));
+            }
+        }
+    }
+}
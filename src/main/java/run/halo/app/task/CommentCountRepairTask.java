@@ -0,0 +1,55 @@
+package run.halo.app.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import run.halo.app.service.JournalCommentService;
+import run.halo.app.service.PostCommentService;
+import run.halo.app.service.SheetCommentService;
+
+/**
+ * Repairs comment counts maintained along with posts, sheets and journals, in case any of them
+ * drifted from the comments they count.
+ */
+@Slf4j
+@Component
+public class CommentCountRepairTask {
+
+    private final PostCommentService postCommentService;
+
+    private final SheetCommentService sheetCommentService;
+
+    private final JournalCommentService journalCommentService;
+
+    public CommentCountRepairTask(PostCommentService postCommentService,
+        SheetCommentService sheetCommentService,
+        JournalCommentService journalCommentService) {
+        this.postCommentService = postCommentService;
+        this.sheetCommentService = sheetCommentService;
+        this.journalCommentService = journalCommentService;
+    }
+
+    /**
+     * Initializes comment counts of posts, sheets and journals created before comment counts
+     * were stored.
+     */
+    @Async
+    @EventListener
+    public void onApplicationStarted(ApplicationStartedEvent event) {
+        run();
+    }
+
+    /**
+     * Repair comment counts of all posts, sheets and journals every day.
+     */
+    @Scheduled(cron = "0 45 3 * * ?")
+    public synchronized void run() {
+        log.debug("Start repairing comment counts of posts, sheets and journals");
+        postCommentService.refreshAllCommentCounts();
+        sheetCommentService.refreshAllCommentCounts();
+        journalCommentService.refreshAllCommentCounts();
+    }
+}
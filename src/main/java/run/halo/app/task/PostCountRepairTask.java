@@ -0,0 +1,48 @@
+package run.halo.app.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import run.halo.app.service.PostCategoryService;
+import run.halo.app.service.PostTagService;
+
+/**
+ * Repairs post counts maintained along with tags and categories, in case any of them drifted
+ * from the posts they count.
+ */
+@Slf4j
+@Component
+public class PostCountRepairTask {
+
+    private final PostTagService postTagService;
+
+    private final PostCategoryService postCategoryService;
+
+    public PostCountRepairTask(PostTagService postTagService,
+        PostCategoryService postCategoryService) {
+        this.postTagService = postTagService;
+        this.postCategoryService = postCategoryService;
+    }
+
+    /**
+     * Initializes post counts of tags and categories created before post counts were stored.
+     */
+    @Async
+    @EventListener
+    public void onApplicationStarted(ApplicationStartedEvent event) {
+        run();
+    }
+
+    /**
+     * Repair post counts of all tags and categories every day.
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public synchronized void run() {
+        log.debug("Start repairing post counts of tags and categories");
+        postTagService.refreshAllPostCounts();
+        postCategoryService.refreshAllPostCounts();
+    }
+}
@@ -0,0 +1,188 @@
+package run.halo.app.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.lang.NonNull;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Immutable matcher of a set of ant-style path patterns, which matches paths the same as
+ * {@link AntPathMatcher} does.
+ *
+ * <p>Literal patterns like {@code /csrf} and prefix patterns like {@code /themes/**} are
+ * compiled into a trie of path segments, so matching a path costs a walk through its segments
+ * no matter how many patterns there are. Other patterns are matched one by one.
+ */
+public final class CompiledPathMatcher {
+
+    private static final String SEPARATOR = "/";
+
+    private static final String ANY_PATHS = "**";
+
+    private static final AntPathMatcher ANT_PATH_MATCHER = new AntPathMatcher();
+
+    private static final CompiledPathMatcher EMPTY = new CompiledPathMatcher(Set.of());
+
+    private final Set<String> patterns;
+
+    private final Node root = new Node();
+
+    private final List<String> otherPatterns = new ArrayList<>();
+
+    private CompiledPathMatcher(@NonNull Set<String> patterns) {
+        this.patterns = Collections.unmodifiableSet(patterns);
+        patterns.forEach(this::compile);
+    }
+
+    /**
+     * Compiles the path patterns.
+     *
+     * @param patterns ant-style path patterns must not be null
+     * @return compiled path matcher
+     */
+    @NonNull
+    public static CompiledPathMatcher compile(@NonNull Collection<String> patterns) {
+        Assert.notNull(patterns, "Path patterns must not be null");
+
+        if (patterns.isEmpty()) {
+            return EMPTY;
+        }
+        return new CompiledPathMatcher(new LinkedHashSet<>(patterns));
+    }
+
+    /**
+     * Gets the patterns.
+     *
+     * @return an unmodifiable set of patterns
+     */
+    @NonNull
+    public Set<String> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Checks whether any of the patterns matches the path.
+     *
+     * @param path path
+     * @return true if any of the patterns matches the path, false otherwise
+     */
+    public boolean matches(String path) {
+        if (path == null) {
+            return false;
+        }
+        if (!path.startsWith(SEPARATOR)) {
+            // The trie only holds patterns starting with separator
+            return matchesOthers(path);
+        }
+
+        Node node = root;
+        int start = 0;
+        int length = path.length();
+        while (node != null) {
+            if (node.anyPaths) {
+                return true;
+            }
+
+            // Skip separators, empty segments are ignored the same as AntPathMatcher
+            while (start < length && path.charAt(start) == '/') {
+                start++;
+            }
+            if (start >= length) {
+                boolean trailingSeparator = path.endsWith(SEPARATOR) && node != root;
+                if (trailingSeparator ? node.literalWithSeparator : node.literal) {
+                    return true;
+                }
+                break;
+            }
+
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.children.get(path.substring(start, end));
+            start = end;
+        }
+
+        return matchesOthers(path);
+    }
+
+    private boolean matchesOthers(@NonNull String path) {
+        for (String pattern : otherPatterns) {
+            if (ANT_PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void compile(@NonNull String pattern) {
+        if (!pattern.startsWith(SEPARATOR)) {
+            otherPatterns.add(pattern);
+            return;
+        }
+
+        String[] segments = StringUtils.tokenizeToStringArray(pattern, SEPARATOR, false, true);
+        int literalCount = segments.length;
+        boolean anyPaths = false;
+        if (literalCount > 0 && ANY_PATHS.equals(segments[literalCount - 1])) {
+            literalCount--;
+            anyPaths = true;
+        }
+        for (int i = 0; i < literalCount; i++) {
+            if (isWildcard(segments[i])) {
+                otherPatterns.add(pattern);
+                return;
+            }
+        }
+
+        Node node = root;
+        for (int i = 0; i < literalCount; i++) {
+            node = node.children.computeIfAbsent(segments[i], segment -> new Node());
+        }
+        if (anyPaths) {
+            node.anyPaths = true;
+        } else if (pattern.endsWith(SEPARATOR) && literalCount > 0) {
+            node.literalWithSeparator = true;
+        } else {
+            node.literal = true;
+        }
+    }
+
+    private static boolean isWildcard(@NonNull String segment) {
+        return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0
+            || segment.indexOf('{') >= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledPathMatcher" + patterns;
+    }
+
+    private static class Node {
+
+        private final Map<String, Node> children = new HashMap<>(4);
+
+        /**
+         * Whether a pattern ending with {@code /**} ends here.
+         */
+        private boolean anyPaths;
+
+        /**
+         * Whether a literal pattern without trailing separator ends here.
+         */
+        private boolean literal;
+
+        /**
+         * Whether a literal pattern with trailing separator ends here.
+         */
+        private boolean literalWithSeparator;
+    }
+}
@@ -1,5 +1,6 @@
 package run.halo.app.utils;
 
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
@@ -7,6 +8,7 @@ import java.util.Iterator;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReader;
 import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.image4j.codec.ico.ICODecoder;
 import org.springframework.lang.NonNull;
@@ -36,18 +38,29 @@ public class ImageUtils {
         }
     }
 
+    /**
+     * Reads width and height from the header of the image, without decoding pixels.
+     *
+     * @param is input stream of the image must not be null
+     * @param formatName format name of the image
+     * @return width and height of the image
+     * @throws IOException throws when failed to read the image
+     */
     @NonNull
-    public static ImageReader getImageReaderFromFile(InputStream is, String formatName)
+    public static Dimension getImageSize(@NonNull InputStream is, String formatName)
         throws IOException {
-        try {
-            Iterator<ImageReader> readerIterator = ImageIO.getImageReadersByFormatName(formatName);
-            ImageReader reader = readerIterator.next();
-            ImageInputStream stream = ImageIO.createImageInputStream(is);
-            ImageIO.getImageReadersByFormatName(formatName);
-            reader.setInput(stream, true);
-            return reader;
-        } catch (Exception e) {
-            throw new IOException("Failed to read image reader.", e);
+        Iterator<ImageReader> readerIterator = ImageIO.getImageReadersByFormatName(formatName);
+        if (!readerIterator.hasNext()) {
+            throw new IOException("No image reader for format: " + formatName);
+        }
+
+        ImageReader reader = readerIterator.next();
+        // Headers are small, so cache them in memory rather than in temporary files
+        try (ImageInputStream stream = new MemoryCacheImageInputStream(is)) {
+            reader.setInput(stream, true, true);
+            return new Dimension(reader.getWidth(0), reader.getHeight(0));
+        } finally {
+            reader.dispose();
         }
     }
 }
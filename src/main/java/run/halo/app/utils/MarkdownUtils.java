@@ -39,6 +39,12 @@ import run.halo.app.model.support.HaloConst;
  */
 public class MarkdownUtils {
 
+    /**
+     * Renderer version. Increase it whenever {@link #OPTIONS} or the short url rendering below
+     * changes, so that persisted html of posts will be re-rendered lazily.
+     */
+    public static final int RENDERER_VERSION = 1;
+
     private static final DataHolder OPTIONS =
         new MutableDataSet().set(Parser.EXTENSIONS, Arrays.asList(AttributesExtension.create(),
             AutolinkExtension.create(),
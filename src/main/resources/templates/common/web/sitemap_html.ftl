@@ -149,6 +149,17 @@ see https://gitee.com/yadong.zhang/DBlog/blob/master/blog-web/src/main/java/com/
                 <div class="clear"></div>
             </#list>
         </#if>
+        <#if sheets?? && sheets?size gt 0>
+            <#list sheets as sheet>
+                <li>
+                    <div class="T1 pull-left"><a href="<#if !globalAbsolutePathEnabled!true>${blog_url!}</#if>${sheet.fullPath!}" title="${sheet.title!}">${sheet.title!} | ${blog_title!}</a></div>
+                    <div class="T2 pull-right">${sheet.createTime?string('yyyy-MM-dd')}</div>
+                    <div class="T3 pull-right">daily</div>
+                    <div class="T4 pull-right">0.6</div>
+                </li>
+                <div class="clear"></div>
+            </#list>
+        </#if>
     </ul>
 </div>
 <div id="content">
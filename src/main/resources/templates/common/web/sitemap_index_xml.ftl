@@ -0,0 +1,9 @@
+<?xml version="1.0" encoding="UTF-8"?>
+<sitemapindex xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+    <#list sitemaps as sitemap>
+        <sitemap>
+            <loc>${blog_url!}/sitemap-${sitemap?c}.xml</loc>
+            <lastmod>${lastModified?iso_local}</lastmod>
+        </sitemap>
+    </#list>
+</sitemapindex>
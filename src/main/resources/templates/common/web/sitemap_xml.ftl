@@ -1,9 +1,11 @@
 <?xml version="1.0" encoding="UTF-8"?>
 <urlset xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+    <#if includePages!true>
     <url>
         <loc>${blog_url!}</loc>
         <lastmod>${options.birthday?number_to_datetime?iso_local}</lastmod>
     </url>
+    </#if>
     <#if posts?? && posts?size gt 0>
         <#list posts as post>
             <url>
@@ -12,6 +14,15 @@
             </url>
         </#list>
     </#if>
+    <#if sheets?? && sheets?size gt 0>
+        <#list sheets as sheet>
+            <url>
+                <loc><#if !globalAbsolutePathEnabled!true>${blog_url!}</#if>${sheet.fullPath!}</loc>
+                <lastmod>${sheet.createTime?iso_local}</lastmod>
+            </url>
+        </#list>
+    </#if>
+    <#if includePages!true>
     <@categoryTag method="list">
         <#if categories?? && categories?size gt 0>
             <#list categories as category>
@@ -32,4 +43,5 @@
             </#list>
         </#if>
     </@tagTag>
+    </#if>
 </urlset>
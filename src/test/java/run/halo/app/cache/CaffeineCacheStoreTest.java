@@ -0,0 +1,92 @@
+package run.halo.app.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import run.halo.app.config.properties.HaloProperties;
+
+/**
+ * Caffeine cache store test.
+ */
+class CaffeineCacheStoreTest {
+
+    MeterRegistry meterRegistry;
+
+    CaffeineCacheStore cacheStore;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheStore = new CaffeineCacheStore(new HaloProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheStore.preDestroy();
+    }
+
+    @Test
+    void putAndGetTest() {
+        cacheStore.put("test_key", "test_value");
+
+        assertEquals(Optional.of("test_value"), cacheStore.get("test_key"));
+        assertFalse(cacheStore.get("another_key").isPresent());
+    }
+
+    @Test
+    void expirationTest() throws InterruptedException {
+        cacheStore.put("test_key", "test_value", 500, TimeUnit.MILLISECONDS);
+
+        assertTrue(cacheStore.get("test_key").isPresent());
+
+        TimeUnit.SECONDS.sleep(1L);
+
+        assertFalse(cacheStore.get("test_key").isPresent());
+    }
+
+    @Test
+    void putIfAbsentTest() {
+        assertTrue(cacheStore.putIfAbsent("test_key", "first", 1, TimeUnit.MINUTES));
+        assertFalse(cacheStore.putIfAbsent("test_key", "second", 1, TimeUnit.MINUTES));
+
+        assertEquals(Optional.of("first"), cacheStore.get("test_key"));
+    }
+
+    @Test
+    void putIfAbsentAfterExpirationTest() throws InterruptedException {
+        assertTrue(cacheStore.putIfAbsent("test_key", "first", 100, TimeUnit.MILLISECONDS));
+
+        TimeUnit.MILLISECONDS.sleep(200L);
+
+        assertTrue(cacheStore.putIfAbsent("test_key", "second", 1, TimeUnit.MINUTES));
+        assertEquals(Optional.of("second"), cacheStore.get("test_key"));
+    }
+
+    @Test
+    void deleteTest() {
+        cacheStore.put("test_key", "test_value");
+        cacheStore.delete("test_key");
+
+        assertFalse(cacheStore.get("test_key").isPresent());
+    }
+
+    @Test
+    void metricsTest() {
+        cacheStore.put("test_key", "test_value");
+        cacheStore.get("test_key");
+        cacheStore.get("another_key");
+
+        assertEquals(1, meterRegistry.get("cache.gets").tag("result", "hit")
+            .functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("result", "miss")
+            .functionCounter().count());
+    }
+}
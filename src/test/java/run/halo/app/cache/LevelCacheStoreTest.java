@@ -0,0 +1,110 @@
+package run.halo.app.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.Options;
+import org.iq80.leveldb.impl.Iq80DBFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import run.halo.app.config.properties.HaloProperties;
+
+/**
+ * Level cache store test.
+ */
+class LevelCacheStoreTest {
+
+    @TempDir
+    Path workDir;
+
+    HaloProperties haloProperties;
+
+    LevelCacheStore cacheStore;
+
+    @BeforeEach
+    void setUp() {
+        haloProperties = new HaloProperties();
+        haloProperties.setWorkDir(workDir.toString() + File.separator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheStore.preDestroy();
+    }
+
+    @Test
+    void putAndGetTest() {
+        openCacheStore();
+
+        cacheStore.put("test_key", "测试 value");
+
+        assertEquals(Optional.of("测试 value"), cacheStore.get("test_key"));
+        assertFalse(cacheStore.get("another_key").isPresent());
+    }
+
+    @Test
+    void expirationTest() throws InterruptedException {
+        openCacheStore();
+
+        cacheStore.put("test_key", "test_value", 100, TimeUnit.MILLISECONDS);
+        assertTrue(cacheStore.get("test_key").isPresent());
+
+        TimeUnit.MILLISECONDS.sleep(200L);
+
+        assertFalse(cacheStore.get("test_key").isPresent());
+    }
+
+    @Test
+    void cleanExpiredTest() throws InterruptedException {
+        openCacheStore();
+
+        cacheStore.put("expired_key", "test_value", 100, TimeUnit.MILLISECONDS);
+        cacheStore.put("renewed_key", "test_value", 100, TimeUnit.MILLISECONDS);
+        cacheStore.put("alive_key", "test_value", 1, TimeUnit.MINUTES);
+        cacheStore.put("permanent_key", "test_value");
+
+        TimeUnit.MILLISECONDS.sleep(200L);
+        cacheStore.put("renewed_key", "test_value", 1, TimeUnit.MINUTES);
+
+        cacheStore.cleanExpired();
+
+        assertFalse(cacheStore.getInternal("expired_key").isPresent());
+        assertTrue(cacheStore.get("renewed_key").isPresent());
+        assertTrue(cacheStore.get("alive_key").isPresent());
+        assertTrue(cacheStore.get("permanent_key").isPresent());
+    }
+
+    @Test
+    void migrateJsonValuesTest() throws Exception {
+        File folder = new File(haloProperties.getWorkDir() + ".leveldb");
+        Options options = new Options();
+        options.createIfMissing(true);
+        try (DB db = new Iq80DBFactory().open(folder, options)) {
+            db.put("json_key".getBytes(Charset.defaultCharset()),
+                "{\"data\":\"json_value\",\"expireAt\":null,\"createAt\":1577836800000}"
+                    .getBytes(Charset.defaultCharset()));
+            db.put("expired_key".getBytes(Charset.defaultCharset()),
+                "{\"data\":\"json_value\",\"expireAt\":1577836800000,\"createAt\":1577836800000}"
+                    .getBytes(Charset.defaultCharset()));
+        }
+
+        openCacheStore();
+
+        assertEquals(Optional.of("json_value"), cacheStore.get("json_key"));
+        assertFalse(cacheStore.getInternal("expired_key").isPresent());
+    }
+
+    private void openCacheStore() {
+        cacheStore = new LevelCacheStore(haloProperties);
+        cacheStore.init();
+    }
+}
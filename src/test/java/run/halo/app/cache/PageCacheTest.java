@@ -0,0 +1,68 @@
+package run.halo.app.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import run.halo.app.cache.PageCache.CachedPage;
+import run.halo.app.config.properties.HaloProperties;
+
+/**
+ * Page cache test.
+ */
+class PageCacheTest {
+
+    PageCache pageCache = new PageCache(new HaloProperties());
+
+    @Test
+    void putAndInvalidateByTagTest() {
+        pageCache.put("theme:/", createPage(Set.of(PageCache.LIST_TAG)), pageCache.generation());
+        pageCache.put("theme:/archives/post-1", createPage(Set.of("post:1")),
+            pageCache.generation());
+
+        assertTrue(pageCache.get("theme:/").isPresent());
+
+        pageCache.invalidate("post:1");
+
+        assertTrue(pageCache.get("theme:/").isPresent());
+        assertFalse(pageCache.get("theme:/archives/post-1").isPresent());
+    }
+
+    @Test
+    void putAfterInvalidationTest() {
+        long generation = pageCache.generation();
+
+        pageCache.invalidateAll();
+
+        assertFalse(pageCache.put("theme:/", createPage(Set.of(PageCache.LIST_TAG)), generation));
+        assertFalse(pageCache.get("theme:/").isPresent());
+    }
+
+    @Test
+    void gzipTest() throws IOException {
+        byte[] body = StringUtils.repeat("<p>halo</p>", 200).getBytes(StandardCharsets.UTF_8);
+        CachedPage page = new CachedPage("text/html;charset=UTF-8", body, Set.of());
+
+        assertNotNull(page.getGzipBody());
+        try (GZIPInputStream in =
+                 new GZIPInputStream(new ByteArrayInputStream(page.getGzipBody()))) {
+            assertArrayEquals(body, in.readAllBytes());
+        }
+
+        assertNull(createPage(Set.of()).getGzipBody());
+    }
+
+    private CachedPage createPage(Set<String> tags) {
+        return new CachedPage("text/html;charset=UTF-8",
+            "<p>halo</p>".getBytes(StandardCharsets.UTF_8), tags);
+    }
+}
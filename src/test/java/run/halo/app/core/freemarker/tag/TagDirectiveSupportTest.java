@@ -0,0 +1,83 @@
+package run.halo.app.core.freemarker.tag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import freemarker.template.SimpleScalar;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Tag directive support test.
+ */
+class TagDirectiveSupportTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    TagDirectiveSupport tagDirectiveSupport = new TagDirectiveSupport(meterRegistry);
+
+    AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void memoizeInReadOnlyRequestTest() throws Exception {
+        RequestContextHolder.setRequestAttributes(
+            new ServletRequestAttributes(new MockHttpServletRequest("GET", "/")));
+
+        tagDirectiveSupport.memoize("postTag", params("latest", "5"), this::load);
+        // Order of params does not matter
+        Map<String, Object> reorderedParams = new LinkedHashMap<>();
+        reorderedParams.put("top", new SimpleScalar("5"));
+        reorderedParams.put("method", new SimpleScalar("latest"));
+        tagDirectiveSupport.memoize("postTag", reorderedParams, this::load);
+        // Different params
+        tagDirectiveSupport.memoize("postTag", params("latest", "10"), this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, meterRegistry.get("halo.template.directive")
+            .tags("directive", "postTag", "method", "latest", "memo", "hit").timer().count());
+        assertEquals(2, meterRegistry.get("halo.template.directive")
+            .tags("directive", "postTag", "method", "latest", "memo", "miss").timer().count());
+    }
+
+    @Test
+    void notMemoizeInWriteRequestTest() throws Exception {
+        RequestContextHolder.setRequestAttributes(
+            new ServletRequestAttributes(new MockHttpServletRequest("POST", "/")));
+
+        tagDirectiveSupport.memoize("postTag", params("latest", "5"), this::load);
+        tagDirectiveSupport.memoize("postTag", params("latest", "5"), this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void notMemoizeOutOfRequestTest() throws Exception {
+        tagDirectiveSupport.memoize("postTag", params("latest", "5"), this::load);
+        tagDirectiveSupport.memoize("postTag", params("latest", "5"), this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private List<Integer> load() {
+        return List.of(loads.incrementAndGet());
+    }
+
+    private static Map<String, Object> params(String method, String top) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("method", new SimpleScalar(method));
+        params.put("top", new SimpleScalar(top));
+        return params;
+    }
+}
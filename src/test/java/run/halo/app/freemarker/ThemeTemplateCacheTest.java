@@ -0,0 +1,88 @@
+package run.halo.app.freemarker;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import freemarker.cache.FileTemplateLoader;
+import freemarker.template.Configuration;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.core.freemarker.ThemeTemplateCache;
+import run.halo.app.handler.theme.config.support.ThemeProperty;
+
+/**
+ * Theme template cache test.
+ */
+class ThemeTemplateCacheTest {
+
+    @TempDir
+    Path templatesPath;
+
+    Configuration configuration;
+
+    ThemeProperty theme;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path themePath = Files.createDirectories(templatesPath.resolve("themes/anatole"));
+        Files.writeString(themePath.resolve("index.ftl"), "${1 + 1}");
+        Files.writeString(Files.createDirectories(themePath.resolve("module"))
+            .resolve("macro.ftl"), "<#macro layout><#nested></#macro>");
+
+        configuration = new Configuration(Configuration.VERSION_2_3_30);
+        configuration.setTemplateLoader(new FileTemplateLoader(templatesPath.toFile()));
+
+        theme = new ThemeProperty();
+        theme.setId("anatole");
+        theme.setFolderName("anatole");
+        theme.setThemePath(themePath.toString());
+    }
+
+    @Test
+    void fileExistsTest() throws IOException {
+        ThemeTemplateCache cache = new ThemeTemplateCache(configuration, new HaloProperties());
+
+        assertTrue(cache.fileExists(theme, "index.ftl"));
+        assertTrue(cache.fileExists(theme, "module/macro.ftl"));
+        assertTrue(cache.fileExists(theme, "./module/../index.ftl"));
+        assertFalse(cache.fileExists(theme, "post_custom.ftl"));
+
+        // Indexed until cleared
+        Files.writeString(Path.of(theme.getThemePath(), "post_custom.ftl"), "custom");
+        assertFalse(cache.fileExists(theme, "post_custom.ftl"));
+
+        cache.onThemeUpdated();
+        assertTrue(cache.fileExists(theme, "post_custom.ftl"));
+    }
+
+    @Test
+    void hotReloadTest() throws IOException {
+        HaloProperties haloProperties = new HaloProperties();
+        haloProperties.setTemplateCache(false);
+        ThemeTemplateCache cache = new ThemeTemplateCache(configuration, haloProperties);
+
+        assertFalse(cache.fileExists(theme, "post_custom.ftl"));
+        Files.writeString(Path.of(theme.getThemePath(), "post_custom.ftl"), "custom");
+        assertTrue(cache.fileExists(theme, "post_custom.ftl"));
+    }
+
+    @Test
+    void precompileTest() throws IOException {
+        ThemeTemplateCache cache = new ThemeTemplateCache(configuration, new HaloProperties());
+        cache.precompile(theme);
+
+        // Cached templates are never checked for modification
+        Files.writeString(Path.of(theme.getThemePath(), "index.ftl"), "changed");
+        assertTrue(configuration.getTemplate("themes/anatole/index.ftl").toString()
+            .contains("1 + 1"));
+
+        cache.clear();
+        assertFalse(configuration.getTemplate("themes/anatole/index.ftl").toString()
+            .contains("1 + 1"));
+    }
+}
@@ -0,0 +1,75 @@
+package run.halo.app.handler.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import run.halo.app.config.properties.HaloProperties;
+
+/**
+ * Thumbnail generator test.
+ */
+class ThumbnailGeneratorTest {
+
+    @TempDir
+    Path workDir;
+
+    ThumbnailGenerator thumbnailGenerator;
+
+    @BeforeEach
+    void setUp() {
+        HaloProperties haloProperties = new HaloProperties();
+        haloProperties.setWorkDir(workDir.toString());
+        haloProperties.setThumbnailSizes(List.of(256, 64));
+        thumbnailGenerator = new ThumbnailGenerator(haloProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        thumbnailGenerator.destroy();
+    }
+
+    @Test
+    void listThumbnailKeysTest() {
+        assertEquals(List.of("upload/2021/06/a-thumbnail.png", "upload/2021/06/a-thumbnail-64.png"),
+            thumbnailGenerator.listThumbnailKeys("upload/2021/06/a.png"));
+    }
+
+    @Test
+    void supportsTest() {
+        assertTrue(thumbnailGenerator.supports("png"));
+        assertTrue(thumbnailGenerator.supports("jpg"));
+        assertFalse(thumbnailGenerator.supports("svg"));
+        assertFalse(thumbnailGenerator.supports(null));
+    }
+
+    @Test
+    void generateAllSizesTest() throws Exception {
+        Files.createDirectories(workDir.resolve("upload"));
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB), "png",
+            workDir.resolve("upload/a.png").toFile());
+
+        String thumbnailKey = thumbnailGenerator.generateAsync("upload/a.png").get();
+
+        assertEquals("upload/a-thumbnail.png", thumbnailKey);
+        assertSize(256, 128, workDir.resolve("upload/a-thumbnail.png").toFile());
+        assertSize(64, 32, workDir.resolve("upload/a-thumbnail-64.png").toFile());
+    }
+
+    private static void assertSize(int width, int height, File file) throws IOException {
+        BufferedImage image = ImageIO.read(file);
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+    }
+}
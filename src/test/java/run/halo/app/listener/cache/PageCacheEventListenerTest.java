@@ -0,0 +1,60 @@
+package run.halo.app.listener.cache;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import run.halo.app.cache.PageCache;
+import run.halo.app.cache.PageCache.CachedPage;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.event.comment.CommentReplyEvent;
+import run.halo.app.model.entity.PostComment;
+import run.halo.app.service.PostCommentService;
+import run.halo.app.service.SheetCommentService;
+
+/**
+ * Page cache event listener test.
+ */
+class PageCacheEventListenerTest {
+
+    PageCache pageCache = new PageCache(new HaloProperties());
+
+    PostCommentService postCommentService = mock(PostCommentService.class);
+
+    PageCacheEventListener pageCacheEventListener = new PageCacheEventListener(pageCache,
+        postCommentService, mock(SheetCommentService.class));
+
+    @BeforeEach
+    void setUp() {
+        pageCache.put("theme:/", createPage(PageCache.LIST_TAG), pageCache.generation());
+        pageCache.put("theme:/archives/post-1", createPage(PageCache.POST_TAG_PREFIX + 1),
+            pageCache.generation());
+        pageCache.put("theme:/archives/post-2", createPage(PageCache.POST_TAG_PREFIX + 2),
+            pageCache.generation());
+    }
+
+    @Test
+    void onCommentReplyTest() {
+        PostComment reply = new PostComment();
+        reply.setId(10L);
+        reply.setPostId(1);
+        given(postCommentService.fetchById(10L)).willReturn(Optional.of(reply));
+
+        pageCacheEventListener.onCommentCreate(new CommentReplyEvent(postCommentService, 10L));
+
+        assertFalse(pageCache.get("theme:/").isPresent());
+        assertFalse(pageCache.get("theme:/archives/post-1").isPresent());
+        assertTrue(pageCache.get("theme:/archives/post-2").isPresent());
+    }
+
+    private CachedPage createPage(String tag) {
+        return new CachedPage("text/html;charset=UTF-8",
+            "<p>halo</p>".getBytes(StandardCharsets.UTF_8), Set.of(tag));
+    }
+}
@@ -0,0 +1,69 @@
+package run.halo.app.listener.post;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import run.halo.app.model.properties.PostProperties;
+import run.halo.app.service.OptionService;
+import run.halo.app.service.PostService;
+
+/**
+ * Post summary listener test.
+ */
+class PostSummaryListenerTest {
+
+    PostService postService;
+
+    OptionService optionService;
+
+    PostSummaryListener postSummaryListener;
+
+    @BeforeEach
+    void setUp() {
+        postService = mock(PostService.class);
+        optionService = mock(OptionService.class);
+        postSummaryListener = new PostSummaryListener(postService, optionService);
+
+        givenSummaryLength(150);
+    }
+
+    @Test
+    void onApplicationStartedTest() {
+        postSummaryListener.onApplicationStarted(mock(ApplicationStartedEvent.class));
+
+        verify(postService, times(1)).refreshSummaries(true);
+        verify(postService, never()).refreshSummaries(false);
+    }
+
+    @Test
+    void onOptionUpdateWithSameSummaryLengthTest() {
+        postSummaryListener.onApplicationStarted(mock(ApplicationStartedEvent.class));
+        postSummaryListener.onOptionUpdate();
+
+        verify(postService, never()).refreshSummaries(false);
+    }
+
+    @Test
+    void onOptionUpdateWithChangedSummaryLengthTest() {
+        postSummaryListener.onApplicationStarted(mock(ApplicationStartedEvent.class));
+
+        givenSummaryLength(200);
+        postSummaryListener.onOptionUpdate();
+        // Summaries are regenerated once per change
+        postSummaryListener.onOptionUpdate();
+
+        verify(postService, times(1)).refreshSummaries(false);
+    }
+
+    private void givenSummaryLength(int summaryLength) {
+        given(optionService.getByPropertyOrDefault(eq(PostProperties.SUMMARY_LENGTH),
+            eq(Integer.class), eq(150))).willReturn(summaryLength);
+    }
+}
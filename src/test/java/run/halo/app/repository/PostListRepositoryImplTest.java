@@ -0,0 +1,81 @@
+package run.halo.app.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.PostListProjection;
+
+/**
+ * Post list repository test.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PostListRepositoryImplTest {
+
+    @Autowired
+    PostRepository postRepository;
+
+    final Specification<Post> publishedListTestPosts = (root, query, criteriaBuilder) ->
+        criteriaBuilder.and(
+            criteriaBuilder.equal(root.get("status"), PostStatus.PUBLISHED),
+            criteriaBuilder.like(root.get("slug"), "list-test-%"));
+
+    @BeforeEach
+    void setUp() {
+        postRepository.save(createPost("list-test-1", PostStatus.PUBLISHED));
+        postRepository.save(createPost("list-test-2", PostStatus.PUBLISHED));
+        postRepository.save(createPost("list-test-3", PostStatus.DRAFT));
+    }
+
+    @Test
+    void findAllListByPageTest() {
+        Page<PostListProjection> postPage = postRepository.findAllListBy(publishedListTestPosts,
+            PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "slug")));
+
+        assertEquals(2, postPage.getTotalElements());
+        assertEquals(1, postPage.getContent().size());
+
+        PostListProjection post = postPage.getContent().get(0);
+        assertEquals("list-test-2", post.getSlug());
+        assertEquals("Title of list-test-2", post.getTitle());
+        assertEquals(PostStatus.PUBLISHED, post.getStatus());
+        assertEquals("Summary of list-test-2", post.getGeneratedSummary());
+        assertEquals(5L, post.getWordCount());
+    }
+
+    @Test
+    void findAllListBySortTest() {
+        List<PostListProjection> posts =
+            postRepository.findAllListBy(publishedListTestPosts, Sort.by("slug"));
+
+        assertEquals(List.of("list-test-1", "list-test-2"), posts.stream()
+            .map(PostListProjection::getSlug)
+            .collect(Collectors.toList()));
+    }
+
+    private Post createPost(String slug, PostStatus status) {
+        Post post = new Post();
+        post.setTitle("Title of " + slug);
+        post.setSlug(slug);
+        post.setStatus(status);
+        post.setOriginalContent("Content of " + slug);
+        post.setFormatContent("<p>Content of " + slug + "</p>");
+        post.setGeneratedSummary("Summary of " + slug);
+        post.setWordCount(5L);
+        return post;
+    }
+}
@@ -0,0 +1,153 @@
+package run.halo.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockMultipartFile;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.event.options.OptionUpdatedEvent;
+import run.halo.app.event.theme.ThemeUpdatedEvent;
+import run.halo.app.model.dto.BackupDTO;
+import run.halo.app.model.entity.Tag;
+import run.halo.app.model.entity.User;
+import run.halo.app.security.service.OneTimeTokenService;
+import run.halo.app.service.AttachmentService;
+import run.halo.app.service.CategoryService;
+import run.halo.app.service.CommentBlackListService;
+import run.halo.app.service.JournalCommentService;
+import run.halo.app.service.JournalService;
+import run.halo.app.service.LinkService;
+import run.halo.app.service.LogService;
+import run.halo.app.service.MenuService;
+import run.halo.app.service.OptionService;
+import run.halo.app.service.PhotoService;
+import run.halo.app.service.PostCategoryService;
+import run.halo.app.service.PostCommentService;
+import run.halo.app.service.PostMetaService;
+import run.halo.app.service.PostSearchService;
+import run.halo.app.service.PostService;
+import run.halo.app.service.PostTagService;
+import run.halo.app.service.SheetCommentService;
+import run.halo.app.service.SheetMetaService;
+import run.halo.app.service.SheetService;
+import run.halo.app.service.TagService;
+import run.halo.app.service.ThemeSettingService;
+import run.halo.app.service.UserService;
+import run.halo.app.service.support.WorkDirBackupArchiver;
+import run.halo.app.utils.JsonUtils;
+
+/**
+ * Backup service test.
+ */
+class BackupServiceImplTest {
+
+    @TempDir
+    Path tempDir;
+
+    TagService tagService = pagedMock(TagService.class);
+
+    UserService userService = pagedMock(UserService.class);
+
+    OptionService optionService = pagedMock(OptionService.class);
+
+    OneTimeTokenService oneTimeTokenService = mock(OneTimeTokenService.class);
+
+    HaloProperties haloProperties = new HaloProperties();
+
+    ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    PostSearchService postSearchService = mock(PostSearchService.class);
+
+    BackupServiceImpl backupService;
+
+    @BeforeEach
+    void setUp() {
+        haloProperties.setDataExportDir(tempDir.toString());
+        when(optionService.getBlogBaseUrl()).thenReturn("http://localhost:8090");
+        when(oneTimeTokenService.create(any())).thenReturn("token");
+
+        backupService = new BackupServiceImpl(pagedMock(AttachmentService.class),
+            mock(CategoryService.class), pagedMock(CommentBlackListService.class),
+            pagedMock(JournalService.class), pagedMock(JournalCommentService.class),
+            pagedMock(LinkService.class), pagedMock(LogService.class),
+            pagedMock(MenuService.class), optionService, pagedMock(PhotoService.class),
+            pagedMock(PostService.class), postSearchService, pagedMock(PostCategoryService.class),
+            pagedMock(PostCommentService.class), pagedMock(PostMetaService.class),
+            pagedMock(PostTagService.class), pagedMock(SheetService.class),
+            pagedMock(SheetCommentService.class), pagedMock(SheetMetaService.class),
+            tagService, pagedMock(ThemeSettingService.class), userService,
+            oneTimeTokenService, haloProperties, eventPublisher,
+            mock(WorkDirBackupArchiver.class));
+    }
+
+    @Test
+    void exportDataPageByPageTest() throws IOException {
+        when(tagService.listAll(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(0);
+            Tag tag = new Tag();
+            tag.setId(pageable.getPageNumber() + 1);
+            return new PageImpl<>(List.of(tag), pageable, pageable.getPageSize() + 1L);
+        });
+
+        BackupDTO backup = backupService.exportData();
+
+        JsonNode data = JsonUtils.DEFAULT_JSON_MAPPER
+            .readTree(tempDir.resolve(backup.getFilename()).toFile());
+        assertEquals(2, data.get("tags").size());
+        assertEquals(2, data.get("tags").get(1).get("id").asInt());
+        assertEquals(0, data.get("posts").size());
+        verify(tagService, times(2)).listAll(any(Pageable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importDataTableByTableTest() throws IOException {
+        String json = "{\"version\":\"1.4.0\",\"unknown\":{\"tags\":[{\"id\":3}]},"
+            + "\"tags\":[{\"id\":1,\"name\":\"a\"},{\"id\":2,\"name\":\"b\"}],"
+            + "\"user\":[{\"username\":\"first\"},{\"username\":\"second\"}]}";
+
+        backupService.importData(new MockMultipartFile("file", json.getBytes()));
+
+        ArgumentCaptor<List<Tag>> tagsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(tagService, times(1)).createInBatch(tagsCaptor.capture());
+        assertEquals(2, tagsCaptor.getValue().size());
+        assertEquals("b", tagsCaptor.getValue().get(1).getName());
+
+        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
+        verify(userService, times(1)).create(userCaptor.capture());
+        assertEquals("first", userCaptor.getValue().getUsername());
+
+        verify(eventPublisher, times(1)).publishEvent(any(OptionUpdatedEvent.class));
+        verify(eventPublisher, times(1)).publishEvent(any(ThemeUpdatedEvent.class));
+        verify(postSearchService, times(1)).rebuildIndex();
+    }
+
+    /**
+     * Mocks the service, which lists an empty page by default.
+     */
+    private static <T> T pagedMock(Class<T> type) {
+        return mock(type, invocation -> {
+            if (Page.class.equals(invocation.getMethod().getReturnType())) {
+                return Page.empty();
+            }
+            return Mockito.RETURNS_DEFAULTS.answer(invocation);
+        });
+    }
+}
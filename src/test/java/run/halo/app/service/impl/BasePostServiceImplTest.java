@@ -0,0 +1,181 @@
+package run.halo.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import run.halo.app.exception.NotFoundException;
+import run.halo.app.model.entity.Sheet;
+import run.halo.app.model.enums.PostEditorType;
+import run.halo.app.model.properties.PostProperties;
+import run.halo.app.repository.SheetRepository;
+import run.halo.app.service.OptionService;
+import run.halo.app.service.support.PostCounterBuffer;
+
+/**
+ * Base post service test, through the sheet service.
+ */
+class BasePostServiceImplTest {
+
+    @Mock
+    SheetRepository sheetRepository;
+
+    @Mock
+    OptionService optionService;
+
+    @Mock
+    PostCounterBuffer postCounterBuffer;
+
+    @InjectMocks
+    SheetServiceImpl sheetService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        given(optionService.getByPropertyOrDefault(eq(PostProperties.SUMMARY_LENGTH),
+            eq(Integer.class), eq(150))).willReturn(150);
+    }
+
+    @Test
+    void refreshMissingSummariesTest() {
+        Sheet missingSummary = createSheet(1, "<p>Missing summary</p>", null);
+        Sheet withSummary = createSheet(2, "<p>With summary</p>", "With summary");
+        given(sheetRepository.existsByGeneratedSummaryIsNull()).willReturn(true);
+        given(sheetRepository.findAll(any(Pageable.class)))
+            .willReturn(new PageImpl<>(List.of(missingSummary, withSummary)));
+
+        assertEquals(1, sheetService.refreshSummaries(true));
+
+        verify(sheetRepository, times(1)).updateGeneratedSummary(
+            BasePostServiceImpl.htmlFormatWordCount("<p>Missing summary</p>"),
+            "Missing summary", 1);
+        verify(sheetRepository, never()).updateGeneratedSummary(anyLong(), anyString(), eq(2));
+        // Posts are written by bulk updates only, so update time of them is kept
+        verify(sheetRepository, never()).save(any());
+        verify(sheetRepository, never()).saveAll(any());
+        assertNull(missingSummary.getGeneratedSummary());
+    }
+
+    @Test
+    void refreshMissingSummariesWithoutMissingTest() {
+        given(sheetRepository.existsByGeneratedSummaryIsNull()).willReturn(false);
+
+        assertEquals(0, sheetService.refreshSummaries(true));
+
+        verify(sheetRepository, never()).findAll(any(Pageable.class));
+        verify(sheetRepository, never()).updateGeneratedSummary(anyLong(), anyString(), anyInt());
+    }
+
+    @Test
+    void refreshAllSummariesTest() {
+        given(sheetRepository.findAll(any(Pageable.class))).willReturn(new PageImpl<>(List.of(
+            createSheet(1, "<p>First</p>", null),
+            createSheet(2, "<p>Second</p>", "Stale"))));
+
+        assertEquals(2, sheetService.refreshSummaries(false));
+
+        verify(sheetRepository, times(1)).updateGeneratedSummary(
+            BasePostServiceImpl.htmlFormatWordCount("<p>First</p>"), "First", 1);
+        verify(sheetRepository, times(1)).updateGeneratedSummary(
+            BasePostServiceImpl.htmlFormatWordCount("<p>Second</p>"), "Second", 2);
+    }
+
+    @Test
+    void renderContentIfNecessaryWithChangedDigestTest() {
+        Sheet sheet = createSheet(1, "<p>Stale</p>", "Stale");
+        sheet.setEditorType(PostEditorType.MARKDOWN);
+        sheet.setOriginalContent("Fresh");
+        sheet.setContentDigest("stale digest");
+        givenFormatContentUpdated();
+
+        sheetService.renderContentIfNecessary(sheet);
+
+        assertEquals("<p>Fresh</p>\n", sheet.getFormatContent());
+        assertEquals("Fresh", sheet.getGeneratedSummary());
+        verify(sheetRepository, times(1)).updateFormatContent(sheet.getFormatContent(),
+            sheet.getContentDigest(), sheet.getWordCount(), "Fresh", 1);
+    }
+
+    @Test
+    void renderContentIfNecessaryWithUnchangedDigestTest() {
+        Sheet sheet = createSheet(1, null, null);
+        sheet.setEditorType(PostEditorType.MARKDOWN);
+        sheet.setOriginalContent("Unchanged");
+        givenFormatContentUpdated();
+        sheetService.renderContentIfNecessary(sheet);
+        String contentDigest = sheet.getContentDigest();
+        clearInvocations(sheetRepository);
+
+        sheetService.renderContentIfNecessary(sheet);
+
+        assertEquals(contentDigest, sheet.getContentDigest());
+        verify(sheetRepository, never()).updateFormatContent(anyString(), anyString(), anyLong(),
+            anyString(), anyInt());
+    }
+
+    @Test
+    void renderAllContentTest() {
+        Sheet sheet = createSheet(1, "<p>Stale</p>", "Stale");
+        sheet.setEditorType(PostEditorType.MARKDOWN);
+        sheet.setOriginalContent("Fresh");
+        given(sheetRepository.findAll(any(Pageable.class)))
+            .willReturn(new PageImpl<>(List.of(sheet)));
+
+        assertEquals(1, sheetService.renderAllContent());
+
+        verify(sheetRepository, times(1)).updateFormatContent("<p>Fresh</p>\n",
+            sheet.getContentDigest(), sheet.getWordCount(), "Fresh", 1);
+        verify(sheetRepository, never()).save(any());
+        verify(sheetRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void increaseLikeTest() {
+        given(sheetRepository.existsById(1)).willReturn(true);
+
+        sheetService.increaseLike(1);
+
+        verify(postCounterBuffer, times(1)).increaseLike(1, 1L);
+    }
+
+    @Test
+    void increaseLikeOfAbsentSheetTest() {
+        given(sheetRepository.existsById(1)).willReturn(false);
+
+        assertThrows(NotFoundException.class, () -> sheetService.increaseLike(1));
+
+        verify(postCounterBuffer, never()).increaseLike(anyInt(), anyLong());
+    }
+
+    private void givenFormatContentUpdated() {
+        given(sheetRepository.updateFormatContent(anyString(), anyString(), anyLong(),
+            anyString(), anyInt())).willReturn(1);
+    }
+
+    private Sheet createSheet(Integer id, String formatContent, String generatedSummary) {
+        Sheet sheet = new Sheet();
+        sheet.setId(id);
+        sheet.setFormatContent(formatContent);
+        sheet.setGeneratedSummary(generatedSummary);
+        return sheet;
+    }
+}
@@ -0,0 +1,101 @@
+package run.halo.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import run.halo.app.model.entity.BaseComment;
+import run.halo.app.model.entity.Journal;
+import run.halo.app.model.entity.JournalComment;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.entity.PostComment;
+import run.halo.app.model.enums.CommentStatus;
+import run.halo.app.model.projection.CommentCountProjection;
+import run.halo.app.repository.JournalCommentRepository;
+import run.halo.app.repository.JournalRepository;
+import run.halo.app.repository.PostCommentRepository;
+import run.halo.app.repository.PostRepository;
+import run.halo.app.service.JournalCommentService;
+import run.halo.app.service.PostCommentService;
+
+/**
+ * Comment count repair test, where a post and a journal share the same id.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class CommentCountRepairTest {
+
+    static final int SHARED_ID = 1000;
+
+    @Autowired
+    PostRepository postRepository;
+
+    @Autowired
+    JournalRepository journalRepository;
+
+    @Autowired
+    PostCommentRepository postCommentRepository;
+
+    @Autowired
+    JournalCommentRepository journalCommentRepository;
+
+    @Autowired
+    PostCommentService postCommentService;
+
+    @Autowired
+    JournalCommentService journalCommentService;
+
+    @Test
+    void refreshAllCommentCountsWithSharedIdTest() {
+        Post post = new Post();
+        post.setId(SHARED_ID);
+        post.setTitle("Shared id post");
+        post.setSlug("shared-id-post");
+        post.setOriginalContent("content");
+        postRepository.save(post);
+
+        Journal journal = new Journal();
+        journal.setId(SHARED_ID);
+        journal.setSourceContent("content");
+        journal.setContent("content");
+        journalRepository.save(journal);
+
+        postCommentRepository.save(fill(new PostComment()));
+        postCommentRepository.save(fill(new PostComment()));
+        journalCommentRepository.save(fill(new JournalComment()));
+
+        assertEquals(2L, postCommentRepository.countByStatusAndPostIds(CommentStatus.PUBLISHED,
+            Collections.singleton(SHARED_ID)).get(0).getCount());
+        assertEquals(1L, journalCommentRepository.countByStatusAndPostIds(CommentStatus.PUBLISHED,
+            Collections.singleton(SHARED_ID)).get(0).getCount());
+
+        postCommentService.refreshAllCommentCounts();
+        journalCommentService.refreshAllCommentCounts();
+
+        assertEquals(2L, countOf(postRepository.findAllCommentCounts()));
+        assertEquals(1L, countOf(journalRepository.findAllCommentCounts()));
+    }
+
+    private <C extends BaseComment> C fill(C comment) {
+        comment.setAuthor("author");
+        comment.setEmail("author@example.com");
+        comment.setContent("comment");
+        comment.setPostId(SHARED_ID);
+        comment.setStatus(CommentStatus.PUBLISHED);
+        return comment;
+    }
+
+    private long countOf(List<CommentCountProjection> commentCounts) {
+        return commentCounts.stream()
+            .filter(commentCount -> commentCount.getPostId() == SHARED_ID)
+            .mapToLong(CommentCountProjection::getCount)
+            .findFirst()
+            .orElse(0L);
+    }
+}
@@ -0,0 +1,76 @@
+package run.halo.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import run.halo.app.model.entity.PostComment;
+import run.halo.app.repository.PostCommentRepository;
+
+/**
+ * Test of filling missing tree paths of comments.
+ *
+ * <p>Not transactional on purpose, since tree paths are filled by bulk updates on startup.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CommentTreePathFillTest {
+
+    static final Date UPDATE_TIME = new Date(1000000000000L);
+
+    @Autowired
+    PostCommentRepository postCommentRepository;
+
+    @Autowired
+    PostCommentServiceImpl postCommentService;
+
+    List<PostComment> comments = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        postCommentRepository.deleteAll(comments);
+    }
+
+    @Test
+    void fillMissingTreePathsTest() {
+        PostComment top = save(0L);
+        PostComment reply = save(top.getId());
+        PostComment nestedReply = save(reply.getId());
+        PostComment orphan = save(Long.MAX_VALUE);
+        PostComment orphanReply = save(orphan.getId());
+
+        postCommentService.fillMissingTreePaths();
+
+        assertTreePath("/", top);
+        assertTreePath("/" + top.getId() + "/", reply);
+        assertTreePath("/" + top.getId() + "/" + reply.getId() + "/", nestedReply);
+        assertTreePath("/", orphan);
+        assertTreePath("/" + orphan.getId() + "/", orphanReply);
+    }
+
+    private PostComment save(Long parentId) {
+        PostComment comment = new PostComment();
+        comment.setAuthor("author");
+        comment.setEmail("author@example.com");
+        comment.setContent("comment");
+        comment.setPostId(1);
+        comment.setParentId(parentId);
+        comment.setUpdateTime(UPDATE_TIME);
+        comment = postCommentRepository.save(comment);
+        comments.add(comment);
+        return comment;
+    }
+
+    private void assertTreePath(String expectedTreePath, PostComment comment) {
+        PostComment filledComment = postCommentRepository.findById(comment.getId()).orElseThrow();
+        assertEquals(expectedTreePath, filledComment.getTreePath());
+        // Update time is kept by bulk updates
+        assertEquals(UPDATE_TIME.getTime(), filledComment.getUpdateTime().getTime());
+    }
+}
@@ -0,0 +1,168 @@
+package run.halo.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+
+import freemarker.template.Configuration;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.servlet.view.freemarker.FreeMarkerConfigurer;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.exception.NotFoundException;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.service.CategoryService;
+import run.halo.app.service.FeedService;
+import run.halo.app.service.OptionService;
+import run.halo.app.service.PostCategoryService;
+import run.halo.app.service.PostService;
+import run.halo.app.service.SheetService;
+import run.halo.app.service.TagService;
+
+/**
+ * Feed service test.
+ */
+class FeedServiceImplTest {
+
+    @TempDir
+    Path workDir;
+
+    @Mock
+    PostService postService;
+
+    @Mock
+    CategoryService categoryService;
+
+    @Mock
+    PostCategoryService postCategoryService;
+
+    @Mock
+    TagService tagService;
+
+    @Mock
+    SheetService sheetService;
+
+    @Mock
+    OptionService optionService;
+
+    @Mock
+    FreeMarkerConfigurer freeMarker;
+
+    FeedServiceImpl feedService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        Configuration configuration =
+            new Configuration(Configuration.DEFAULT_INCOMPATIBLE_IMPROVEMENTS);
+        configuration.setClassForTemplateLoading(getClass(), "/templates");
+        given(freeMarker.getConfiguration()).willReturn(configuration);
+
+        HaloProperties haloProperties = new HaloProperties();
+        haloProperties.setWorkDir(workDir.toString() + File.separator);
+
+        feedService = new FeedServiceImpl(postService, categoryService, postCategoryService,
+            tagService, sheetService, optionService, freeMarker, haloProperties);
+    }
+
+    @Test
+    void sitemapIndexTest() throws IOException {
+        given(postService.countByStatus(PostStatus.PUBLISHED))
+            .willReturn(FeedService.MAX_SITEMAP_URLS + 1L);
+
+        Path sitemap = feedService.getSitemapXml();
+
+        String content = Files.readString(sitemap, StandardCharsets.UTF_8);
+        assertTrue(content.contains("<sitemapindex"));
+        assertTrue(content.contains("/sitemap-3.xml"));
+        assertTrue(Files.exists(sitemap.resolveSibling("sitemap.xml.gz")));
+
+        assertThrows(NotFoundException.class, () -> feedService.getSitemapXml(4));
+    }
+
+    @Test
+    void invalidateTest() {
+        given(postService.countByStatus(PostStatus.PUBLISHED))
+            .willReturn(FeedService.MAX_SITEMAP_URLS + 1L);
+
+        Path sitemap = feedService.getSitemapXml();
+        assertEquals(sitemap, feedService.getSitemapXml());
+
+        feedService.invalidate();
+
+        Path regenerated = feedService.getSitemapXml();
+        assertNotEquals(sitemap, regenerated);
+        // Documents of the previous generation are still available
+        assertTrue(Files.exists(sitemap));
+        assertTrue(Files.exists(regenerated));
+    }
+
+    @Test
+    void invalidatePostOfDraftTest() {
+        givenPublishedPostCount(FeedService.MAX_SITEMAP_URLS + 1L);
+        given(postService.fetchById(1)).willReturn(Optional.of(createPost(PostStatus.DRAFT)));
+
+        Path sitemap = feedService.getSitemapXml();
+        feedService.invalidatePost(1);
+
+        // Drafts are listed by no document
+        assertEquals(sitemap, feedService.getSitemapXml());
+    }
+
+    @Test
+    void invalidatePostOfPublishedTest() {
+        givenPublishedPostCount(FeedService.MAX_SITEMAP_URLS + 1L);
+        given(postService.fetchById(1)).willReturn(Optional.of(createPost(PostStatus.PUBLISHED)));
+
+        Path sitemap = feedService.getSitemapXml();
+        feedService.invalidatePost(1);
+
+        assertNotEquals(sitemap, feedService.getSitemapXml());
+    }
+
+    @Test
+    void invalidatePostOfUnpublishedTest() {
+        givenPublishedPostCount(FeedService.MAX_SITEMAP_URLS + 1L);
+        given(postService.fetchById(1)).willReturn(Optional.of(createPost(PostStatus.DRAFT)));
+
+        Path sitemap = feedService.getSitemapXml();
+        givenPublishedPostCount(FeedService.MAX_SITEMAP_URLS);
+        feedService.invalidatePost(1);
+
+        assertNotEquals(sitemap, feedService.getSitemapXml());
+    }
+
+    @Test
+    void invalidateSitemapsTest() {
+        givenPublishedPostCount(FeedService.MAX_SITEMAP_URLS + 1L);
+
+        Path sitemap = feedService.getSitemapXml();
+        feedService.invalidateSitemaps();
+
+        assertNotEquals(sitemap, feedService.getSitemapXml());
+    }
+
+    private void givenPublishedPostCount(long count) {
+        given(postService.countByStatus(PostStatus.PUBLISHED)).willReturn(count);
+    }
+
+    private Post createPost(PostStatus status) {
+        Post post = new Post();
+        post.setId(1);
+        post.setStatus(status);
+        return post;
+    }
+}
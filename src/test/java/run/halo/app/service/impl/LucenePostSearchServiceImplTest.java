@@ -0,0 +1,126 @@
+package run.halo.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.service.PostService;
+
+/**
+ * Lucene post search service test.
+ */
+class LucenePostSearchServiceImplTest {
+
+    @TempDir
+    Path workDir;
+
+    PostService postService;
+
+    LucenePostSearchServiceImpl postSearchService;
+
+    Post springPost;
+
+    Post chinesePost;
+
+    Post draftPost;
+
+    @BeforeEach
+    void setUp() {
+        springPost = createPost(1, "Spring Boot", "<p>Halo is built on spring boot.</p>");
+        chinesePost = createPost(2, "博客", "<p>一个优秀的开源博客发布应用。</p>");
+        draftPost = createPost(3, "Spring draft", "<p>Not published yet.</p>");
+        draftPost.setStatus(PostStatus.DRAFT);
+
+        postService = mock(PostService.class);
+        given(postService.listAll(any(Pageable.class)))
+            .willReturn(new PageImpl<>(List.of(springPost, chinesePost, draftPost)));
+        given(postService.listAllByIds(anyCollection()))
+            .willReturn(List.of(springPost, chinesePost));
+
+        HaloProperties haloProperties = new HaloProperties();
+        haloProperties.setWorkDir(workDir.toString());
+
+        postSearchService = new LucenePostSearchServiceImpl(postService, haloProperties);
+        postSearchService.init();
+        postSearchService.rebuildIndex();
+    }
+
+    @AfterEach
+    void tearDown() {
+        postSearchService.preDestroy();
+    }
+
+    @Test
+    void searchLatinKeyword() {
+        Page<Post> postPage = postSearchService.search("spring", PageRequest.of(0, 10));
+
+        // The draft matches too, but it is filtered out by the index
+        assertEquals(1, postPage.getTotalElements());
+        Post post = postPage.getContent().get(0);
+        assertEquals(springPost.getId(), post.getId());
+        assertTrue(post.getSummary().contains("<em>spring</em>"));
+    }
+
+    @Test
+    void searchCjkKeyword() {
+        Page<Post> postPage = postSearchService.search("开源博客", PageRequest.of(0, 10));
+
+        assertEquals(1, postPage.getTotalElements());
+        assertEquals(chinesePost.getId(), postPage.getContent().get(0).getId());
+    }
+
+    @Test
+    void searchAfterPostUnpublished() {
+        chinesePost.setStatus(PostStatus.DRAFT);
+        given(postService.fetchById(chinesePost.getId())).willReturn(Optional.of(chinesePost));
+
+        postSearchService.refreshIndex(chinesePost.getId());
+
+        assertEquals(0,
+            postSearchService.search("博客", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void searchExactTotalBeyondDefaultThreshold() {
+        List<Post> posts = IntStream.rangeClosed(1, 1500)
+            .mapToObj(id -> createPost(id, "Post " + id, "<p>Many spring posts.</p>"))
+            .collect(Collectors.toList());
+        given(postService.listAll(any(Pageable.class))).willReturn(new PageImpl<>(posts));
+        given(postService.listAllByIds(anyCollection())).willReturn(posts);
+        postSearchService.rebuildIndex();
+
+        Page<Post> postPage = postSearchService.search("spring", PageRequest.of(1, 10));
+
+        assertEquals(1500, postPage.getTotalElements());
+        assertEquals(10, postPage.getContent().size());
+    }
+
+    private Post createPost(Integer id, String title, String formatContent) {
+        Post post = new Post();
+        post.setId(id);
+        post.setTitle(title);
+        post.setFormatContent(formatContent);
+        post.setSummary("summary");
+        post.setStatus(PostStatus.PUBLISHED);
+        return post;
+    }
+}
@@ -6,19 +6,17 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 
 import com.qiniu.common.Zone;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import run.halo.app.cache.AbstractStringCacheStore;
 import run.halo.app.model.entity.Option;
 import run.halo.app.model.properties.QiniuOssProperties;
 import run.halo.app.repository.OptionRepository;
-import run.halo.app.service.OptionService;
 
 /**
  * OptionService test.
@@ -31,9 +29,6 @@ class OptionServiceImplTest {
     @Mock
     OptionRepository optionRepository;
 
-    @Mock
-    AbstractStringCacheStore cacheStore;
-
     @InjectMocks
     OptionServiceImpl optionService;
 
@@ -85,19 +80,16 @@ class OptionServiceImplTest {
         QiniuOssProperties zoneProperty = QiniuOssProperties.OSS_ZONE;
 
         // Given
-        // given(optionRepository.findByKey(zoneProperty.getValue())).willReturn(Optional
-        // .ofNullable(option));
-        Map<String, Object> optionMap = new HashMap<>(1);
-        optionMap.put(zoneProperty.getValue(),
-            Optional.ofNullable(option).map(Option::getValue).orElse(null));
-        given(cacheStore.getAny(OptionService.OPTIONS_KEY, Map.class))
-            .willReturn(Optional.of(optionMap));
+        List<Option> options = Optional.ofNullable(option)
+            .map(o -> Collections.singletonList(new Option(zoneProperty.getValue(), o.getValue())))
+            .orElseGet(Collections::emptyList);
+        given(optionRepository.findAll()).willReturn(options);
 
         // When
         Zone zone = optionService.getQnYunZone();
 
         // Then
-        then(cacheStore).should().getAny(OptionService.OPTIONS_KEY, Map.class);
+        then(optionRepository).should().findAll();
 
         assertNotNull(zone);
         assertEquals(actualZone.getRegion(), zone.getRegion());
@@ -0,0 +1,221 @@
+package run.halo.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import run.halo.app.event.options.OptionUpdatedEvent;
+import run.halo.app.model.entity.PostComment;
+import run.halo.app.model.enums.CommentStatus;
+import run.halo.app.model.projection.CommentCountProjection;
+import run.halo.app.model.support.CommentPage;
+import run.halo.app.model.vo.BaseCommentVO;
+import run.halo.app.repository.PostCommentRepository;
+import run.halo.app.repository.PostRepository;
+import run.halo.app.service.OptionService;
+
+/**
+ * Post comment service test.
+ */
+class PostCommentServiceImplTest {
+
+    @Mock
+    PostCommentRepository postCommentRepository;
+
+    @Mock
+    PostRepository postRepository;
+
+    @Mock
+    OptionService optionService;
+
+    @InjectMocks
+    PostCommentServiceImpl postCommentService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        given(optionService.getByPropertyOrDefault(any(), eq(String.class))).willReturn("");
+        given(postCommentRepository.findAllByPostIdAndStatus(1, CommentStatus.PUBLISHED))
+            .willReturn(List.of(
+                createComment(1L, 0L),
+                createComment(2L, 1L),
+                createComment(3L, 0L),
+                createComment(4L, 2L),
+                createComment(5L, 1L),
+                // Orphan comment is not a part of the tree
+                createComment(6L, 100L)));
+    }
+
+    @Test
+    void pageVosByTest() {
+        Page<BaseCommentVO> commentPage =
+            postCommentService.pageVosBy(1, PageRequest.of(0, 1, Sort.by("id")));
+
+        assertEquals(2, commentPage.getTotalElements());
+        assertEquals(6, ((CommentPage<BaseCommentVO>) commentPage).getCommentCount());
+
+        BaseCommentVO topComment = commentPage.getContent().get(0);
+        assertEquals(1L, topComment.getId());
+        assertEquals(List.of(2L, 5L), topComment.getChildren().stream()
+            .map(BaseCommentVO::getId)
+            .collect(Collectors.toList()));
+        assertEquals(4L, topComment.getChildren().get(0).getChildren().get(0).getId());
+    }
+
+    @Test
+    void pageVosByDescendingTest() {
+        Page<BaseCommentVO> commentPage =
+            postCommentService.pageVosBy(1, PageRequest.of(0, 10));
+
+        assertEquals(List.of(3L, 1L), commentPage.getContent().stream()
+            .map(BaseCommentVO::getId)
+            .collect(Collectors.toList()));
+        assertEquals(5L, commentPage.getContent().get(1).getChildren().get(0).getId());
+    }
+
+    @Test
+    void pageVosByCachedTreeTest() {
+        postCommentService.pageVosBy(1, PageRequest.of(0, 1));
+        postCommentService.pageVosBy(1, PageRequest.of(1, 1));
+
+        verify(postCommentRepository, times(1))
+            .findAllByPostIdAndStatus(1, CommentStatus.PUBLISHED);
+
+        postCommentService.evictCommentTree(1);
+        postCommentService.pageVosBy(1, PageRequest.of(0, 1));
+
+        verify(postCommentRepository, times(2))
+            .findAllByPostIdAndStatus(1, CommentStatus.PUBLISHED);
+    }
+
+    @Test
+    void evictCommentTreeAfterCommitTest() {
+        postCommentService.pageVosBy(1, PageRequest.of(0, 1));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            postCommentService.evictCommentTree(1);
+
+            // Cached trees are kept until the transaction commits
+            postCommentService.pageVosBy(1, PageRequest.of(0, 1));
+            verify(postCommentRepository, times(1))
+                .findAllByPostIdAndStatus(1, CommentStatus.PUBLISHED);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        postCommentService.pageVosBy(1, PageRequest.of(0, 1));
+        verify(postCommentRepository, times(2))
+            .findAllByPostIdAndStatus(1, CommentStatus.PUBLISHED);
+    }
+
+    @Test
+    void evictAllCommentTreesAfterCommitTest() {
+        postCommentService.pageVosBy(1, PageRequest.of(0, 1));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            postCommentService.onOptionUpdated(new OptionUpdatedEvent(this));
+
+            // Cached trees are kept until the transaction commits
+            postCommentService.pageVosBy(1, PageRequest.of(0, 1));
+            verify(postCommentRepository, times(1))
+                .findAllByPostIdAndStatus(1, CommentStatus.PUBLISHED);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        postCommentService.pageVosBy(1, PageRequest.of(0, 1));
+        verify(postCommentRepository, times(2))
+            .findAllByPostIdAndStatus(1, CommentStatus.PUBLISHED);
+    }
+
+    @Test
+    void listChildrenByStatusTest() {
+        PostComment parent = createComment(1L, 0L);
+        parent.setTreePath("/");
+        PostComment auditing = createComment(3L, 1L);
+        auditing.setStatus(CommentStatus.AUDITING);
+
+        given(postCommentRepository.findById(1L)).willReturn(Optional.of(parent));
+        given(postCommentRepository.findAllByPostIdAndTreePathStartingWith(1, "/1/",
+            Sort.by("id")))
+            .willReturn(List.of(
+                createComment(2L, 1L),
+                auditing,
+                createComment(4L, 2L),
+                // Reply of an auditing comment
+                createComment(5L, 3L)));
+
+        List<PostComment> children = postCommentService
+            .listChildrenBy(1, 1L, CommentStatus.PUBLISHED, Sort.by("createTime"));
+
+        assertEquals(List.of(2L, 4L), children.stream()
+            .map(PostComment::getId)
+            .collect(Collectors.toList()));
+    }
+
+    @Test
+    void updateStatusChangesCommentCountTest() {
+        given(postCommentRepository.findById(2L)).willReturn(Optional.of(createComment(2L, 1L)));
+        given(postCommentRepository.saveAndFlush(any()))
+            .willAnswer(invocation -> invocation.getArgument(0));
+
+        postCommentService.updateStatus(2L, CommentStatus.AUDITING);
+        postCommentService.updateStatus(2L, CommentStatus.RECYCLE);
+
+        // Counts are changed atomically, instead of being overwritten by a recount
+        verify(postRepository, times(1)).increaseCommentCount(-1L, 1);
+        verify(postRepository, never()).updateCommentCount(anyLong(), anyInt());
+    }
+
+    @Test
+    void refreshAllCommentCountsTest() {
+        given(postCommentRepository.countByStatusGroupByPostId(CommentStatus.PUBLISHED))
+            .willReturn(List.of(new CommentCountProjection(3L, 1)));
+        given(postRepository.findAllCommentCounts()).willReturn(List.of(
+            new CommentCountProjection(3L, 1),
+            new CommentCountProjection(2L, 2)));
+
+        postCommentService.refreshAllCommentCounts();
+
+        // Only drifted counts are repaired
+        verify(postRepository, never()).updateCommentCount(3L, 1);
+        verify(postRepository, times(1)).updateCommentCount(0L, 2);
+    }
+
+    private PostComment createComment(Long id, Long parentId) {
+        PostComment comment = new PostComment();
+        comment.setId(id);
+        comment.setParentId(parentId);
+        comment.setPostId(1);
+        comment.setStatus(CommentStatus.PUBLISHED);
+        return comment;
+    }
+}
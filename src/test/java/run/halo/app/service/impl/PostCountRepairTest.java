@@ -0,0 +1,120 @@
+package run.halo.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import run.halo.app.model.entity.Category;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.entity.PostCategory;
+import run.halo.app.model.entity.PostTag;
+import run.halo.app.model.entity.Tag;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.repository.CategoryRepository;
+import run.halo.app.repository.PostCategoryRepository;
+import run.halo.app.repository.PostRepository;
+import run.halo.app.repository.PostTagRepository;
+import run.halo.app.repository.TagRepository;
+import run.halo.app.service.PostCategoryService;
+import run.halo.app.service.PostTagService;
+
+/**
+ * Post count repair test of tags and categories.
+ *
+ * <p>Not transactional on purpose, since the repair runs outside of any transaction on startup,
+ * by the scheduled task and while importing backups.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PostCountRepairTest {
+
+    @Autowired
+    PostRepository postRepository;
+
+    @Autowired
+    TagRepository tagRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    PostTagRepository postTagRepository;
+
+    @Autowired
+    PostCategoryRepository postCategoryRepository;
+
+    @Autowired
+    PostTagService postTagService;
+
+    @Autowired
+    PostCategoryService postCategoryService;
+
+    Integer publishedId;
+
+    Integer draftId;
+
+    Integer tagId;
+
+    Integer categoryId;
+
+    @AfterEach
+    void tearDown() {
+        postTagRepository.deleteAll(postTagRepository.findAllByTagId(tagId));
+        postCategoryRepository.deleteAll(postCategoryRepository.findAllByCategoryId(categoryId));
+        tagRepository.deleteById(tagId);
+        categoryRepository.deleteById(categoryId);
+        postRepository.deleteById(publishedId);
+        postRepository.deleteById(draftId);
+    }
+
+    @Test
+    void refreshAllPostCountsTest() {
+        publishedId = createPost("repair-published", PostStatus.PUBLISHED);
+        draftId = createPost("repair-draft", PostStatus.DRAFT);
+
+        Tag tag = new Tag();
+        tag.setName("repair");
+        tag.setSlug("repair");
+        tagId = tagRepository.save(tag).getId();
+
+        Category category = new Category();
+        category.setName("repair");
+        category.setSlug("repair");
+        categoryId = categoryRepository.save(category).getId();
+
+        for (Integer postId : new Integer[] {publishedId, draftId}) {
+            PostTag postTag = new PostTag();
+            postTag.setPostId(postId);
+            postTag.setTagId(tagId);
+            postTagRepository.save(postTag);
+
+            PostCategory postCategory = new PostCategory();
+            postCategory.setPostId(postId);
+            postCategory.setCategoryId(categoryId);
+            postCategoryRepository.save(postCategory);
+        }
+
+        postTagService.refreshAllPostCounts();
+        postCategoryService.refreshAllPostCounts();
+
+        Tag repairedTag = tagRepository.findById(tagId).orElseThrow();
+        assertEquals(2L, repairedTag.getPostCount());
+        assertEquals(1L, repairedTag.getPublishedPostCount());
+
+        Category repairedCategory = categoryRepository.findById(categoryId).orElseThrow();
+        assertEquals(2L, repairedCategory.getPostCount());
+        assertEquals(1L, repairedCategory.getPublishedPostCount());
+    }
+
+    private Integer createPost(String slug, PostStatus status) {
+        Post post = new Post();
+        post.setTitle(slug);
+        post.setSlug(slug);
+        post.setStatus(status);
+        post.setOriginalContent(slug);
+        return postRepository.save(post).getId();
+    }
+}
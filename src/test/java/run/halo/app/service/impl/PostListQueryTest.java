@@ -0,0 +1,61 @@
+package run.halo.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.params.PostQuery;
+import run.halo.app.repository.PostRepository;
+import run.halo.app.service.PostService;
+
+/**
+ * Test of listing posts without content.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PostListQueryTest {
+
+    @Autowired
+    PostRepository postRepository;
+
+    @Autowired
+    PostService postService;
+
+    @Test
+    void pageWithoutContentByTest() {
+        Post post = new Post();
+        post.setTitle("Page without content");
+        post.setSlug("page-without-content");
+        post.setStatus(PostStatus.PUBLISHED);
+        post.setOriginalContent("Original content");
+        post.setFormatContent("<p>Original content</p>");
+        post.setGeneratedSummary("Original content");
+        Integer postId = postRepository.save(post).getId();
+
+        PostQuery postQuery = new PostQuery();
+        postQuery.setKeyword("Page without content");
+        postQuery.setStatus(PostStatus.PUBLISHED);
+
+        Page<Post> postPage =
+            postService.pageWithoutContentBy(postQuery, PageRequest.of(0, 10, Sort.by("id")));
+
+        assertEquals(1, postPage.getTotalElements());
+        Post listedPost = postPage.getContent().get(0);
+        assertEquals(postId, listedPost.getId());
+        assertEquals("page-without-content", listedPost.getSlug());
+        assertEquals("Original content", listedPost.getGeneratedSummary());
+        // Content columns are never selected
+        assertNull(listedPost.getOriginalContent());
+        assertNull(listedPost.getFormatContent());
+    }
+}
@@ -0,0 +1,77 @@
+package run.halo.app.service.impl;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import run.halo.app.model.entity.Tag;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.TagPostPostCountProjection;
+import run.halo.app.repository.PostRepository;
+import run.halo.app.repository.PostTagRepository;
+import run.halo.app.repository.TagRepository;
+import run.halo.app.service.support.PermalinkRouter;
+
+/**
+ * Post tag service implementation test.
+ */
+class PostTagServiceImplTest {
+
+    PostTagRepository postTagRepository = mock(PostTagRepository.class);
+
+    TagRepository tagRepository = mock(TagRepository.class);
+
+    PostTagServiceImpl postTagService = new PostTagServiceImpl(postTagRepository,
+        mock(PostRepository.class), tagRepository, mock(PermalinkRouter.class));
+
+    @Test
+    void refreshPostCountByTest() {
+        when(postTagRepository.findPostCountByTagIds(Set.of(1, 2)))
+            .thenReturn(List.of(new TagPostPostCountProjection(3L, 1)));
+        when(postTagRepository.findPostCountByTagIds(Set.of(1, 2), PostStatus.PUBLISHED))
+            .thenReturn(List.of(new TagPostPostCountProjection(2L, 1)));
+
+        postTagService.refreshPostCountBy(Set.of(1, 2));
+
+        verify(tagRepository).updatePostCount(1, 3L, 2L);
+        // Tags without posts any more
+        verify(tagRepository).updatePostCount(2, 0L, 0L);
+    }
+
+    @Test
+    void refreshPostCountByEmptyTest() {
+        postTagService.refreshPostCountBy(null);
+
+        verify(tagRepository, never()).updatePostCount(anyInt(), anyLong(), anyLong());
+    }
+
+    @Test
+    void refreshAllPostCountsTest() {
+        when(postTagRepository.findPostCount())
+            .thenReturn(List.of(new TagPostPostCountProjection(3L, 1),
+                new TagPostPostCountProjection(1L, 2)));
+        when(postTagRepository.findPostCount(PostStatus.PUBLISHED))
+            .thenReturn(List.of(new TagPostPostCountProjection(3L, 1)));
+        when(tagRepository.findAll()).thenReturn(List.of(tag(1, 3L, 3L), tag(2, null, null)));
+
+        postTagService.refreshAllPostCounts();
+
+        // Only drifted tags are repaired
+        verify(tagRepository, never()).updatePostCount(1, 3L, 3L);
+        verify(tagRepository).updatePostCount(2, 1L, 0L);
+    }
+
+    private static Tag tag(Integer id, Long postCount, Long publishedPostCount) {
+        Tag tag = new Tag();
+        tag.setId(id);
+        tag.setPostCount(postCount);
+        tag.setPublishedPostCount(publishedPostCount);
+        return tag;
+    }
+}
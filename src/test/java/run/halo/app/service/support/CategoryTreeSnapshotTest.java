@@ -0,0 +1,56 @@
+package run.halo.app.service.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import run.halo.app.model.entity.Category;
+
+/**
+ * Category tree snapshot test.
+ */
+class CategoryTreeSnapshotTest {
+
+    @Test
+    void encryptedNodeTest() {
+        CategoryTreeSnapshot snapshot = new CategoryTreeSnapshot(List.of(
+            createCategory(1, 0, null),
+            createCategory(2, 1, "outer"),
+            createCategory(3, 2, null),
+            createCategory(4, 3, "inner"),
+            createCategory(5, 4, null)));
+
+        assertFalse(snapshot.isEncrypted(1));
+        assertNull(snapshot.getEncryptedNode(1));
+
+        assertEquals(2, snapshot.getEncryptedNode(2).getId());
+        assertEquals(2, snapshot.getEncryptedNode(3).getId());
+        assertEquals("inner", snapshot.getEncryptedNode(5).getPassword());
+        assertTrue(snapshot.isEncrypted(5));
+    }
+
+    @Test
+    void unknownAndCyclicCategoryTest() {
+        CategoryTreeSnapshot snapshot = new CategoryTreeSnapshot(List.of(
+            createCategory(1, 2, null),
+            createCategory(2, 1, null),
+            // Parent is missing
+            createCategory(3, 100, null)));
+
+        assertFalse(snapshot.isEncrypted(1));
+        assertFalse(snapshot.isEncrypted(3));
+        assertFalse(snapshot.isEncrypted(100));
+        assertNull(snapshot.get(null));
+    }
+
+    private Category createCategory(Integer id, Integer parentId, String password) {
+        Category category = new Category();
+        category.setId(id);
+        category.setParentId(parentId);
+        category.setPassword(password);
+        return category;
+    }
+}
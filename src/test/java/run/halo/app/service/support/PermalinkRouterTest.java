@@ -0,0 +1,147 @@
+package run.halo.app.service.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import run.halo.app.model.enums.PostPermalinkType;
+import run.halo.app.model.enums.SheetPermalinkType;
+import run.halo.app.model.projection.PostPermalinkProjection;
+import run.halo.app.repository.PostRepository;
+import run.halo.app.repository.SheetRepository;
+import run.halo.app.service.OptionService;
+import run.halo.app.service.support.PermalinkRouter.Prefix;
+
+/**
+ * Permalink router test.
+ */
+class PermalinkRouterTest {
+
+    OptionService optionService = mock(OptionService.class);
+
+    PostRepository postRepository = mock(PostRepository.class);
+
+    SheetRepository sheetRepository = mock(SheetRepository.class);
+
+    PermalinkRouter permalinkRouter =
+        new PermalinkRouter(optionService, postRepository, sheetRepository);
+
+    Date createTime = date(2021, 3, 5);
+
+    @BeforeEach
+    void setUp() {
+        when(optionService.getPostPermalinkType()).thenReturn(PostPermalinkType.DEFAULT);
+        when(optionService.getSheetPermalinkType()).thenReturn(SheetPermalinkType.SECONDARY);
+        when(optionService.getArchivesPrefix()).thenReturn("archives");
+        when(optionService.getCategoriesPrefix()).thenReturn("categories");
+        when(optionService.getTagsPrefix()).thenReturn("tags");
+        when(optionService.getJournalsPrefix()).thenReturn("journals");
+        when(optionService.getPhotosPrefix()).thenReturn("photos");
+        when(optionService.getLinksPrefix()).thenReturn("links");
+        when(optionService.getSheetPrefix()).thenReturn("s");
+        when(optionService.getPathSuffix()).thenReturn(".html");
+        when(optionService.isEnabledAbsolutePath()).thenReturn(false);
+
+        when(postRepository.findAllPermalinks()).thenReturn(List.of(
+            new PostPermalinkProjection(1, "hello", createTime)));
+        when(sheetRepository.findAllPermalinks()).thenReturn(List.of(
+            new PostPermalinkProjection(2, "about", createTime)));
+    }
+
+    @Test
+    void matchPrefixTest() {
+        assertEquals(Prefix.ARCHIVES, permalinkRouter.matchPrefix("archives"));
+        assertEquals(Prefix.LINKS, permalinkRouter.matchPrefix("links"));
+        assertNull(permalinkRouter.matchPrefix("unknown"));
+    }
+
+    @Test
+    void defaultPermalinkTest() {
+        assertEquals(Optional.of(1), permalinkRouter.findPostId("archives", "hello"));
+        assertEquals(Optional.empty(), permalinkRouter.findPostId("tags", "hello"));
+        assertEquals(Optional.empty(), permalinkRouter.findPostId("archives", "unknown"));
+        assertEquals("/archives/hello.html",
+            permalinkRouter.getPostFullPath(1, "hello", createTime));
+
+        verify(postRepository, times(1)).findAllPermalinks();
+    }
+
+    @Test
+    void caseInsensitiveSlugTest() {
+        assertEquals(Optional.of(1), permalinkRouter.findPostId("archives", "Hello"));
+        assertEquals(Optional.of(2), permalinkRouter.findSheetId("s", "ABOUT"));
+
+        when(postRepository.findPermalinkBy(1)).thenReturn(Optional.of(
+            new PostPermalinkProjection(1, "Hello-World", createTime)));
+        permalinkRouter.refreshPost(1);
+        assertEquals(Optional.of(1), permalinkRouter.findPostId("archives", "hello-world"));
+        assertEquals(Optional.empty(), permalinkRouter.findPostId("archives", "hello"));
+    }
+
+    @Test
+    void dayPermalinkTest() {
+        when(optionService.getPostPermalinkType()).thenReturn(PostPermalinkType.DAY);
+        when(optionService.isEnabledAbsolutePath()).thenReturn(true);
+        when(optionService.getBlogBaseUrl()).thenReturn("https://halo.run");
+
+        assertEquals(Optional.of(1), permalinkRouter.findPostId(2021, 3, 5, "hello"));
+        assertEquals(Optional.empty(), permalinkRouter.findPostId(2021, 3, 6, "hello"));
+        assertEquals(Optional.empty(), permalinkRouter.findPostId(2021, 3, "hello"));
+        assertEquals("https://halo.run/2021/03/05/hello.html",
+            permalinkRouter.getPostFullPath(1, "hello", createTime));
+    }
+
+    @Test
+    void sheetAndTaxonomyPermalinkTest() {
+        assertEquals(Optional.of(2), permalinkRouter.findSheetId("s", "about"));
+        assertEquals(Optional.empty(), permalinkRouter.findSheetId("about"));
+        assertEquals("/s/about.html", permalinkRouter.buildSheetFullPath("about"));
+        assertEquals("/categories/java.html", permalinkRouter.buildCategoryFullPath("java"));
+        assertEquals("/tags/spring.html", permalinkRouter.buildTagFullPath("spring"));
+    }
+
+    @Test
+    void refreshTest() {
+        permalinkRouter.findPostId("archives", "hello");
+
+        when(postRepository.findPermalinkBy(1)).thenReturn(Optional.of(
+            new PostPermalinkProjection(1, "hello-world", createTime)));
+        permalinkRouter.refreshPost(1);
+        assertEquals(Optional.empty(), permalinkRouter.findPostId("archives", "hello"));
+        assertEquals(Optional.of(1), permalinkRouter.findPostId("archives", "hello-world"));
+
+        when(sheetRepository.findPermalinkBy(2)).thenReturn(Optional.empty());
+        permalinkRouter.refreshSheet(2);
+        assertEquals(Optional.empty(), permalinkRouter.findSheetId("s", "about"));
+
+        verify(postRepository, times(1)).findAllPermalinks();
+    }
+
+    @Test
+    void optionUpdatedTest() {
+        permalinkRouter.findPostId("archives", "hello");
+
+        when(optionService.getArchivesPrefix()).thenReturn("posts");
+        permalinkRouter.onOptionUpdated();
+
+        assertEquals(Optional.of(1), permalinkRouter.findPostId("posts", "hello"));
+        assertEquals("/posts/hello.html", permalinkRouter.getPostFullPath(1, "hello", createTime));
+        verify(postRepository, times(2)).findAllPermalinks();
+    }
+
+    private static Date date(int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month - 1, day);
+        return calendar.getTime();
+    }
+}
@@ -0,0 +1,82 @@
+package run.halo.app.service.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.PostArchiveProjection;
+import run.halo.app.repository.PostRepository;
+import run.halo.app.service.support.PostArchiveIndex.Bucket;
+
+/**
+ * Post archive index test.
+ */
+class PostArchiveIndexTest {
+
+    PostRepository postRepository = mock(PostRepository.class);
+
+    PostArchiveIndex postArchiveIndex = new PostArchiveIndex(postRepository);
+
+    @BeforeEach
+    void setUp() {
+        when(postRepository.findAllArchivesBy(PostStatus.PUBLISHED)).thenReturn(List.of(
+            new PostArchiveProjection(1, date(2020, 1, 1)),
+            new PostArchiveProjection(2, date(2021, 3, 1)),
+            new PostArchiveProjection(3, date(2021, 3, 2)),
+            new PostArchiveProjection(4, date(2021, 5, 1))));
+    }
+
+    @Test
+    void groupTest() {
+        List<Bucket> years = postArchiveIndex.listYears();
+        assertEquals(2, years.size());
+        assertEquals(2021, years.get(0).getYear());
+        assertEquals(List.of(4, 3, 2), years.get(0).getPostIds());
+        assertEquals(1, years.get(1).getCount());
+
+        List<Bucket> months = postArchiveIndex.listMonths();
+        assertEquals(3, months.size());
+        assertEquals(5, months.get(0).getMonth());
+        assertEquals(List.of(3, 2), months.get(1).getPostIds());
+
+        assertEquals(List.of(4, 3, 2, 1), postArchiveIndex.listPostIds());
+        verify(postRepository, times(1)).findAllArchivesBy(PostStatus.PUBLISHED);
+    }
+
+    @Test
+    void refreshTest() {
+        postArchiveIndex.listYears();
+
+        // Unpublished
+        when(postRepository.findArchiveBy(1, PostStatus.PUBLISHED)).thenReturn(Optional.empty());
+        postArchiveIndex.refresh(1);
+        assertFalse(postArchiveIndex.getBucket(2020, null).isPresent());
+
+        // Moved to another month
+        when(postRepository.findArchiveBy(4, PostStatus.PUBLISHED))
+            .thenReturn(Optional.of(new PostArchiveProjection(4, date(2021, 3, 3))));
+        postArchiveIndex.refresh(4);
+        assertEquals(List.of(4, 3, 2),
+            postArchiveIndex.getBucket(2021, 3).map(Bucket::getPostIds).orElseThrow());
+        assertFalse(postArchiveIndex.getBucket(2021, 5).isPresent());
+
+        verify(postRepository, times(1)).findAllArchivesBy(PostStatus.PUBLISHED);
+    }
+
+    private static Date date(int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month - 1, day);
+        return calendar.getTime();
+    }
+}
@@ -0,0 +1,156 @@
+package run.halo.app.service.support;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import run.halo.app.model.enums.PostStatus;
+
+/**
+ * Post counter buffer test.
+ */
+class PostCounterBufferTest {
+
+    static final String VISITS_SQL_PREFIX = "update posts set visits";
+
+    static final String LIKES_SQL_PREFIX = "update posts set likes";
+
+    JdbcTemplate jdbcTemplate;
+
+    PostCounterBuffer postCounterBuffer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        postCounterBuffer = new PostCounterBuffer(jdbcTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void accumulateAndFlushTest() {
+        postCounterBuffer.increaseVisit(1, 1);
+        postCounterBuffer.increaseVisit(1, 2);
+        postCounterBuffer.increaseVisit(2, 1);
+        postCounterBuffer.increaseLike(1, 1);
+        postCounterBuffer.increaseLike(1, 1);
+
+        // Nothing is written until flushing
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+
+        postCounterBuffer.flush();
+
+        List<Object[]> visitArgs = captureBatchArgs(VISITS_SQL_PREFIX);
+        assertEquals(2, visitArgs.size());
+        assertArrayEquals(new Object[] {3L, 1, PostStatus.DRAFT.getValue()}, visitArgs.get(0));
+        assertArrayEquals(new Object[] {1L, 2, PostStatus.DRAFT.getValue()}, visitArgs.get(1));
+
+        List<Object[]> likeArgs = captureBatchArgs(LIKES_SQL_PREFIX);
+        assertEquals(1, likeArgs.size());
+        assertArrayEquals(new Object[] {2L, 1}, likeArgs.get(0));
+
+        // Flushed increments are not written again
+        clearInvocations(jdbcTemplate);
+        postCounterBuffer.flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void requeueAfterFailedFlushTest() {
+        when(jdbcTemplate.batchUpdate(startsWith(VISITS_SQL_PREFIX), anyList()))
+            .thenThrow(new DataAccessResourceFailureException("Database is down"))
+            .thenReturn(new int[] {1});
+
+        postCounterBuffer.increaseVisit(1, 2);
+        postCounterBuffer.flush();
+
+        // Increments made after the failure are merged with the re-queued ones
+        postCounterBuffer.increaseVisit(1, 3);
+        postCounterBuffer.flush();
+
+        List<Object[]> visitArgs = captureBatchArgs(VISITS_SQL_PREFIX, 2);
+        assertArrayEquals(new Object[] {5L, 1, PostStatus.DRAFT.getValue()}, visitArgs.get(0));
+    }
+
+    @Test
+    void backOffAfterFailedFlushTest() {
+        when(jdbcTemplate.batchUpdate(startsWith(LIKES_SQL_PREFIX), anyList()))
+            .thenThrow(new DataAccessResourceFailureException("Database is down"));
+
+        postCounterBuffer.increaseLike(1, 1);
+        postCounterBuffer.flush();
+        clearInvocations(jdbcTemplate);
+
+        signalEarlyFlush();
+        postCounterBuffer.flushIfNecessary();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void signalEarlyFlushTest() {
+        signalEarlyFlush();
+
+        // Request threads never flush by themselves
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+
+        postCounterBuffer.flushIfNecessary();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith(VISITS_SQL_PREFIX), anyList());
+    }
+
+    @Test
+    void dropIncrementsOfPostsBeyondCapacityTest() {
+        for (int postId = 1; postId <= 50001; postId++) {
+            postCounterBuffer.increaseVisit(postId, 1);
+        }
+        // Pending posts still merge increments
+        postCounterBuffer.increaseVisit(1, 1);
+
+        postCounterBuffer.flush();
+
+        List<Object[]> visitArgs = captureBatchArgs(VISITS_SQL_PREFIX);
+        assertEquals(50000, visitArgs.size());
+        assertArrayEquals(new Object[] {2L, 1, PostStatus.DRAFT.getValue()}, visitArgs.get(0));
+    }
+
+    @Test
+    void flushIfNecessaryWithoutSignalTest() {
+        postCounterBuffer.increaseVisit(1, 1);
+        postCounterBuffer.flushIfNecessary();
+
+        // The flush period has not elapsed yet
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private void signalEarlyFlush() {
+        for (int postId = 1; postId <= 10001; postId++) {
+            postCounterBuffer.increaseVisit(postId, 1);
+        }
+    }
+
+    private List<Object[]> captureBatchArgs(String sqlPrefix) {
+        return captureBatchArgs(sqlPrefix, 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> captureBatchArgs(String sqlPrefix, int invocations) {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(invocations)).batchUpdate(startsWith(sqlPrefix),
+            captor.capture());
+        return captor.getValue();
+    }
+}
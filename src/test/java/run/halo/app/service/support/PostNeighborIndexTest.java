@@ -0,0 +1,113 @@
+package run.halo.app.service.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.PostNeighborProjection;
+import run.halo.app.repository.PostRepository;
+
+/**
+ * Post neighbor index test.
+ */
+class PostNeighborIndexTest {
+
+    PostRepository postRepository = mock(PostRepository.class);
+
+    PostNeighborIndex postNeighborIndex = new PostNeighborIndex(postRepository);
+
+    @BeforeEach
+    void setUp() {
+        when(postRepository.findAllNeighborsBy(PostStatus.PUBLISHED)).thenReturn(List.of(
+            new PostNeighborProjection(1, new Date(100), new Date(400), 5L),
+            new PostNeighborProjection(2, new Date(200), new Date(300), 0L),
+            new PostNeighborProjection(3, new Date(300), new Date(200), 5L),
+            new PostNeighborProjection(4, new Date(400), new Date(100), 0L)));
+    }
+
+    @Test
+    void listByCreateTimeTest() {
+        assertEquals(List.of(3, 4), postNeighborIndex.listPrevPostIds(post(2), "createTime", 5));
+        assertEquals(List.of(1), postNeighborIndex.listNextPostIds(post(2), "createTime", 5));
+        assertEquals(List.of(3), postNeighborIndex.listPrevPostIds(post(2), "createTime", 1));
+        assertEquals(List.of(), postNeighborIndex.listPrevPostIds(post(4), "createTime", 1));
+
+        verify(postRepository, times(1)).findAllNeighborsBy(PostStatus.PUBLISHED);
+    }
+
+    @Test
+    void listByEditTimeTest() {
+        assertEquals(List.of(1), postNeighborIndex.listPrevPostIds(post(2), "editTime", 5));
+        assertEquals(List.of(3, 4), postNeighborIndex.listNextPostIds(post(2), "editTime", 5));
+    }
+
+    @Test
+    void listByVisitsTest() {
+        // Posts with the same visits are ordered by id
+        assertEquals(List.of(4, 1, 3), postNeighborIndex.listPrevPostIds(post(2), "visits", 5));
+        assertEquals(List.of(4, 2), postNeighborIndex.listNextPostIds(post(1), "visits", 5));
+    }
+
+    @Test
+    void listByUnknownSortTest() {
+        assertEquals(List.of(), postNeighborIndex.listPrevPostIds(post(2), "unknown", 5));
+    }
+
+    @Test
+    void listOfUnpublishedPostTest() {
+        Post draft = post(5);
+        draft.setCreateTime(new Date(250));
+
+        assertEquals(List.of(3), postNeighborIndex.listPrevPostIds(draft, "createTime", 1));
+        assertEquals(List.of(2), postNeighborIndex.listNextPostIds(draft, "createTime", 1));
+    }
+
+    @Test
+    void refreshTest() {
+        postNeighborIndex.listPrevPostIds(post(1), "createTime", 1);
+
+        // Unpublished
+        when(postRepository.findNeighborBy(3, PostStatus.PUBLISHED)).thenReturn(Optional.empty());
+        postNeighborIndex.refresh(3);
+        assertEquals(List.of(4), postNeighborIndex.listPrevPostIds(post(2), "createTime", 1));
+
+        // Published
+        when(postRepository.findNeighborBy(5, PostStatus.PUBLISHED)).thenReturn(Optional.of(
+            new PostNeighborProjection(5, new Date(250), new Date(250), 0L)));
+        postNeighborIndex.refresh(5);
+        assertEquals(List.of(5), postNeighborIndex.listPrevPostIds(post(2), "createTime", 1));
+
+        verify(postRepository, times(1)).findAllNeighborsBy(PostStatus.PUBLISHED);
+    }
+
+    @Test
+    void reloadVisitsTest() {
+        // Not loaded yet
+        postNeighborIndex.reloadVisits();
+        verify(postRepository, times(0)).findAllNeighborsBy(PostStatus.PUBLISHED);
+
+        postNeighborIndex.listPrevPostIds(post(1), "visits", 1);
+        when(postRepository.findAllNeighborsBy(PostStatus.PUBLISHED)).thenReturn(List.of(
+            new PostNeighborProjection(1, new Date(100), new Date(400), 5L),
+            new PostNeighborProjection(2, new Date(200), new Date(300), 10L)));
+        postNeighborIndex.reloadVisits();
+
+        assertEquals(List.of(2), postNeighborIndex.listPrevPostIds(post(1), "visits", 1));
+        verify(postRepository, times(2)).findAllNeighborsBy(PostStatus.PUBLISHED);
+    }
+
+    private static Post post(Integer id) {
+        Post post = new Post();
+        post.setId(id);
+        return post;
+    }
+}
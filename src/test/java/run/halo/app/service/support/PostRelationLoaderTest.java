@@ -0,0 +1,87 @@
+package run.halo.app.service.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import run.halo.app.model.entity.Tag;
+import run.halo.app.service.PostCategoryService;
+import run.halo.app.service.PostMetaService;
+import run.halo.app.service.PostTagService;
+import run.halo.app.service.support.PostRelationLoader.PostRelations;
+
+/**
+ * Post relation loader test.
+ */
+class PostRelationLoaderTest {
+
+    PostTagService postTagService = mock(PostTagService.class);
+
+    PostCategoryService postCategoryService = mock(PostCategoryService.class);
+
+    PostMetaService postMetaService = mock(PostMetaService.class);
+
+    PostRelationLoader postRelationLoader =
+        new PostRelationLoader(postTagService, postCategoryService, postMetaService);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void loadInBatchTest() {
+        Tag tag = new Tag();
+        tag.setId(1);
+        when(postTagService.listTagListMapBy(anyCollection())).thenReturn(Map.of(1, List.of(tag)));
+
+        PostRelations relations = postRelationLoader.load(List.of(1, 2), false);
+
+        assertEquals(List.of(tag), relations.getTags(1));
+        assertTrue(relations.getTags(2).isEmpty());
+
+        verify(postTagService, times(1)).listTagListMapBy(Set.of(1, 2));
+        verify(postCategoryService, never()).listCategoryListMap(anyCollection(), anyBoolean());
+        verify(postMetaService, never()).listPostMetaAsMap(any());
+    }
+
+    @Test
+    void reuseInReadOnlyRequestTest() {
+        RequestContextHolder.setRequestAttributes(
+            new ServletRequestAttributes(new MockHttpServletRequest("GET", "/")));
+        when(postTagService.listTagListMapBy(anyCollection())).thenReturn(Map.of());
+
+        postRelationLoader.load(List.of(1, 2), false).getTags(1);
+        postRelationLoader.load(List.of(2, 3), false).getTags(3);
+
+        verify(postTagService, times(1)).listTagListMapBy(Set.of(1, 2));
+        verify(postTagService, times(1)).listTagListMapBy(Set.of(3));
+    }
+
+    @Test
+    void notReuseInWriteRequestTest() {
+        RequestContextHolder.setRequestAttributes(
+            new ServletRequestAttributes(new MockHttpServletRequest("POST", "/")));
+        when(postTagService.listTagListMapBy(anyCollection())).thenReturn(Map.of());
+
+        postRelationLoader.load(List.of(1), false).getTags(1);
+        postRelationLoader.load(List.of(1), false).getTags(1);
+
+        verify(postTagService, times(2)).listTagListMapBy(Set.of(1));
+    }
+}
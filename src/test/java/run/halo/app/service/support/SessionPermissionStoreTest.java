@@ -0,0 +1,52 @@
+package run.halo.app.service.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Session permission store test.
+ */
+class SessionPermissionStoreTest {
+
+    SessionPermissionStore permissionStore = new SessionPermissionStore();
+
+    @Test
+    void addAndRemoveTest() {
+        permissionStore.add("session", "POST:1");
+
+        assertTrue(permissionStore.contains("session", "POST:1"));
+        assertFalse(permissionStore.contains("another_session", "POST:1"));
+
+        permissionStore.remove("session", "POST:1");
+
+        assertFalse(permissionStore.contains("session", "POST:1"));
+    }
+
+    @Test
+    void unmodifiableViewTest() {
+        permissionStore.add("session", "POST:1");
+
+        Set<String> permissions = permissionStore.get("session");
+
+        assertThrows(UnsupportedOperationException.class, () -> permissions.add("POST:2"));
+        permissionStore.add("session", "POST:2");
+        assertTrue(permissions.contains("POST:2"));
+    }
+
+    @Test
+    void dropEarliestTest() {
+        for (int i = 0; i <= SessionPermissionStore.MAX_PERMISSIONS_PER_SESSION; i++) {
+            permissionStore.add("session", "POST:" + i);
+        }
+
+        assertEquals(SessionPermissionStore.MAX_PERMISSIONS_PER_SESSION,
+            permissionStore.get("session").size());
+        assertFalse(permissionStore.contains("session", "POST:0"));
+        assertTrue(permissionStore.contains("session", "POST:1"));
+    }
+}
@@ -0,0 +1,121 @@
+package run.halo.app.service.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import run.halo.app.model.support.BackupManifest;
+
+/**
+ * Work directory backup archiver test.
+ */
+class WorkDirBackupArchiverTest {
+
+    @TempDir
+    Path tempDir;
+
+    Path workDir;
+
+    Path backupDir;
+
+    WorkDirBackupArchiver archiver = new WorkDirBackupArchiver();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        workDir = Files.createDirectories(tempDir.resolve(".halo"));
+        backupDir = Files.createDirectories(tempDir.resolve("backup"));
+        write("application.yaml", "server:");
+        write("upload/a.png", "image a");
+        write("upload/b.txt", "text b");
+    }
+
+    @Test
+    void fullBackupTest() throws IOException {
+        Path fullPath = backupDir.resolve("full.zip");
+        BackupManifest manifest = archiver.archive(workDir, fullPath, null);
+
+        assertNull(manifest.getParent());
+        assertEquals(3, manifest.getFiles().size());
+        assertEquals("full.zip", manifest.getFiles().get("upload/a.png").getArchive());
+        assertEquals(manifest, archiver.readManifest(fullPath).orElseThrow());
+
+        Map<String, String> entries = readEntries(fullPath);
+        assertEquals("image a", entries.get(".halo/upload/a.png"));
+        assertEquals("text b", entries.get(".halo/upload/b.txt"));
+
+        try (ZipFile zipFile = new ZipFile(fullPath.toFile())) {
+            assertEquals(ZipEntry.STORED, zipFile.getEntry(".halo/upload/a.png").getMethod());
+            assertEquals(ZipEntry.DEFLATED, zipFile.getEntry(".halo/upload/b.txt").getMethod());
+        }
+    }
+
+    @Test
+    void incrementalBackupTest() throws IOException {
+        Path fullPath = backupDir.resolve("full.zip");
+        archiver.archive(workDir, fullPath, null);
+
+        write("upload/b.txt", "text b changed");
+        // Copied content is not stored again
+        write("upload/c.png", "image a");
+        Files.delete(workDir.resolve("application.yaml"));
+
+        Path incrementalPath = backupDir.resolve("incremental.zip");
+        BackupManifest manifest = archiver.archive(workDir, incrementalPath, fullPath);
+
+        assertEquals("full.zip", manifest.getParent());
+        assertEquals(Set.of("upload/a.png", "upload/b.txt", "upload/c.png"),
+            manifest.getFiles().keySet());
+        assertEquals(".halo/upload/a.png", manifest.getFiles().get("upload/c.png").getEntry());
+        assertEquals("full.zip", manifest.getFiles().get("upload/c.png").getArchive());
+        assertEquals(Set.of(".halo/upload/b.txt", WorkDirBackupArchiver.MANIFEST_ENTRY),
+            readEntries(incrementalPath).keySet());
+
+        Path restoredPath = backupDir.resolve("restored.zip");
+        BackupManifest restoredManifest = archiver.restore(incrementalPath, restoredPath);
+
+        assertNull(restoredManifest.getParent());
+        Map<String, String> entries = readEntries(restoredPath);
+        entries.remove(WorkDirBackupArchiver.MANIFEST_ENTRY);
+        assertEquals(Map.of(
+            ".halo/upload/a.png", "image a",
+            ".halo/upload/b.txt", "text b changed",
+            ".halo/upload/c.png", "image a"), entries);
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path filePath = workDir.resolve(path);
+        Files.createDirectories(filePath.getParent());
+        FileTime lastModified =
+            Files.exists(filePath) ? Files.getLastModifiedTime(filePath) : null;
+        Files.writeString(filePath, content);
+        if (lastModified != null) {
+            // Make sure the change is detected even on coarse-grained file systems
+            Files.setLastModifiedTime(filePath,
+                FileTime.fromMillis(lastModified.toMillis() + 2000));
+        }
+    }
+
+    private static Map<String, String> readEntries(Path archivePath) throws IOException {
+        Map<String, String> entries = new TreeMap<>();
+        try (ZipFile zipFile = new ZipFile(archivePath.toFile())) {
+            for (ZipEntry entry : zipFile.stream().toArray(ZipEntry[]::new)) {
+                entries.put(entry.getName(),
+                    new String(zipFile.getInputStream(entry).readAllBytes(),
+                        StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,53 @@
+package run.halo.app.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Compiled path matcher test.
+ */
+class CompiledPathMatcherTest {
+
+    final List<String> patterns = List.of("/themes/**", "/csrf", "/folder/", "/upload/**",
+        "/admin/?*/**", "/api/content/*/comments", "/a/b/**", "/**/*.less", "relative/**");
+
+    final List<String> paths = List.of("/", "//", "/themes", "/themes/", "/themes/a/b.css",
+        "/themesx", "//themes//a", "/csrf", "/csrf/", "/csrf/a", "/folder", "/folder/",
+        "/upload/2021/a.png", "/admin", "/admin/", "/admin/index.html", "/admin/a/b",
+        "/api/content/posts/comments", "/api/content/posts/comments/1", "/a", "/a/b",
+        "/a/bc", "/a/b/c", "/color.less", "/x/y.less", "relative/a", "/relative/a", "");
+
+    @Test
+    void sameAsAntPathMatcherTest() {
+        AntPathMatcher antPathMatcher = new AntPathMatcher();
+        CompiledPathMatcher compiledPathMatcher = CompiledPathMatcher.compile(patterns);
+
+        for (String path : paths) {
+            boolean expected =
+                patterns.stream().anyMatch(pattern -> antPathMatcher.match(pattern, path));
+            assertEquals(expected, compiledPathMatcher.matches(path), path);
+        }
+    }
+
+    @Test
+    void rootPatternsTest() {
+        assertTrue(CompiledPathMatcher.compile(Set.of("/**")).matches("/any/path"));
+        assertTrue(CompiledPathMatcher.compile(Set.of("/")).matches("/"));
+        assertFalse(CompiledPathMatcher.compile(Set.of("/")).matches("/a"));
+    }
+
+    @Test
+    void emptyTest() {
+        CompiledPathMatcher compiledPathMatcher = CompiledPathMatcher.compile(Set.of());
+
+        assertFalse(compiledPathMatcher.matches("/"));
+        assertFalse(compiledPathMatcher.matches(null));
+        assertTrue(compiledPathMatcher.getPatterns().isEmpty());
+    }
+}